@@ -0,0 +1,114 @@
+package net.motionintelligence.client.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.json.DefaultTargetCoordinateMapDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialization of the coordinate maps of the travel options with Jackson. <code>treeDeserializer</code> is the
+ * previous implementation as baseline, which read the array into a tree and parsed every element again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateMapBenchmark {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Param({"10", "1000", "100000"})
+	private int targets;
+
+	private TravelOptions travelOptions;
+	private String json;
+
+	@Setup
+	public void setUp() throws IOException {
+		travelOptions = Payloads.travelOptions(10, targets);
+		json          = MAPPER.writeValueAsString(travelOptions);
+	}
+
+	@Benchmark
+	public String serializeTravelOptions() throws IOException {
+		return MAPPER.writeValueAsString(travelOptions);
+	}
+
+	@Benchmark
+	public TravelOptions deserializeTravelOptions() throws IOException {
+		return MAPPER.readValue(json, TravelOptions.class);
+	}
+
+	@Benchmark
+	public Map<String, Coordinate> streamingDeserializer() throws IOException {
+		return MAPPER.readValue(json, StreamingTargets.class).targets;
+	}
+
+	@Benchmark
+	public Map<String, Coordinate> treeDeserializer() throws IOException {
+		return MAPPER.readValue(json, TreeTargets.class).targets;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static final class StreamingTargets {
+
+		@JsonDeserialize(using = DefaultTargetCoordinateMapDeserializer.class)
+		public Map<String, Coordinate> targets;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static final class TreeTargets {
+
+		@JsonDeserialize(using = TreeDeserializer.class)
+		public Map<String, Coordinate> targets;
+	}
+
+	/**
+	 * Previous implementation of the coordinate map deserializers. As targets could not be created by Jackson, every
+	 * element is parsed as source coordinate, which is the same amount of work.
+	 */
+	public static final class TreeDeserializer extends JsonDeserializer<Map<String, Coordinate>> {
+
+		private final ObjectMapper mapper = new ObjectMapper()
+				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+		@Override
+		public Map<String, Coordinate> deserialize(JsonParser jsonParser, DeserializationContext context)
+				throws IOException {
+
+			JsonNode coordinatesArray = jsonParser.getCodec().readTree(jsonParser);
+
+			Map<String, Coordinate> coordinates = new HashMap<>();
+			for (JsonNode coordinateNode : coordinatesArray)
+				coordinates.put(coordinateNode.get("id").asText(),
+						mapper.readValue(coordinateNode.toString(), DefaultSourceCoordinate.class));
+			return coordinates;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.response.OverpassResponse;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of overpass results into point of interest coordinates, half nodes and half ways.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverpassResponseBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int elements;
+
+	private TravelOptions travelOptions;
+	private JSONObject result;
+
+	@Setup
+	public void setUp() throws JSONException {
+		travelOptions = Payloads.overpassOptions();
+		result        = new JSONObject(Payloads.overpassResult(elements));
+	}
+
+	/**
+	 * The constructor calls <code>parseResults</code>
+	 */
+	@Benchmark
+	public OverpassResponse parseResults() {
+		return new OverpassResponse(travelOptions, result, 0);
+	}
+}
@@ -0,0 +1,156 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.statistic.PoiType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Synthetic, reproducible payloads of configurable size
+ */
+final class Payloads {
+
+	private Payloads() {
+	}
+
+	/**
+	 * @param sources Number of sources
+	 * @param targets Number of targets
+	 * @return Travel options with random coordinates around Berlin
+	 */
+	static TravelOptions travelOptions(int sources, int targets) {
+
+		Random random = new Random(42);
+
+		TravelOptions options = new TravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
+		options.setTravelType(TravelType.CAR);
+		options.setMaxRoutingTime(3600);
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl("https://service.route360.net/germany/");
+
+		for (int i = 0; i < sources; i++)
+			options.addSource(new DefaultSourceCoordinate("src" + i, 13 + random.nextDouble(), 52 + random.nextDouble()));
+		for (int i = 0; i < targets; i++)
+			options.addTarget(new DefaultTargetCoordinate("trg" + i, 13 + random.nextDouble(), 52 + random.nextDouble()));
+
+		return options;
+	}
+
+	/**
+	 * @param sources Number of sources
+	 * @param targets Number of targets
+	 * @return Time response as sent by the service (without callback) for {@link #travelOptions(int, int)}
+	 */
+	static String timeResponse(int sources, int targets) {
+
+		Random random = new Random(42);
+
+		StringBuilder json = new StringBuilder("{\"code\":\"ok\",\"requestTime\":123,\"data\":[");
+		for (int src = 0; src < sources; src++) {
+			if (src > 0)
+				json.append(',');
+			json.append("{\"id\":\"src").append(src).append("\",\"targets\":[");
+			for (int trg = 0; trg < targets; trg++) {
+				if (trg > 0)
+					json.append(',');
+				int travelTime = random.nextInt(10) == 0 ? -1 : random.nextInt(3600);
+				json.append("{\"id\":\"trg").append(trg).append("\",\"travelTime\":").append(travelTime).append('}');
+			}
+			json.append("]}");
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * @param statistics Number of statistics
+	 * @param minutes Number of minutes per statistic
+	 * @return Statistics result with the number of reachable persons per statistic and minute
+	 */
+	static String statisticsResult(int statistics, int minutes) {
+
+		Random random = new Random(42);
+
+		StringBuilder json = new StringBuilder("{\"statistics\":{");
+		for (int statistic = 0; statistic < statistics; statistic++) {
+			if (statistic > 0)
+				json.append(',');
+			json.append('"').append(statistic).append("\":{");
+			for (int minute = 0; minute < minutes; minute++) {
+				if (minute > 0)
+					json.append(',');
+				json.append('"').append(minute).append("\":").append(random.nextDouble() * 100000);
+			}
+			json.append('}');
+		}
+		return json.append("}}").toString();
+	}
+
+	/**
+	 * @param elements Number of nodes and ways
+	 * @return Overpass result with amenities
+	 */
+	static String overpassResult(int elements) {
+
+		Random random = new Random(42);
+
+		StringBuilder json = new StringBuilder("{\"version\":0.6,\"elements\":[");
+		for (int i = 0; i < elements; i++) {
+			if (i > 0)
+				json.append(',');
+			double lat = 52 + random.nextDouble();
+			double lon = 13 + random.nextDouble();
+			if (i % 2 == 0)
+				json.append("{\"type\":\"node\",\"id\":").append(i)
+						.append(",\"lat\":").append(lat).append(",\"lon\":").append(lon);
+			else
+				json.append("{\"type\":\"way\",\"id\":").append(i)
+						.append(",\"center\":{\"lat\":").append(lat).append(",\"lon\":").append(lon).append('}');
+			json.append(",\"tags\":{\"amenity\":\"school\",\"name\":\"School ").append(i).append("\"}}");
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * @param points Number of points of the outer boundary of each polygon
+	 * @return Polygon response with one polygon per travel time of {@link #travelOptions(int, int)}, in web mercator
+	 * coordinates rounded to int like the JSON serializer of the service
+	 */
+	static String polygonResponse(int points) {
+
+		Random random = new Random(42);
+
+		StringBuilder json = new StringBuilder("{\"code\":\"ok\",\"requestTime\":123,\"data\":[{\"area\":1,\"polygons\":[");
+		int[] travelTimes = { 600, 1200, 1800 };
+		for (int p = 0; p < travelTimes.length; p++) {
+			if (p > 0)
+				json.append(',');
+			json.append("{\"travelTime\":").append(travelTimes[p]).append(",\"area\":1,\"outerBoundary\":[");
+			double radius = 1000 * (p + 1);
+			for (int i = 0; i < points; i++) {
+				if (i > 0)
+					json.append(',');
+				double angle = 2 * Math.PI * i / points;
+				double r     = radius * (0.8 + 0.4 * random.nextDouble());
+				json.append('[').append(1492000 + Math.round(r * Math.cos(angle)))
+						.append(',').append(6894000 + Math.round(r * Math.sin(angle))).append(']');
+			}
+			json.append("],\"innerBoundary\":[]}");
+		}
+		return json.append("]}]}").toString();
+	}
+
+	/**
+	 * @return Travel options for parsing {@link #overpassResult(int)}
+	 */
+	static TravelOptions overpassOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setOsmTypes(Collections.singleton(new PoiType("amenity", "school")));
+		return options;
+	}
+}
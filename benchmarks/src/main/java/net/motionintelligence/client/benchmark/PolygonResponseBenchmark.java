@@ -0,0 +1,83 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.response.PolygonResponse;
+import net.motionintelligence.client.api.response.polygon.BinaryIsochroneReader;
+import net.motionintelligence.client.api.response.polygon.BinaryIsochroneWriter;
+import net.motionintelligence.client.api.response.polygon.IsochroneSet;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of a polygon response with three polygons, from the JSON tree, streamed from JSON and from the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonResponseBenchmark {
+
+	@Param({"100", "10000", "1000000"})
+	private int points;
+
+	private TravelOptions travelOptions;
+	private String json;
+	private byte[] bytes;
+	private byte[] binary;
+
+	@Setup
+	public void setUp() throws IOException {
+		travelOptions = Payloads.travelOptions(1, 0);
+		json          = Payloads.polygonResponse(points);
+		bytes         = json.getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new BinaryIsochroneWriter(output, 0).write("ok", null, 123,
+				new PolygonResponse(travelOptions, new ByteArrayInputStream(bytes), 0).getIsochroneSets());
+		binary = output.toByteArray();
+	}
+
+	/**
+	 * String to JSON tree to polygons
+	 */
+	@Benchmark
+	public List<IsochroneSet> parseJsonTree() throws JSONException {
+		return new PolygonResponse(travelOptions, new JSONObject(json), "ok", 123, 0).getIsochroneSets();
+	}
+
+	/**
+	 * JSON bytes streamed to polygons
+	 */
+	@Benchmark
+	public List<IsochroneSet> streamJson() {
+		return new PolygonResponse(travelOptions, new ByteArrayInputStream(bytes), 0).getIsochroneSets();
+	}
+
+	/**
+	 * Binary format to polygons
+	 */
+	@Benchmark
+	public List<IsochroneSet> decodeBinary() throws IOException {
+		return new BinaryIsochroneReader(new ByteArrayInputStream(binary)).readIsochroneSets();
+	}
+}
@@ -0,0 +1,84 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.request.config.JacksonRequestConfigurator;
+import net.motionintelligence.client.api.request.config.RequestConfigurator;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the request configuration. The streaming configurator writes to a discarding stream,
+ * so only the cost of generating the bytes is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestConfiguratorBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int targets;
+
+	private TravelOptions travelOptions;
+
+	@Setup
+	public void setUp() {
+		travelOptions = Payloads.travelOptions(10, targets);
+	}
+
+	@Benchmark
+	public String requestConfigurator() throws Route360ClientException {
+		return RequestConfigurator.getConfig(travelOptions);
+	}
+
+	@Benchmark
+	public String jacksonRequestConfigurator() throws Route360ClientException {
+		return JacksonRequestConfigurator.getConfig(travelOptions);
+	}
+
+	@Benchmark
+	public void streamingRequestConfigurator(Blackhole blackhole) throws IOException {
+		StreamingRequestConfigurator.writeConfig(travelOptions, new BlackholeOutputStream(blackhole));
+	}
+
+	/**
+	 * Consumes all bytes without storing them
+	 */
+	private static final class BlackholeOutputStream extends OutputStream {
+
+		private final Blackhole blackhole;
+
+		BlackholeOutputStream(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void write(int b) {
+			blackhole.consume(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			blackhole.consume(b);
+			blackhole.consume(len);
+		}
+	}
+}
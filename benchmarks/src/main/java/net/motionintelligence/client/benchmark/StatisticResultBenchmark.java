@@ -0,0 +1,56 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.response.statistics.StatisticResult;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the reachable statistics, <code>entries</code> is the total number of (statistic, minute) values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticResultBenchmark {
+
+	private static final int STATISTICS = 10;
+
+	@Param({"10", "1000", "100000"})
+	private int entries;
+
+	private StatisticResult statisticResult;
+	private JSONObject result;
+
+	@Setup
+	public void setUp() throws JSONException {
+		int minutes = Math.max(1, entries / STATISTICS);
+
+		TravelOptions travelOptions = Payloads.travelOptions(1, 0);
+		travelOptions.setMaxRoutingTime(minutes);
+
+		statisticResult = new StatisticResult(travelOptions, new JSONObject());
+		result          = new JSONObject(Payloads.statisticsResult(Math.min(entries, STATISTICS), minutes));
+	}
+
+	@Benchmark
+	public Map<Integer, Map<Integer, Double>> parseReachableStatisticsResult() {
+		return statisticResult.parseReachableStatisticsResult(result);
+	}
+}
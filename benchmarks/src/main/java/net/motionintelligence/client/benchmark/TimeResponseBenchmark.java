@@ -0,0 +1,73 @@
+package net.motionintelligence.client.benchmark;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.response.TimeResponse;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a time response of one source to all targets, from the JSON tree and streamed from the raw bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeResponseBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int targets;
+
+	private TravelOptions travelOptions;
+	private String json;
+	private byte[] bytes;
+	private JSONObject result;
+
+	@Setup
+	public void setUp() throws JSONException {
+		travelOptions = Payloads.travelOptions(1, targets);
+		json          = Payloads.timeResponse(1, targets);
+		bytes         = json.getBytes(StandardCharsets.UTF_8);
+		result        = new JSONObject(json);
+	}
+
+	/**
+	 * Only <code>mapResults</code>, the JSON tree has already been created
+	 */
+	@Benchmark
+	public TimeResponse mapResults() {
+		return new TimeResponse(travelOptions, result, 0);
+	}
+
+	/**
+	 * String to JSON tree to travel times
+	 */
+	@Benchmark
+	public TimeResponse parseAndMapResults() throws JSONException {
+		return new TimeResponse(travelOptions, new JSONObject(json), 0);
+	}
+
+	/**
+	 * Bytes streamed to travel times
+	 */
+	@Benchmark
+	public TimeResponse streamResults() {
+		return new TimeResponse(travelOptions, new ByteArrayInputStream(bytes), 0);
+	}
+}
@@ -20,6 +20,7 @@ public class Constants {
 	public static final String ENABLE_ELEVATION 										= "elevation";
 	public static final String JSON_POLYGON_SERIALIZER 									= "json";
 	public static final String GEO_JSON_POLYGON_SERIALIZER 								= "geojson";
+	public static final String BINARY_POLYGON_SERIALIZER 								= "binary";
 	public static final String TRAVEL_TYPE_WALK 										= "walk";
 	public static final String TRAVEL_TYPE_BIKE 										= "bike";
 	public static final String TRAVEL_TYPE_CAR 											= "car";
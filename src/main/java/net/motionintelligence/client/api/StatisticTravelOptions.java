@@ -36,6 +36,41 @@ public class StatisticTravelOptions extends TravelOptions {
     @Transient
     private List<Integer> cellIds = new ArrayList<>();
 
+    public StatisticTravelOptions() {
+    }
+
+    /**
+     * Create a deep copy of the options, see {@link #copy()}
+     * @param other options to be copied
+     */
+    public StatisticTravelOptions(StatisticTravelOptions other) {
+        this(other, true);
+    }
+
+    /**
+     * @param other options to be copied
+     * @param withCoordinates false to start with empty source, inactive source and target maps
+     * @see TravelOptions#TravelOptions(TravelOptions, boolean)
+     */
+    protected StatisticTravelOptions(StatisticTravelOptions other, boolean withCoordinates) {
+        super(other, withCoordinates);
+        this.inactiveSources   = withCoordinates ? copyMap(other.inactiveSources) : new LinkedHashMap<>();
+        this.useCache          = other.useCache;
+        this.iFeelLucky        = other.iFeelLucky;
+        this.getClosestSources = other.getClosestSources;
+        this.cellIds           = other.cellIds == null ? null : new ArrayList<>(other.cellIds);
+    }
+
+    @Override
+    public StatisticTravelOptions copy() {
+        return new StatisticTravelOptions(this, true);
+    }
+
+    @Override
+    public StatisticTravelOptions copyWithoutCoordinates() {
+        return new StatisticTravelOptions(this, false);
+    }
+
     public Map<String,Coordinate> getInactiveSources() {
         return this.inactiveSources;
     }
@@ -47,7 +47,7 @@ public class TravelOptions implements Serializable {
     private Map<String,Coordinate> sources		        = new HashMap<>();
 
     @JsonDeserialize(contentAs=DefaultTargetCoordinate.class, using=DefaultTargetCoordinateMapDeserializer.class)
-	@JsonSerialize(contentAs=DefaultSourceCoordinate.class, using=DefaultTargetCoordinateMapSerializer.class)
+	@JsonSerialize(contentAs=DefaultTargetCoordinate.class, using=DefaultTargetCoordinateMapSerializer.class)
 	@Transient
 	private Map<String,Coordinate> targets 	            = new HashMap<>();
 
@@ -136,6 +136,99 @@ public class TravelOptions implements Serializable {
 	@Transient
 	private Set<PoiType> customPois = new HashSet<>();
 
+	public TravelOptions() {
+	}
+
+	/**
+	 * Create a deep copy of the options, see {@link #copy()}
+	 * @param other options to be copied
+	 */
+	public TravelOptions(TravelOptions other) {
+		this(other, true);
+	}
+
+	/**
+	 * Copy all settings of the other options without a JSON round trip. All collections are copied, their elements,
+	 * e.g. the coordinates, are shared with the other options and must not be modified. The other options are not
+	 * changed.
+	 * @param other options to be copied
+	 * @param withCoordinates false to start with empty source and target maps instead of copies of the other ones
+	 */
+	protected TravelOptions(TravelOptions other, boolean withCoordinates) {
+
+		this.id                        = other.id;
+		this.sources                   = withCoordinates ? copyMap(other.sources) : new LinkedHashMap<>();
+		this.targets                   = withCoordinates ? copyMap(other.targets) : new LinkedHashMap<>();
+		this.bikeSpeed                 = other.bikeSpeed;
+		this.bikeUphill                = other.bikeUphill;
+		this.bikeDownhill              = other.bikeDownhill;
+		this.walkSpeed                 = other.walkSpeed;
+		this.walkUphill                = other.walkUphill;
+		this.walkDownhill              = other.walkDownhill;
+		this.rushHour                  = other.rushHour;
+		this.travelTimes               = other.travelTimes == null ? null : new ArrayList<>(other.travelTimes);
+		this.travelType                = other.travelType;
+		this.elevationEnabled          = other.elevationEnabled;
+		this.appendTravelTimes         = other.appendTravelTimes;
+		this.pointReduction            = other.pointReduction;
+		this.reverse                   = other.reverse;
+		this.minPolygonHoleSize        = other.minPolygonHoleSize;
+		this.time                      = other.time;
+		this.date                      = other.date;
+		this.frame                     = other.frame;
+		this.recommendations           = other.recommendations;
+		this.srid                      = other.srid;
+		this.maxTransfers              = other.maxTransfers;
+		this.buffer                    = other.buffer;
+		this.simplify                  = other.simplify;
+		this.intersectionMode          = other.intersectionMode;
+		this.pathSerializer            = other.pathSerializer;
+		this.polygonSerializerType     = other.polygonSerializerType;
+		this.maxEdgeWeight             = other.maxEdgeWeight;
+		this.serviceUrl                = other.serviceUrl;
+		this.fallbackServiceUrl        = other.fallbackServiceUrl;
+		this.serviceKey                = other.serviceKey;
+		this.onlyPrintReachablePoints  = other.onlyPrintReachablePoints;
+		this.edgeWeightType            = other.edgeWeightType;
+		this.statisticIds              = other.statisticIds == null ? null : new ArrayList<>(other.statisticIds);
+		this.statisticGroupId          = other.statisticGroupId;
+		this.statisticServiceUrl       = other.statisticServiceUrl;
+		this.pointOfInterestServiceUrl = other.pointOfInterestServiceUrl;
+		this.overpassQuery             = other.overpassQuery;
+		this.overpassServiceUrl        = other.overpassServiceUrl;
+		this.interServiceKey           = other.interServiceKey;
+		this.format                    = other.format;
+		this.boundingBox               = other.boundingBox;
+		this.travelTypes               = other.travelTypes == null ? null : new LinkedHashSet<>(other.travelTypes);
+		this.osmTypes                  = other.osmTypes == null ? null : new LinkedHashSet<>(other.osmTypes);
+		this.customPois                = other.customPois == null ? null : new LinkedHashSet<>(other.customPois);
+	}
+
+	/**
+	 * Copy the options without a JSON round trip, e.g. to modify them per request. All collections are copied,
+	 * their elements, e.g. the coordinates, are shared and must not be modified.
+	 * @return a copy of the same class as these options
+	 */
+	public TravelOptions copy() {
+		return new TravelOptions(this, true);
+	}
+
+	/**
+	 * Copy the options like {@link #copy()}, but with empty source and target maps, e.g. for requests which replace
+	 * the coordinates anyway, so that they are not copied at all.
+	 * @return a copy of the same class as these options without coordinates
+	 */
+	public TravelOptions copyWithoutCoordinates() {
+		return new TravelOptions(this, false);
+	}
+
+	/**
+	 * @return copy of the map in the same iteration order
+	 */
+	static <K, V> Map<K, V> copyMap(Map<K, V> map) {
+		return map == null ? null : new LinkedHashMap<>(map);
+	}
+
 	public Format getFormat() {
 		return format;
 	}
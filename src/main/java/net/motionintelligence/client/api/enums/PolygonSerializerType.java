@@ -14,7 +14,11 @@ import net.motionintelligence.client.api.exception.Route360ClientRuntimeExceptio
 public enum PolygonSerializerType {
 	
 	JSON_POLYGON_SERIALIZER, 
-	GEO_JSON_POLYGON_SERIALIZER;
+	GEO_JSON_POLYGON_SERIALIZER,
+	/**
+	 * Delta and zigzag varint encoded rings, see {@link net.motionintelligence.client.api.response.polygon.BinaryIsochroneReader}
+	 */
+	BINARY_POLYGON_SERIALIZER;
 	
 	public static PolygonSerializerType getPolygonSerializer(String key) throws Route360ClientException {
 		
@@ -26,6 +30,9 @@ public enum PolygonSerializerType {
 			case Constants.GEO_JSON_POLYGON_SERIALIZER:
 				return PolygonSerializerType.GEO_JSON_POLYGON_SERIALIZER;
 				
+			case Constants.BINARY_POLYGON_SERIALIZER:
+				return PolygonSerializerType.BINARY_POLYGON_SERIALIZER;
+				
 			default: throw new Route360ClientException(String.format("No polygon serializer available for key '%s'.", key));
 		}
 	}
@@ -40,6 +47,9 @@ public enum PolygonSerializerType {
 			case GEO_JSON_POLYGON_SERIALIZER:
 				return Constants.GEO_JSON_POLYGON_SERIALIZER;
 				
+			case BINARY_POLYGON_SERIALIZER:
+				return Constants.BINARY_POLYGON_SERIALIZER;
+				
 			default: throw new Route360ClientRuntimeException(String.format("No polygon serializer name available for key '%s'.", this));
 		}
 	}
@@ -0,0 +1,163 @@
+package net.motionintelligence.client.api.geo.transform;
+
+import org.geotools.referencing.CRS;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Thread-safe cache of GeoTools {@link MathTransform}s per pair of SRIDs. Looking up a coordinate reference system in
+ * the EPSG database and finding the transform between two systems takes milliseconds up to seconds for the first
+ * lookup, the transforms themselves are immutable and can be shared.
+ *
+ * <p>
+ * All coordinate reference systems are decoded with longitude/x first, i.e. in the axis order of GeoJSON and of the
+ * service responses, see {@link net.motionintelligence.client.api.TravelOptions#setSrid(Integer)}.
+ * </p>
+ * <p>
+ * Decoding EPSG codes requires an EPSG authority factory on the classpath, e.g. <code>org.geotools:gt-epsg-hsql</code>.
+ * Without one, all SRIDs are reported as unknown, except for transformations between WGS84 and web mercator by
+ * {@link #transform(int, int, double[])}.
+ * </p>
+ *
+ * <pre>
+ * MathTransform transformer = MathTransformRegistry.getDefault().get(3857, 4326);
+ * List&lt;Feature&gt; features = GeojsonUtil.transformGeometry(transformer, featureCollection.getFeatures());
+ * </pre>
+ */
+public final class MathTransformRegistry {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MathTransformRegistry.class);
+
+	/**
+	 * SRIDs whose transforms are created when the default registry is initialized: WGS84, web mercator and
+	 * ETRS89 / UTM zones 32N and 33N
+	 */
+	public static final int[] DEFAULT_SRIDS = { 4326, 3857, 25832, 25833 };
+
+	private final ConcurrentMap<Integer, CoordinateReferenceSystem> systems = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, MathTransform> transforms             = new ConcurrentHashMap<>();
+
+	/**
+	 * The shared registry, which starts to create the transforms between the {@link #DEFAULT_SRIDS} in the background
+	 * on first use.
+	 * @return shared default registry
+	 */
+	public static MathTransformRegistry getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * @param sourceSrid SRID of the coordinates, e.g. 3857
+	 * @param targetSrid SRID to transform to, e.g. 4326
+	 * @return the cached transform, created on first access
+	 * @throws FactoryException if one of the SRIDs is unknown or there is no transform between them
+	 */
+	public MathTransform get(int sourceSrid, int targetSrid) throws FactoryException {
+
+		Long key = key(sourceSrid, targetSrid);
+		MathTransform transform = transforms.get(key);
+		if (transform != null)
+			return transform;
+
+		// concurrent lookups of the same pair may both create the transform, the first one is kept
+		transform = CRS.findMathTransform(getCoordinateReferenceSystem(sourceSrid), getCoordinateReferenceSystem(targetSrid));
+		MathTransform previous = transforms.putIfAbsent(key, transform);
+		return previous != null ? previous : transform;
+	}
+
+	/**
+	 * @param srid SRID of the system, e.g. 25833
+	 * @return the cached coordinate reference system with longitude/x first, decoded on first access
+	 * @throws FactoryException if the SRID is unknown
+	 */
+	public CoordinateReferenceSystem getCoordinateReferenceSystem(int srid) throws FactoryException {
+
+		CoordinateReferenceSystem system = systems.get(srid);
+		if (system != null)
+			return system;
+
+		system = CRS.decode("EPSG:" + srid, true);
+		CoordinateReferenceSystem previous = systems.putIfAbsent(srid, system);
+		return previous != null ? previous : system;
+	}
+
+	/**
+	 * Transform coordinates in place, without creating JTS geometries. Transformations between WGS84 and web mercator
+	 * are calculated directly by {@link WebMercator}, all others by the cached transform.
+	 * @param sourceSrid SRID of the coordinates
+	 * @param targetSrid SRID to transform to
+	 * @param coordinates interleaved coordinates, x/longitude first
+	 * @throws FactoryException if there is no transform between the SRIDs
+	 * @throws TransformException if a coordinate could not be transformed
+	 */
+	public void transform(int sourceSrid, int targetSrid, double[] coordinates) throws FactoryException, TransformException {
+
+		if (sourceSrid == targetSrid)
+			return;
+
+		if (WebMercator.supports(sourceSrid, targetSrid))
+			WebMercator.transform(sourceSrid, targetSrid, coordinates);
+		else
+			get(sourceSrid, targetSrid).transform(coordinates, 0, coordinates, 0, coordinates.length / 2);
+	}
+
+	/**
+	 * Create the transforms between all given SRIDs, in both directions
+	 * @param srids SRIDs of the coordinate reference systems
+	 * @throws FactoryException if one of the SRIDs is unknown or there is no transform between two of them
+	 */
+	public void warmUp(int... srids) throws FactoryException {
+		for (int source : srids)
+			for (int target : srids)
+				if (source != target)
+					get(source, target);
+	}
+
+	/**
+	 * Create the transforms between all given SRIDs in the background
+	 * @param srids SRIDs of the coordinate reference systems
+	 * @return future completed when all transforms have been created
+	 */
+	public CompletableFuture<Void> warmUpAsync(int... srids) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				long start = System.currentTimeMillis();
+				warmUp(srids);
+				LOGGER.debug("Created transforms between {} coordinate reference systems in {}ms",
+						srids.length, System.currentTimeMillis() - start);
+			}
+			catch (FactoryException e) {
+				LOGGER.warn("Could not create transforms: {}", e.getMessage());
+				throw new IllegalStateException(e);
+			}
+		}, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @return number of cached transforms
+	 */
+	public int size() {
+		return transforms.size();
+	}
+
+	private static Long key(int sourceSrid, int targetSrid) {
+		return ((long) sourceSrid << 32) | (targetSrid & 0xFFFFFFFFL);
+	}
+
+	private static final class DefaultHolder {
+		private static final MathTransformRegistry INSTANCE = new MathTransformRegistry();
+
+		static {
+			INSTANCE.warmUpAsync(DEFAULT_SRIDS);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package net.motionintelligence.client.api.geo.transform;
+
+/**
+ * Direct conversion between WGS84 (EPSG:4326) and web mercator (EPSG:3857) on coordinate arrays, without GeoTools
+ * and without creating JTS geometries. Coordinates are interleaved in GeoJSON order, i.e. longitude/x first:
+ * <code>[lng0, lat0, lng1, lat1, ...]</code>. The results agree with GeoTools within a few nanometers.
+ */
+public final class WebMercator {
+
+	public static final int WGS84_SRID        = 4326;
+	public static final int WEB_MERCATOR_SRID = 3857;
+
+	/**
+	 * Semi-major axis of the WGS84 ellipsoid, used as radius of the sphere by web mercator
+	 */
+	public static final double EARTH_RADIUS = 6378137.0;
+
+	/**
+	 * Latitudes beyond are clamped, the projection of the poles is infinite
+	 */
+	public static final double MAX_LATITUDE = 85.0511287798066;
+
+	private static final double DEGREES_TO_RADIANS = Math.PI / 180;
+	private static final double RADIANS_TO_DEGREES = 180 / Math.PI;
+
+	private WebMercator() {
+	}
+
+	/**
+	 * @param sourceSrid SRID of the coordinates
+	 * @param targetSrid SRID to transform to
+	 * @return true if the transformation is supported by this class
+	 */
+	public static boolean supports(int sourceSrid, int targetSrid) {
+		return (sourceSrid == WGS84_SRID && targetSrid == WEB_MERCATOR_SRID)
+				|| (sourceSrid == WEB_MERCATOR_SRID && targetSrid == WGS84_SRID);
+	}
+
+	/**
+	 * Project WGS84 coordinates to web mercator. Source and target array may be the same.
+	 * @param src interleaved longitudes and latitudes in degrees
+	 * @param srcOff index of the first longitude in the source array
+	 * @param dst array for the interleaved x and y values in meters
+	 * @param dstOff index of the first x value in the target array
+	 * @param numPts number of points to transform
+	 */
+	public static void fromWgs84(double[] src, int srcOff, double[] dst, int dstOff, int numPts) {
+		for (int i = 0; i < 2 * numPts; i += 2) {
+			double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, src[srcOff + i + 1]));
+			dst[dstOff + i]     = src[srcOff + i] * DEGREES_TO_RADIANS * EARTH_RADIUS;
+			dst[dstOff + i + 1] = Math.log(Math.tan(Math.PI / 4 + lat * DEGREES_TO_RADIANS / 2)) * EARTH_RADIUS;
+		}
+	}
+
+	/**
+	 * Unproject web mercator coordinates to WGS84. Source and target array may be the same.
+	 * @param src interleaved x and y values in meters
+	 * @param srcOff index of the first x value in the source array
+	 * @param dst array for the interleaved longitudes and latitudes in degrees
+	 * @param dstOff index of the first longitude in the target array
+	 * @param numPts number of points to transform
+	 */
+	public static void toWgs84(double[] src, int srcOff, double[] dst, int dstOff, int numPts) {
+		for (int i = 0; i < 2 * numPts; i += 2) {
+			double y = src[srcOff + i + 1];
+			dst[dstOff + i]     = src[srcOff + i] / EARTH_RADIUS * RADIANS_TO_DEGREES;
+			dst[dstOff + i + 1] = (2 * Math.atan(Math.exp(y / EARTH_RADIUS)) - Math.PI / 2) * RADIANS_TO_DEGREES;
+		}
+	}
+
+	/**
+	 * Transform between WGS84 and web mercator in place
+	 * @param sourceSrid SRID of the coordinates, 4326 or 3857
+	 * @param targetSrid SRID to transform to, 4326 or 3857
+	 * @param coordinates interleaved coordinates
+	 * @throws IllegalArgumentException if the transformation is not supported, see {@link #supports(int, int)}
+	 */
+	public static void transform(int sourceSrid, int targetSrid, double[] coordinates) {
+		if (sourceSrid == WGS84_SRID && targetSrid == WEB_MERCATOR_SRID)
+			fromWgs84(coordinates, 0, coordinates, 0, coordinates.length / 2);
+		else if (sourceSrid == WEB_MERCATOR_SRID && targetSrid == WGS84_SRID)
+			toWgs84(coordinates, 0, coordinates, 0, coordinates.length / 2);
+		else
+			throw new IllegalArgumentException("Unsupported transformation from EPSG:" + sourceSrid + " to EPSG:" + targetSrid);
+	}
+}
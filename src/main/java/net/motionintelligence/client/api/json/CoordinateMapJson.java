@@ -0,0 +1,91 @@
+package net.motionintelligence.client.api.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token based reading and writing of coordinate maps as JSON arrays of
+ * <code>{"id":"...","tm":"...","y":...,"x":...}</code> objects, shared by the coordinate map (de)serializers.
+ * Coordinates are created directly from the parser tokens, without an intermediate tree.
+ */
+final class CoordinateMapJson {
+
+    private CoordinateMapJson() {
+    }
+
+    /**
+     * @param coordinates coordinates by id
+     * @param writeTravelType true if the travel type of the coordinates should be written (only for sources)
+     * @param generator generator to write to
+     * @throws IOException if the coordinates could not be written
+     */
+    static void write(Map<String, ? extends Coordinate> coordinates, boolean writeTravelType, JsonGenerator generator)
+            throws IOException {
+
+        generator.writeStartArray();
+        for (Map.Entry<String, ? extends Coordinate> entry : coordinates.entrySet()) {
+
+            Coordinate coordinate = entry.getValue();
+            generator.writeStartObject();
+            generator.writeStringField("id", entry.getKey());
+            if (writeTravelType && coordinate.getTravelType() != null)
+                generator.writeStringField("tm", coordinate.getTravelType().toString());
+            generator.writeNumberField("y", coordinate.getY());
+            generator.writeNumberField("x", coordinate.getX());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * @param parser parser positioned at the start of the array
+     * @param context context for reporting unexpected tokens
+     * @param sources true to create {@link DefaultSourceCoordinate}s, false for {@link DefaultTargetCoordinate}s
+     * @return coordinates by id
+     * @throws IOException if the coordinates could not be read
+     */
+    static Map<String, Coordinate> read(JsonParser parser, DeserializationContext context, boolean sources)
+            throws IOException {
+
+        if (!parser.isExpectedStartArrayToken())
+            throw context.wrongTokenException(parser, Map.class, JsonToken.START_ARRAY, "Expected array of coordinates");
+
+        Map<String, Coordinate> coordinates = new HashMap<>();
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+
+            if (token != JsonToken.START_OBJECT)
+                throw context.wrongTokenException(parser, Coordinate.class, JsonToken.START_OBJECT, "Expected coordinate");
+
+            String id             = null;
+            double x              = 0;
+            double y              = 0;
+            TravelType travelType = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id":         id = parser.getValueAsString(); break;
+                    case "x":          x = parser.getValueAsDouble(); break;
+                    case "y":          y = parser.getValueAsDouble(); break;
+                    case "tm":
+                    case "travelType": travelType = TravelType.fromString(parser.getValueAsString()); break;
+                    default:           parser.skipChildren();
+                }
+            }
+
+            coordinates.put(id, sources ? new DefaultSourceCoordinate(id, x, y, travelType) : new DefaultTargetCoordinate(id, x, y));
+        }
+        return coordinates;
+    }
+}
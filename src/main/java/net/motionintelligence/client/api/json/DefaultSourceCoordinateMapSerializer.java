@@ -1,33 +1,24 @@
 package net.motionintelligence.client.api.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.Coordinate;
 
 import java.io.IOException;
 import java.util.Map;
 
 /**
  * Created by gerb on 01/03/2017.
+ *
+ * Writes a map of source coordinates as array of coordinates with id, travel type, y and x.
  */
-public class DefaultSourceCoordinateMapSerializer extends JsonSerializer {
-    @Override
-    public void serialize(Object o, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException, JsonProcessingException {
-
-        jsonGenerator.writeStartArray(); // [
+public class DefaultSourceCoordinateMapSerializer extends JsonSerializer<Map<String, ? extends Coordinate>> {
 
-        for ( Map.Entry<String, DefaultSourceCoordinate> entry : ((Map<String, DefaultSourceCoordinate>) o).entrySet())  {
-
-            jsonGenerator.writeStartObject(); // {
-            jsonGenerator.writeStringField("id", entry.getKey());
-            if ( entry.getValue().getTravelType() != null ) jsonGenerator.writeStringField("tm", entry.getValue().getTravelType().toString());
-            jsonGenerator.writeNumberField("y", entry.getValue().getY());
-            jsonGenerator.writeNumberField("x", entry.getValue().getX());
-            jsonGenerator.writeEndObject(); // {
-        }
+    @Override
+    public void serialize(Map<String, ? extends Coordinate> coordinates, JsonGenerator jsonGenerator,
+                          SerializerProvider serializerProvider) throws IOException {
 
-        jsonGenerator.writeEndArray(); // ]
+        CoordinateMapJson.write(coordinates, true, jsonGenerator);
     }
 }
@@ -1,34 +1,24 @@
 package net.motionintelligence.client.api.json;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
-import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.geo.Coordinate;
 
 import java.io.IOException;
 import java.util.Map;
 
 /**
  * Created by gerb on 01/03/2017.
+ *
+ * Writes a map of target coordinates of any type as array of coordinates with id, y and x.
  */
-public class DefaultTargetCoordinateMapSerializer extends JsonSerializer {
+public class DefaultTargetCoordinateMapSerializer extends JsonSerializer<Map<String, ? extends Coordinate>> {
 
     @Override
-    public void serialize(Object o, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException, JsonProcessingException {
+    public void serialize(Map<String, ? extends Coordinate> coordinates, JsonGenerator jsonGenerator,
+                          SerializerProvider serializerProvider) throws IOException {
 
-        jsonGenerator.writeStartArray(); // [
-
-        for ( Map.Entry<String, DefaultTargetCoordinate> entry : ((Map<String, DefaultTargetCoordinate>) o).entrySet())  {
-
-            jsonGenerator.writeStartObject(); // {
-            jsonGenerator.writeStringField("id", entry.getKey());
-            jsonGenerator.writeNumberField("y", entry.getValue().getY());
-            jsonGenerator.writeNumberField("x", entry.getValue().getX());
-            jsonGenerator.writeEndObject(); // {
-        }
-
-        jsonGenerator.writeEndArray(); // ]
+        CoordinateMapJson.write(coordinates, false, jsonGenerator);
     }
 }
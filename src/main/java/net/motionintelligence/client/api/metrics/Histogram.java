@@ -0,0 +1,93 @@
+package net.motionintelligence.client.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values with power of two buckets, e.g. durations in nanoseconds or sizes in
+ * bytes. Percentiles are approximated by the upper bound of their bucket, i.e. within a factor of two.
+ */
+public final class Histogram {
+
+	private static final int BUCKETS = 65;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count         = new LongAdder();
+	private final LongAdder total         = new LongAdder();
+	private final LongAccumulator max     = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param value value to be recorded, negative values are recorded as 0
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		buckets.incrementAndGet(bucket(v));
+		count.increment();
+		total.add(v);
+		max.accumulate(v);
+	}
+
+	/**
+	 * @param value recorded value
+	 * @return index of the bucket [2^(i-1), 2^i), 0 for value 0
+	 */
+	private static int bucket(long value) {
+		return 64 - Long.numberOfLeadingZeros(value);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotal() {
+		return total.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return mean of the recorded values, 0 if nothing has been recorded
+	 */
+	public double getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : (double) getTotal() / n;
+	}
+
+	/**
+	 * @param percentile percentile in [0, 1], e.g. 0.99
+	 * @return upper bound of the bucket containing the percentile, at most the maximum. 0 if nothing has been recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 1)
+			throw new IllegalArgumentException("percentile has to be in [0, 1], but was " + percentile);
+
+		long n = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			n += snapshot[i];
+		}
+		if (n == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				long upperBound = i == 0 ? 0 : i == 64 ? Long.MAX_VALUE : (1L << i) - 1;
+				return Math.min(upperBound, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%s, mean=%.1f, p50=%s, p99=%s, max=%s",
+				getCount(), getMean(), getPercentile(0.5), getPercentile(0.99), getMax());
+	}
+}
@@ -0,0 +1,115 @@
+package net.motionintelligence.client.api.metrics;
+
+/**
+ * Instrumentation SPI of the client. A listener is configured with
+ * {@link net.motionintelligence.client.api.request.Route360Client.Builder#metrics(Route360Metrics)} and notified for
+ * each exchange of the client. All durations are measured with {@link System#nanoTime()}.
+ *
+ * <p>
+ * The endpoint is the name of the service, e.g. "time", "polygon" or "reachability". The callbacks map directly to
+ * Micrometer meters, e.g. {@link #requestCompleted(String, int, long)} to a timer with the tags endpoint and status
+ * and {@link #requestSerialized(String, long, long)} to a timer and a distribution summary with base unit bytes.
+ * {@link SimpleRoute360Metrics} is a dependency free implementation keeping histograms in memory.
+ * </p>
+ * <p>
+ * Implementations have to be thread-safe and must not block, callbacks are invoked on the I/O and executor threads
+ * of the client. All methods do nothing by default.
+ * </p>
+ */
+public interface Route360Metrics {
+
+	/**
+	 * Name of the request property which holds the endpoint of an exchange
+	 */
+	String ENDPOINT_PROPERTY = "net.motionintelligence.client.endpoint";
+
+	/**
+	 * Listener which ignores all events
+	 */
+	Route360Metrics NOOP = new Route360Metrics() {
+	};
+
+	/**
+	 * The request body has been written
+	 * @param endpoint Name of the endpoint
+	 * @param bytes Size of the request body
+	 * @param nanos Time to serialize and write the body
+	 */
+	default void requestSerialized(String endpoint, long bytes, long nanos) {
+	}
+
+	/**
+	 * The status line and headers of the response have been received
+	 * @param endpoint Name of the endpoint
+	 * @param status HTTP status code
+	 * @param nanos Latency from sending the request until the response has been received
+	 */
+	default void requestCompleted(String endpoint, int status, long nanos) {
+	}
+
+	/**
+	 * No response has been received, e.g. the connection could not be established
+	 * @param endpoint Name of the endpoint
+	 * @param error Cause of the failure
+	 * @param nanos Time until the request failed
+	 */
+	default void requestFailed(String endpoint, Throwable error, long nanos) {
+	}
+
+	/**
+	 * The response body has been consumed
+	 * @param endpoint Name of the endpoint
+	 * @param bytes Size of the response body as received, i.e. compressed if the response was compressed
+	 */
+	default void responseRead(String endpoint, long bytes) {
+	}
+
+	/**
+	 * The request body has been compressed, see {@link net.motionintelligence.client.api.request.CompressionPolicy}
+	 * @param endpoint Name of the endpoint
+	 * @param bytes Size of the request body before compression
+	 * @param compressedBytes Size of the request body as sent
+	 */
+	default void requestCompressed(String endpoint, long bytes, long compressedBytes) {
+	}
+
+	/**
+	 * A compressed response body has been consumed
+	 * @param endpoint Name of the endpoint
+	 * @param compressedBytes Size of the response body as received
+	 * @param bytes Size of the response body after decompression
+	 */
+	default void responseDecompressed(String endpoint, long compressedBytes, long bytes) {
+	}
+
+	/**
+	 * The response has been validated and parsed
+	 * @param endpoint Name of the endpoint
+	 * @param nanos Time to read and parse the response body
+	 * @param successful false if the response was rejected, e.g. with a Route360ClientException
+	 */
+	default void responseParsed(String endpoint, long nanos, boolean successful) {
+	}
+
+	/**
+	 * The request has been retried against the fallback service
+	 * @param endpoint Name of the endpoint
+	 */
+	default void fallbackUsed(String endpoint) {
+	}
+
+	/**
+	 * The primary service has not answered within the hedging delay and the request has been sent to the fallback
+	 * service as well
+	 * @param endpoint Name of the endpoint
+	 */
+	default void hedgeSent(String endpoint) {
+	}
+
+	/**
+	 * The response of a hedged request has been received before the response of the primary service
+	 * @param endpoint Name of the endpoint
+	 */
+	default void hedgeWon(String endpoint) {
+	}
+}
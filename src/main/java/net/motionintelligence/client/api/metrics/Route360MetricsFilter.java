@@ -0,0 +1,144 @@
+package net.motionintelligence.client.api.metrics;
+
+import com.google.common.io.CountingOutputStream;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * JAX-RS provider reporting the request and response sizes and the serialization time to a {@link Route360Metrics}.
+ * It is registered automatically by {@link net.motionintelligence.client.api.request.Route360Client.Builder#metrics(Route360Metrics)},
+ * but can also be registered with any other JAX-RS client.
+ */
+public class Route360MetricsFilter implements ClientRequestFilter, ClientResponseFilter, WriterInterceptor {
+
+	private final Route360Metrics metrics;
+
+	public Route360MetricsFilter(Route360Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @param uri URI of the request
+	 * @return the last path segment of the URI, e.g. "time" for ".../v1/time"
+	 */
+	public static String getEndpoint(URI uri) {
+		String path = uri == null || uri.getPath() == null ? "" : uri.getPath();
+		int end = path.length();
+		while (end > 0 && path.charAt(end - 1) == '/')
+			end--;
+		return path.substring(path.lastIndexOf('/', end - 1) + 1, end);
+	}
+
+	private static String getEndpoint(ClientRequestContext requestContext) {
+		Object endpoint = requestContext.getProperty(Route360Metrics.ENDPOINT_PROPERTY);
+		return endpoint != null ? endpoint.toString() : getEndpoint(requestContext.getUri());
+	}
+
+	@Override
+	public void filter(ClientRequestContext requestContext) {
+		// make the endpoint available to the writer interceptor, which has no access to the URI
+		if (requestContext.getProperty(Route360Metrics.ENDPOINT_PROPERTY) == null)
+			requestContext.setProperty(Route360Metrics.ENDPOINT_PROPERTY, getEndpoint(requestContext.getUri()));
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+
+		CountingOutputStream output = new CountingOutputStream(context.getOutputStream());
+		context.setOutputStream(output);
+
+		long start = System.nanoTime();
+		context.proceed();
+		long nanos = System.nanoTime() - start;
+
+		Object endpoint = context.getProperty(Route360Metrics.ENDPOINT_PROPERTY);
+		metrics.requestSerialized(endpoint != null ? endpoint.toString() : "", output.getCount(), nanos);
+	}
+
+	@Override
+	public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+		if (responseContext.hasEntity()) {
+			String endpoint = getEndpoint(requestContext);
+			responseContext.setEntityStream(new CountingInputStream(responseContext.getEntityStream(),
+					bytes -> metrics.responseRead(endpoint, bytes)));
+		}
+	}
+
+	@FunctionalInterface
+	private interface ByteCountListener {
+		void onComplete(long bytes);
+	}
+
+	/**
+	 * Counts the bytes read and reports them once, at the end of the stream or when it is closed
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private final ByteCountListener listener;
+		private long count = 0;
+		private boolean reported = false;
+
+		CountingInputStream(InputStream in, ByteCountListener listener) {
+			super(in);
+			this.listener = listener;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0)
+				count++;
+			else
+				report();
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0)
+				count += n;
+			else if (n < 0)
+				report();
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				report();
+			}
+		}
+
+		private void report() {
+			if (!reported) {
+				reported = true;
+				listener.onComplete(count);
+			}
+		}
+	}
+}
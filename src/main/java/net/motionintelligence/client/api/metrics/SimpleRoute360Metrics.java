@@ -0,0 +1,232 @@
+package net.motionintelligence.client.api.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link Route360Metrics} with a set of histograms and counters per endpoint.
+ *
+ * <pre>
+ * SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+ * Route360Client client = Route360Client.newBuilder().metrics(metrics).build();
+ * ...
+ * long p99 = metrics.getEndpoint("time").getLatency().getPercentile(0.99);
+ * </pre>
+ */
+public class SimpleRoute360Metrics implements Route360Metrics {
+
+	private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	/**
+	 * @param endpoint Name of the endpoint, e.g. "time"
+	 * @return metrics of the endpoint, created on first access
+	 */
+	public EndpointMetrics getEndpoint(String endpoint) {
+		return endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+	}
+
+	/**
+	 * @return metrics of all endpoints which have been used so far, sorted by name
+	 */
+	public Map<String, EndpointMetrics> getEndpoints() {
+		return Collections.unmodifiableMap(new TreeMap<>(endpoints));
+	}
+
+	@Override
+	public void requestSerialized(String endpoint, long bytes, long nanos) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.requestBytes.record(bytes);
+		metrics.serialization.record(nanos);
+	}
+
+	@Override
+	public void requestCompleted(String endpoint, int status, long nanos) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.latency.record(nanos);
+		metrics.statusCodes.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void requestFailed(String endpoint, Throwable error, long nanos) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.latency.record(nanos);
+		metrics.failures.increment();
+	}
+
+	@Override
+	public void responseRead(String endpoint, long bytes) {
+		getEndpoint(endpoint).responseBytes.record(bytes);
+	}
+
+	@Override
+	public void requestCompressed(String endpoint, long bytes, long compressedBytes) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.requestUncompressedBytes.add(bytes);
+		metrics.requestCompressedBytes.add(compressedBytes);
+	}
+
+	@Override
+	public void responseDecompressed(String endpoint, long compressedBytes, long bytes) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.responseCompressedBytes.add(compressedBytes);
+		metrics.responseUncompressedBytes.add(bytes);
+	}
+
+	@Override
+	public void responseParsed(String endpoint, long nanos, boolean successful) {
+		EndpointMetrics metrics = getEndpoint(endpoint);
+		metrics.parse.record(nanos);
+		if (!successful)
+			metrics.rejected.increment();
+	}
+
+	@Override
+	public void fallbackUsed(String endpoint) {
+		getEndpoint(endpoint).fallbacks.increment();
+	}
+
+	@Override
+	public void hedgeSent(String endpoint) {
+		getEndpoint(endpoint).hedges.increment();
+	}
+
+	@Override
+	public void hedgeWon(String endpoint) {
+		getEndpoint(endpoint).hedgeWins.increment();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		getEndpoints().forEach((endpoint, metrics) -> builder.append(endpoint).append(": ").append(metrics).append('\n'));
+		return builder.toString();
+	}
+
+	/**
+	 * Metrics of one endpoint. Durations are recorded in nanoseconds, sizes in bytes.
+	 */
+	public static final class EndpointMetrics {
+
+		private final Histogram latency       = new Histogram();
+		private final Histogram serialization = new Histogram();
+		private final Histogram parse         = new Histogram();
+		private final Histogram requestBytes  = new Histogram();
+		private final Histogram responseBytes = new Histogram();
+		private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+		private final LongAdder failures      = new LongAdder();
+		private final LongAdder rejected      = new LongAdder();
+		private final LongAdder fallbacks     = new LongAdder();
+		private final LongAdder hedges        = new LongAdder();
+		private final LongAdder hedgeWins     = new LongAdder();
+		private final LongAdder requestUncompressedBytes  = new LongAdder();
+		private final LongAdder requestCompressedBytes    = new LongAdder();
+		private final LongAdder responseCompressedBytes   = new LongAdder();
+		private final LongAdder responseUncompressedBytes = new LongAdder();
+
+		/**
+		 * @return latency until the response has been received, including failed requests
+		 */
+		public Histogram getLatency() {
+			return latency;
+		}
+
+		public Histogram getSerialization() {
+			return serialization;
+		}
+
+		public Histogram getParse() {
+			return parse;
+		}
+
+		public Histogram getRequestBytes() {
+			return requestBytes;
+		}
+
+		public Histogram getResponseBytes() {
+			return responseBytes;
+		}
+
+		/**
+		 * @return number of responses per HTTP status code
+		 */
+		public Map<Integer, Long> getStatusCodes() {
+			Map<Integer, Long> counts = new TreeMap<>();
+			statusCodes.forEach((status, count) -> counts.put(status, count.sum()));
+			return counts;
+		}
+
+		/**
+		 * @return number of requests without response
+		 */
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		/**
+		 * @return number of responses rejected while parsing
+		 */
+		public long getRejected() {
+			return rejected.sum();
+		}
+
+		public long getFallbacks() {
+			return fallbacks.sum();
+		}
+
+		/**
+		 * @return number of hedged requests sent to the fallback service
+		 */
+		public long getHedges() {
+			return hedges.sum();
+		}
+
+		/**
+		 * @return number of hedged requests which answered before the primary service
+		 */
+		public long getHedgeWins() {
+			return hedgeWins.sum();
+		}
+
+		/**
+		 * @return total size of all compressed request bodies before compression
+		 */
+		public long getRequestUncompressedBytes() {
+			return requestUncompressedBytes.sum();
+		}
+
+		/**
+		 * @return total size of all compressed request bodies as sent
+		 */
+		public long getRequestCompressedBytes() {
+			return requestCompressedBytes.sum();
+		}
+
+		/**
+		 * @return total size of all compressed response bodies as received
+		 */
+		public long getResponseCompressedBytes() {
+			return responseCompressedBytes.sum();
+		}
+
+		/**
+		 * @return total size of all compressed response bodies after decompression
+		 */
+		public long getResponseUncompressedBytes() {
+			return responseUncompressedBytes.sum();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("latency [%s], serialization [%s], parse [%s], request bytes [%s], response bytes [%s], "
+							+ "status codes %s, failures %s, rejected %s, fallbacks %s, hedges %s, hedge wins %s, "
+							+ "compressed requests %s/%s bytes, compressed responses %s/%s bytes",
+					latency, serialization, parse, requestBytes, responseBytes, getStatusCodes(), getFailures(),
+					getRejected(), getFallbacks(), getHedges(), getHedgeWins(), getRequestCompressedBytes(),
+					getRequestUncompressedBytes(), getResponseCompressedBytes(), getResponseUncompressedBytes());
+		}
+	}
+}
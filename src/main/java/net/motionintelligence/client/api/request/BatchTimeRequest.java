@@ -0,0 +1,336 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.response.BatchTimeResponse;
+import net.motionintelligence.client.api.response.BatchTimeResponse.TileResult;
+import net.motionintelligence.client.api.response.TimeResponse;
+import net.motionintelligence.client.api.response.TravelTimeMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calculates travel times from each source point to each target for large matrices.
+ *
+ * <p>
+ * The sources and targets are split into tiles of at most {@link #setTileSize(int, int)} sources and targets. Each
+ * tile is sent as a separate {@link TimeRequest}, at most {@link #setParallelism(int)} tiles are in flight at the same
+ * time. Tiles which fail or return a code other than "ok" (e.g. "gateway-time-out") are retried up to
+ * {@link #setMaxRetries(int)} times, successful tiles are never repeated. The results are merged into a single
+ * {@link BatchTimeResponse} which also reports the timings of each tile.
+ * </p>
+ */
+public class BatchTimeRequest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchTimeRequest.class);
+
+	public static final int DEFAULT_SOURCES_PER_TILE = 50;
+	public static final int DEFAULT_TARGETS_PER_TILE = 1000;
+	public static final int DEFAULT_PARALLELISM      = 4;
+	public static final int DEFAULT_MAX_RETRIES      = 2;
+
+	private final Route360Client client;
+	private final TravelOptions travelOptions;
+
+	private int sourcesPerTile = DEFAULT_SOURCES_PER_TILE;
+	private int targetsPerTile = DEFAULT_TARGETS_PER_TILE;
+	private int parallelism    = DEFAULT_PARALLELISM;
+	private int maxRetries     = DEFAULT_MAX_RETRIES;
+	private Executor executor  = ForkJoinPool.commonPool();
+
+	/**
+	 * Use default client implementation with specified options
+	 * Default client is the shared {@link Route360Client#getDefault()}.
+	 * @param travelOptions Options to be used
+	 */
+	public BatchTimeRequest(TravelOptions travelOptions) {
+		this(Route360Client.getDefault(), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public BatchTimeRequest(Route360Client client, TravelOptions travelOptions) {
+		this.client        = client;
+		this.travelOptions = travelOptions;
+	}
+
+	/**
+	 * @param sourcesPerTile Maximum number of sources per request. Default: 50
+	 * @param targetsPerTile Maximum number of targets per request. Default: 1000
+	 */
+	public void setTileSize(int sourcesPerTile, int targetsPerTile) {
+		if (sourcesPerTile < 1 || targetsPerTile < 1)
+			throw new IllegalArgumentException(String.format("Tile size has to be positive, but was %s x %s", sourcesPerTile, targetsPerTile));
+		this.sourcesPerTile = sourcesPerTile;
+		this.targetsPerTile = targetsPerTile;
+	}
+
+	/**
+	 * @param parallelism Maximum number of tiles requested at the same time. Default: 4
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("parallelism has to be positive, but was " + parallelism);
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param maxRetries Number of times a failed tile is requested again. Default: 2
+	 */
+	public void setMaxRetries(int maxRetries) {
+		if (maxRetries < 0)
+			throw new IllegalArgumentException("maxRetries must not be negative, but was " + maxRetries);
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * @param executor Executor on which finished tiles are merged and the next tiles are issued.
+	 *                 Default: {@link ForkJoinPool#commonPool()}
+	 */
+	public void setExecutor(Executor executor) {
+		if (executor == null)
+			throw new IllegalArgumentException("executor must not be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Execute all tiles and wait for the merged result
+	 * @return Merged time response
+	 * @throws Route360ClientException In case a tile still fails with an exception after all retries
+	 */
+	public BatchTimeResponse get() throws Route360ClientException {
+		try {
+			return getAsync().get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Route360ClientException("Interrupted while waiting for the time tiles", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof Route360ClientException)
+				throw (Route360ClientException) e.getCause();
+			throw new Route360ClientException("Batch time request failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Execute all tiles without blocking the calling thread
+	 * @return future of the merged time response, completed exceptionally with a {@link Route360ClientException}
+	 * in case a tile still fails with an exception after all retries
+	 */
+	public CompletableFuture<BatchTimeResponse> getAsync() {
+
+		long requestStart = System.currentTimeMillis();
+
+		TravelTimeMatrix matrix = TravelTimeMatrix.of(travelOptions);
+		List<Tile> tiles;
+		try {
+			tiles = createTiles(matrix);
+		}
+		catch (RuntimeException e) {
+			return Route360Client.failed(e);
+		}
+
+		LOGGER.debug(String.format("Executing %s x %s travel times in %s tiles", matrix.getSourceCount(), matrix.getTargetCount(), tiles.size()));
+
+		return new Execution(matrix, tiles, requestStart).start();
+	}
+
+	/**
+	 * State of one execution of all tiles
+	 */
+	private final class Execution {
+
+		private final TravelTimeMatrix matrix;
+		private final List<Tile> tiles;
+		private final long requestStart;
+		private final Queue<Tile> queue;
+		private final AtomicInteger remaining;
+		private final CompletableFuture<BatchTimeResponse> result = new CompletableFuture<>();
+
+		Execution(TravelTimeMatrix matrix, List<Tile> tiles, long requestStart) {
+			this.matrix       = matrix;
+			this.tiles        = tiles;
+			this.requestStart = requestStart;
+			this.queue        = new ConcurrentLinkedQueue<>(tiles);
+			this.remaining    = new AtomicInteger(tiles.size());
+		}
+
+		CompletableFuture<BatchTimeResponse> start() {
+			if (tiles.isEmpty())
+				complete();
+			for (int i = 0; i < Math.min(parallelism, tiles.size()); i++)
+				next();
+			return result;
+		}
+
+		/**
+		 * Request the next queued tile. Whoever finishes a tile continues with the next one, so a tile which is
+		 * queued again for a retry is always picked up.
+		 */
+		private void next() {
+
+			Tile tile = queue.poll();
+			if (tile == null)
+				return;
+
+			tile.attempts++;
+			long start = System.nanoTime();
+
+			new TimeRequest(client, tile.options).getAsync().whenCompleteAsync((response, throwable) -> {
+				try {
+					finished(tile, response, throwable, (System.nanoTime() - start) / 1_000_000);
+				}
+				catch (RuntimeException e) {
+					result.completeExceptionally(e);
+				}
+			}, executor);
+		}
+
+		private void finished(Tile tile, TimeResponse response, Throwable throwable, long roundTripTimeMillis) {
+
+			tile.roundTripTimeMillis = roundTripTimeMillis;
+			tile.error               = throwable;
+			tile.code                = response != null ? response.getCode() : null;
+			tile.requestTimeMillis   = response != null ? response.getRequestTimeMillis() : -1;
+
+			if (throwable == null && "ok".equals(tile.code)) {
+				tile.merge(response, matrix);
+				LOGGER.debug(tile.toResult().toString());
+			}
+			else if (tile.attempts <= maxRetries) {
+				LOGGER.debug(String.format("Retrying %s", tile.toResult()));
+				queue.add(tile);
+				next();
+				return;
+			}
+			else
+				LOGGER.error(tile.toResult().toString(), throwable);
+
+			if (remaining.decrementAndGet() == 0)
+				complete();
+			else
+				next();
+		}
+
+		private void complete() {
+
+			List<TileResult> results = new ArrayList<>(tiles.size());
+			String code     = "ok";
+			TileResult failed = null;
+			int failures    = 0;
+			for (Tile tile : tiles) {
+				TileResult tileResult = tile.toResult();
+				results.add(tileResult);
+				if (!tileResult.isSuccessful() && "ok".equals(code))
+					code = tileResult.getCode();
+				if (tileResult.getError() != null) {
+					failures++;
+					if (failed == null)
+						failed = tileResult;
+				}
+			}
+
+			if (failed != null)
+				result.completeExceptionally(new Route360ClientException(
+						String.format("%s of %s tiles failed, first: %s", failures, results.size(), failed), failed.getError()));
+			else
+				result.complete(new BatchTimeResponse(travelOptions, matrix, code,
+						System.currentTimeMillis() - requestStart, requestStart, results));
+		}
+	}
+
+	private List<Tile> createTiles(TravelTimeMatrix matrix) {
+
+		List<Tile> tiles = new ArrayList<>();
+		for (int sourceOffset = 0; sourceOffset < matrix.getSourceCount(); sourceOffset += sourcesPerTile) {
+			int sourceCount = Math.min(sourcesPerTile, matrix.getSourceCount() - sourceOffset);
+
+			for (int targetOffset = 0; targetOffset < matrix.getTargetCount(); targetOffset += targetsPerTile) {
+				int targetCount = Math.min(targetsPerTile, matrix.getTargetCount() - targetOffset);
+
+				// the coordinates are replaced, so the maps of the travel options are not copied
+				TravelOptions options = travelOptions.copyWithoutCoordinates();
+				options.setSources(subMap(matrix.getSources(), sourceOffset, sourceCount));
+				options.setTargets(subMap(matrix.getTargets(), targetOffset, targetCount));
+
+				tiles.add(new Tile(tiles.size(), sourceOffset, sourceCount, targetOffset, targetCount, options));
+			}
+		}
+		return tiles;
+	}
+
+	private static Map<String, Coordinate> subMap(List<Coordinate> coordinates, int offset, int count) {
+		Map<String, Coordinate> map = new LinkedHashMap<>(count * 4 / 3 + 1);
+		for (Coordinate coordinate : coordinates.subList(offset, offset + count))
+			map.put(coordinate.getId(), coordinate);
+		return map;
+	}
+
+	/**
+	 * Mutable state of a tile during execution, only accessed by one thread at a time
+	 */
+	private static final class Tile {
+
+		private final int index;
+		private final int sourceOffset;
+		private final int sourceCount;
+		private final int targetOffset;
+		private final int targetCount;
+		private final TravelOptions options;
+
+		private volatile int attempts;
+		private volatile long roundTripTimeMillis;
+		private volatile long requestTimeMillis = -1;
+		private volatile String code;
+		private volatile Throwable error;
+
+		Tile(int index, int sourceOffset, int sourceCount, int targetOffset, int targetCount, TravelOptions options) {
+			this.index        = index;
+			this.sourceOffset = sourceOffset;
+			this.sourceCount  = sourceCount;
+			this.targetOffset = targetOffset;
+			this.targetCount  = targetCount;
+			this.options      = options;
+		}
+
+		/**
+		 * Copy the travel times of the tile into the cells of the merged matrix, tiles never overlap
+		 */
+		void merge(TimeResponse response, TravelTimeMatrix matrix) {
+
+			TravelTimeMatrix tileMatrix = response.getTravelTimeMatrix();
+
+			int[] targetIndices = new int[tileMatrix.getTargetCount()];
+			for (int trg = 0; trg < targetIndices.length; trg++)
+				targetIndices[trg] = matrix.getTargetIndex(tileMatrix.getTarget(trg).getId());
+
+			for (int src = 0; src < tileMatrix.getSourceCount(); src++) {
+				int srcIdx = matrix.getSourceIndex(tileMatrix.getSource(src).getId());
+				for (int trg = 0; trg < targetIndices.length; trg++)
+					matrix.set(srcIdx, targetIndices[trg], tileMatrix.get(src, trg));
+			}
+		}
+
+		TileResult toResult() {
+			return new TileResult(index, sourceOffset, sourceCount, targetOffset, targetCount, attempts,
+					roundTripTimeMillis, requestTimeMillis, code, error);
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package net.motionintelligence.client.api.request;
+
+import com.google.common.io.CountingInputStream;
+import com.google.common.io.CountingOutputStream;
+import net.motionintelligence.client.api.metrics.Route360Metrics;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * JAX-RS provider applying a {@link CompressionPolicy}: it accepts and decodes gzip and deflate encoded responses and
+ * compresses request bodies above the threshold with gzip. It is registered automatically by
+ * {@link Route360Client.Builder#compression(CompressionPolicy)}, but can also be registered with any other JAX-RS client,
+ * with the priority {@link javax.ws.rs.Priorities#ENTITY_CODER}.
+ */
+public class CompressionFilter implements ClientRequestFilter, ReaderInterceptor, WriterInterceptor {
+
+	private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	private final CompressionPolicy policy;
+	private final Route360Metrics metrics;
+
+	public CompressionFilter(CompressionPolicy policy) {
+		this(policy, Route360Metrics.NOOP);
+	}
+
+	public CompressionFilter(CompressionPolicy policy, Route360Metrics metrics) {
+		this.policy  = policy;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void filter(ClientRequestContext requestContext) {
+		if (policy.isDecompressResponses() && !requestContext.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING))
+			requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+
+		if (!policy.isCompressRequests() || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			context.proceed();
+			return;
+		}
+
+		CompressingOutputStream output = new CompressingOutputStream(context.getOutputStream(), context.getHeaders(),
+				getEndpoint(context.getProperty(Route360Metrics.ENDPOINT_PROPERTY)));
+		context.setOutputStream(output);
+		context.proceed();
+		output.finish();
+	}
+
+	@Override
+	public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+
+		String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+		if (!policy.isDecompressResponses() || encoding == null)
+			return context.proceed();
+
+		encoding = encoding.trim().toLowerCase(Locale.ROOT);
+		boolean gzip = "gzip".equals(encoding) || "x-gzip".equals(encoding);
+		if (!gzip && !"deflate".equals(encoding))
+			return context.proceed();
+
+		CountingInputStream compressed = new CountingInputStream(context.getInputStream());
+		InputStream decoded = new DecodingInputStream(compressed, gzip);
+
+		// the entity is decoded, later interceptors must not decode it again
+		context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+		context.setInputStream(new DecompressedInputStream(decoded, compressed,
+				getEndpoint(context.getProperty(Route360Metrics.ENDPOINT_PROPERTY))));
+		return context.proceed();
+	}
+
+	private static String getEndpoint(Object endpoint) {
+		return endpoint != null ? endpoint.toString() : "";
+	}
+
+	/**
+	 * Creates the decoder on the first read, as the gzip and zlib decoders read the header when they are created. An
+	 * empty body (e.g. of a 204 response) is decoded as empty body. Deflate encoded bodies are accepted with and
+	 * without the zlib wrapper, as some servers send raw deflate data.
+	 */
+	private static final class DecodingInputStream extends InputStream {
+
+		private final PushbackInputStream compressed;
+		private final boolean gzip;
+		private InputStream decoded;
+		private Inflater inflater;
+
+		DecodingInputStream(InputStream compressed, boolean gzip) {
+			this.compressed = new PushbackInputStream(compressed, 2);
+			this.gzip       = gzip;
+		}
+
+		private InputStream decoded() throws IOException {
+			if (decoded != null)
+				return decoded;
+
+			byte[] header = new byte[2];
+			int length = 0;
+			for (int n; length < header.length && (n = compressed.read(header, length, header.length - length)) >= 0; )
+				length += n;
+			compressed.unread(header, 0, length);
+
+			if (length == 0)
+				decoded = compressed;
+			else if (gzip)
+				decoded = new GZIPInputStream(compressed);
+			else if (length == 2 && isZlibHeader(header[0] & 0xFF, header[1] & 0xFF))
+				decoded = new InflaterInputStream(compressed);
+			else
+				decoded = new InflaterInputStream(compressed, inflater = new Inflater(true));
+			return decoded;
+		}
+
+		/**
+		 * RFC 1950: compression method 8 and a header checksum which is a multiple of 31
+		 */
+		private static boolean isZlibHeader(int cmf, int flg) {
+			return (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return decoded().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return decoded().read(b, off, len);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return decoded == null ? 0 : decoded.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				if (decoded != null)
+					decoded.close();
+				else
+					compressed.close();
+			}
+			finally {
+				if (inflater != null)
+					inflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Counts the decoded bytes and reports them together with the received bytes when the stream is closed
+	 */
+	private final class DecompressedInputStream extends FilterInputStream {
+
+		private final CountingInputStream compressed;
+		private final String endpoint;
+		private long count = 0;
+		private boolean reported = false;
+
+		DecompressedInputStream(InputStream decoded, CountingInputStream compressed, String endpoint) {
+			super(decoded);
+			this.compressed = compressed;
+			this.endpoint   = endpoint;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0)
+				count += n;
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			}
+			finally {
+				if (!reported) {
+					reported = true;
+					metrics.responseDecompressed(endpoint, compressed.getCount(), count);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Buffers the body until the threshold is reached and compresses everything from then on. The content encoding is
+	 * set before the first byte is passed on, i.e. before the headers are committed.
+	 */
+	private final class CompressingOutputStream extends OutputStream {
+
+		private final OutputStream target;
+		private final MultivaluedMap<String, Object> headers;
+		private final String endpoint;
+
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private CountingOutputStream compressed;
+		private GZIPOutputStream gzip;
+		private long count = 0;
+		private boolean finished = false;
+
+		CompressingOutputStream(OutputStream target, MultivaluedMap<String, Object> headers, String endpoint) {
+			this.target   = target;
+			this.headers  = headers;
+			this.endpoint = endpoint;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (finished)
+				throw new IOException("Stream has already been finished");
+
+			count += len;
+			if (gzip != null) {
+				gzip.write(b, off, len);
+				return;
+			}
+
+			buffer.write(b, off, len);
+			if (buffer.size() >= policy.getRequestThreshold())
+				startCompression();
+		}
+
+		private void startCompression() throws IOException {
+			headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+			compressed = new CountingOutputStream(target);
+			gzip       = new GZIPOutputStream(compressed, 8192) {
+				{
+					def.setLevel(policy.getLevel());
+				}
+			};
+			buffer.writeTo(gzip);
+			buffer = null;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// small bodies are kept in the buffer until they are finished
+			if (gzip != null)
+				gzip.flush();
+		}
+
+		/**
+		 * Write the remaining buffer or the gzip trailer, the target stream stays open
+		 */
+		void finish() throws IOException {
+			if (finished)
+				return;
+			finished = true;
+
+			if (gzip != null) {
+				gzip.finish();
+				metrics.requestCompressed(endpoint, count, compressed.getCount());
+			}
+			else {
+				buffer.writeTo(target);
+			}
+			target.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			finish();
+			target.close();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package net.motionintelligence.client.api.request;
+
+import java.util.zip.Deflater;
+
+/**
+ * Configures the compression of a {@link Route360Client}, see {@link Route360Client.Builder#compression(CompressionPolicy)}.
+ *
+ * <p>
+ * By default gzip and deflate encoded responses are accepted and decoded transparently, request bodies are sent
+ * uncompressed. Compressing request bodies is worth it for large requests like many-to-many time requests, which
+ * compress about 10x, but costs CPU time for small ones. It is therefore opt-in and only applied to bodies of at
+ * least the configured threshold. The sizes before and after compression are reported to
+ * {@link net.motionintelligence.client.api.metrics.Route360Metrics#requestCompressed(String, long, long)} and
+ * {@link net.motionintelligence.client.api.metrics.Route360Metrics#responseDecompressed(String, long, long)}.
+ * </p>
+ *
+ * <pre>
+ * Route360Client client = Route360Client.newBuilder()
+ *         .compression(CompressionPolicy.newBuilder().compressRequests(8 * 1024).build())
+ *         .build();
+ * </pre>
+ */
+public final class CompressionPolicy {
+
+	/**
+	 * Decode compressed responses, send requests uncompressed
+	 */
+	public static final CompressionPolicy DEFAULT  = newBuilder().build();
+
+	/**
+	 * Neither accept compressed responses nor compress requests
+	 */
+	public static final CompressionPolicy DISABLED = newBuilder().decompressResponses(false).build();
+
+	private final boolean decompressResponses;
+	private final int requestThreshold;
+	private final int level;
+
+	private CompressionPolicy(Builder builder) {
+		this.decompressResponses = builder.decompressResponses;
+		this.requestThreshold    = builder.requestThreshold;
+		this.level               = builder.level;
+	}
+
+	/**
+	 * @return builder for a new policy
+	 */
+	public static Builder newBuilder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return true if gzip and deflate encoded responses are accepted
+	 */
+	public boolean isDecompressResponses() {
+		return decompressResponses;
+	}
+
+	/**
+	 * @return true if large request bodies are compressed
+	 */
+	public boolean isCompressRequests() {
+		return requestThreshold >= 0;
+	}
+
+	/**
+	 * @return minimum size of a request body in bytes to be compressed, -1 if requests are not compressed
+	 */
+	public int getRequestThreshold() {
+		return requestThreshold;
+	}
+
+	/**
+	 * @return deflater level used for request bodies
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return true if the policy does anything at all
+	 */
+	public boolean isEnabled() {
+		return decompressResponses || isCompressRequests();
+	}
+
+	/**
+	 * Builder for {@link CompressionPolicy}.
+	 */
+	public static final class Builder {
+
+		private boolean decompressResponses = true;
+		private int requestThreshold        = -1;
+		private int level                   = Deflater.BEST_SPEED;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param decompressResponses whether gzip and deflate encoded responses are accepted. Default: true
+		 * @return this builder
+		 */
+		public Builder decompressResponses(boolean decompressResponses) {
+			this.decompressResponses = decompressResponses;
+			return this;
+		}
+
+		/**
+		 * Compress request bodies with gzip. Bodies are buffered until the threshold is reached, smaller bodies are
+		 * sent uncompressed.
+		 * @param threshold minimum size of a request body in bytes to be compressed. Default: requests are not compressed
+		 * @return this builder
+		 */
+		public Builder compressRequests(int threshold) {
+			if (threshold < 0)
+				throw new IllegalArgumentException("threshold must not be negative, but was " + threshold);
+			this.requestThreshold = threshold;
+			return this;
+		}
+
+		/**
+		 * @param level deflater level of request bodies, from 1 (fastest) to 9 (smallest). Default: 1
+		 * @return this builder
+		 */
+		public Builder level(int level) {
+			if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION)
+				throw new IllegalArgumentException("level has to be between 1 and 9, but was " + level);
+			this.level = level;
+			return this;
+		}
+
+		/**
+		 * @return a new policy
+		 */
+		public CompressionPolicy build() {
+			return new CompressionPolicy(this);
+		}
+	}
+}
@@ -0,0 +1,484 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.Address;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.response.GeocodingResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ServiceUnavailableException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Long-lived executor for geocoding large numbers of addresses with a {@link GeocodingRequest}.
+ *
+ * <p>
+ * All batches share one thread pool, which is created once and shut down by {@link #close()}. Requests to the ESRI
+ * service are limited by a token bucket, addresses for which the service is temporarily unavailable are retried with
+ * exponential backoff and full jitter. Addresses are read lazily from the input and at most
+ * {@link Builder#maxInFlight(int)} addresses are requested or waiting for a thread at the same time, so the input can
+ * be a stream over millions of addresses. The results are passed to a callback as soon as they are available, or
+ * returned as a {@link Stream} in input order.
+ * </p>
+ *
+ * <pre>
+ * try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(new GeocodingRequest(client))
+ *         .threads(8).rateLimit(40).build();
+ *      Stream&lt;String&gt; addresses = Files.lines(path)) {
+ *     executor.geocode(addresses, result -&gt; store(result.getIndex(), result.getResponse()));
+ * }
+ * </pre>
+ *
+ * Note: The client of the {@link GeocodingRequest} may need a connection pool of at least {@link Builder#threads(int)}
+ * connections (e.g. this was necessary for a JBoss client but not for the Jersey client).
+ */
+public final class GeocodingBatchExecutor implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeocodingBatchExecutor.class);
+
+    public static final int DEFAULT_THREADS                = 4;
+    public static final int DEFAULT_MAX_TRIES              = 5;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 100;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS     = TimeUnit.SECONDS.toMillis(10);
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final GeocodingRequest request;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final TokenBucket rateLimiter;
+    private final int maxTries;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private GeocodingBatchExecutor(Builder builder) {
+        this.request             = builder.request;
+        this.ownsExecutor        = builder.executor == null;
+        this.executor            = ownsExecutor ? createExecutor(builder.threads) : builder.executor;
+        this.maxInFlight         = builder.maxInFlight > 0 ? builder.maxInFlight : 2 * builder.threads;
+        this.inFlight            = new Semaphore(maxInFlight);
+        this.rateLimiter         = builder.permitsPerSecond > 0 ? new TokenBucket(builder.permitsPerSecond, builder.burst) : null;
+        this.maxTries            = builder.maxTries;
+        this.initialBackoffNanos = builder.initialBackoffNanos;
+        this.maxBackoffNanos     = builder.maxBackoffNanos;
+    }
+
+    /**
+     * @param request the request used for every single address, it may be shared with other executors and threads
+     * @return builder for a new executor
+     */
+    public static Builder newBuilder(GeocodingRequest request) {
+        return new Builder(request);
+    }
+
+    /**
+     * Geocode all addresses and pass each result to the callback as soon as it is available. The callback is invoked
+     * from the worker threads, in the order in which the requests finish, i.e. it has to be thread-safe. The calling
+     * thread reads the addresses and blocks while the maximum number of addresses is in flight.
+     *
+     * @see GeocodingRequest#get(String)
+     *
+     * @param addresses addresses each given as single String, read lazily
+     * @param callback receives the result of each address, including the failed ones
+     * @throws Route360ClientException when interrupted while waiting for the requests
+     */
+    public void geocode(Stream<String> addresses, Consumer<Result<String>> callback) throws Route360ClientException {
+        forEach(request::get, addresses.iterator(), callback);
+    }
+
+    /**
+     * Geocode all {@link Address Addresses} and pass each result to the callback as soon as it is available,
+     * see {@link #geocode(Stream, Consumer)}.
+     *
+     * @see GeocodingRequest#get(Address)
+     *
+     * @param addresses addresses, read lazily
+     * @param callback receives the result of each address, including the failed ones
+     * @throws Route360ClientException when interrupted while waiting for the requests
+     */
+    public void geocodeAddresses(Stream<Address> addresses, Consumer<Result<Address>> callback) throws Route360ClientException {
+        forEach(request::get, addresses.iterator(), callback);
+    }
+
+    /**
+     * Geocode all addresses lazily. The returned stream yields the results in the order of the input; while it is
+     * consumed, the next {@link Builder#maxInFlight(int)} addresses are already requested. Closing the stream
+     * cancels the requests which have not been started yet.
+     *
+     * @see GeocodingRequest#get(String)
+     *
+     * @param addresses addresses each given as single String, read lazily
+     * @return sequential stream of the results, including the failed ones
+     */
+    public Stream<Result<String>> geocode(Stream<String> addresses) {
+        return stream(request::get, addresses);
+    }
+
+    /**
+     * Geocode all {@link Address Addresses} lazily, see {@link #geocode(Stream)}.
+     *
+     * @see GeocodingRequest#get(Address)
+     *
+     * @param addresses addresses, read lazily
+     * @return sequential stream of the results, including the failed ones
+     */
+    public Stream<Result<Address>> geocodeAddresses(Stream<Address> addresses) {
+        return stream(request::get, addresses);
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by this executor, requests which have not been started yet are
+     * dropped. An executor given to {@link Builder#executor(ExecutorService)} is not shut down.
+     */
+    @Override
+    public void close() {
+        if (!ownsExecutor)
+            return;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(800, TimeUnit.MILLISECONDS))
+                executor.shutdownNow();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    <A> void forEach(final GetRequest<A,GeocodingResponse> singleRequest, final Iterator<A> addresses,
+                     final Consumer<Result<A>> callback) throws Route360ClientException {
+
+        // one for the submitting thread, so that the batch is not done before all addresses have been submitted
+        final AtomicLong pending = new AtomicLong(1);
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final AtomicReference<RuntimeException> callbackFailure = new AtomicReference<>();
+
+        long index = 0;
+        try {
+            while (addresses.hasNext() && callbackFailure.get() == null) {
+                pending.incrementAndGet();
+                submit(singleRequest, index++, addresses.next()).whenComplete((result, e) -> {
+                    try {
+                        callback.accept(result);
+                    } catch (RuntimeException callbackException) {
+                        callbackFailure.compareAndSet(null, callbackException);
+                    } finally {
+                        if (pending.decrementAndGet() == 0)
+                            done.complete(null);
+                    }
+                });
+            }
+            if (pending.decrementAndGet() == 0)
+                done.complete(null);
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Route360ClientException("Interrupted while geocoding the batch", e);
+        } catch (ExecutionException e) {
+            throw new Route360ClientException("Parallel Execution Failed! Cause: ", e.getCause());
+        }
+
+        if (callbackFailure.get() != null)
+            throw callbackFailure.get();
+    }
+
+    <A> Stream<Result<A>> stream(final GetRequest<A,GeocodingResponse> singleRequest, final Stream<A> addresses) {
+
+        final Deque<CompletableFuture<Result<A>>> window = new ArrayDeque<>();
+        final Iterator<A> input = addresses.iterator();
+
+        Iterator<Result<A>> results = new Iterator<Result<A>>() {
+
+            private long index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (window.size() < maxInFlight && input.hasNext()) {
+                    try {
+                        window.add(submit(singleRequest, index++, input.next()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new Route360ClientRuntimeException("Interrupted while geocoding the batch", e);
+                    }
+                }
+                return !window.isEmpty();
+            }
+
+            @Override
+            public Result<A> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return window.poll().join();
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    window.forEach(future -> future.cancel(false));
+                    window.clear();
+                    addresses.close();
+                });
+    }
+
+    /**
+     * Submit a single address, blocks while the maximum number of addresses is in flight
+     */
+    private <A> CompletableFuture<Result<A>> submit(final GetRequest<A,GeocodingResponse> singleRequest,
+                                                   final long index, final A address) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            CompletableFuture<Result<A>> future =
+                    CompletableFuture.supplyAsync(() -> execute(singleRequest, index, address), executor);
+            future.whenComplete((result, e) -> inFlight.release());
+            return future;
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw new Route360ClientRuntimeException("The geocoding batch executor has already been closed", e);
+        }
+    }
+
+    /**
+     * Request a single address, retrying as long as the service is unavailable
+     */
+    private <A> Result<A> execute(final GetRequest<A,GeocodingResponse> singleRequest, final long index, final A address) {
+        try {
+            for (int tries = 1; ; tries++) {
+                if (rateLimiter != null)
+                    rateLimiter.acquire();
+                try {
+                    return new Result<>(index, address, singleRequest.get(address), null);
+                } catch (ServiceUnavailableException e) {
+                    // special case since the service is sometimes unavailable when too many requests are processed
+                    if (tries >= maxTries)
+                        return new Result<>(index, address, null, new Route360ClientException("Even after " + maxTries +
+                                " tries the service was still unavailable. Try reducing the thread number or the rate " +
+                                "limit or increasing the number of tries.", e));
+                    long backoff = backoffNanos(tries);
+                    LOGGER.debug("Service unavailable for address {}, retrying in {}ms", index,
+                            TimeUnit.NANOSECONDS.toMillis(backoff));
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result<>(index, address, null, new Route360ClientException("Interrupted while geocoding", e));
+        } catch (Route360ClientException | RuntimeException e) {
+            return new Result<>(index, address, null, e);
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter, i.e. a random delay between zero and the exponentially growing maximum
+     * @param tries the number of tries so far, greater than or equal to 1
+     * @return time to wait before the next try, in nanoseconds
+     */
+    long backoffNanos(int tries) {
+        long ceiling = initialBackoffNanos << Math.min(tries - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffNanos)
+            ceiling = maxBackoffNanos;
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        int pool = POOL_COUNT.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "route360-geocoding-" + pool + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Result of a single address of a batch, either a response or the exception which occurred for it
+     * @param <A> address type (String or {@link Address})
+     */
+    public static final class Result<A> {
+
+        private final long index;
+        private final A address;
+        private final GeocodingResponse response;
+        private final Exception exception;
+
+        Result(long index, A address, GeocodingResponse response, Exception exception) {
+            this.index     = index;
+            this.address   = address;
+            this.response  = response;
+            this.exception = exception;
+        }
+
+        /**
+         * @return position of the address in the input, starting with 0
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the requested address
+         */
+        public A getAddress() {
+            return address;
+        }
+
+        /**
+         * @return true if the service responded, the response can still be an error response of the service
+         */
+        public boolean isSuccess() {
+            return exception == null;
+        }
+
+        /**
+         * @return the parsed response, null if the request failed
+         */
+        public GeocodingResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the exception of a failed request, i.e. a {@link Route360ClientException} or a runtime exception
+         * like {@link javax.ws.rs.ProcessingException}, null if the request succeeded
+         */
+        public Exception getException() {
+            return exception;
+        }
+    }
+
+    /**
+     * Builder for {@link GeocodingBatchExecutor}.
+     */
+    public static final class Builder {
+
+        private final GeocodingRequest request;
+        private int threads              = DEFAULT_THREADS;
+        private int maxInFlight          = 0;
+        private ExecutorService executor = null;
+        private double permitsPerSecond  = 0;
+        private int burst                = 1;
+        private int maxTries             = DEFAULT_MAX_TRIES;
+        private long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_BACKOFF_MILLIS);
+        private long maxBackoffNanos     = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_BACKOFF_MILLIS);
+
+        private Builder(GeocodingRequest request) {
+            if (request == null)
+                throw new IllegalArgumentException("request must not be null");
+            this.request = request;
+        }
+
+        /**
+         * @param threads size of the thread pool, i.e. the maximum number of parallel requests. Default: 4
+         * @return this builder
+         */
+        public Builder threads(int threads) {
+            if (threads < 1)
+                throw new IllegalArgumentException("threads has to be positive, but was " + threads);
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight maximum number of addresses which are requested or wait for a thread, further addresses
+         *                    are not read from the input until one of them is finished. Default: twice the threads
+         * @return this builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1)
+                throw new IllegalArgumentException("maxInFlight has to be positive, but was " + maxInFlight);
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param executor executor to run the requests on instead of an own thread pool, it is not shut down when
+         *                 the batch executor is closed
+         * @return this builder
+         */
+        public Builder executor(ExecutorService executor) {
+            if (executor == null)
+                throw new IllegalArgumentException("executor must not be null");
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Limit the requests to the service, including the retries. Default: unlimited
+         * @param permitsPerSecond maximum sustained number of requests per second
+         * @return this builder
+         */
+        public Builder rateLimit(double permitsPerSecond) {
+            return rateLimit(permitsPerSecond, 1);
+        }
+
+        /**
+         * Limit the requests to the service, including the retries. Default: unlimited
+         * @param permitsPerSecond maximum sustained number of requests per second
+         * @param burst number of requests which may be sent at once after an idle period
+         * @return this builder
+         */
+        public Builder rateLimit(double permitsPerSecond, int burst) {
+            if (!(permitsPerSecond > 0))
+                throw new IllegalArgumentException("permitsPerSecond has to be positive, but was " + permitsPerSecond);
+            if (burst < 1)
+                throw new IllegalArgumentException("burst has to be positive, but was " + burst);
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst            = burst;
+            return this;
+        }
+
+        /**
+         * @param maxTries number of tries before an address fails because the service is unavailable. Default: 5
+         * @return this builder
+         */
+        public Builder maxTries(int maxTries) {
+            if (maxTries < 1)
+                throw new IllegalArgumentException("maxTries has to be positive, but was " + maxTries);
+            this.maxTries = maxTries;
+            return this;
+        }
+
+        /**
+         * The n-th retry waits a random time between zero and min(initial * 2^(n-1), max).
+         * Default: 100 milliseconds initial and 10 seconds maximum
+         * @param initial maximum wait before the first retry
+         * @param max upper bound of the wait before any retry
+         * @param unit unit of both values
+         * @return this builder
+         */
+        public Builder backoff(long initial, long max, TimeUnit unit) {
+            if (initial < 0 || max < initial)
+                throw new IllegalArgumentException(String.format("Backoff has to be 0 <= initial <= max, but was %s and %s", initial, max));
+            this.initialBackoffNanos = unit.toNanos(initial);
+            this.maxBackoffNanos     = unit.toNanos(max);
+            return this;
+        }
+
+        /**
+         * @return a new executor, which has to be closed when it is not needed anymore
+         */
+        public GeocodingBatchExecutor build() {
+            return new GeocodingBatchExecutor(this);
+        }
+    }
+}
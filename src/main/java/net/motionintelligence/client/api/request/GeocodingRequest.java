@@ -3,7 +3,9 @@ package net.motionintelligence.client.api.request;
 import net.motionintelligence.client.api.Address;
 import net.motionintelligence.client.api.exception.Route360ClientException;
 import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.request.cache.GeocodingCache;
 import net.motionintelligence.client.api.request.esri.ESRIAuthenticationDetails;
+import net.motionintelligence.client.api.request.esri.ESRITokenManager;
 import net.motionintelligence.client.api.response.GeocodingResponse;
 import net.motionintelligence.client.api.response.esri.AuthenticationResponse;
 import net.motionintelligence.client.api.util.POJOUtil;
@@ -18,7 +20,7 @@ import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -91,9 +93,10 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
     private final Client client;
     private final ESRIAuthenticationDetails authenticationDetails;
     private final Map<Option,String> requestOptions;
+    private final GeocodingCache cache;
 
-    //currently valid access token
-    private String  currentAccessToken = null;
+    //holds and renews the access token if authorization available
+    private final ESRITokenManager tokenManager;
 
     /**
      * Creation of a default geo coding request without ESRI credentials (for batch requests slower than with credentials)
@@ -162,9 +165,34 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
      * @param extraOptions see {@link Option} for possibilities - null pointer and empty strings will be ignored
      */
     public GeocodingRequest(Client client, ESRIAuthenticationDetails authenticationDetails, Map<Option,String> extraOptions){
+        this(client, authenticationDetails, extraOptions, null);
+    }
+
+    /**
+     * Use a custom client implementation for the geo coding request with non-default request parameters, ESRI
+     * credentials and a cache of the responses. Addresses whose response is in the cache are not requested from the
+     * ESRI service again, which saves costs in particular for requests with {@link Option#FOR_STORAGE}.
+     *
+     * <p>
+     * Note1: The lifecycle of the client and the cache is not handled here. Please make sure to properly close them
+     * when not needed anymore.<br>
+     * Note2: The cache can be shared by several {@link GeocodingRequest GeocodingRequests}, since the request options
+     * are part of the cache key.
+     * </p>
+     *
+     * @param client specified Client implementation to be used, e.g. Jersey or jBoss client
+     * @param authenticationDetails the authentication details with which accessToken will be retrieved - may be null
+     * @param extraOptions see {@link Option} for possibilities - null pointer and empty strings will be ignored
+     * @param cache cache of the responses - may be null
+     */
+    public GeocodingRequest(Client client, ESRIAuthenticationDetails authenticationDetails,
+                            Map<Option,String> extraOptions, GeocodingCache cache){
         this.client	                = client;
         this.requestOptions         = extraOptions;
         this.authenticationDetails  = authenticationDetails;
+        this.cache                  = cache;
+        this.tokenManager           = authenticationDetails == null ? null :
+                new ESRITokenManager(authenticationDetails, this::retrieveNewTokenViaAuthentication);
         //validation
         if("true".equals(extraOptions.get(Option.FOR_STORAGE))) {
             Objects.requireNonNull(this.authenticationDetails,
@@ -182,7 +210,9 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
      */
     @Override
     public GeocodingResponse get(String singleLineAddress) throws Route360ClientException, ProcessingException {
-        return get( webTarget -> webTarget.queryParam("singleLine", singleLineAddress));
+        if (cache != null)
+            return cache.get(singleLineAddress, requestOptions, this::request);
+        return request(singleLineAddress);
     }
 
     /**
@@ -195,6 +225,22 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
      * @throws ProcessingException when connection error occurs
      */
     public GeocodingResponse get(Address address) throws Route360ClientException, ProcessingException {
+        if (cache != null)
+            return cache.get(address, requestOptions, this::request);
+        return request(address);
+    }
+
+    /**
+     * Private method to request the single line address from the service, bypassing the cache.
+     */
+    private GeocodingResponse request(String singleLineAddress) throws Route360ClientException, ProcessingException {
+        return get( webTarget -> webTarget.queryParam("singleLine", singleLineAddress));
+    }
+
+    /**
+     * Private method to request the address from the service, bypassing the cache.
+     */
+    private GeocodingResponse request(Address address) throws Route360ClientException, ProcessingException {
         return get( webTarget ->
             conditionalQueryParam("address", address.street,
             conditionalQueryParam("address2", address.streetDetails,
@@ -235,14 +281,14 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         for(Map.Entry<Option,String> entry : requestOptions.entrySet())
             target = conditionalQueryParam(entry.getKey().name, entry.getValue(), target);
 
-        boolean tokenIsInvalid = this.currentAccessToken == null;
+        boolean tokenWasRejected = false;
         WebTarget finalTarget;
+        String token = null;
         do {
-            //add token if authorization available
-            if (authenticationDetails != null) {
-                if ( tokenIsInvalid )
-                    authenticateWithAccountAndRetrieveValidToken(); //throws Exception if unsuccessful
-                finalTarget = target.queryParam("token", this.currentAccessToken);
+            //add token if authorization available - only waits if there is no valid token yet
+            if (tokenManager != null) {
+                token = tokenManager.getToken(); //throws Exception if authentication unsuccessful
+                finalTarget = target.queryParam("token", token);
             } else
                 finalTarget = target;
             //execute request
@@ -252,10 +298,11 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
                 GeocodingResponse reqResponse = validateGeocodingResponse(response);
                 if (reqResponse.wasErrorResponse() &&
                         reqResponse.getError().getCode().equals(ESRI_ERROR_INVALID_TOKEN)) {
-                    if( tokenIsInvalid ) // do not loop a second time - instead throw an error
+                    if( tokenWasRejected ) // do not loop a third time - instead throw an error
                         throw new Route360ClientException( Thread.currentThread() + "Freshly retrieved token already " +
                                 "invalid - should never happen: \n" + POJOUtil.prettyPrintPOJO(reqResponse.getError()));
-                    tokenIsInvalid = true;
+                    tokenManager.invalidate(token);
+                    tokenWasRejected = true;
                 } else
                     return reqResponse; //successful request with valid response (can also be an error unrelated to the token validity)
             } finally {
@@ -264,39 +311,22 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         } while (true);
         // The above while-loop is looping at least once and a maximum of two times - there are three possible outcomes:
         // (1) The authentication (either executed in the first or second loop iteration) produced an error -> Route360ClientException
-        // (2) An Token invalid error occurred AFTER a token was retrieved through authentication -> Route360ClientException
+        // (2) An Token invalid error occurred AFTER the rejected token was replaced by a new one -> Route360ClientException
         // (3) The geocoding request finished "successfully" without the above two errors:
-        //      (3a) Token there and still valid -> valid response
+        //      (3a) Token there and still valid (possibly renewed in the background) -> valid response
         //      (3b) Token not there -> authentication -> request -> valid response
-        //      (3c) Token there but invalid -> 2. iteration of loop -> (3b)
+        //      (3c) Token there but rejected -> invalidated -> 2. iteration of loop -> (3b)
         //     Note that a valid response can also be an error caused by a different request problem
     }
 
-    /**
-     * Private method to make sure a valid access token is set for the next request
-     *
-     * @return true if successful
-     * @throws Route360ClientException if unsuccessful
-     */
-    private boolean authenticateWithAccountAndRetrieveValidToken() throws Route360ClientException {
-
-        this.currentAccessToken = null;
-        synchronized (this.authenticationDetails) {
-            //make sure only one authorization is carried out
-            if (this.currentAccessToken == null)
-                this.currentAccessToken = retrieveNewTokenViaAuthentication();
-        }
-        return true;
-    }
-
     /**
      * Caries out the authentication against the ESRI service interface - uses authenticationDetails to retrieve a
-     * valid token (which can expire after a while)
+     * valid token (which can expire after a while). It is only called by the {@link ESRITokenManager}.
      *
-     * @return the access token
-     * @throws Route360ClientException if unsuccessful - otherwise returns the access token
+     * @return the authentication response with the access token and its lifetime
+     * @throws Route360ClientException if unsuccessful - otherwise returns the authentication response
      */
-    private String retrieveNewTokenViaAuthentication() throws Route360ClientException {
+    private AuthenticationResponse retrieveNewTokenViaAuthentication() throws Route360ClientException {
         WebTarget target = client
                 .target(URI_AUTHENTICATION)
                 .path(PATH_AUTHENTICATION)
@@ -318,14 +348,15 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         } finally {
             response.close();
         }
-        return auth.getAccessToken();
+        return auth;
     }
 
     /**
-     * Facilitating a parallel batch request for geocoding multiple addresses given as single String. It uses an
-     * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
-     * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * Facilitating a parallel batch request for geocoding multiple addresses given as single String. It uses a
+     * {@link GeocodingBatchExecutor} with a specified thread pool size, which is shut down when the batch is finished.
+     * These threads are used to request single geocoding results in parallel. Due to temporal unavailability of the
+     * service the request may be repeated a number of times with exponential backoff before failing. For large or
+     * repeated batches a long-lived {@link GeocodingBatchExecutor} should be used instead.
      *
      * @see GeocodingRequest#get(String)
      *
@@ -343,10 +374,11 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
     }
 
     /**
-     * Facilitating a parallel batch request for geocoding multiple {@link Address Addresses}. It uses an
-     * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
-     * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * Facilitating a parallel batch request for geocoding multiple {@link Address Addresses}. It uses a
+     * {@link GeocodingBatchExecutor} with a specified thread pool size, which is shut down when the batch is finished.
+     * These threads are used to request single geocoding results in parallel. Due to temporal unavailability of the
+     * service the request may be repeated a number of times with exponential backoff before failing. For large or
+     * repeated batches a long-lived {@link GeocodingBatchExecutor} should be used instead.
      *
      * @see GeocodingRequest#get(Address)
      *
@@ -364,10 +396,11 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
     }
 
     /**
-     * Private Method facilitating a parallel batch request for geocoding multiple addresses. It uses an
-     * {@link ExecutorService} with a specified thread pool size. These threads are used to request single geocoding
-     * results in parallel. Due to temporal unavailability of the service the request may be repeated a number
-     * of times before failing.
+     * Private Method facilitating a parallel batch request for geocoding multiple addresses. It uses a
+     * {@link GeocodingBatchExecutor} with a specified thread pool size, which is shut down when the batch is finished.
+     * These threads are used to request single geocoding results in parallel. Due to temporal unavailability of the
+     * service the request may be repeated a number of times with exponential backoff before failing. For large or
+     * repeated batches a long-lived {@link GeocodingBatchExecutor} should be used instead.
      *
      * @see GeocodingRequest#get(Function)
      *
@@ -392,51 +425,20 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         if(addresses == null || addresses.length == 0)
             throw new Route360ClientRuntimeException("The addresses array has to be not null and contain at least one element.");
 
-        final ExecutorService executor = Executors.newFixedThreadPool(parallelThreads);
-        final List<Callable<GeocodingResponse>> requests = new ArrayList<>();
-        for (A singleAddress : addresses) {
-            requests.add( () -> { //Adding individual Callables to be executed in available parallel Threads
-                // will terminate after the n-th try
-                for( int numberOfTries = 0; numberOfTries < triesBeforeFail; numberOfTries ++) {
-                    try {
-                        return singleRequest.get(singleAddress);
-                        // special case since the service is sometimes unavailable when too many parallel requests are processed
-                    } catch (ServiceUnavailableException e) { /* do nothing, i.e. ignore the exception and try again */ }
-                }
-                throw new ServiceUnavailableException("Even after " + triesBeforeFail + " tries the service was still " +
-                        "unavailable. Try reducing the thread number or increasing the number of tries.");
+        final GeocodingResponse[] resultArray = new GeocodingResponse[addresses.length];
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(this)
+                .threads(parallelThreads).maxInFlight(parallelThreads).maxTries(triesBeforeFail).build()) {
+            executor.forEach(singleRequest, Arrays.asList(addresses).iterator(), result -> {
+                if (result.isSuccess())
+                    resultArray[(int) result.getIndex()] = result.getResponse();
+                else
+                    failure.compareAndSet(null, result.getException());
             });
         }
-        try {
-            //Execution of the requests
-            List<Future<GeocodingResponse>> results = executor.invokeAll(requests);
-            //at finish shutdown of the parallel executor
-            shutdownServiceExecutor(executor);
-            //Collecting results
-            GeocodingResponse[] resultArray = new GeocodingResponse[addresses.length];
-            int i = 0;
-            for(Future<GeocodingResponse> result : results)
-                resultArray[i++] = result.get();
-            return resultArray;
-        } catch(InterruptedException | ExecutionException e) {
-            throw new Route360ClientException("Parallel Execution Failed! Cause: ", e);
-        }
-    }
-
-    /**
-     * Oracle's proposed routine to savely shutdown the {@link ExecutorService}.
-     * @param executor
-     * @throws InterruptedException
-     */
-    private void shutdownServiceExecutor(ExecutorService executor) throws InterruptedException {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(800, TimeUnit.MILLISECONDS))
-                executor.shutdownNow();
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            throw e;
-        }
+        if (failure.get() != null)
+            throw new Route360ClientException("Parallel Execution Failed! Cause: ", failure.get());
+        return resultArray;
     }
 
     /**
@@ -467,8 +469,11 @@ public class GeocodingRequest implements GetRequest<String, GeocodingResponse> {
         return getBatchSequential( this::get, addresses);
     }
 
+    /**
+     * @return the access token currently used for requests - null without ESRI credentials or before the first request
+     */
     public String getCurrentAccessToken() {
-        return currentAccessToken;
+        return tokenManager == null ? null : tokenManager.getCurrentToken();
     }
 
     /**
@@ -0,0 +1,164 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.metrics.Histogram;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures hedged requests of a {@link Route360Client}, see {@link Route360Client.Builder#hedging(HedgingPolicy)}.
+ *
+ * <p>
+ * Requests which support a fallback service (reachability and statistics) are sent to the fallback service as well if
+ * the primary service has not answered within the hedging delay. The first successful response is used and the other
+ * exchange is cancelled. The delay is the configured percentile of the latencies observed for the primary service of
+ * the endpoint, bounded by the minimum and maximum delay. Until enough latencies have been observed the initial delay
+ * is used.
+ * </p>
+ *
+ * <pre>
+ * Route360Client client = Route360Client.newBuilder()
+ *         .hedging(HedgingPolicy.newBuilder().percentile(0.95).maxDelay(2, TimeUnit.SECONDS).build())
+ *         .build();
+ * </pre>
+ */
+public final class HedgingPolicy {
+
+	public static final double DEFAULT_PERCENTILE          = 0.95;
+	public static final int DEFAULT_MIN_SAMPLES            = 20;
+	public static final long DEFAULT_INITIAL_DELAY_MILLIS  = 1000;
+	public static final long DEFAULT_MIN_DELAY_MILLIS      = 10;
+	public static final long DEFAULT_MAX_DELAY_MILLIS      = TimeUnit.SECONDS.toMillis(10);
+
+	private final double percentile;
+	private final int minSamples;
+	private final long initialDelayNanos;
+	private final long minDelayNanos;
+	private final long maxDelayNanos;
+	private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+	private HedgingPolicy(Builder builder) {
+		this.percentile        = builder.percentile;
+		this.minSamples        = builder.minSamples;
+		this.initialDelayNanos = builder.initialDelayNanos;
+		this.minDelayNanos     = builder.minDelayNanos;
+		this.maxDelayNanos     = builder.maxDelayNanos;
+	}
+
+	/**
+	 * @return builder for a new policy
+	 */
+	public static Builder newBuilder() {
+		return new Builder();
+	}
+
+	/**
+	 * @param endpoint Name of the endpoint, e.g. "reachability"
+	 * @return time to wait for the primary service before the hedged request is sent, in nanoseconds
+	 */
+	public long getDelayNanos(String endpoint) {
+		Histogram histogram = latencies.get(endpoint);
+		if (histogram == null || histogram.getCount() < minSamples)
+			return initialDelayNanos;
+		return Math.max(minDelayNanos, Math.min(maxDelayNanos, histogram.getPercentile(percentile)));
+	}
+
+	/**
+	 * @param endpoint Name of the endpoint
+	 * @param nanos Latency of a successful exchange with the primary service
+	 */
+	void recordLatency(String endpoint, long nanos) {
+		latencies.computeIfAbsent(endpoint, e -> new Histogram()).record(nanos);
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	/**
+	 * Builder for {@link HedgingPolicy}.
+	 */
+	public static final class Builder {
+
+		private double percentile      = DEFAULT_PERCENTILE;
+		private int minSamples         = DEFAULT_MIN_SAMPLES;
+		private long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_DELAY_MILLIS);
+		private long minDelayNanos     = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MIN_DELAY_MILLIS);
+		private long maxDelayNanos     = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_DELAY_MILLIS);
+
+		private Builder() {
+		}
+
+		/**
+		 * @param percentile percentile of the primary latency after which the hedged request is sent. Default: 0.95
+		 * @return this builder
+		 */
+		public Builder percentile(double percentile) {
+			if (percentile <= 0 || percentile > 1)
+				throw new IllegalArgumentException("percentile has to be in (0, 1], but was " + percentile);
+			this.percentile = percentile;
+			return this;
+		}
+
+		/**
+		 * @param minSamples number of latencies needed before the percentile is used. Default: 20
+		 * @return this builder
+		 */
+		public Builder minSamples(int minSamples) {
+			if (minSamples < 0)
+				throw new IllegalArgumentException("minSamples must not be negative, but was " + minSamples);
+			this.minSamples = minSamples;
+			return this;
+		}
+
+		/**
+		 * @param delay delay used until enough latencies have been observed. Default: 1 second
+		 * @param unit unit of the delay
+		 * @return this builder
+		 */
+		public Builder initialDelay(long delay, TimeUnit unit) {
+			this.initialDelayNanos = toNanos("initialDelay", delay, unit);
+			return this;
+		}
+
+		/**
+		 * @param delay lower bound of the delay. Default: 10 milliseconds
+		 * @param unit unit of the delay
+		 * @return this builder
+		 */
+		public Builder minDelay(long delay, TimeUnit unit) {
+			this.minDelayNanos = toNanos("minDelay", delay, unit);
+			return this;
+		}
+
+		/**
+		 * @param delay upper bound of the delay. Default: 10 seconds
+		 * @param unit unit of the delay
+		 * @return this builder
+		 */
+		public Builder maxDelay(long delay, TimeUnit unit) {
+			this.maxDelayNanos = toNanos("maxDelay", delay, unit);
+			return this;
+		}
+
+		private static long toNanos(String name, long delay, TimeUnit unit) {
+			if (delay < 0)
+				throw new IllegalArgumentException(name + " must not be negative, but was " + delay);
+			return unit.toNanos(delay);
+		}
+
+		/**
+		 * @return a new policy
+		 */
+		public HedgingPolicy build() {
+			if (minDelayNanos > maxDelayNanos)
+				throw new IllegalArgumentException("minDelay must not be greater than maxDelay");
+			return new HedgingPolicy(this);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package net.motionintelligence.client.api.request;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.exception.Route360ClientException;
 import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.response.OverpassParser;
 import net.motionintelligence.client.api.response.OverpassResponse;
 import net.motionintelligence.client.api.util.IOUtil;
 import net.motionintelligence.client.api.util.JsonUtil;
@@ -11,12 +12,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Find reachable openstreetmap pois with this class.
@@ -26,19 +31,18 @@ public class OverpassRequest {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(OverpassRequest.class);
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 	private static final String CALLBACK = "callback";
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client is the shared {@link Route360Client#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public OverpassRequest(TravelOptions travelOptions) {
 
-		this.client	= ClientBuilder.newClient();
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 
 	/**
@@ -48,6 +52,16 @@ public class OverpassRequest {
 	 */
 	public OverpassRequest(Client client, TravelOptions travelOptions){
 
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options and method
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public OverpassRequest(Route360Client client, TravelOptions travelOptions){
+
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
@@ -67,8 +81,8 @@ public class OverpassRequest {
 		long start = System.currentTimeMillis();
 		try {
 
-			final OverpassResponse overpassResponse = new OverpassRequest(tp).get();
-			final Map<String, Coordinate> targets = overpassResponse.getTargets();
+			final Map<String, Coordinate> targets = new HashMap<>();
+			new OverpassRequest(tp).get(coordinate -> targets.put(coordinate.getId(), coordinate));
 			System.out.println(String.format("Targets: %s", targets.size()));
 		}
 		catch (Exception e){
@@ -97,9 +111,65 @@ public class OverpassRequest {
 
 		LOGGER.debug(String.format("Executing overpass query to URI: '%s'", target.getUri()));
 
-		Response response = target.request().post(entity);
+		return client.execute("overpass", target, builder -> builder.post(entity), response -> validateResponse(response, requestStart));
+	}
+
+	/**
+	 * Execute request and pass the POIs to the consumer while the response is read, without holding the response
+	 * or all POIs in memory. Use this for large extracts, e.g. <code>request.get(travelOptions::addTarget)</code>.
+	 * @param consumer receives the POIs in the order of the response, on the calling thread
+	 * @return number of POIs
+	 * @throws Route360ClientException In case of error other than Gateway Timeout or if the response could not be read
+	 */
+	public long get(Consumer<? super Coordinate> consumer) throws Route360ClientException {
+
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget target = client.target(travelOptions.getOverpassServiceUrl()).path("/api/interpreter");
+
+		if (travelOptions.getOverpassQuery() == null || travelOptions.getOverpassQuery().isEmpty())
+			throw new Route360ClientException("Empty query");
+
+		final Entity<String> entity = Entity.entity(travelOptions.getOverpassQuery(), MediaType.APPLICATION_JSON_TYPE);
+
+		LOGGER.debug(String.format("Streaming overpass query to URI: '%s'", target.getUri()));
+
+		return client.execute("overpass", target, builder -> builder.post(entity), response -> {
+
+			if (response.getStatus() != Response.Status.OK.getStatusCode())
+				throw new Route360ClientException(response.readEntity(String.class), null);
+
+			try (InputStream result = IOUtil.getResultStream(response)) {
+				long count = OverpassParser.parse(travelOptions, result, consumer);
+				LOGGER.debug(String.format("Read %s POIs in %sms", count, System.currentTimeMillis() - requestStart));
+				return count;
+			}
+			catch (IOException e) {
+				throw new Route360ClientException("Could not read overpass response: " + e.getMessage(), e);
+			}
+		});
+	}
+
+	/**
+	 * Execute request without blocking the calling thread
+	 * @return future of the overpass response, completed exceptionally with a {@link Route360ClientException}
+	 * in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<OverpassResponse> getAsync() {
+
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget target = client.target(travelOptions.getOverpassServiceUrl()).path("/api/interpreter");
+
+		if (travelOptions.getOverpassQuery() == null || travelOptions.getOverpassQuery().isEmpty())
+			return Route360Client.failed(new Route360ClientException("Empty query"));
+
+		final Entity<String> entity = Entity.entity(travelOptions.getOverpassQuery(), MediaType.APPLICATION_JSON_TYPE);
+
+		LOGGER.debug(String.format("Executing overpass query to URI: '%s'", target.getUri()));
 
-		return validateResponse(response, requestStart);
+		return client.executeAsync("overpass", target, (invoker, callback) -> invoker.post(entity, callback),
+				response -> validateResponse(response, requestStart));
 	}
 
 	/**
@@ -2,7 +2,7 @@ package net.motionintelligence.client.api.request;
 
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.exception.Route360ClientException;
-import net.motionintelligence.client.api.request.config.RequestConfigurator;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
 import net.motionintelligence.client.api.response.PointOfInterestResponse;
 import net.motionintelligence.client.api.util.IOUtil;
 import net.motionintelligence.client.api.util.JsonUtil;
@@ -11,11 +11,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Find reachable openstreetmap pois with this class.
@@ -25,19 +25,18 @@ public class PointOfInterestRequest {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(PointOfInterestRequest.class);
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 	private static final String CALLBACK = "callback";
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client is the shared {@link Route360Client#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public PointOfInterestRequest(TravelOptions travelOptions) {
 
-		this.client	= ClientBuilder.newClient();
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 
 	/**
@@ -47,6 +46,16 @@ public class PointOfInterestRequest {
 	 */
 	public PointOfInterestRequest(Client client, TravelOptions travelOptions){
 
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options and method
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public PointOfInterestRequest(Route360Client client, TravelOptions travelOptions){
+
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
@@ -64,15 +73,39 @@ public class PointOfInterestRequest {
 				.queryParam("cb", CALLBACK)
 				.queryParam("key", travelOptions.getServiceKey());
 
-		final Entity<String> entity = Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+		final Entity<StreamingOutput> entity = StreamingRequestConfigurator.getEntity(travelOptions);
 
 		LOGGER.debug(String.format("Executing reachability request to URI: '%s'", target.getUri()));
 
-		Response response = target.request().post(entity);
+		return client.execute("pointsofinterest", target, builder -> builder.post(entity),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	/**
+	 * Execute request without blocking the calling thread
+	 * @return future of the point of interest response, completed exceptionally with a
+	 * {@link Route360ClientException} in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<PointOfInterestResponse> getAsync() {
 
-		long roundTripTime = System.currentTimeMillis() - requestStart;
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget target = client.target(travelOptions.getPointOfInterestServiceUrl()).path("/reachability")
+				.queryParam("cb", CALLBACK)
+				.queryParam("key", travelOptions.getServiceKey());
+
+		final Entity<StreamingOutput> entity;
+		try {
+			entity = StreamingRequestConfigurator.getEntity(travelOptions);
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
+		}
+
+		LOGGER.debug(String.format("Executing reachability request to URI: '%s'", target.getUri()));
 
-		return validateResponse(response, requestStart, roundTripTime);
+		return client.executeAsync("pointsofinterest", target, (invoker, callback) -> invoker.post(entity, callback),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
 	}
 
 	/**
@@ -2,20 +2,33 @@ package net.motionintelligence.client.api.request;
 
 import net.motionintelligence.client.Constants;
 import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.PolygonSerializerType;
 import net.motionintelligence.client.api.exception.Route360ClientException;
 import net.motionintelligence.client.api.request.config.RequestConfigurator;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
 import net.motionintelligence.client.api.request.ssl.SslClientGenerator;
 import net.motionintelligence.client.api.response.PolygonResponse;
+import net.motionintelligence.client.api.response.polygon.BinaryIsochroneReader;
+import net.motionintelligence.client.api.response.polygon.IsochroneSet;
 import net.motionintelligence.client.api.util.IOUtil;
 import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONObject;
 
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Creates polygons for the source points with specified travel times in minutes.
@@ -25,7 +38,7 @@ import javax.ws.rs.core.Response;
  */
 public class PolygonRequest {
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 	private String method;
 
@@ -34,14 +47,22 @@ public class PolygonRequest {
 	 * @param client Client to be used
 	 */
 	public PolygonRequest(Client client) {
+		this(Route360Client.wrap(client));
+	}
+
+	/**
+	 * Use a shared transport
+	 * @param client Transport to be used
+	 */
+	public PolygonRequest(Route360Client client) {
 		this.client	= client;
 	}
 
 	/**
-	 * Use default Client. See {@link SslClientGenerator}
+	 * Use default Client. See {@link SslClientGenerator#getSharedClient()}
 	 */
 	public PolygonRequest() {
-		this(SslClientGenerator.initClient());
+		this(SslClientGenerator.getSharedClient());
 	}
 
 	/**
@@ -70,6 +91,15 @@ public class PolygonRequest {
 	 * @param travelOptions Travel options parameters
 	 */
 	public PolygonRequest(Client client, TravelOptions travelOptions) {
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified travelOptions
+	 * @param client Transport to be used
+	 * @param travelOptions Travel options parameters
+	 */
+	public PolygonRequest(Route360Client client, TravelOptions travelOptions) {
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
@@ -91,29 +121,65 @@ public class PolygonRequest {
 
 		long startTimeMillis = System.currentTimeMillis();
 
-		WebTarget request = client.target(travelOptions.getServiceUrl())
-				.path("v1/polygon")
-				.queryParam("cb", Constants.CALLBACK)
-				.queryParam("key", travelOptions.getServiceKey());
+		WebTarget request = createTarget();
 
 		// Execute request
-		Response response;
-		String config = RequestConfigurator.getConfig(travelOptions);
+		Function<Invocation.Builder, Response> call;
 		if (HttpMethod.GET.equals(method)) {
-			request  = request.queryParam("cfg", IOUtil.encode(config));
-			response = request.request().get();
+			request  = request.queryParam("cfg", IOUtil.encode(RequestConfigurator.getConfig(travelOptions)));
+			call     = Invocation.Builder::get;
 		}
 		else if (HttpMethod.POST.equals(method)) {
-			response = request.request().post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
+			Entity<StreamingOutput> entity = StreamingRequestConfigurator.getEntity(travelOptions);
+			call     = builder -> builder.post(entity);
 		} else {
 			throw new Route360ClientException("HTTP Method not supported: " + this.method, null);
 		}
 
-		// Execution time
-		long roundTripTimeMillis = (System.currentTimeMillis() - startTimeMillis);
+		// Validate & return, execution time is taken before parsing
+		return client.execute("polygon", request, call,
+				response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+	}
+
+	/**
+	 * Execute request without blocking the calling thread
+	 * @return future of the polygon response, completed exceptionally with a {@link Route360ClientException}
+	 * in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<PolygonResponse> getAsync() {
 
-		// Validate & return
-		return validateResponse(response, roundTripTimeMillis);
+		long startTimeMillis = System.currentTimeMillis();
+
+		WebTarget request = createTarget();
+
+		// Execute request
+		Route360Client.AsyncCall call;
+		try {
+			if (HttpMethod.GET.equals(method)) {
+				request  = request.queryParam("cfg", IOUtil.encode(RequestConfigurator.getConfig(travelOptions)));
+				call     = AsyncInvoker::get;
+			}
+			else if (HttpMethod.POST.equals(method)) {
+				Entity<StreamingOutput> entity = StreamingRequestConfigurator.getEntity(travelOptions);
+				call     = (invoker, callback) -> invoker.post(entity, callback);
+			} else {
+				throw new Route360ClientException("HTTP Method not supported: " + this.method, null);
+			}
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
+		}
+
+		// Validate & return, execution time is taken before parsing
+		return client.executeAsync("polygon", request, call,
+				response -> validateResponse(response, System.currentTimeMillis() - startTimeMillis));
+	}
+
+	private WebTarget createTarget() {
+		return client.target(travelOptions.getServiceUrl())
+				.path("v1/polygon")
+				.queryParam("cb", Constants.CALLBACK)
+				.queryParam("key", travelOptions.getServiceKey());
 	}
 
 	/**
@@ -127,7 +193,28 @@ public class PolygonRequest {
 			throws Route360ClientException {
 
 		// Check HTTP status
-		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+		if (response.getStatus() == Response.Status.OK.getStatusCode()
+				&& travelOptions.getPolygonSerializerType() != PolygonSerializerType.GEO_JSON_POLYGON_SERIALIZER) {
+
+			// decode the polygons while they are streamed, without materializing the body
+			PolygonResponse polygonResponse;
+			try (InputStream result = new BufferedInputStream(IOUtil.getResultStream(response))) {
+				// errors are reported as JSON even if the binary format has been requested
+				if (travelOptions.getPolygonSerializerType() == PolygonSerializerType.BINARY_POLYGON_SERIALIZER
+						&& BinaryIsochroneReader.isBinary(result))
+					return readBinary(result, roundTripTimeMillis);
+
+				polygonResponse = new PolygonResponse(travelOptions, result, roundTripTimeMillis);
+			}
+			catch (IOException e) {
+				throw new Route360ClientException("Could not read polygon response: " + e.getMessage(), e);
+			}
+
+			if (isError(polygonResponse.getCode()))
+				throw new Route360ClientException(polygonResponse.getCode() + ": " + polygonResponse.getMessage(), null);
+
+			return polygonResponse;
+		} else if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 			String resultString = IOUtil.getResultString(response);
 
 			long startParsing = System.currentTimeMillis();
@@ -135,11 +222,7 @@ public class PolygonRequest {
 			long parseTime = System.currentTimeMillis() - startParsing;
 
 			// Check response code
-			final String responseCode = JsonUtil.getString(result, "code");
-			if (Constants.EXCEPTION_ERROR_CODE_NO_ROUTE_FOUND.equals(responseCode)
-					|| Constants.EXCEPTION_ERROR_CODE_COULD_NOT_CONNECT_POINT_TO_NETWORK.equals(responseCode)
-					|| Constants.EXCEPTION_ERROR_CODE_TRAVEL_TIME_EXCEEDED.equals(responseCode)
-					|| Constants.EXCEPTION_ERROR_CODE_UNKNOWN_EXCEPTION.equals(responseCode)) {
+			if (isError(JsonUtil.getString(result, "code"))) {
 				throw new Route360ClientException(result.toString(), null);
 			}
 
@@ -153,6 +236,28 @@ public class PolygonRequest {
 		}
 	}
 
+	private PolygonResponse readBinary(final InputStream result, final long roundTripTimeMillis)
+			throws Route360ClientException, IOException {
+
+		long startParsing = System.nanoTime();
+		BinaryIsochroneReader reader = new BinaryIsochroneReader(result);
+		if (isError(reader.getCode()))
+			throw new Route360ClientException(reader.getCode() + ": " + reader.getMessage(), null);
+
+		List<IsochroneSet> isochroneSets = reader.readIsochroneSets();
+		long parseTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startParsing);
+
+		return new PolygonResponse(travelOptions, isochroneSets, reader.getCode(), reader.getRequestTime(),
+				roundTripTimeMillis, parseTime);
+	}
+
+	private static boolean isError(final String responseCode) {
+		return Constants.EXCEPTION_ERROR_CODE_NO_ROUTE_FOUND.equals(responseCode)
+				|| Constants.EXCEPTION_ERROR_CODE_COULD_NOT_CONNECT_POINT_TO_NETWORK.equals(responseCode)
+				|| Constants.EXCEPTION_ERROR_CODE_TRAVEL_TIME_EXCEEDED.equals(responseCode)
+				|| Constants.EXCEPTION_ERROR_CODE_UNKNOWN_EXCEPTION.equals(responseCode);
+	}
+
 	/**
 	 * Specify HTTP method to be used
 	 * @param method HTTP method (GET or POST)
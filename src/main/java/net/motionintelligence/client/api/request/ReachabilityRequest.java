@@ -3,20 +3,22 @@ package net.motionintelligence.client.api.request;
 import net.motionintelligence.client.Constants;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.exception.Route360ClientException;
-import net.motionintelligence.client.api.request.config.RequestConfigurator;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
 import net.motionintelligence.client.api.response.ReachabilityResponse;
-import net.motionintelligence.client.api.util.JsonUtil;
+import net.motionintelligence.client.api.util.IOUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Calculates travel time for each source point to all targets, or -1 if unreachable.
@@ -26,19 +28,18 @@ public class ReachabilityRequest {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ReachabilityRequest.class);
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 	private static final String CALLBACK = "callback";
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client is the shared {@link Route360Client#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public ReachabilityRequest(TravelOptions travelOptions) {
 
-		this.client	= ClientBuilder.newClient();
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 
 	/**
@@ -48,17 +49,31 @@ public class ReachabilityRequest {
 	 */
 	public ReachabilityRequest(Client client, TravelOptions travelOptions){
 
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options and method
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public ReachabilityRequest(Route360Client client, TravelOptions travelOptions){
+
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
 
 	/**
-	 * Execute request
+	 * Execute request. If the client is configured with a {@link HedgingPolicy}, the request is hedged against the
+	 * fallback service, see {@link #getAsync()}.
 	 * @return Reachability response
 	 * @throws Route360ClientException In case of error other than Gateway Timeout
 	 */
 	public ReachabilityResponse get() throws Route360ClientException {
 
+		if (client.getHedgingPolicy() != null)
+			return Route360Client.await(getAsync());
+
 		long requestStart = System.currentTimeMillis();
 
 		WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/reachability")
@@ -66,35 +81,70 @@ public class ReachabilityRequest {
 				.queryParam("key", travelOptions.getServiceKey())
                 .queryParam(Constants.INTER_SERVICE_KEY, travelOptions.getInterServiceKey());
 
-		final Entity<String> entity = Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+		final Entity<StreamingOutput> entity = StreamingRequestConfigurator.getEntity(travelOptions);
 
 		LOGGER.debug(String.format("Executing reachability request to URI: '%s'", target.getUri()));
 
-		Response response;
-
 		try {
 
 			// Execute POST request
-			response = target.request().post(entity);
+			return client.execute("reachability", target, builder -> builder.post(entity),
+					response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
 		}
 		// this can happen for example if we are doing a request and restart the corresponding
 		// route360 service on the same machine, in case of a fallback we need to try a different host
 		// but only once
 		catch ( ProcessingException exception ) {
 
-			target = client.target(travelOptions.getFallbackServiceUrl()).path("v1/reachability")
-					.queryParam("cb", CALLBACK)
-					.queryParam("key", travelOptions.getServiceKey());
+			client.getMetrics().fallbackUsed("reachability");
+
+			target = createFallbackTarget();
 
 			LOGGER.debug(String.format("Executing reachability request to URI: '%s'", target.getUri()));
 
 			// Execute POST request
-			response = target.request().post(entity);
+			return client.execute("reachability", target, builder -> builder.post(entity),
+					response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+		}
+	}
+
+	/**
+	 * Execute request without blocking the calling thread. As with {@link #get()} the fallback service is
+	 * requested once if the request to the primary service fails with a {@link ProcessingException}. If the client
+	 * is configured with a {@link HedgingPolicy}, the fallback service is requested as well if the primary service
+	 * has not answered within the hedging delay, see
+	 * {@link Route360Client#executeHedgedAsync(String, WebTarget, WebTarget, Route360Client.AsyncCall, Route360Client.ResponseHandler)}.
+	 * @return future of the reachability response, completed exceptionally with a {@link Route360ClientException}
+	 * in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<ReachabilityResponse> getAsync() {
+
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/reachability")
+				.queryParam("cb", CALLBACK)
+				.queryParam("key", travelOptions.getServiceKey())
+				.queryParam(Constants.INTER_SERVICE_KEY, travelOptions.getInterServiceKey());
+
+		final Entity<StreamingOutput> entity;
+		try {
+			entity = StreamingRequestConfigurator.getEntity(travelOptions);
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
 		}
 
-		long roundTripTime = System.currentTimeMillis() - requestStart;
+		LOGGER.debug(String.format("Executing reachability request to URI: '%s'", target.getUri()));
 
-		return validateResponse(response, requestStart, roundTripTime);
+		return client.executeHedgedAsync("reachability", target, createFallbackTarget(),
+				(invoker, callback) -> invoker.post(entity, callback),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	private WebTarget createFallbackTarget() {
+		return client.target(travelOptions.getFallbackServiceUrl()).path("v1/reachability")
+				.queryParam("cb", CALLBACK)
+				.queryParam("key", travelOptions.getServiceKey());
 	}
 
 	/**
@@ -110,9 +160,13 @@ public class ReachabilityRequest {
 			throws Route360ClientException {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-			// consume the results
-			String res = response.readEntity(String.class);
-			return new ReachabilityResponse(travelOptions, JsonUtil.parseString(res), requestStart);
+			// consume the results while they are streamed, without materializing the body
+			try (InputStream result = IOUtil.getResultStream(response)) {
+				return new ReachabilityResponse(travelOptions, result, requestStart);
+			}
+			catch (IOException e) {
+				throw new Route360ClientException("Could not read reachability response: " + e.getMessage(), e);
+			}
 		} else if (response.getStatus() == Response.Status.GATEWAY_TIMEOUT.getStatusCode()) {
 			return new ReachabilityResponse(travelOptions, "gateway-time-out", roundTripTime, requestStart);
 		} else {
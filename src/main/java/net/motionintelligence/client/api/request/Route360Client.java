@@ -0,0 +1,1085 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.metrics.Route360Metrics;
+import net.motionintelligence.client.api.metrics.Route360MetricsFilter;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
+import net.motionintelligence.client.api.request.pool.EndpointPool;
+import net.motionintelligence.client.api.request.pool.PooledEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Shared, thread-safe HTTP transport for all request classes.
+ *
+ * <p>
+ * A {@link Route360Client} owns exactly one JAX-RS {@link Client}, so the connection pool / keep-alive cache of the
+ * underlying JAX-RS implementation is reused across requests instead of creating a new connector (and a new TLS
+ * session) for every request object. On top of that it limits the number of concurrent requests per route
+ * (scheme, host and port).
+ * </p>
+ * <p>
+ * This per-route limit is a concurrency limiter, not a connection pool: the connections themselves are opened, kept
+ * alive and closed by the connector of the JAX-RS implementation. Keep-alive and pooling are configured at the
+ * connector, e.g. with the <code>http.keepAlive</code> and <code>http.maxConnections</code> system properties
+ * for Jersey's default connector, or with Jersey's Apache connector and its own connection manager through
+ * {@link Builder#clientBuilder(ClientBuilder)} and {@link Builder#property(String, Object)}.
+ * </p>
+ *
+ * <pre>
+ * Route360Client client = Route360Client.newBuilder()
+ *         .maxConcurrentRequestsPerRoute(50)
+ *         .build();
+ * TimeResponse response = new TimeRequest(client, options).get();
+ * </pre>
+ * <p>
+ * All request classes additionally offer a non-blocking <code>getAsync()</code> which is executed via the JAX-RS
+ * {@link AsyncInvoker}. Asynchronous requests never block a thread while waiting for a free slot of their route, they
+ * are queued instead. Responses are validated and parsed on the executor configured with
+ * {@link Builder#executor(Executor)}.
+ * </p>
+ * <p>
+ * Latency, payload sizes and parse times of all exchanges are reported to the {@link Route360Metrics} configured with
+ * {@link Builder#metrics(Route360Metrics)}.
+ * </p>
+ * <p>
+ * Requests to a service URL for which an {@link EndpointPool} is configured with
+ * {@link Builder#endpointPool(EndpointPool)} are distributed over the endpoints of the pool.
+ * </p>
+ * <p>
+ * Compressed responses are decoded transparently, compression of large request bodies can be enabled with
+ * {@link Builder#compression(CompressionPolicy)}.
+ * </p>
+ */
+public class Route360Client implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Route360Client.class);
+
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_ROUTE = 20;
+	public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS           = TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * Time after which the bookkeeping of a route without requests is dropped
+	 */
+	private static final long ROUTE_IDLE_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+	private final Client client;
+	private final boolean ownsClient;
+	private final int maxConcurrentRequestsPerRoute;
+	private final long acquireTimeoutMillis;
+	private final Executor executor;
+	private final Route360Metrics metrics;
+	private final HedgingPolicy hedging;
+	private final List<EndpointPool> pools;
+	private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+	private volatile long lastEviction = System.currentTimeMillis();
+
+	/**
+	 * Handles a response while the exchange still counts against the limit of its route.
+	 * @param <T> type of the parsed response
+	 */
+	@FunctionalInterface
+	public interface ResponseHandler<T> {
+		T handle(Response response) throws Route360ClientException;
+	}
+
+	/**
+	 * Issues an asynchronous invocation, e.g. <code>(invoker, callback) -&gt; invoker.post(entity, callback)</code>.
+	 */
+	@FunctionalInterface
+	public interface AsyncCall {
+		Future<Response> invoke(AsyncInvoker invoker, InvocationCallback<Response> callback);
+	}
+
+	private Route360Client(Client client, boolean ownsClient, int maxConcurrentRequestsPerRoute,
+						   long acquireTimeoutMillis, Executor executor, Route360Metrics metrics,
+						   HedgingPolicy hedging, List<EndpointPool> pools) {
+		this.client                        = client;
+		this.ownsClient                    = ownsClient;
+		this.maxConcurrentRequestsPerRoute = maxConcurrentRequestsPerRoute;
+		this.acquireTimeoutMillis          = acquireTimeoutMillis;
+		this.executor                      = executor;
+		this.metrics                       = metrics;
+		this.hedging                       = hedging;
+		this.pools                         = pools;
+	}
+
+	/**
+	 * The shared default transport used by the request constructors without client parameter.
+	 * It is created on first use with the default settings of {@link Builder}.
+	 * @return shared default client
+	 */
+	public static Route360Client getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Wraps an existing JAX-RS client. The lifecycle of the client is not handled here, i.e. {@link #close()}
+	 * does not close the wrapped client, and no concurrency limit is applied. No metrics are recorded, unless a
+	 * {@link Route360MetricsFilter} is registered with the client and the transport is built with
+	 * {@link Builder#metrics(Route360Metrics)} instead.
+	 * @param client Client implementation to be used
+	 * @return transport using the given client
+	 */
+	public static Route360Client wrap(Client client) {
+		return new Route360Client(client, false, Integer.MAX_VALUE, DEFAULT_ACQUIRE_TIMEOUT_MILLIS,
+				ForkJoinPool.commonPool(), Route360Metrics.NOOP, null, Collections.emptyList());
+	}
+
+	/**
+	 * @return builder for a new transport
+	 */
+	public static Builder newBuilder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return the underlying JAX-RS client
+	 */
+	public Client getClient() {
+		return client;
+	}
+
+	/**
+	 * @return listener notified about all exchanges of this client, {@link Route360Metrics#NOOP} if none is configured
+	 */
+	public Route360Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return policy for hedged requests, null if hedging is disabled
+	 */
+	public HedgingPolicy getHedgingPolicy() {
+		return hedging;
+	}
+
+	/**
+	 * @return endpoint pools of this client
+	 */
+	public List<EndpointPool> getEndpointPools() {
+		return pools;
+	}
+
+	/**
+	 * @param uri URI of a request
+	 * @return the endpoint pool serving the URI, null if the URI is requested directly
+	 */
+	public EndpointPool getEndpointPool(URI uri) {
+		for (EndpointPool pool : pools)
+			if (pool.matches(uri))
+				return pool;
+		return null;
+	}
+
+	/**
+	 * @param uri base URI of the target
+	 * @return web target for the given URI
+	 */
+	public WebTarget target(String uri) {
+		return client.target(uri);
+	}
+
+	/**
+	 * Executes a request against the given target. A slot of the target's route is acquired before the request
+	 * is sent and released after the handler has consumed the response.
+	 *
+	 * @param target Target to be requested
+	 * @param call Invocation to be executed, e.g. <code>builder -&gt; builder.post(entity)</code>
+	 * @param handler Handler validating and parsing the response
+	 * @param <T> type of the parsed response
+	 * @return parsed response
+	 * @throws Route360ClientException In case the handler fails, the thread is interrupted while waiting for a free slot
+	 * or the request body cannot be written, see {@link StreamingRequestConfigurator#getConfigError(Throwable)}
+	 */
+	public <T> T execute(WebTarget target, Function<Invocation.Builder, Response> call, ResponseHandler<T> handler)
+			throws Route360ClientException {
+		return execute(Route360MetricsFilter.getEndpoint(target.getUri()), target, call, handler);
+	}
+
+	/**
+	 * Same as {@link #execute(WebTarget, Function, ResponseHandler)}, with the name of the endpoint under which the
+	 * exchange is reported to the metrics of this client.
+	 *
+	 * @param endpoint Name of the endpoint, e.g. "time"
+	 * @param target Target to be requested
+	 * @param call Invocation to be executed, e.g. <code>builder -&gt; builder.post(entity)</code>
+	 * @param handler Handler validating and parsing the response
+	 * @param <T> type of the parsed response
+	 * @return parsed response
+	 * @throws Route360ClientException In case the handler fails, the thread is interrupted while waiting for a free slot
+	 * or the request body cannot be written, see {@link StreamingRequestConfigurator#getConfigError(Throwable)}
+	 */
+	public <T> T execute(String endpoint, WebTarget target, Function<Invocation.Builder, Response> call,
+						 ResponseHandler<T> handler) throws Route360ClientException {
+
+		EndpointPool pool = getEndpointPool(target.getUri());
+		if (pool == null)
+			return executeDirect(endpoint, target, call, handler);
+
+		PooledEndpoint failed = null;
+		for (int attempt = 0; ; attempt++) {
+
+			EndpointPool.Lease lease = pool.acquire(failed);
+			WebTarget pooled         = client.target(pool.rewrite(target.getUri(), lease.getEndpoint()));
+			long start               = System.nanoTime();
+			try {
+				return executeDirect(endpoint, pooled, call, response -> {
+					rate(lease, response.getStatus(), System.nanoTime() - start);
+					return handler.handle(response);
+				});
+			}
+			catch (ProcessingException e) {
+				lease.failed();
+				if (attempt >= pool.getMaxRetries())
+					throw e;
+				failed = lease.getEndpoint();
+				LOGGER.debug("Request to endpoint {} failed, retrying on another endpoint", failed.getUrl(), e);
+			}
+			finally {
+				lease.cancelled();
+			}
+		}
+	}
+
+	private <T> T executeDirect(String endpoint, WebTarget target, Function<Invocation.Builder, Response> call,
+								ResponseHandler<T> handler) throws Route360ClientException {
+
+		Route route = lease(target);
+		try {
+			Invocation.Builder builder = target.request();
+			builder.property(Route360Metrics.ENDPOINT_PROPERTY, endpoint);
+
+			long start = System.nanoTime();
+			Response response;
+			try {
+				response = call.apply(builder);
+			}
+			catch (RuntimeException e) {
+				metrics.requestFailed(endpoint, e, System.nanoTime() - start);
+				Route360ClientException configError = StreamingRequestConfigurator.getConfigError(e);
+				if (configError != null)
+					throw configError;
+				throw e;
+			}
+			metrics.requestCompleted(endpoint, response.getStatus(), System.nanoTime() - start);
+
+			try {
+				return handle(endpoint, response, handler);
+			}
+			finally {
+				response.close();
+			}
+		}
+		finally {
+			route.release();
+		}
+	}
+
+	/**
+	 * Executes a request against the given target without blocking the calling thread. If the maximum number of
+	 * concurrent requests of the target's route is reached the request is queued until a slot is released. The response is handled on
+	 * the executor of this client. Cancelling the returned future cancels the underlying invocation.
+	 *
+	 * @param target Target to be requested
+	 * @param call Asynchronous invocation to be executed
+	 * @param handler Handler validating and parsing the response
+	 * @param <T> type of the parsed response
+	 * @return future completed with the parsed response or exceptionally with the exception thrown by the
+	 * invocation or the handler, e.g. a {@link Route360ClientException}
+	 */
+	public <T> CompletableFuture<T> executeAsync(WebTarget target, AsyncCall call, ResponseHandler<T> handler) {
+		return executeAsync(Route360MetricsFilter.getEndpoint(target.getUri()), target, call, handler);
+	}
+
+	/**
+	 * Same as {@link #executeAsync(WebTarget, AsyncCall, ResponseHandler)}, with the name of the endpoint under which
+	 * the exchange is reported to the metrics of this client.
+	 *
+	 * @param endpoint Name of the endpoint, e.g. "time"
+	 * @param target Target to be requested
+	 * @param call Asynchronous invocation to be executed
+	 * @param handler Handler validating and parsing the response
+	 * @param <T> type of the parsed response
+	 * @return future completed with the parsed response or exceptionally with the exception thrown by the
+	 * invocation or the handler, e.g. a {@link Route360ClientException}
+	 */
+	public <T> CompletableFuture<T> executeAsync(String endpoint, WebTarget target, AsyncCall call,
+												 ResponseHandler<T> handler) {
+
+		EndpointPool pool = getEndpointPool(target.getUri());
+		if (pool == null)
+			return executeDirectAsync(endpoint, target, call, handler);
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		AtomicReference<CompletableFuture<T>> exchange = new AtomicReference<>();
+		result.whenComplete((value, throwable) -> {
+			if (result.isCancelled())
+				exchange.get().cancel(true);
+		});
+		sendPooled(endpoint, pool, target, call, handler, null, 0, exchange, result);
+		return result;
+	}
+
+	private <T> void sendPooled(String endpoint, EndpointPool pool, WebTarget target, AsyncCall call,
+								ResponseHandler<T> handler, PooledEndpoint failed, int attempt,
+								AtomicReference<CompletableFuture<T>> exchange, CompletableFuture<T> result) {
+
+		EndpointPool.Lease lease = pool.acquire(failed);
+		WebTarget pooled         = client.target(pool.rewrite(target.getUri(), lease.getEndpoint()));
+		long start               = System.nanoTime();
+
+		CompletableFuture<T> current = executeDirectAsync(endpoint, pooled, call, response -> {
+			rate(lease, response.getStatus(), System.nanoTime() - start);
+			return handler.handle(response);
+		});
+		exchange.set(current);
+		if (result.isCancelled())
+			current.cancel(true);
+
+		current.whenComplete((value, throwable) -> {
+			if (throwable == null) {
+				result.complete(value);
+			}
+			else if (throwable instanceof ProcessingException) {
+				lease.failed();
+				if (attempt < pool.getMaxRetries() && !result.isDone()) {
+					LOGGER.debug("Request to endpoint {} failed, retrying on another endpoint", lease.getEndpoint().getUrl(), throwable);
+					sendPooled(endpoint, pool, target, call, handler, lease.getEndpoint(), attempt + 1, exchange, result);
+				}
+				else {
+					result.completeExceptionally(throwable);
+				}
+			}
+			else {
+				result.completeExceptionally(throwable);
+			}
+			lease.cancelled();
+		});
+	}
+
+	/**
+	 * Rates the endpoint of a pooled exchange by the status of its response
+	 */
+	private static void rate(EndpointPool.Lease lease, int status, long nanos) {
+		if (EndpointPool.isServerError(status))
+			lease.failed();
+		else
+			lease.succeeded(nanos);
+	}
+
+	private <T> CompletableFuture<T> executeDirectAsync(String endpoint, WebTarget target, AsyncCall call,
+														ResponseHandler<T> handler) {
+
+		evictIdleRoutes();
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		String key = routeKey(target.getUri());
+		while (true) {
+			Route route = routes.computeIfAbsent(key, k -> new Route(maxConcurrentRequestsPerRoute));
+			if (route.acquireAsync(() -> send(endpoint, route, target, call, handler, result)))
+				return result;
+			// the route has been evicted in the meantime, try again with a fresh one
+		}
+	}
+
+	/**
+	 * Executes a request against a primary target and, according to the {@link HedgingPolicy} of this client, against
+	 * a fallback target. The fallback is requested if the primary has not answered within the hedging delay, or
+	 * immediately if the primary fails with a {@link ProcessingException}. The first successful response completes
+	 * the returned future and the other exchange is cancelled. Without hedging policy the fallback is only requested
+	 * after a {@link ProcessingException}.
+	 *
+	 * @param endpoint Name of the endpoint, e.g. "reachability"
+	 * @param primary Target of the primary service
+	 * @param fallback Target of the fallback service
+	 * @param call Asynchronous invocation to be executed against both targets
+	 * @param handler Handler validating and parsing the responses
+	 * @param <T> type of the parsed response
+	 * @return future completed with the first successful response or exceptionally if all requested targets failed
+	 */
+	public <T> CompletableFuture<T> executeHedgedAsync(String endpoint, WebTarget primary, WebTarget fallback,
+													   AsyncCall call, ResponseHandler<T> handler) {
+		return new HedgedExchange<>(endpoint, fallback, call, handler).start(primary);
+	}
+
+	/**
+	 * Waits for a future of this client and unwraps its exception.
+	 * @param future Future to wait for
+	 * @param <T> type of the parsed response
+	 * @return value of the future
+	 * @throws Route360ClientException In case the future failed with a checked exception or the thread is interrupted
+	 */
+	static <T> T await(CompletableFuture<T> future) throws Route360ClientException {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new Route360ClientException("Interrupted while waiting for the response", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Route360ClientException)
+				throw (Route360ClientException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new Route360ClientException(cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * @param throwable Cause of the failure
+	 * @param <T> type of the response
+	 * @return future which is already completed exceptionally
+	 */
+	static <T> CompletableFuture<T> failed(Throwable throwable) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
+	/**
+	 * @param route route in the form scheme://host:port
+	 * @return number of requests currently in progress on the route
+	 */
+	public int getActiveRequests(String route) {
+		Route r = routes.get(route);
+		return r == null ? 0 : r.leased();
+	}
+
+	/**
+	 * @param route route in the form scheme://host:port
+	 * @return number of asynchronous requests waiting for a free slot of the route
+	 */
+	public int getPendingRequests(String route) {
+		Route r = routes.get(route);
+		return r == null ? 0 : r.pending();
+	}
+
+	/**
+	 * @return number of routes currently tracked by this client
+	 */
+	public int getRouteCount() {
+		return routes.size();
+	}
+
+	public int getMaxConcurrentRequestsPerRoute() {
+		return maxConcurrentRequestsPerRoute;
+	}
+
+	public long getAcquireTimeoutMillis() {
+		return acquireTimeoutMillis;
+	}
+
+	/**
+	 * Closes the underlying client if it is owned by this transport.
+	 */
+	@Override
+	public void close() {
+		routes.clear();
+		pools.forEach(EndpointPool::close);
+		if (ownsClient)
+			client.close();
+	}
+
+	private Route lease(WebTarget target) throws Route360ClientException {
+
+		evictIdleRoutes();
+
+		String key    = routeKey(target.getUri());
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+		while (true) {
+			Route route = routes.computeIfAbsent(key, k -> new Route(maxConcurrentRequestsPerRoute));
+			try {
+				if (route.acquire(deadline))
+					return route;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new Route360ClientException("Interrupted while waiting for a free slot of: " + key, e);
+			}
+			catch (TimeoutException e) {
+				throw new Route360ClientException("Timed out waiting for a free slot of: " + key + ", "
+						+ maxConcurrentRequestsPerRoute + " requests are in progress", e);
+			}
+			// the route has been evicted in the meantime, try again with a fresh one
+		}
+	}
+
+	/**
+	 * Runs the handler and reports its duration, the response is closed by the caller
+	 */
+	private <T> T handle(String endpoint, Response response, ResponseHandler<T> handler) throws Route360ClientException {
+		long start = System.nanoTime();
+		boolean successful = false;
+		try {
+			T value = handler.handle(response);
+			successful = true;
+			return value;
+		}
+		finally {
+			metrics.responseParsed(endpoint, System.nanoTime() - start, successful);
+		}
+	}
+
+	private <T> void send(String endpoint, Route route, WebTarget target, AsyncCall call, ResponseHandler<T> handler,
+						  CompletableFuture<T> result) {
+
+		// release the slot exactly once, no matter if the exchange completes, fails or is cancelled
+		AtomicBoolean released = new AtomicBoolean(false);
+		Runnable release = () -> {
+			if (released.compareAndSet(false, true))
+				route.release();
+		};
+
+		// cancelled while waiting for a free slot
+		if (result.isDone()) {
+			release.run();
+			return;
+		}
+
+		long start = System.nanoTime();
+		try {
+			Invocation.Builder builder = target.request();
+			builder.property(Route360Metrics.ENDPOINT_PROPERTY, endpoint);
+			Future<Response> invocation = call.invoke(builder.async(), new InvocationCallback<Response>() {
+
+				@Override
+				public void completed(Response response) {
+					metrics.requestCompleted(endpoint, response.getStatus(), System.nanoTime() - start);
+					try {
+						executor.execute(() -> {
+							T value         = null;
+							Throwable error = null;
+							try {
+								value = handle(endpoint, response, handler);
+							}
+							catch (Throwable throwable) {
+								error = throwable;
+							}
+							finally {
+								response.close();
+								release.run();
+							}
+							// complete after the release, so dependent stages already see the slot as free
+							if (error == null)
+								result.complete(value);
+							else
+								result.completeExceptionally(error);
+						});
+					}
+					catch (RejectedExecutionException e) {
+						response.close();
+						release.run();
+						result.completeExceptionally(e);
+					}
+				}
+
+				@Override
+				public void failed(Throwable throwable) {
+					metrics.requestFailed(endpoint, throwable, System.nanoTime() - start);
+					release.run();
+					Route360ClientException configError = StreamingRequestConfigurator.getConfigError(throwable);
+					result.completeExceptionally(configError != null ? configError : throwable);
+				}
+			});
+
+			result.whenComplete((response, throwable) -> {
+				if (result.isCancelled()) {
+					invocation.cancel(true);
+					release.run();
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			release.run();
+			Route360ClientException configError = StreamingRequestConfigurator.getConfigError(e);
+			result.completeExceptionally(configError != null ? configError : e);
+		}
+	}
+
+	private void evictIdleRoutes() {
+
+		long now = System.currentTimeMillis();
+		if (now - lastEviction < ROUTE_IDLE_MILLIS)
+			return;
+
+		lastEviction = now;
+		routes.entrySet().removeIf(entry -> entry.getValue().evictIfIdle(now, ROUTE_IDLE_MILLIS));
+	}
+
+	static String routeKey(URI uri) {
+		if (uri == null)
+			return "";
+		int port = uri.getPort();
+		if (port == -1)
+			port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+		return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+	}
+
+	/**
+	 * Concurrency limit of one route, it counts the running exchanges but does not hold any connection. Blocking callers
+	 * wait on the monitor, asynchronous callers are queued and handed the slot of the next exchange that is released.
+	 */
+	private static final class Route {
+
+		private final int maxRequests;
+		private final Deque<Runnable> pending = new ArrayDeque<>();
+		private int leased = 0;
+		private long lastUsed = System.currentTimeMillis();
+		private boolean evicted = false;
+
+		Route(int maxRequests) {
+			this.maxRequests = maxRequests;
+		}
+
+		/**
+		 * @param deadline {@link System#nanoTime()} until which to wait for a free slot
+		 * @return false if the route has been evicted
+		 * @throws TimeoutException if no slot has been released before the deadline
+		 */
+		synchronized boolean acquire(long deadline) throws InterruptedException, TimeoutException {
+			while (!evicted && leased >= maxRequests) {
+				long remainingNanos = deadline - System.nanoTime();
+				if (remainingNanos <= 0)
+					throw new TimeoutException();
+				TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+			}
+			if (evicted)
+				return false;
+			leased++;
+			lastUsed = System.currentTimeMillis();
+			return true;
+		}
+
+		/**
+		 * @param task runs as soon as a slot is leased for it, possibly on the thread releasing a slot
+		 * @return false if the route has been evicted and the task has not been accepted
+		 */
+		boolean acquireAsync(Runnable task) {
+			synchronized (this) {
+				if (evicted)
+					return false;
+				if (leased >= maxRequests) {
+					pending.add(task);
+					return true;
+				}
+				leased++;
+				lastUsed = System.currentTimeMillis();
+			}
+			task.run();
+			return true;
+		}
+
+		void release() {
+			Runnable next;
+			synchronized (this) {
+				lastUsed = System.currentTimeMillis();
+				// hand the slot over to a queued asynchronous exchange or wake up a blocked caller
+				next = pending.poll();
+				if (next == null) {
+					leased--;
+					notify();
+				}
+			}
+			if (next != null)
+				next.run();
+		}
+
+		synchronized int leased() {
+			return leased;
+		}
+
+		synchronized int pending() {
+			return pending.size();
+		}
+
+		synchronized boolean evictIfIdle(long now, long idleMillis) {
+			if (leased == 0 && now - lastUsed >= idleMillis) {
+				evicted = true;
+				notifyAll();
+			}
+			return evicted;
+		}
+	}
+
+	/**
+	 * Primary exchange and at most one exchange with the fallback service, racing for the result.
+	 */
+	private final class HedgedExchange<T> {
+
+		private final String endpoint;
+		private final WebTarget fallback;
+		private final AsyncCall call;
+		private final ResponseHandler<T> handler;
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+		// number of exchanges which have not failed yet
+		private final AtomicInteger remaining     = new AtomicInteger(1);
+		private final AtomicBoolean fallbackSent  = new AtomicBoolean(false);
+		private final AtomicBoolean succeeded     = new AtomicBoolean(false);
+
+		private volatile CompletableFuture<T> primaryExchange;
+		private volatile CompletableFuture<T> fallbackExchange;
+		private volatile ScheduledFuture<?> timer;
+		// last failure of an exchange, the result fails with it once no exchange is remaining
+		private volatile Throwable failure;
+
+		HedgedExchange(String endpoint, WebTarget fallback, AsyncCall call, ResponseHandler<T> handler) {
+			this.endpoint = endpoint;
+			this.fallback = fallback;
+			this.call     = call;
+			this.handler  = handler;
+		}
+
+		CompletableFuture<T> start(WebTarget primary) {
+
+			// cancel everything which is still running as soon as the result is known or the caller cancels
+			result.whenComplete((value, throwable) -> {
+				cancel(timer);
+				cancel(primaryExchange);
+				cancel(fallbackExchange);
+			});
+
+			long start = System.nanoTime();
+			primaryExchange = executeAsync(endpoint, primary, call, handler);
+			primaryExchange.whenComplete((value, throwable) -> {
+				if (throwable == null) {
+					recordLatency(start);
+					succeed(value, false);
+				}
+				else if (throwable instanceof CancellationException) {
+					// cancelled since the hedge has won (or the caller cancelled): the primary took at least this long,
+					// ignoring it would bias the observed latency towards fast responses
+					recordLatency(start);
+					fail(throwable);
+				}
+				else {
+					if (throwable instanceof ProcessingException && fallbackSent.compareAndSet(false, true)) {
+						remaining.incrementAndGet();
+						metrics.fallbackUsed(endpoint);
+						sendFallback(false);
+					}
+					fail(throwable);
+				}
+			});
+
+			if (hedging != null && !result.isDone()) {
+				timer = HedgingScheduler.INSTANCE.schedule(this::hedge, hedging.getDelayNanos(endpoint), TimeUnit.NANOSECONDS);
+				if (result.isDone())
+					cancel(timer);
+			}
+			return result;
+		}
+
+		private void hedge() {
+			// count the hedge before claiming the fallback, so that a primary failing in between cannot complete
+			// the result while the hedge is sent
+			remaining.incrementAndGet();
+			if (!result.isDone() && fallbackSent.compareAndSet(false, true)) {
+				metrics.hedgeSent(endpoint);
+				sendFallback(true);
+			}
+			else {
+				fail(null);
+			}
+		}
+
+		/**
+		 * Send the request to the fallback service, the exchange has to be counted in <code>remaining</code> already
+		 */
+		private void sendFallback(boolean hedged) {
+			fallbackExchange = executeAsync(endpoint, fallback, call, handler);
+			fallbackExchange.whenComplete((value, throwable) -> {
+				if (throwable != null)
+					fail(throwable);
+				else
+					succeed(value, hedged);
+			});
+			if (result.isDone())
+				cancel(fallbackExchange);
+		}
+
+		private void succeed(T value, boolean hedged) {
+			// count the win before completing, so it is visible to everyone waiting for the result
+			if (!result.isDone() && succeeded.compareAndSet(false, true)) {
+				if (hedged)
+					metrics.hedgeWon(endpoint);
+				result.complete(value);
+			}
+		}
+
+		/**
+		 * @param throwable failure of an exchange, null if no exchange has been sent
+		 */
+		private void fail(Throwable throwable) {
+			if (throwable != null)
+				failure = throwable;
+			if (remaining.decrementAndGet() == 0)
+				result.completeExceptionally(failure);
+		}
+
+		private void recordLatency(long start) {
+			if (hedging != null)
+				hedging.recordLatency(endpoint, System.nanoTime() - start);
+		}
+
+		private void cancel(Future<?> future) {
+			if (future != null)
+				future.cancel(true);
+		}
+	}
+
+	private static final class HedgingScheduler {
+
+		private static final ScheduledExecutorService INSTANCE = create();
+
+		private static ScheduledExecutorService create() {
+			ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "route360-hedging");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.setRemoveOnCancelPolicy(true);
+			return scheduler;
+		}
+	}
+
+	private static final class DefaultHolder {
+		private static final Route360Client INSTANCE = newBuilder().build();
+	}
+
+	/**
+	 * Builder for {@link Route360Client}.
+	 */
+	public static final class Builder {
+
+		private ClientBuilder clientBuilder;
+		private int maxConcurrentRequestsPerRoute = DEFAULT_MAX_CONCURRENT_REQUESTS_PER_ROUTE;
+		private long acquireTimeoutMillis   = DEFAULT_ACQUIRE_TIMEOUT_MILLIS;
+		private Executor executor           = ForkJoinPool.commonPool();
+		private SSLContext sslContext;
+		private HostnameVerifier hostnameVerifier;
+		private Route360Metrics metrics     = Route360Metrics.NOOP;
+		private HedgingPolicy hedging;
+		private CompressionPolicy compression = CompressionPolicy.DEFAULT;
+		private final List<EndpointPool> pools       = new ArrayList<>();
+		private final Map<String, Object> properties = new LinkedHashMap<>();
+		private final List<Object> components        = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Use a preconfigured, implementation specific client builder (e.g. with a pooling connector).
+		 * @param clientBuilder Builder to create the client with
+		 * @return this builder
+		 */
+		public Builder clientBuilder(ClientBuilder clientBuilder) {
+			this.clientBuilder = clientBuilder;
+			return this;
+		}
+
+		/**
+		 * Limits the number of requests in progress, it does not configure the connection pool of the connector.
+		 * @param maxConcurrentRequestsPerRoute maximum number of concurrent requests per scheme, host and port.
+		 *                                      Default: 20
+		 * @return this builder
+		 */
+		public Builder maxConcurrentRequestsPerRoute(int maxConcurrentRequestsPerRoute) {
+			if (maxConcurrentRequestsPerRoute < 1)
+				throw new IllegalArgumentException("maxConcurrentRequestsPerRoute has to be positive, but was "
+						+ maxConcurrentRequestsPerRoute);
+			this.maxConcurrentRequestsPerRoute = maxConcurrentRequestsPerRoute;
+			return this;
+		}
+
+		/**
+		 * @param acquireTimeout maximum time a blocking request waits until the number of concurrent requests of its
+		 *                       route is below {@link #maxConcurrentRequestsPerRoute(int)}. Default: 30 seconds
+		 * @param unit unit of the timeout
+		 * @return this builder
+		 */
+		public Builder acquireTimeout(long acquireTimeout, TimeUnit unit) {
+			if (acquireTimeout < 0)
+				throw new IllegalArgumentException("acquireTimeout must not be negative, but was " + acquireTimeout);
+			this.acquireTimeoutMillis = unit.toMillis(acquireTimeout);
+			return this;
+		}
+
+		/**
+		 * Executor on which the responses of asynchronous requests are validated and parsed. The number of threads
+		 * waiting for responses is determined by the JAX-RS implementation, e.g. Jersey's
+		 * <code>ClientProperties.ASYNC_THREADPOOL_SIZE</code> which can be set via {@link #property(String, Object)}.
+		 * @param executor Executor for response handling. Default: {@link ForkJoinPool#commonPool()}
+		 * @return this builder
+		 */
+		public Builder executor(Executor executor) {
+			if (executor == null)
+				throw new IllegalArgumentException("executor must not be null");
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Listener which is notified about latency, payload sizes and parse times of all exchanges.
+		 * @param metrics Metrics implementation, e.g. {@link net.motionintelligence.client.api.metrics.SimpleRoute360Metrics}.
+		 *                Default: {@link Route360Metrics#NOOP}
+		 * @return this builder
+		 */
+		public Builder metrics(Route360Metrics metrics) {
+			if (metrics == null)
+				throw new IllegalArgumentException("metrics must not be null");
+			this.metrics = metrics;
+			return this;
+		}
+
+		/**
+		 * Enables hedged requests against the fallback service of requests which support one.
+		 * @param hedging Policy for hedged requests, null to disable hedging. Default: disabled
+		 * @return this builder
+		 */
+		public Builder hedging(HedgingPolicy hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * @param compression Compression of requests and responses. Default: {@link CompressionPolicy#DEFAULT}, i.e.
+		 *                    compressed responses are accepted and requests are sent uncompressed
+		 * @return this builder
+		 */
+		public Builder compression(CompressionPolicy compression) {
+			if (compression == null)
+				throw new IllegalArgumentException("compression must not be null");
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Distribute the requests to the service URL of the pool over its endpoints. The pool is closed together with
+		 * the client.
+		 * @param pool Pool of endpoints
+		 * @return this builder
+		 */
+		public Builder endpointPool(EndpointPool pool) {
+			if (pool == null)
+				throw new IllegalArgumentException("pool must not be null");
+			this.pools.add(pool);
+			return this;
+		}
+
+		/**
+		 * @param sslContext SSL context to be used for https connections
+		 * @return this builder
+		 */
+		public Builder sslContext(SSLContext sslContext) {
+			this.sslContext = sslContext;
+			return this;
+		}
+
+		/**
+		 * @param hostnameVerifier Verifier to be used for https connections
+		 * @return this builder
+		 */
+		public Builder hostnameVerifier(HostnameVerifier hostnameVerifier) {
+			this.hostnameVerifier = hostnameVerifier;
+			return this;
+		}
+
+		/**
+		 * Set an implementation specific client property, e.g. connect or read timeouts.
+		 * @param name Name of the property
+		 * @param value Value of the property
+		 * @return this builder
+		 */
+		public Builder property(String name, Object value) {
+			this.properties.put(name, value);
+			return this;
+		}
+
+		/**
+		 * Register a provider (e.g. a GZIP interceptor) with the client.
+		 * @param component Provider class or instance
+		 * @return this builder
+		 */
+		public Builder register(Object component) {
+			this.components.add(component);
+			return this;
+		}
+
+		/**
+		 * @return a new transport owning a new client
+		 */
+		public Route360Client build() {
+
+			ClientBuilder builder = clientBuilder != null ? clientBuilder : ClientBuilder.newBuilder();
+			if (sslContext != null)
+				builder.sslContext(sslContext);
+			if (hostnameVerifier != null)
+				builder.hostnameVerifier(hostnameVerifier);
+			properties.forEach(builder::property);
+
+			Client client = builder.build();
+			if (metrics != Route360Metrics.NOOP)
+				client.register(new Route360MetricsFilter(metrics));
+			if (compression.isEnabled())
+				client.register(new CompressionFilter(compression, metrics), Priorities.ENTITY_CODER);
+			for (Object component : components) {
+				if (component instanceof Class)
+					client.register((Class<?>) component);
+				else
+					client.register(component);
+			}
+
+			for (EndpointPool pool : pools)
+				pool.startHealthChecks(client);
+
+			LOGGER.debug("Created client with max {} concurrent requests per route", maxConcurrentRequestsPerRoute);
+			return new Route360Client(client, true, maxConcurrentRequestsPerRoute, acquireTimeoutMillis,
+					executor, metrics, hedging, Collections.unmodifiableList(new ArrayList<>(pools)));
+		}
+	}
+}
@@ -9,29 +9,29 @@ import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Generates possible route from sources to targets.
  */
 public class RouteRequest {
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 	private static final String CALLBACK = "callback";
 
 	/**
 	 * Use default Client with specified travelOptions
-	 * Default client uses {@link ClientBuilder}
+	 * Default client is the shared {@link Route360Client#getDefault()}
 	 * @param travelOptions Travel options parameters
 	 */
 	public RouteRequest(TravelOptions travelOptions) {
-		this.client	= ClientBuilder.newClient();
-
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 	/**
 	 * Use custom client with specified travelOptions
@@ -39,6 +39,14 @@ public class RouteRequest {
 	 * @param travelOptions Travel options parameters
 	 */
 	public RouteRequest(Client client, TravelOptions travelOptions) {
+		this(Route360Client.wrap(client), travelOptions);
+	}
+	/**
+	 * Use a shared transport with specified travelOptions
+	 * @param client Transport to be used
+	 * @param travelOptions Travel options parameters
+	 */
+	public RouteRequest(Route360Client client, TravelOptions travelOptions) {
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
@@ -51,14 +59,37 @@ public class RouteRequest {
 	public RouteResponse get() throws Route360ClientException {
 		long requestStart = System.currentTimeMillis();
 
-		WebTarget request = client.target(travelOptions.getServiceUrl()).path("v1/route")
+		WebTarget request = createTarget();
+
+		// make the request
+		return client.execute("route", request, Invocation.Builder::get, response -> validateResponse(requestStart, response));
+	}
+
+	/**
+	 * Execute request without blocking the calling thread
+	 * @return future of the route response, completed exceptionally with a {@link Route360ClientException}
+	 * in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<RouteResponse> getAsync() {
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget request;
+		try {
+			request = createTarget();
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
+		}
+
+		// make the request
+		return client.executeAsync("route", request, AsyncInvoker::get, response -> validateResponse(requestStart, response));
+	}
+
+	private WebTarget createTarget() throws Route360ClientException {
+		return client.target(travelOptions.getServiceUrl()).path("v1/route")
 			.queryParam("cb", CALLBACK)
 			.queryParam("key", travelOptions.getServiceKey())
 			.queryParam("cfg", IOUtil.encode(RequestConfigurator.getConfig(travelOptions)));
-
-		// make the request
-		Response response = request.request().get();
-		return validateResponse(requestStart, response);
 	}
 
     /**
@@ -10,7 +10,6 @@ import net.motionintelligence.client.api.request.config.JacksonRequestConfigurat
 import net.motionintelligence.client.api.request.enums.StatisticMethod;
 import net.motionintelligence.client.api.response.StatisticsResponse;
 import net.motionintelligence.client.api.util.IOUtil;
-import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -19,29 +18,30 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class StatisticsRequest {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsRequest.class);
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}
+	 * Default client is the shared {@link Route360Client#getDefault()}
 	 * @param travelOptions Options to be used
 	 */
 	public StatisticsRequest(TravelOptions travelOptions) {
 
-		this.client	= ClientBuilder.newClient();
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 
 	/**
@@ -51,11 +51,23 @@ public class StatisticsRequest {
 	 */
 	public StatisticsRequest(Client client, TravelOptions travelOptions){
 
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options and method
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public StatisticsRequest(Route360Client client, TravelOptions travelOptions){
+
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
 
 	/**
+	 * If the client is configured with a {@link HedgingPolicy}, the request is hedged against the fallback service,
+	 * see {@link #getAsync(StatisticMethod)}.
 	 * @param method the method for the request to be executed
 	 * @return Response from the statistics server
 	 * @throws JSONException In case the returned response is not parsable
@@ -63,6 +75,9 @@ public class StatisticsRequest {
 	 */
 	public StatisticsResponse get(StatisticMethod method) throws Route360ClientException, JSONException {
 
+		if (client.getHedgingPolicy() != null)
+			return Route360Client.await(getAsync(method));
+
 		long requestStart = System.currentTimeMillis();
 
 		WebTarget target = client.target(this.travelOptions.getStatisticServiceUrl()).path(method.getPath())
@@ -72,18 +87,19 @@ public class StatisticsRequest {
 
 		LOGGER.debug(String.format("Executing statistics request (%s) to URI: '%s'", method.getPath(), target.getUri()));
 
-		Response response;
-
 		try {
 
 			// Execute POST request
-			response = target.request().post(entity);
+			return client.execute("statistics", target, builder -> builder.post(entity),
+					response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
 		}
 		// this can happen for example if we are doing a request and restart the corresponding
 		// route360 service on the same machine, in case of a fallback we need to try a different host
 		// but only once
 		catch ( ProcessingException exception ) {
 
+			client.getMetrics().fallbackUsed("statistics");
+
 			LOGGER.error(String.format("Executing statistics request (%s) to URI: '%s'", method.getPath(), target.getUri()), exception);
 
 			target = client.target(travelOptions.getFallbackServiceUrl()).path(method.getPath())
@@ -92,13 +108,10 @@ public class StatisticsRequest {
 			LOGGER.debug(String.format("Executing statistics request (%s) to URI: '%s'", method.getPath(), target.getUri()));
 
 			// Execute POST request
-			response = target.request().post(entity);
+			return client.execute("statistics", target, builder -> builder.post(entity),
+					response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
 		}
 
-		long roundTripTime = System.currentTimeMillis() - requestStart;
-
-		return validateResponse(response, requestStart, roundTripTime);
-
 
 
 //		long requestStart = System.currentTimeMillis();
@@ -129,6 +142,40 @@ public class StatisticsRequest {
 //		return validateResponse(response, requestStart, roundTripTime);
 	}
 
+	/**
+	 * Execute request without blocking the calling thread. As with {@link #get(StatisticMethod)} the fallback service
+	 * is requested once if the request to the primary service fails with a {@link ProcessingException}. If the
+	 * client is configured with a {@link HedgingPolicy}, the fallback service is requested as well if the primary
+	 * service has not answered within the hedging delay.
+	 * @param method the method for the request to be executed
+	 * @return future of the response from the statistics server, completed exceptionally with a
+	 * {@link Route360ClientException} in case of errors
+	 */
+	public CompletableFuture<StatisticsResponse> getAsync(StatisticMethod method) {
+
+		long requestStart = System.currentTimeMillis();
+
+		WebTarget target = client.target(this.travelOptions.getStatisticServiceUrl()).path(method.getPath())
+				.queryParam("key", travelOptions.getServiceKey());
+
+		final Entity<String> entity;
+		try {
+			entity = Entity.entity(JacksonRequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
+		}
+
+		LOGGER.debug(String.format("Executing statistics request (%s) to URI: '%s'", method.getPath(), target.getUri()));
+
+		WebTarget fallback = client.target(travelOptions.getFallbackServiceUrl()).path(method.getPath())
+				.queryParam("key", travelOptions.getServiceKey());
+
+		return client.executeHedgedAsync("statistics", target, fallback,
+				(invoker, callback) -> invoker.post(entity, callback),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
 	public static void main(String[] args) throws Route360ClientException, JSONException {
 
 		TravelOptions options = new TravelOptions();
@@ -163,8 +210,13 @@ public class StatisticsRequest {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 
-			// consume the results
-			return new StatisticsResponse(travelOptions, JsonUtil.parseString(IOUtil.getResultString(response)), requestStart);
+			// consume the results while they are streamed, without materializing the body
+			try (InputStream result = IOUtil.getResultStream(response)) {
+				return new StatisticsResponse(travelOptions, result, requestStart);
+			}
+			catch (IOException e) {
+				throw new Route360ClientException("Could not read statistics response: " + e.getMessage(), e);
+			}
 		}
 		else if (response.getStatus() == Response.Status.GATEWAY_TIMEOUT.getStatusCode()) {
 			return new StatisticsResponse(travelOptions, "gateway-time-out", roundTripTime, requestStart);
@@ -3,17 +3,19 @@ package net.motionintelligence.client.api.request;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.exception.Route360ClientException;
 import net.motionintelligence.client.api.request.config.RequestConfigurator;
+import net.motionintelligence.client.api.request.config.StreamingRequestConfigurator;
 import net.motionintelligence.client.api.response.TimeResponse;
 import net.motionintelligence.client.api.util.IOUtil;
-import net.motionintelligence.client.api.util.JsonUtil;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Calculates travel times from each source point to each target.
@@ -23,17 +25,16 @@ public class TimeRequest {
 
 	private static final String CALLBACK = "callback";
 
-	private Client client;
+	private Route360Client client;
 	private TravelOptions travelOptions;
 
 	/**
 	 * Use default client implementation with specified options and method
-	 * Default client uses {@link ClientBuilder}.
+	 * Default client is the shared {@link Route360Client#getDefault()}.
 	 * @param travelOptions Options to be used
 	 */
 	public TimeRequest(TravelOptions travelOptions) {
-		this.client	= ClientBuilder.newClient();
-		this.travelOptions = travelOptions;
+		this(Route360Client.getDefault(), travelOptions);
 	}
 
 	/**
@@ -42,6 +43,15 @@ public class TimeRequest {
 	 * @param travelOptions Options to be used
 	 */
 	public TimeRequest(Client client, TravelOptions travelOptions) {
+		this(Route360Client.wrap(client), travelOptions);
+	}
+
+	/**
+	 * Use a shared transport with specified options and method
+	 * @param client Transport to be used
+	 * @param travelOptions Options to be used
+	 */
+	public TimeRequest(Route360Client client, TravelOptions travelOptions) {
 		this.client	= client;
 		this.travelOptions = travelOptions;
 	}
@@ -55,18 +65,37 @@ public class TimeRequest {
 
 		long requestStart = System.currentTimeMillis();
 
-		WebTarget target = client.target(travelOptions.getServiceUrl()).path("v1/time")
-				.queryParam("cb", CALLBACK)
-				.queryParam("key", travelOptions.getServiceKey());
-
-		Response response;
-		String config = RequestConfigurator.getConfig(travelOptions);
+		final Entity<StreamingOutput> entity = StreamingRequestConfigurator.getEntity(travelOptions);
 		// Execute POST request
-		response = target.request().post(Entity.entity(config, MediaType.APPLICATION_JSON_TYPE));
+		return client.execute("time", createTarget(), builder -> builder.post(entity),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	/**
+	 * Execute request without blocking the calling thread
+	 * @return future of the time response, completed exceptionally with a {@link Route360ClientException}
+	 * in case of error other than Gateway Timeout
+	 */
+	public CompletableFuture<TimeResponse> getAsync() {
 
-		long roundTripTime = System.currentTimeMillis() - requestStart;
+		long requestStart = System.currentTimeMillis();
 
-		return validateResponse(response, requestStart, roundTripTime);
+		final Entity<StreamingOutput> entity;
+		try {
+			entity = StreamingRequestConfigurator.getEntity(travelOptions);
+		}
+		catch (Route360ClientException e) {
+			return Route360Client.failed(e);
+		}
+		// Execute POST request
+		return client.executeAsync("time", createTarget(), (invoker, callback) -> invoker.post(entity, callback),
+				response -> validateResponse(response, requestStart, System.currentTimeMillis() - requestStart));
+	}
+
+	private WebTarget createTarget() {
+		return client.target(travelOptions.getServiceUrl()).path("v1/time")
+				.queryParam("cb", CALLBACK)
+				.queryParam("key", travelOptions.getServiceKey());
 	}
 
 	/**
@@ -101,10 +130,13 @@ public class TimeRequest {
 		// compare the HTTP status codes, NOT the route 360 code
 		if (response.getStatus() == Response.Status.OK.getStatusCode()) {
 
-			String res = IOUtil.getResultString(response);
-
-			// consume the results
-			return new TimeResponse(travelOptions, JsonUtil.parseString(res), requestStart);
+			// consume the results while they are streamed, without materializing the body
+			try (InputStream result = IOUtil.getResultStream(response)) {
+				return new TimeResponse(travelOptions, result, requestStart);
+			}
+			catch (IOException e) {
+				throw new Route360ClientException("Could not read time response: " + e.getMessage(), e);
+			}
 		} else if (response.getStatus() == Response.Status.GATEWAY_TIMEOUT.getStatusCode() )
 			return new TimeResponse(travelOptions, "gateway-time-out", roundTripTime, requestStart);
 		else {
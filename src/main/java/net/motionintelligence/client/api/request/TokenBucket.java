@@ -0,0 +1,55 @@
+package net.motionintelligence.client.api.request;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple thread-safe token bucket limiting the rate of requests. The bucket is refilled continuously with the given
+ * rate and holds at most the given number of tokens, i.e. after an idle period a burst of that many requests is
+ * allowed. Callers that find the bucket empty reserve a future token and wait for it outside of the lock, so waiting
+ * callers are served in the order of their reservation.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param permitsPerSecond rate with which the bucket is refilled, greater than 0
+     * @param burst maximum number of tokens in the bucket, greater than or equal to 1
+     */
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0))
+            throw new IllegalArgumentException("permitsPerSecond has to be positive, but was " + permitsPerSecond);
+        if (burst < 1)
+            throw new IllegalArgumentException("burst has to be positive, but was " + burst);
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity      = burst;
+        this.tokens        = burst;
+        this.lastRefill    = System.nanoTime();
+    }
+
+    /**
+     * Take one token, waiting until it is available
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0)
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    /**
+     * Take one token, the bucket may go into debt which later callers have to wait for
+     * @return time to wait until the taken token is available, in nanoseconds
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,420 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only file of deflated string values, e.g. JSON responses, keyed by strings.
+ *
+ * <p>
+ * Only the 64-bit hash of each key and the offset of its latest record are held in memory, the records are read with
+ * positional reads which may run concurrently. Records are checked by a CRC, an incomplete record at the end of the
+ * file, e.g. after a crash, is cut off when the file is opened. Replaced and expired records stay in the file until
+ * {@link #compact()} is called.
+ * </p>
+ *
+ * <pre>
+ * file:   "R360KV" version(1) reserved(1) record*
+ * record: bodyLength(4) crc32(4) body
+ * body:   writtenAtMillis(8) keyLength(4) key(UTF-8) valueLength(4) value(deflated UTF-8)
+ * </pre>
+ */
+final class DiskStore implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DiskStore.class);
+
+	private static final byte[] MAGIC      = { 'R', '3', '6', '0', 'K', 'V' };
+	private static final byte VERSION      = 1;
+	private static final int HEADER_SIZE   = 8;
+	private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final Path path;
+	private final long expireAfterWriteMillis;
+	private final Map<Long, Long> index = new ConcurrentHashMap<>();
+	private final ReadWriteLock lock    = new ReentrantReadWriteLock();
+
+	private FileChannel channel;
+	private long end;
+
+	private DiskStore(Path path, long expireAfterWriteMillis) {
+		this.path                   = path;
+		this.expireAfterWriteMillis = expireAfterWriteMillis;
+	}
+
+	/**
+	 * Open or create the file and index its records
+	 * @param path file of the store, the parent directory has to exist
+	 * @param expireAfterWriteMillis age after which a record is not returned anymore
+	 * @return opened store
+	 * @throws IOException if the file cannot be opened or is not a store
+	 */
+	static DiskStore open(Path path, long expireAfterWriteMillis) throws IOException {
+		DiskStore store = new DiskStore(path, expireAfterWriteMillis);
+		store.load();
+		return store;
+	}
+
+	/**
+	 * @param key key of the value
+	 * @return the value or null if there is none or it has expired
+	 * @throws IOException if the record cannot be read
+	 */
+	Value get(String key) throws IOException {
+		long hash = hash(key);
+		lock.readLock().lock();
+		try {
+			Long offset = index.get(hash);
+			if (offset == null)
+				return null;
+
+			Record record = read(offset);
+			if (record == null || !record.key.equals(key))
+				return null;
+			if (isExpired(record.writtenAtMillis, System.currentTimeMillis())) {
+				index.remove(hash, offset);
+				return null;
+			}
+			return new Value(inflate(record.value, record.valueLength), record.writtenAtMillis);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Append a value, it replaces any previous value of the key
+	 * @param key key of the value
+	 * @param value value to be stored
+	 * @throws IOException if the record cannot be written
+	 */
+	void put(String key, String value) throws IOException {
+		ByteBuffer record = encode(key, value, System.currentTimeMillis());
+		lock.writeLock().lock();
+		try {
+			long offset = end;
+			writeFully(channel, record, offset);
+			end += record.limit();
+			index.put(hash(key), offset);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return number of indexed keys, including expired ones which have not been read since
+	 */
+	int size() {
+		return index.size();
+	}
+
+	/**
+	 * @return size of the file in bytes
+	 */
+	long fileSize() {
+		lock.readLock().lock();
+		try {
+			return end;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove all records
+	 * @throws IOException if the file cannot be truncated
+	 */
+	void clear() throws IOException {
+		lock.writeLock().lock();
+		try {
+			index.clear();
+			channel.truncate(HEADER_SIZE);
+			end = HEADER_SIZE;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Rewrite the file with the latest, unexpired record of each key
+	 * @throws IOException if the file cannot be rewritten, the store is unchanged in this case
+	 */
+	void compact() throws IOException {
+		lock.writeLock().lock();
+		try {
+			long now  = System.currentTimeMillis();
+			Path temp = path.resolveSibling(path.getFileName() + ".compact");
+			try {
+				try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+					writeFully(target, header(), 0);
+					long position = HEADER_SIZE;
+					for (Long offset : index.values()) {
+						Record record = read(offset);
+						if (record == null || isExpired(record.writtenAtMillis, now))
+							continue;
+						ByteBuffer buffer = record.raw;
+						buffer.rewind();
+						writeFully(target, buffer, position);
+						position += buffer.limit();
+					}
+					target.force(true);
+				}
+				// the current channel stays open until the move succeeded, so a failed move leaves the store usable
+				Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException | RuntimeException e) {
+				try {
+					Files.deleteIfExists(temp);
+				}
+				catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+				throw e;
+			}
+
+			FileChannel replaced = channel;
+			try {
+				load();
+			}
+			finally {
+				replaced.close();
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			if (channel.isOpen()) {
+				channel.force(true);
+				channel.close();
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void load() throws IOException {
+
+		index.clear();
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		long size = channel.size();
+		if (size == 0) {
+			writeFully(channel, header(), 0);
+			end = HEADER_SIZE;
+			return;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		if (size < HEADER_SIZE || !readFully(header, 0) || !Arrays.equals(Arrays.copyOf(header.array(), MAGIC.length), MAGIC)) {
+			channel.close();
+			throw new IOException(path + " is not a cache file");
+		}
+		if (header.get(MAGIC.length) != VERSION) {
+			channel.close();
+			throw new IOException("Unsupported version " + header.get(MAGIC.length) + " of cache file " + path);
+		}
+
+		long now    = System.currentTimeMillis();
+		long offset = HEADER_SIZE;
+		while (offset < size) {
+			Record record = read(offset);
+			if (record == null) {
+				LOGGER.warn("Cutting off {} bytes of incomplete or corrupt records at the end of {}", size - offset, path);
+				channel.truncate(offset);
+				break;
+			}
+			if (!isExpired(record.writtenAtMillis, now))
+				index.put(hash(record.key), offset);
+			offset += record.raw.limit();
+		}
+		end = offset;
+	}
+
+	/**
+	 * @return the record at the offset, null if it is incomplete or corrupt
+	 */
+	private Record read(long offset) throws IOException {
+
+		ByteBuffer prefix = ByteBuffer.allocate(8);
+		if (!readFully(prefix, offset))
+			return null;
+		int bodyLength = prefix.getInt(0);
+		int crc        = prefix.getInt(4);
+		if (bodyLength < 16 || bodyLength > MAX_BODY_SIZE)
+			return null;
+
+		ByteBuffer raw = ByteBuffer.allocate(8 + bodyLength);
+		if (!readFully(raw, offset))
+			return null;
+		CRC32 checksum = new CRC32();
+		checksum.update(raw.array(), 8, bodyLength);
+		if ((int) checksum.getValue() != crc)
+			return null;
+
+		raw.position(8);
+		long writtenAtMillis = raw.getLong();
+		int keyLength        = raw.getInt();
+		if (keyLength < 0 || keyLength > raw.remaining() - 4)
+			return null;
+		String key = new String(raw.array(), raw.position(), keyLength, StandardCharsets.UTF_8);
+		raw.position(raw.position() + keyLength);
+		int valueLength = raw.getInt();
+		byte[] value    = Arrays.copyOfRange(raw.array(), raw.position(), raw.limit());
+		return new Record(raw, writtenAtMillis, key, valueLength, value);
+	}
+
+	private boolean readFully(ByteBuffer buffer, long offset) throws IOException {
+		buffer.clear();
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, offset + buffer.position());
+			if (read < 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer, offset + buffer.position());
+	}
+
+	private boolean isExpired(long writtenAtMillis, long now) {
+		return now - writtenAtMillis >= expireAfterWriteMillis;
+	}
+
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.put(MAGIC).put(VERSION).put((byte) 0).flip();
+		return header;
+	}
+
+	private static ByteBuffer encode(String key, String value, long writtenAtMillis) {
+
+		byte[] keyBytes   = key.getBytes(StandardCharsets.UTF_8);
+		byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+		byte[] deflated   = deflate(valueBytes);
+
+		int bodyLength    = 8 + 4 + keyBytes.length + 4 + deflated.length;
+		if (bodyLength > MAX_BODY_SIZE)
+			throw new IllegalArgumentException("Value of " + key + " is too large: " + bodyLength + " bytes");
+		ByteBuffer buffer = ByteBuffer.allocate(8 + bodyLength);
+		buffer.putInt(bodyLength).putInt(0)
+				.putLong(writtenAtMillis)
+				.putInt(keyBytes.length).put(keyBytes)
+				.putInt(valueBytes.length).put(deflated);
+
+		CRC32 checksum = new CRC32();
+		checksum.update(buffer.array(), 8, bodyLength);
+		buffer.putInt(4, (int) checksum.getValue());
+		buffer.flip();
+		return buffer;
+	}
+
+	private static byte[] deflate(byte[] value) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+		try {
+			deflater.setInput(value);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(value.length / 2 + 16);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished())
+				output.write(buffer, 0, deflater.deflate(buffer));
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static String inflate(byte[] value, int length) throws IOException {
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(value);
+			byte[] result = new byte[length];
+			int position  = 0;
+			while (position < length) {
+				int inflated = inflater.inflate(result, position, length - position);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput()))
+					throw new EOFException("Unexpected end of deflated value");
+				position += inflated;
+			}
+			return new String(result, StandardCharsets.UTF_8);
+		}
+		catch (DataFormatException e) {
+			throw new IOException("Corrupt deflated value", e);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private static long hash(String key) {
+		return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+	}
+
+	/**
+	 * A stored value and the time it was written
+	 */
+	static final class Value {
+
+		final String value;
+		final long writtenAtMillis;
+
+		Value(String value, long writtenAtMillis) {
+			this.value           = value;
+			this.writtenAtMillis = writtenAtMillis;
+		}
+	}
+
+	private static final class Record {
+
+		private final ByteBuffer raw;
+		private final long writtenAtMillis;
+		private final String key;
+		private final int valueLength;
+		private final byte[] value;
+
+		Record(ByteBuffer raw, long writtenAtMillis, String key, int valueLength, byte[] value) {
+			this.raw             = raw;
+			this.writtenAtMillis = writtenAtMillis;
+			this.key             = key;
+			this.valueLength     = valueLength;
+			this.value           = value;
+		}
+	}
+}
@@ -0,0 +1,402 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.motionintelligence.client.api.Address;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.request.GeocodingRequest;
+import net.motionintelligence.client.api.request.GetRequest;
+import net.motionintelligence.client.api.response.GeocodingResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier cache of geocoding responses: a size bounded in-memory LRU cache in front of an optional file on disk, which
+ * survives restarts of the application.
+ *
+ * <p>
+ * Responses are keyed by the normalized address, i.e. trimmed, lower case and with collapsed white space, and the
+ * {@link GeocodingRequest.Option Options} of the request. Only the JSON of the response is stored, deflated, on disk.
+ * Error responses of the service and failed requests are not cached. Both tiers expire entries after the same time
+ * since they were requested from the service. Concurrent requests for the same address are executed only once, the
+ * cache can therefore be used by the parallel batch requests of a {@link GeocodingRequest}.
+ * </p>
+ *
+ * <pre>
+ * GeocodingCache cache = GeocodingCache.newBuilder()
+ *         .maximumSize(100_000)
+ *         .expireAfterWrite(30, TimeUnit.DAYS)
+ *         .file(Paths.get("geocoding.cache"))
+ *         .build();
+ * GeocodingRequest request = new GeocodingRequest(client, authenticationDetails, options, cache);
+ * </pre>
+ * <p>
+ * The cache has to be closed when it is not needed anymore to write all entries to the disk. Only one cache at a time
+ * may use a file.
+ * </p>
+ */
+public final class GeocodingCache implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GeocodingCache.class);
+
+	public static final long DEFAULT_MAXIMUM_SIZE              = 10000;
+	public static final long DEFAULT_EXPIRE_AFTER_WRITE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final char SEPARATOR     = '\u001f';
+
+	private final Cache<String, Entry> memory;
+	private final DiskStore disk;
+	private final long expireAfterWriteMillis;
+	private final AtomicLong diskHits = new AtomicLong();
+
+	private GeocodingCache(Builder builder, DiskStore disk) {
+		this.memory = CacheBuilder.newBuilder()
+				.maximumSize(builder.maximumSize)
+				.expireAfterWrite(builder.expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+		this.disk                   = disk;
+		this.expireAfterWriteMillis = builder.expireAfterWriteMillis;
+	}
+
+	/**
+	 * @return builder for a new cache
+	 */
+	public static Builder newBuilder() {
+		return new Builder();
+	}
+
+	/**
+	 * Return the cached response or execute the request
+	 * @param singleLineAddress e.g. "Chausseestr. 101, 10115 Berlin"
+	 * @param options options of the request
+	 * @param request request to be executed in case of a cache miss
+	 * @return cached or new response
+	 * @throws Route360ClientException thrown by the request
+	 */
+	public GeocodingResponse get(String singleLineAddress, Map<GeocodingRequest.Option, String> options,
+								 GetRequest<String, GeocodingResponse> request) throws Route360ClientException {
+		return get(key(singleLineAddress, options), singleLineAddress, request);
+	}
+
+	/**
+	 * Return the cached response or execute the request
+	 * @param address the address, empty and null fields are equivalent
+	 * @param options options of the request
+	 * @param request request to be executed in case of a cache miss
+	 * @return cached or new response
+	 * @throws Route360ClientException thrown by the request
+	 */
+	public GeocodingResponse get(Address address, Map<GeocodingRequest.Option, String> options,
+								 GetRequest<Address, GeocodingResponse> request) throws Route360ClientException {
+		return get(key(address, options), address, request);
+	}
+
+	/**
+	 * @param singleLineAddress the address
+	 * @param options options of the request
+	 * @return the cached response or null
+	 */
+	public GeocodingResponse getIfPresent(String singleLineAddress, Map<GeocodingRequest.Option, String> options) {
+		String key  = key(singleLineAddress, options);
+		Entry entry = memory.getIfPresent(key);
+		if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+			try {
+				entry = load(key);
+			}
+			catch (IOException e) {
+				LOGGER.warn("Could not read cached geocoding response: {}", e.getMessage());
+				return null;
+			}
+			if (entry == null)
+				return null;
+			memory.put(key, entry);
+		}
+		return entry.response;
+	}
+
+	private <A> GeocodingResponse get(String key, A address, GetRequest<A, GeocodingResponse> request)
+			throws Route360ClientException {
+
+		try {
+			Entry entry = memory.get(key, () -> loadOrRequest(key, address, request));
+			if (!entry.isExpired(System.currentTimeMillis()))
+				return entry.response;
+
+			// loaded from the disk shortly before it expired, request again
+			memory.asMap().remove(key, entry);
+			return memory.get(key, () -> loadOrRequest(key, address, request)).response;
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof UncacheableResponse)
+				return ((UncacheableResponse) e.getCause()).response;
+			if (e.getCause() instanceof Route360ClientException)
+				throw (Route360ClientException) e.getCause();
+			throw new Route360ClientException("Could not execute request: " + e.getCause().getMessage(), e.getCause());
+		}
+		catch (UncheckedExecutionException | ExecutionError e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	private <A> Entry loadOrRequest(String key, A address, GetRequest<A, GeocodingResponse> request)
+			throws Route360ClientException, UncacheableResponse {
+
+		try {
+			Entry entry = load(key);
+			if (entry != null)
+				return entry;
+		}
+		catch (IOException e) {
+			LOGGER.warn("Could not read cached geocoding response: {}", e.getMessage());
+		}
+
+		GeocodingResponse response = request.get(address);
+		if (response == null || response.wasErrorResponse() || response.getCompleteJsonResponseAsString() == null)
+			throw new UncacheableResponse(response);
+
+		if (disk != null) {
+			try {
+				disk.put(key, response.getCompleteJsonResponseAsString());
+			}
+			catch (IOException e) {
+				LOGGER.warn("Could not write geocoding response to the disk: {}", e.getMessage());
+			}
+		}
+		return new Entry(response, System.currentTimeMillis() + expireAfterWriteMillis);
+	}
+
+	/**
+	 * @return the entry stored on the disk or null
+	 */
+	private Entry load(String key) throws IOException {
+		if (disk == null)
+			return null;
+		DiskStore.Value stored = disk.get(key);
+		if (stored == null)
+			return null;
+		diskHits.incrementAndGet();
+		return new Entry(GeocodingResponse.createFromJson(stored.value), stored.writtenAtMillis + expireAfterWriteMillis);
+	}
+
+	/**
+	 * Remove all cached responses from memory and disk
+	 * @throws IOException if the file cannot be truncated
+	 */
+	public void invalidateAll() throws IOException {
+		memory.invalidateAll();
+		if (disk != null)
+			disk.clear();
+	}
+
+	/**
+	 * Rewrite the file without replaced and expired responses, requests for responses only stored on the disk wait
+	 * until the compaction is finished
+	 * @throws IOException if the file cannot be rewritten
+	 */
+	public void compact() throws IOException {
+		if (disk != null)
+			disk.compact();
+	}
+
+	/**
+	 * @return approximate number of responses in memory
+	 */
+	public long size() {
+		return memory.size();
+	}
+
+	/**
+	 * @return number of responses on the disk, 0 without a file
+	 */
+	public long diskSize() {
+		return disk != null ? disk.size() : 0;
+	}
+
+	/**
+	 * Hit and miss counts of the in-memory tier since the creation of the cache. Responses loaded from the disk are
+	 * counted as misses, see {@link #getDiskHitCount()}.
+	 * @return statistics of the in-memory tier
+	 */
+	public CacheStats getStats() {
+		return memory.stats();
+	}
+
+	/**
+	 * @return number of responses loaded from the disk since the creation of the cache
+	 */
+	public long getDiskHitCount() {
+		return diskHits.get();
+	}
+
+	/**
+	 * Log the statistics of the cache on debug level
+	 */
+	public void logStats() {
+		CacheStats stats = memory.stats();
+		LOGGER.debug(String.format("Geocoding cache: %s entries in memory, %s on disk, %s hits, %s disk hits, %s misses",
+				memory.size(), diskSize(), stats.hitCount(), diskHits.get(), stats.missCount() - diskHits.get()));
+	}
+
+	/**
+	 * Close the file, the in-memory tier stays usable
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (disk != null)
+			disk.close();
+	}
+
+	/**
+	 * @param singleLineAddress the address
+	 * @param options options of the request
+	 * @return the normalized key of the address and options
+	 */
+	static String key(String singleLineAddress, Map<GeocodingRequest.Option, String> options) {
+		StringBuilder key = new StringBuilder("s");
+		append(key, singleLineAddress);
+		return appendOptions(key, options).toString();
+	}
+
+	/**
+	 * @param address the address
+	 * @param options options of the request
+	 * @return the normalized key of the address and options
+	 */
+	static String key(Address address, Map<GeocodingRequest.Option, String> options) {
+		StringBuilder key = new StringBuilder("a");
+		append(key, address.street);
+		append(key, address.streetDetails);
+		append(key, address.city);
+		append(key, address.postalCode);
+		append(key, address.country);
+		return appendOptions(key, options).toString();
+	}
+
+	private static StringBuilder appendOptions(StringBuilder key, Map<GeocodingRequest.Option, String> options) {
+		// options in the order of their declaration, empty values are not sent to the service
+		Map<GeocodingRequest.Option, String> sorted = options == null || options.isEmpty()
+				? new EnumMap<>(GeocodingRequest.Option.class) : new EnumMap<>(options);
+		for (Map.Entry<GeocodingRequest.Option, String> option : sorted.entrySet()) {
+			if (option.getValue() != null && !option.getValue().isEmpty())
+				key.append(SEPARATOR).append(option.getKey().name()).append('=').append(option.getValue().trim());
+		}
+		return key;
+	}
+
+	private static void append(StringBuilder key, String value) {
+		key.append(SEPARATOR);
+		if (value != null)
+			key.append(normalize(value));
+	}
+
+	private static String normalize(String value) {
+		String normalized = Normalizer.normalize(value, Normalizer.Form.NFC).trim().toLowerCase(Locale.ROOT);
+		return WHITESPACE.matcher(normalized).replaceAll(" ");
+	}
+
+	private static final class Entry {
+
+		private final GeocodingResponse response;
+		private final long expiresAtMillis;
+
+		Entry(GeocodingResponse response, long expiresAtMillis) {
+			this.response        = response;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+
+		boolean isExpired(long now) {
+			return now >= expiresAtMillis;
+		}
+	}
+
+	/**
+	 * Carries a response which must not be cached out of the cache loader
+	 */
+	private static final class UncacheableResponse extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient GeocodingResponse response;
+
+		UncacheableResponse(GeocodingResponse response) {
+			super(null, null, false, false);
+			this.response = response;
+		}
+	}
+
+	/**
+	 * Builder for a {@link GeocodingCache}
+	 */
+	public static final class Builder {
+
+		private long maximumSize            = DEFAULT_MAXIMUM_SIZE;
+		private long expireAfterWriteMillis = DEFAULT_EXPIRE_AFTER_WRITE_MILLIS;
+		private Path file                   = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maximumSize maximum number of responses in memory. Default: 10000
+		 * @return this builder
+		 */
+		public Builder maximumSize(long maximumSize) {
+			if (maximumSize < 0)
+				throw new IllegalArgumentException("maximumSize must not be negative, but was " + maximumSize);
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * @param duration time after which a cached response expires, in memory and on disk. Default: 30 days
+		 * @param unit unit of the duration
+		 * @return this builder
+		 */
+		public Builder expireAfterWrite(long duration, TimeUnit unit) {
+			if (duration < 0)
+				throw new IllegalArgumentException("duration must not be negative, but was " + duration);
+			this.expireAfterWriteMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param file file in which responses are stored, it is created if it does not exist. Default: responses are
+		 *             only cached in memory
+		 * @return this builder
+		 */
+		public Builder file(Path file) {
+			this.file = file;
+			return this;
+		}
+
+		/**
+		 * @return a new cache
+		 * @throws IOException if the file cannot be opened
+		 */
+		public GeocodingCache build() throws IOException {
+			return new GeocodingCache(this, file != null ? DiskStore.open(file, expireAfterWriteMillis) : null);
+		}
+	}
+}
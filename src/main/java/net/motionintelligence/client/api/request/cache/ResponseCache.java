@@ -0,0 +1,292 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.request.GetRequest;
+import net.motionintelligence.client.api.response.PolygonResponse;
+import net.motionintelligence.client.api.response.ReachabilityResponse;
+import net.motionintelligence.client.api.response.RouteResponse;
+import net.motionintelligence.client.api.response.TimeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size and time bounded in-process cache of responses, keyed by the {@link TravelOptionsKey} of the request.
+ *
+ * <p>
+ * The cache sits in front of a request class, a request is only executed if there is no cached response for equal
+ * travel options. Concurrent requests for the same key are executed only once, the other callers wait for the result.
+ * Failed requests and responses which are rejected by {@link Builder#cacheIf(Predicate)}, e.g. gateway timeouts,
+ * are not cached. Least recently used entries are evicted when the maximum size is exceeded.
+ * </p>
+ *
+ * <pre>
+ * ResponseCache&lt;PolygonResponse&gt; cache = ResponseCache.&lt;PolygonResponse&gt;newBuilder()
+ *         .maximumSize(500)
+ *         .expireAfterWrite(10, TimeUnit.MINUTES)
+ *         .cacheIf(ResponseCache::isOk)
+ *         .build();
+ * PolygonResponse response = cache.get(options, o -&gt; new PolygonRequest(client, o).get());
+ * </pre>
+ * <p>
+ * One cache should only be used for one kind of request, as the key does not contain the endpoint. Cached responses
+ * are shared between all callers and must not be modified.
+ * </p>
+ *
+ * @param <R> Type of the response
+ */
+public final class ResponseCache<R> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+	public static final long DEFAULT_MAXIMUM_SIZE             = 1000;
+	public static final long DEFAULT_EXPIRE_AFTER_WRITE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final Cache<TravelOptionsKey, R> cache;
+	private final Predicate<? super R> cacheable;
+
+	private ResponseCache(Builder<R> builder) {
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(builder.maximumSize)
+				.expireAfterWrite(builder.expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+		this.cacheable = builder.cacheable;
+	}
+
+	/**
+	 * @param <R> Type of the cached responses
+	 * @return builder for a new cache
+	 */
+	public static <R> Builder<R> newBuilder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Return the cached response or execute the request
+	 * @param travelOptions Travel options of the request
+	 * @param request Request to be executed in case of a cache miss, e.g. <code>o -&gt; new TimeRequest(client, o).get()</code>
+	 * @return Cached or new response
+	 * @throws Route360ClientException Thrown by the request
+	 */
+	public R get(TravelOptions travelOptions, GetRequest<TravelOptions, R> request) throws Route360ClientException {
+
+		try {
+			return cache.get(TravelOptionsKey.of(travelOptions), () -> {
+				R response = request.get(travelOptions);
+				if (!cacheable.test(response))
+					throw new UncacheableResponse(response);
+				return response;
+			});
+		}
+		catch (ExecutionException e) {
+			return unwrap(e.getCause());
+		}
+		catch (UncheckedExecutionException | ExecutionError e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private R unwrap(Throwable cause) throws Route360ClientException {
+		if (cause instanceof UncacheableResponse)
+			return (R) ((UncacheableResponse) cause).response;
+		if (cause instanceof Route360ClientException)
+			throw (Route360ClientException) cause;
+		throw new Route360ClientException("Could not execute request: " + cause.getMessage(), cause);
+	}
+
+	/**
+	 * Return the cached response or execute the request without blocking the calling thread. In contrast to
+	 * {@link #get(TravelOptions, GetRequest)} concurrent misses for the same key all execute the request.
+	 * @param travelOptions Travel options of the request
+	 * @param request Request to be executed in case of a cache miss, e.g. <code>o -&gt; new TimeRequest(client, o).getAsync()</code>
+	 * @return future of the cached or new response
+	 */
+	public CompletableFuture<R> getAsync(TravelOptions travelOptions, Function<TravelOptions, CompletableFuture<R>> request) {
+
+		TravelOptionsKey key = TravelOptionsKey.of(travelOptions);
+		R cached = cache.getIfPresent(key);
+		if (cached != null)
+			return CompletableFuture.completedFuture(cached);
+
+		return request.apply(travelOptions).thenApply(response -> {
+			if (response != null && cacheable.test(response))
+				cache.put(key, response);
+			return response;
+		});
+	}
+
+	/**
+	 * @param travelOptions Travel options of the request
+	 * @return the cached response or null
+	 */
+	public R getIfPresent(TravelOptions travelOptions) {
+		return cache.getIfPresent(TravelOptionsKey.of(travelOptions));
+	}
+
+	/**
+	 * Remove the cached response of the travel options
+	 * @param travelOptions Travel options of the request
+	 */
+	public void invalidate(TravelOptions travelOptions) {
+		cache.invalidate(TravelOptionsKey.of(travelOptions));
+	}
+
+	/**
+	 * Remove all cached responses
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return approximate number of cached responses
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * Hit and miss counts since the creation of the cache. Requests whose response was not cached are counted
+	 * as load exceptions.
+	 * @return statistics of the cache
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Log the statistics of the cache on debug level
+	 */
+	public void logStats() {
+		CacheStats stats = cache.stats();
+		LOGGER.debug(String.format("Response cache: %s entries, %s hits, %s misses, hit rate %.2f, %s evictions",
+				cache.size(), stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+	}
+
+	/**
+	 * @param response Time response
+	 * @return true if the code of the response is "ok"
+	 */
+	public static boolean isOk(TimeResponse response) {
+		return "ok".equals(response.getCode());
+	}
+
+	/**
+	 * @param response Polygon response
+	 * @return true if the code of the response is "ok"
+	 */
+	public static boolean isOk(PolygonResponse response) {
+		return "ok".equals(response.getCode());
+	}
+
+	/**
+	 * @param response Reachability response
+	 * @return true if the code of the response is "ok"
+	 */
+	public static boolean isOk(ReachabilityResponse response) {
+		return "ok".equals(response.getCode());
+	}
+
+	/**
+	 * Default of {@link Builder#cacheIf(Predicate)}.
+	 *
+	 * @param response Response of any type
+	 * @return false for null and for time, polygon, reachability and route responses whose code is not "ok",
+	 *         true for all other responses
+	 */
+	public static boolean isCacheable(Object response) {
+		if (response instanceof TimeResponse)
+			return isOk((TimeResponse) response);
+		if (response instanceof PolygonResponse)
+			return isOk((PolygonResponse) response);
+		if (response instanceof ReachabilityResponse)
+			return isOk((ReachabilityResponse) response);
+		if (response instanceof RouteResponse)
+			return "ok".equals(((RouteResponse) response).getCode());
+		return response != null;
+	}
+
+	/**
+	 * Carries a response which must not be cached out of the cache loader
+	 */
+	private static final class UncacheableResponse extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Object response;
+
+		UncacheableResponse(Object response) {
+			super(null, null, false, false);
+			this.response = response;
+		}
+	}
+
+	/**
+	 * Builder for a {@link ResponseCache}
+	 * @param <R> Type of the response
+	 */
+	public static final class Builder<R> {
+
+		private long maximumSize            = DEFAULT_MAXIMUM_SIZE;
+		private long expireAfterWriteMillis = DEFAULT_EXPIRE_AFTER_WRITE_MILLIS;
+		private Predicate<? super R> cacheable = ResponseCache::isCacheable;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param maximumSize maximum number of cached responses. Default: 1000
+		 * @return this builder
+		 */
+		public Builder<R> maximumSize(long maximumSize) {
+			if (maximumSize < 0)
+				throw new IllegalArgumentException("maximumSize must not be negative, but was " + maximumSize);
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * @param duration time after which a cached response expires. Default: 10 minutes
+		 * @param unit unit of the duration
+		 * @return this builder
+		 */
+		public Builder<R> expireAfterWrite(long duration, TimeUnit unit) {
+			if (duration < 0)
+				throw new IllegalArgumentException("duration must not be negative, but was " + duration);
+			this.expireAfterWriteMillis = unit.toMillis(duration);
+			return this;
+		}
+
+		/**
+		 * @param cacheable decides whether a response is cached, e.g. {@link ResponseCache#isOk(PolygonResponse)}.
+		 *                  Default: {@link ResponseCache#isCacheable(Object)}, i.e. responses with an error code such as
+		 *                  "gateway-time-out" are not cached
+		 * @return this builder
+		 */
+		public Builder<R> cacheIf(Predicate<? super R> cacheable) {
+			this.cacheable = cacheable;
+			return this;
+		}
+
+		public ResponseCache<R> build() {
+			return new ResponseCache<>(this);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.hash.HashCode;
+import net.motionintelligence.client.api.TravelOptions;
+
+import java.util.List;
+
+/**
+ * Stable, canonical hash of the request relevant fields of {@link TravelOptions}.
+ *
+ * <p>
+ * Two travel options have the same key if the service would calculate the same result for them: sources and targets
+ * are hashed independent of their order and of the map they are stored in, and the travel mode parameters are only
+ * hashed for the travel types which are actually used by a source. Fields which are not sent to the service (e.g. the
+ * fallback URL) are ignored. See {@link TravelOptionsSnapshot} for a key which also keeps the travel options.
+ * </p>
+ * <p>
+ * Besides the hash the key keeps the request relevant fields themselves, which are compared if the hashes are equal.
+ * A hash collision therefore cannot return the cached response of another request.
+ * </p>
+ */
+public final class TravelOptionsKey {
+
+	private final HashCode hash;
+	private final List<Object> fields;
+
+	TravelOptionsKey(HashCode hash, List<Object> fields) {
+		this.hash   = hash;
+		this.fields = fields;
+	}
+
+	/**
+	 * @param travelOptions Travel options of the request
+	 * @return key of the travel options, changes to the travel options are not reflected by the key
+	 */
+	public static TravelOptionsKey of(TravelOptions travelOptions) {
+		return new TravelOptionsKey(TravelOptionsSnapshot.fingerprint(travelOptions), TravelOptionsSnapshot.fields(travelOptions));
+	}
+
+	/**
+	 * @return the hash as lower case hex string
+	 */
+	@Override
+	public String toString() {
+		return hash.toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		TravelOptionsKey that = (TravelOptionsKey) o;
+		return hash.equals(that.hash) && fields.equals(that.fields);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash.hashCode();
+	}
+}
@@ -0,0 +1,422 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.Coordinate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of {@link TravelOptions} together with a precomputed 128 bit fingerprint of its request relevant
+ * fields, to be used as key for caching or for the deduplication of concurrent requests.
+ *
+ * <p>
+ * The fingerprint is the same as for {@link TravelOptionsKey}: sources and targets are hashed independent of their
+ * order, the travel mode parameters are only hashed for the travel types which are actually used by a source, and
+ * fields which are not sent to any service (e.g. the fallback URL) are ignored. The URLs and the query of the
+ * statistic, point of interest and overpass services are included, so one snapshot can be used as key for all kinds
+ * of requests. {@link #hashCode()} does not depend on the number of coordinates, {@link #equals(Object)} compares
+ * the fingerprints first and the request relevant fields only if they are equal, so that a collision of the
+ * fingerprints cannot make different requests equal. Snapshots can be shared between threads.
+ * </p>
+ * <p>
+ * The coordinates themselves are not copied, they must not be modified after the snapshot has been created.
+ * </p>
+ */
+public final class TravelOptionsSnapshot {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final TravelOptions travelOptions;
+	private final HashCode fingerprint;
+
+	TravelOptionsSnapshot(TravelOptions travelOptions, HashCode fingerprint) {
+		this.travelOptions = travelOptions;
+		this.fingerprint   = fingerprint;
+	}
+
+	/**
+	 * @param travelOptions Travel options of the request
+	 * @return snapshot of the travel options, later changes to the travel options are not reflected by the snapshot
+	 */
+	public static TravelOptionsSnapshot of(TravelOptions travelOptions) {
+		TravelOptions copy = travelOptions.copy();
+		return new TravelOptionsSnapshot(copy, fingerprint(copy));
+	}
+
+	/**
+	 * @return new travel options equal to the ones of the snapshot, which may be modified by the caller
+	 */
+	public TravelOptions toTravelOptions() {
+		return travelOptions.copy();
+	}
+
+	/**
+	 * @return fingerprint of the request relevant fields
+	 */
+	public HashCode getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return cache key with the fingerprint and the request relevant fields of the snapshot
+	 */
+	public TravelOptionsKey getKey() {
+		return new TravelOptionsKey(fingerprint, fields(travelOptions));
+	}
+
+	/**
+	 * @return the fingerprint as lower case hex string
+	 */
+	@Override
+	public String toString() {
+		return fingerprint.toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		TravelOptionsSnapshot that = (TravelOptionsSnapshot) o;
+		return fingerprint.equals(that.fingerprint) && fields(travelOptions).equals(fields(that.travelOptions));
+	}
+
+	@Override
+	public int hashCode() {
+		return fingerprint.hashCode();
+	}
+
+	/**
+	 * @param travelOptions Travel options of the request
+	 * @return canonical 128 bit hash of the request relevant fields of the travel options
+	 */
+	static HashCode fingerprint(TravelOptions travelOptions) {
+		CanonicalHasher hasher = new CanonicalHasher(HASH_FUNCTION.newHasher());
+		putFields(travelOptions, hasher);
+		return hasher.hash();
+	}
+
+	/**
+	 * @param travelOptions Travel options of the request
+	 * @return the request relevant fields of the travel options, equal for travel options with the same fingerprint
+	 * unless the fingerprints collide
+	 */
+	static List<Object> fields(TravelOptions travelOptions) {
+		FieldList fields = new FieldList();
+		putFields(travelOptions, fields);
+		return Collections.unmodifiableList(fields.values);
+	}
+
+	/**
+	 * The request relevant fields in the order in which they are hashed and compared
+	 */
+	private static void putFields(TravelOptions travelOptions, Fields fields) {
+
+		fields.putString(travelOptions.getServiceUrl());
+		fields.putString(travelOptions.getServiceKey());
+		fields.putString(travelOptions.getInterServiceKey());
+		fields.putString(travelOptions.getStatisticServiceUrl());
+		fields.putString(travelOptions.getPointOfInterestServiceUrl());
+		fields.putString(travelOptions.getOverpassServiceUrl());
+		fields.putString(travelOptions.getOverpassQuery());
+
+		fields.putObject(travelOptions.getTravelType());
+		fields.putObjects(travelOptions.getTravelTimes());
+
+		// sources with the travel type used by the service
+		Set<TravelType> travelTypes = EnumSet.noneOf(TravelType.class);
+		for (Coordinate source : values(travelOptions.getSources())) {
+			TravelType travelType = getTravelType(travelOptions, source);
+			if (travelType != null)
+				travelTypes.add(travelType);
+		}
+		fields.putCoordinates(values(travelOptions.getSources()), source -> getTravelType(travelOptions, source));
+		fields.putCoordinates(values(travelOptions.getTargets()), target -> null);
+
+		// travel mode
+		if (travelTypes.contains(TravelType.TRANSIT)) {
+			fields.putInt(travelOptions.getTime());
+			fields.putInt(travelOptions.getDate());
+			fields.putInt(travelOptions.getFrame());
+			fields.putObject(travelOptions.getMaxTransfers());
+		}
+		if (travelTypes.contains(TravelType.WALK)) {
+			fields.putDouble(travelOptions.getWalkSpeed());
+			fields.putDouble(travelOptions.getWalkUphill());
+			fields.putDouble(travelOptions.getWalkDownhill());
+		}
+		if (travelTypes.contains(TravelType.BIKE)) {
+			fields.putDouble(travelOptions.getBikeSpeed());
+			fields.putDouble(travelOptions.getBikeUphill());
+			fields.putDouble(travelOptions.getBikeDownhill());
+		}
+		if (travelTypes.contains(TravelType.CAR))
+			fields.putBoolean(travelOptions.getRushHour());
+		fields.putInt(travelOptions.getRecommendations());
+
+		// polygon
+		fields.putObject(travelOptions.getIntersectionMode());
+		fields.putBoolean(travelOptions.isPointReduction());
+		fields.putLong(travelOptions.getMinPolygonHoleSize());
+		fields.putObject(travelOptions.getSrid());
+		fields.putObject(travelOptions.getBuffer());
+		fields.putObject(travelOptions.getSimplify());
+		fields.putObject(travelOptions.getPolygonSerializerType());
+
+		// common
+		fields.putObject(travelOptions.getPathSerializer());
+		fields.putObject(travelOptions.isElevationEnabled());
+		fields.putObject(travelOptions.getReverse());
+		fields.putObject(travelOptions.getEdgeWeightType());
+		fields.putObject(travelOptions.getMaxEdgeWeight());
+		fields.putObject(travelOptions.getStatisticGroupId());
+		fields.putObjects(travelOptions.getStatisticIds());
+		fields.putObject(travelOptions.getFormat());
+		fields.putString(travelOptions.getBoundingBox());
+		fields.putSortedObjects(travelOptions.getOsmTypes());
+		fields.putSortedObjects(travelOptions.getCustomPois());
+		fields.putBoolean(travelOptions.getOnlyPrintReachablePoints());
+	}
+
+	private static Collection<Coordinate> values(Map<String, Coordinate> coordinates) {
+		return coordinates == null ? new ArrayList<>() : coordinates.values();
+	}
+
+	/**
+	 * Same resolution as in the request configurators: the travel type of a source overrides the default one
+	 */
+	private static TravelType getTravelType(TravelOptions travelOptions, Coordinate source) {
+		TravelType travelType = travelOptions.getTravelType();
+		if (source.getTravelType() != null
+				&& source.getTravelType() != travelType
+				&& source.getTravelType() != TravelType.UNSPECIFIED) {
+			travelType = source.getTravelType();
+		}
+		return travelType;
+	}
+
+	/**
+	 * Receiver of the request relevant fields, which are either hashed or collected for comparison
+	 */
+	private interface Fields {
+
+		void putInt(int value);
+
+		void putLong(long value);
+
+		void putDouble(double value);
+
+		void putBoolean(boolean value);
+
+		void putString(String value);
+
+		void putObject(Object value);
+
+		void putObjects(Collection<?> values);
+
+		void putSortedObjects(Collection<?> values);
+
+		/**
+		 * @param coordinates coordinates in any order
+		 * @param travelTypes resolves the travel type of a coordinate, which may be null
+		 */
+		void putCoordinates(Collection<Coordinate> coordinates, Function<Coordinate, TravelType> travelTypes);
+	}
+
+	/**
+	 * Collects the fields as values with a content based {@link Object#equals(Object)}, coordinates are collected as
+	 * multiset independent of their order
+	 */
+	private static final class FieldList implements Fields {
+
+		private final List<Object> values = new ArrayList<>();
+
+		@Override
+		public void putInt(int value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putLong(long value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putDouble(double value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putBoolean(boolean value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putString(String value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putObject(Object value) {
+			values.add(value);
+		}
+
+		@Override
+		public void putObjects(Collection<?> values) {
+			this.values.add(values == null ? null : new ArrayList<>(values));
+		}
+
+		@Override
+		public void putSortedObjects(Collection<?> values) {
+			this.values.add(sorted(values));
+		}
+
+		@Override
+		public void putCoordinates(Collection<Coordinate> coordinates, Function<Coordinate, TravelType> travelTypes) {
+			Map<List<Object>, Integer> counts = new HashMap<>();
+			for (Coordinate coordinate : coordinates)
+				counts.merge(Arrays.asList(coordinate.getId(), coordinate.getX(), coordinate.getY(),
+						travelTypes.apply(coordinate)), 1, Integer::sum);
+			values.add(counts);
+		}
+	}
+
+	/**
+	 * Order independent hash of coordinates: the 128 bit hashes of the single coordinates are summed up, which takes
+	 * linear time instead of sorting the coordinates by ID
+	 */
+	private static final class CoordinateSum {
+
+		private int count;
+		private long low;
+		private long high;
+
+		void add(Coordinate coordinate, TravelType travelType) {
+			CanonicalHasher hasher = new CanonicalHasher(HASH_FUNCTION.newHasher());
+			hasher.putString(coordinate.getId());
+			hasher.putDouble(coordinate.getX());
+			hasher.putDouble(coordinate.getY());
+			hasher.putObject(travelType);
+
+			ByteBuffer hash = ByteBuffer.wrap(hasher.hash().asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+			count++;
+			low  += hash.getLong(0);
+			high += hash.getLong(8);
+		}
+
+		void putTo(CanonicalHasher hasher) {
+			hasher.putInt(count);
+			hasher.putLong(low);
+			hasher.putLong(high);
+		}
+	}
+
+	/**
+	 * Hasher which writes a marker for null values and the length of strings and collections,
+	 * so that consecutive values cannot be confused
+	 */
+	private static final class CanonicalHasher implements Fields {
+
+		private final Hasher hasher;
+
+		CanonicalHasher(Hasher hasher) {
+			this.hasher = hasher;
+		}
+
+		@Override
+		public void putInt(int value) {
+			hasher.putInt(value);
+		}
+
+		@Override
+		public void putLong(long value) {
+			hasher.putLong(value);
+		}
+
+		@Override
+		public void putDouble(double value) {
+			hasher.putDouble(value);
+		}
+
+		@Override
+		public void putBoolean(boolean value) {
+			hasher.putBoolean(value);
+		}
+
+		@Override
+		public void putString(String value) {
+			if (value == null) {
+				hasher.putInt(-1);
+			}
+			else {
+				hasher.putInt(value.length());
+				hasher.putString(value, StandardCharsets.UTF_8);
+			}
+		}
+
+		@Override
+		public void putObject(Object value) {
+			putString(value == null ? null : value.getClass().getSimpleName() + ":" + value);
+		}
+
+		@Override
+		public void putObjects(Collection<?> values) {
+			if (values == null) {
+				hasher.putInt(-1);
+			}
+			else {
+				hasher.putInt(values.size());
+				for (Object value : values)
+					putObject(value);
+			}
+		}
+
+		@Override
+		public void putSortedObjects(Collection<?> values) {
+			putObjects(sorted(values));
+		}
+
+		@Override
+		public void putCoordinates(Collection<Coordinate> coordinates, Function<Coordinate, TravelType> travelTypes) {
+			CoordinateSum sum = new CoordinateSum();
+			for (Coordinate coordinate : coordinates)
+				sum.add(coordinate, travelTypes.apply(coordinate));
+			sum.putTo(this);
+		}
+
+		HashCode hash() {
+			return hasher.hash();
+		}
+	}
+
+	/**
+	 * @return string values in natural order, null for null
+	 */
+	private static List<String> sorted(Collection<?> values) {
+		if (values == null)
+			return null;
+		List<String> strings = new ArrayList<>(values.size());
+		for (Object value : values)
+			strings.add(Objects.toString(value));
+		strings.sort(Comparator.naturalOrder());
+		return strings;
+	}
+}
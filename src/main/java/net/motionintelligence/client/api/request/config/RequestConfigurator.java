@@ -105,12 +105,12 @@ public final class RequestConfigurator {
 	}
 
 	/**
-	 * 
-	 * @param travelOptions
-	 * @return
-	 * @throws JSONException
+	 * Also used by the {@link StreamingRequestConfigurator}, which writes the object with the same key order
+	 * @param travelOptions Travel options of the request
+	 * @return polygon part of the configuration
+	 * @throws JSONException Thrown when a value is not valid in JSON, e.g. a non-finite number
 	 */
-	private static JSONObject getPolygonObject(final TravelOptions travelOptions) throws JSONException {
+	static JSONObject getPolygonObject(final TravelOptions travelOptions) throws JSONException {
 		
 		JSONObject polygon = new JSONObject();
 		polygon.put(Constants.POLYGON_VALUES, 			 new JSONArray(travelOptions.getTravelTimes()));
@@ -205,8 +205,15 @@ public final class RequestConfigurator {
 		return travelType;
 	}
 
-	private static JSONObject getSourceObject(final TravelOptions travelOptions,
-	                                          final Coordinate src) throws JSONException {
+	/**
+	 * Also used by the {@link StreamingRequestConfigurator}, which writes the object with the same key order
+	 * @param travelOptions Travel options of the request
+	 * @param src Source coordinate
+	 * @return source part of the configuration, with the travel mode of the source
+	 * @throws JSONException Thrown when a value is not valid in JSON, e.g. a non-finite number
+	 */
+	static JSONObject getSourceObject(final TravelOptions travelOptions,
+	                                  final Coordinate src) throws JSONException {
 		TravelType travelType = getTravelType(travelOptions, src);
 		JSONObject travelMode = getTravelMode(travelOptions, travelType);
 
@@ -0,0 +1,263 @@
+package net.motionintelligence.client.api.request.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.motionintelligence.client.Constants;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.util.JsonUtil;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Writes TravelOptions as JSON request body directly to the connection with a Jackson {@link JsonGenerator}.
+ *
+ * The output is byte-identical to {@link RequestConfigurator#getConfig(TravelOptions)}, but the configuration is
+ * never materialized as String, which avoids several copies of the payload for requests with many targets.
+ * Polygon and source objects are built by the {@link RequestConfigurator} one at a time and written in their own key
+ * order, numbers and strings are formatted with the org.json rules.
+ *
+ */
+public final class StreamingRequestConfigurator {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private StreamingRequestConfigurator() {
+	}
+
+	/**
+	 * Replaces <code>Entity.entity(RequestConfigurator.getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE)</code>
+	 * for POST requests. The travel options are serialized each time the entity is written, i.e. when the request is sent.
+	 * @param travelOptions Travel options to be written as JSON
+	 * @return JSON entity
+	 * @throws Route360ClientException Thrown when JSON cannot be generated
+	 */
+	public static Entity<StreamingOutput> getEntity(final TravelOptions travelOptions) throws Route360ClientException {
+		return Entity.entity(getConfig(travelOptions), MediaType.APPLICATION_JSON_TYPE);
+	}
+
+	/**
+	 * The travel options are validated while they are written. Invalid options make the output fail with an
+	 * {@link IOException} which is recognized by {@link #getConfigError(Throwable)}, so that the
+	 * {@link net.motionintelligence.client.api.request.Route360Client} does not report them like a failure of the
+	 * connection (which would e.g. trigger the fallback service).
+	 * @param travelOptions Travel options to be written as JSON
+	 * @return Streaming output writing the JSON configuration
+	 * @throws Route360ClientException Thrown when JSON cannot be generated
+	 */
+	public static StreamingOutput getConfig(final TravelOptions travelOptions) throws Route360ClientException {
+		return output -> writeConfig(travelOptions, output);
+	}
+
+	/**
+	 * @param throwable Failure of a request, e.g. the ProcessingException of the HTTP client, or one of its causes
+	 * @return exception to be thrown instead if the travel options of the request could not be written as JSON,
+	 * null if the failure has another cause
+	 */
+	public static Route360ClientException getConfigError(final Throwable throwable) {
+		for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+			if (cause instanceof InvalidConfigException)
+				return new Route360ClientException("Could not generate r360 config object", cause.getCause());
+			if (cause.getCause() == cause)
+				break;
+		}
+		return null;
+	}
+
+	/**
+	 * Write the configuration, the stream is flushed but not closed
+	 * @param travelOptions Travel options to be written as JSON
+	 * @param output Stream to write the UTF-8 encoded JSON to
+	 * @throws IOException Thrown when writing failed or JSON cannot be generated
+	 */
+	public static void writeConfig(final TravelOptions travelOptions, final OutputStream output) throws IOException {
+
+		try (JsonGenerator generator = JsonUtil.createGenerator(output)) {
+			writeCommonConfig(generator, travelOptions);
+		}
+	}
+
+	private static void writeCommonConfig(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+
+		generator.writeStartObject();
+
+		if (travelOptions.getTravelTimes() != null && !travelOptions.getTravelTimes().isEmpty()) {
+			JSONObject polygon;
+			try {
+				polygon = RequestConfigurator.getPolygonObject(travelOptions);
+			}
+			catch (JSONException e) {
+				throw new InvalidConfigException(e);
+			}
+			generator.writeFieldName(Constants.POLYGON);
+			writeValue(generator, polygon);
+		}
+
+		if (travelOptions.getIntersectionMode() != null)
+			writeString(generator, Constants.POLYGON_INTERSECTION_MODE, travelOptions.getIntersectionMode());
+
+		if (travelOptions.getSources() != null && !travelOptions.getSources().isEmpty())
+			writeSources(generator, travelOptions);
+
+		if (travelOptions.getTargets() != null && !travelOptions.getTargets().isEmpty())
+			writeTargets(generator, travelOptions);
+
+		if (travelOptions.getPathSerializer() != null)
+			writeString(generator, Constants.PATH_SERIALIZER, travelOptions.getPathSerializer().getPathSerializerName());
+
+		if (travelOptions.isElevationEnabled() != null)
+			writeRaw(generator, Constants.ENABLE_ELEVATION, travelOptions.isElevationEnabled());
+
+		if (travelOptions.getReverse() != null)
+			writeRaw(generator, Constants.REVERSE, travelOptions.getReverse());
+
+		if (travelOptions.getEdgeWeightType() != null)
+			writeString(generator, Constants.EDGE_WEIGHT, travelOptions.getEdgeWeightType());
+
+		if (travelOptions.getStatisticGroupId() != null)
+			writeString(generator, Constants.STATISTIC_GROUP_ID, travelOptions.getStatisticGroupId());
+
+		if (travelOptions.getStatisticIds() != null)
+			writeRaw(generator, Constants.STATISTICS_ID, travelOptions.getStatisticIds());
+
+		if (travelOptions.getServiceUrl() != null)
+			writeString(generator, "serviceUrl", travelOptions.getServiceUrl());
+
+		if (travelOptions.getServiceKey() != null)
+			writeString(generator, "serviceKey", travelOptions.getServiceKey());
+
+		if (travelOptions.getFormat() != null)
+			writeString(generator, Constants.FORMAT, travelOptions.getFormat().toString().toLowerCase());
+
+		if (travelOptions.getBoundingBox() != null)
+			writeString(generator, "boundingBox", travelOptions.getBoundingBox());
+
+		if (travelOptions.getOsmTypes() != null) {
+			String osmTypes;
+			try {
+				osmTypes = MAPPER.writeValueAsString(travelOptions.getOsmTypes());
+			}
+			catch (JsonProcessingException e) {
+				throw new InvalidConfigException(e);
+			}
+			writeRaw(generator, "osmTypes", osmTypes);
+		}
+
+		writeRaw(generator, "onlyPrintReachablePoints", travelOptions.getOnlyPrintReachablePoints());
+		writeRaw(generator, Constants.MAX_EDGE_WEIGTH, travelOptions.getMaxEdgeWeight());
+
+		generator.writeEndObject();
+	}
+
+	/**
+	 * Equivalent of JSONBuilder.appendString, the value is quoted but not escaped
+	 */
+	private static void writeString(final JsonGenerator generator, final String key, final Object value) throws IOException {
+		generator.writeFieldName(key);
+		generator.writeRawValue("\"" + value + "\"");
+	}
+
+	/**
+	 * Equivalent of JSONBuilder.append, the value is written as is
+	 */
+	private static void writeRaw(final JsonGenerator generator, final String key, final Object value) throws IOException {
+		generator.writeFieldName(key);
+		generator.writeRawValue(String.valueOf(value));
+	}
+
+	private static void writeTargets(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+
+		generator.writeFieldName(Constants.TARGETS);
+		generator.writeStartArray();
+		for (Coordinate trg : travelOptions.getTargets().values()) {
+			generator.writeStartObject();
+			writeString(generator, Constants.ID, trg.getId());
+			generator.writeFieldName(Constants.LATITUDE);
+			generator.writeRawValue(Double.toString(trg.getY()));
+			generator.writeFieldName(Constants.LONGITUDE);
+			generator.writeRawValue(Double.toString(trg.getX()));
+			generator.writeEndObject();
+		}
+		generator.writeEndArray();
+	}
+
+	private static void writeSources(final JsonGenerator generator, final TravelOptions travelOptions) throws IOException {
+
+		generator.writeFieldName(Constants.SOURCES);
+		generator.writeStartArray();
+		for (Coordinate src : travelOptions.getSources().values()) {
+			JSONObject source;
+			try {
+				source = RequestConfigurator.getSourceObject(travelOptions, src);
+			}
+			catch (JSONException e) {
+				throw new InvalidConfigException(e);
+			}
+			writeValue(generator, source);
+		}
+		generator.writeEndArray();
+	}
+
+	/**
+	 * Writes a value of an org.json object, see <code>JSONObject.valueToString</code>
+	 */
+	private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+
+		if (value instanceof Number) {
+			try {
+				generator.writeRawValue(JSONObject.numberToString((Number) value));
+			}
+			catch (JSONException e) {
+				throw new InvalidConfigException(e);
+			}
+		}
+		else if (value instanceof Boolean) {
+			generator.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			generator.writeStartObject();
+			for (Iterator<String> keys = JsonUtil.keys(object); keys.hasNext(); ) {
+				String key = keys.next();
+				generator.writeFieldName(key);
+				writeValue(generator, object.opt(key));
+			}
+			generator.writeEndObject();
+		}
+		else if (value instanceof JSONArray) {
+			JSONArray array = (JSONArray) value;
+			generator.writeStartArray();
+			for (int i = 0; i < array.length(); i++)
+				writeValue(generator, array.opt(i));
+			generator.writeEndArray();
+		}
+		else if (value == null) {
+			generator.writeNull();
+		}
+		else {
+			generator.writeRawValue(JSONObject.quote(value.toString()));
+		}
+	}
+
+	/**
+	 * Thrown while writing if the travel options cannot be written as JSON, the cause is the original exception
+	 */
+	private static final class InvalidConfigException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		InvalidConfigException(Exception cause) {
+			super("Could not generate r360 config object", cause);
+		}
+	}
+}
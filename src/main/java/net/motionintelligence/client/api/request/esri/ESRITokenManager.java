@@ -0,0 +1,236 @@
+package net.motionintelligence.client.api.request.esri;
+
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.response.esri.AuthenticationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current ESRI access token of one {@link ESRIAuthenticationDetails account} and renews it before it expires.
+ *
+ * <p>
+ * The token and its expiry are swapped atomically, reading the token never locks. Once a token has been retrieved,
+ * a new one is requested in the background when 80% of its lifetime (but at most 10 minutes before its expiry) has
+ * passed, so request threads keep using the old token while it is renewed. Only the very first request, or a request
+ * after the token has been rejected by the service, waits for the authentication, which is executed once for all
+ * waiting threads. A token that is not used between two renewals is not renewed proactively anymore, but again on
+ * its next use.
+ * </p>
+ */
+public class ESRITokenManager {
+
+    /**
+     * Executes the authentication request against the ESRI service
+     */
+    @FunctionalInterface
+    public interface Authenticator {
+        /**
+         * @return the response of the service, its error is thrown as {@link Route360ClientException}
+         * @throws Route360ClientException if the authentication request failed
+         */
+        AuthenticationResponse authenticate() throws Route360ClientException;
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ESRITokenManager.class);
+
+    private static final long MAX_REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long MAX_EXPIRY_MARGIN_MILLIS  = TimeUnit.SECONDS.toMillis(30);
+    private static final long AWAIT_TIMEOUT_MILLIS      = TimeUnit.MINUTES.toMillis(1);
+
+    private final ESRIAuthenticationDetails authenticationDetails;
+    private final Authenticator authenticator;
+    private final AtomicReference<Token> token                        = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Token>> refreshing = new AtomicReference<>();
+    private volatile boolean usedSinceRefresh = false;
+
+    /**
+     * @param authenticationDetails the account of the tokens, its token expiration is used if the service does not
+     *                              report the lifetime of a token
+     * @param authenticator executes the authentication request
+     */
+    public ESRITokenManager(ESRIAuthenticationDetails authenticationDetails, Authenticator authenticator) {
+        this.authenticationDetails = authenticationDetails;
+        this.authenticator         = authenticator;
+    }
+
+    /**
+     * Returns the current token without waiting, unless there is no valid token yet. A renewal is started in the
+     * background if the token is about to expire.
+     *
+     * @return a valid access token
+     * @throws Route360ClientException if there is no valid token and the authentication failed or did not finish
+     * within one minute
+     */
+    public String getToken() throws Route360ClientException {
+        usedSinceRefresh = true;
+        Token current = token.get();
+        long now = System.currentTimeMillis();
+        if (current != null && now < current.expiresAtMillis) {
+            if (now >= current.refreshAtMillis)
+                refreshAsync();
+            return current.accessToken;
+        }
+        return await(refreshAsync()).accessToken;
+    }
+
+    /**
+     * @return the current access token without waiting or renewing it, null if there is none
+     */
+    public String getCurrentToken() {
+        Token current = token.get();
+        return current == null ? null : current.accessToken;
+    }
+
+    /**
+     * Discards the token after it was rejected by the service, the next call of {@link #getToken()} waits for a new
+     * one. A token which has already been replaced is ignored.
+     *
+     * @param rejectedToken the token used by the rejected request
+     */
+    public void invalidate(String rejectedToken) {
+        Token current = token.get();
+        if (current != null && current.accessToken.equals(rejectedToken) && token.compareAndSet(current, null))
+            LOGGER.debug("Access token for ESRI user with client id {} was rejected", authenticationDetails.getClientID());
+    }
+
+    /**
+     * Starts the renewal of the token, unless it is already being renewed.
+     *
+     * @return future of the new token, shared by all callers during the renewal
+     */
+    public CompletableFuture<Token> refreshAsync() {
+        while (true) {
+            CompletableFuture<Token> running = refreshing.get();
+            if (running != null)
+                return running;
+
+            CompletableFuture<Token> future = new CompletableFuture<>();
+            if (refreshing.compareAndSet(null, future)) {
+                try {
+                    TokenScheduler.INSTANCE.execute(() -> refresh(future));
+                } catch (RuntimeException e) {
+                    refreshing.set(null);
+                    future.completeExceptionally(e);
+                }
+                return future;
+            }
+        }
+    }
+
+    private void refresh(CompletableFuture<Token> future) {
+        try {
+            LOGGER.debug("Retrieving access token for ESRI user with client id: {}", authenticationDetails.getClientID());
+            long issuedAtMillis = System.currentTimeMillis();
+            AuthenticationResponse response = authenticator.authenticate();
+            if (response == null || response.getAccessToken() == null)
+                throw new Route360ClientException("Authentication with ESRI Service did not return an access token");
+
+            long lifetimeMillis = response.getExpiresIn() != null
+                    ? TimeUnit.SECONDS.toMillis(response.getExpiresIn())
+                    : TimeUnit.MINUTES.toMillis(authenticationDetails.getTokenExpirationInMinutes());
+            Token newToken = new Token(response.getAccessToken(), issuedAtMillis, lifetimeMillis);
+
+            usedSinceRefresh = false;
+            token.set(newToken);
+            refreshing.set(null);
+            future.complete(newToken);
+            scheduleRefresh(newToken);
+        } catch (Throwable e) {
+            // also errors of the authenticator must complete the future, otherwise all waiting threads would hang
+            LOGGER.warn("Could not retrieve access token for ESRI user with client id {}: {}",
+                    authenticationDetails.getClientID(), e.getMessage());
+            refreshing.compareAndSet(future, null);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Renew the token in the background when it is due, if it has been used since it was retrieved
+     */
+    private void scheduleRefresh(Token scheduled) {
+        long delay = Math.max(0, scheduled.refreshAtMillis - System.currentTimeMillis());
+        TokenScheduler.INSTANCE.schedule(() -> {
+            if (token.get() == scheduled && usedSinceRefresh)
+                refreshAsync();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Token await(CompletableFuture<Token> future) throws Route360ClientException {
+        try {
+            return future.get(AWAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new Route360ClientException("Timed out waiting for the ESRI access token", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Route360ClientException("Interrupted while waiting for the ESRI access token", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Route360ClientException)
+                throw (Route360ClientException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new Route360ClientException("Authentication with ESRI Service failed: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Immutable access token with the times at which it should be renewed and is not used anymore
+     */
+    public static final class Token {
+
+        private final String accessToken;
+        private final long refreshAtMillis;
+        private final long expiresAtMillis;
+
+        Token(String accessToken, long issuedAtMillis, long lifetimeMillis) {
+            this.accessToken     = accessToken;
+            this.refreshAtMillis = issuedAtMillis + lifetimeMillis - Math.min(lifetimeMillis / 5, MAX_REFRESH_MARGIN_MILLIS);
+            this.expiresAtMillis = issuedAtMillis + lifetimeMillis - Math.min(lifetimeMillis / 20, MAX_EXPIRY_MARGIN_MILLIS);
+        }
+
+        /**
+         * @return the access token
+         */
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        /**
+         * @return time after which the token is renewed in the background, in milliseconds since the epoch
+         */
+        public long getRefreshAtMillis() {
+            return refreshAtMillis;
+        }
+
+        /**
+         * @return time after which the token is not used anymore, slightly before the service rejects it,
+         * in milliseconds since the epoch
+         */
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+
+    private static final class TokenScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "route360-esri-token");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package net.motionintelligence.client.api.request.pool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Set of equivalent routing backends which serve the requests for one service URL.
+ *
+ * <p>
+ * A pool is registered with {@link net.motionintelligence.client.api.request.Route360Client.Builder#endpointPool(EndpointPool)}.
+ * Every request of the client whose URI starts with the service URL of the pool, i.e. whose
+ * {@link net.motionintelligence.client.api.TravelOptions#getServiceUrl()} (or fallback service URL) is the service
+ * URL of the pool, is sent to one of the endpoints of the pool instead, selected by the {@link LoadBalancingStrategy}.
+ * </p>
+ * <p>
+ * Endpoints which fail repeatedly (connection errors or HTTP 500, 502 and 503) are ejected from the selection for the
+ * ejection time (passive outlier detection). Optionally all endpoints are probed periodically with a GET request,
+ * see {@link Builder#healthCheck(String, long, TimeUnit)}. If all endpoints are ejected, all of them are used again.
+ * Requests which fail with a connection error are retried once on another endpoint.
+ * </p>
+ *
+ * <pre>
+ * EndpointPool pool = EndpointPool.newBuilder("https://service.route360.net/germany/")
+ *         .endpoint("http://routing-1:8080/germany/")
+ *         .endpoint("http://routing-2:8080/germany/")
+ *         .strategy(LoadBalancingStrategy.LATENCY_EWMA)
+ *         .healthCheck("v1/status", 10, TimeUnit.SECONDS)
+ *         .build();
+ * Route360Client client = Route360Client.newBuilder().endpointPool(pool).build();
+ * </pre>
+ */
+public final class EndpointPool implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EndpointPool.class);
+
+	public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 3;
+	public static final long DEFAULT_EJECTION_TIME_MILLIS    = TimeUnit.SECONDS.toMillis(30);
+	public static final int DEFAULT_MAX_RETRIES              = 1;
+
+	private final String serviceUrl;
+	private final List<PooledEndpoint> endpoints;
+	private final LoadBalancingStrategy strategy;
+	private final int maxConsecutiveFailures;
+	private final long ejectionNanos;
+	private final int maxRetries;
+	private final String healthCheckPath;
+	private final long healthCheckIntervalMillis;
+	private final AtomicInteger next       = new AtomicInteger();
+	private final AtomicBoolean started    = new AtomicBoolean(false);
+
+	private volatile ScheduledExecutorService healthChecker;
+
+	private EndpointPool(Builder builder) {
+		this.serviceUrl                = builder.serviceUrl;
+		this.strategy                  = builder.strategy;
+		this.maxConsecutiveFailures    = builder.maxConsecutiveFailures;
+		this.ejectionNanos             = TimeUnit.MILLISECONDS.toNanos(builder.ejectionTimeMillis);
+		this.maxRetries                = builder.maxRetries;
+		this.healthCheckPath           = builder.healthCheckPath;
+		this.healthCheckIntervalMillis = builder.healthCheckIntervalMillis;
+
+		List<PooledEndpoint> endpoints = new ArrayList<>();
+		for (String url : builder.urls)
+			endpoints.add(new PooledEndpoint(url));
+		this.endpoints = Collections.unmodifiableList(endpoints);
+	}
+
+	/**
+	 * @param serviceUrl Service URL used in the travel options, which is served by this pool
+	 * @return builder for a new pool
+	 */
+	public static Builder newBuilder(String serviceUrl) {
+		return new Builder(serviceUrl);
+	}
+
+	/**
+	 * @return service URL served by this pool, always ending with a slash
+	 */
+	public String getServiceUrl() {
+		return serviceUrl;
+	}
+
+	public List<PooledEndpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	public LoadBalancingStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * @return number of additional endpoints a request is sent to after a connection error
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * @param uri URI of a request
+	 * @return true if the URI is served by this pool
+	 */
+	public boolean matches(URI uri) {
+		String value = uri.toString();
+		return value.startsWith(serviceUrl) || value.equals(serviceUrl.substring(0, serviceUrl.length() - 1));
+	}
+
+	/**
+	 * @param uri URI of a request which is served by this pool
+	 * @param endpoint Endpoint the request is sent to
+	 * @return URI of the request at the given endpoint
+	 */
+	public URI rewrite(URI uri, PooledEndpoint endpoint) {
+		String value = uri.toString();
+		return URI.create(endpoint.getUrl() + (value.length() > serviceUrl.length() ? value.substring(serviceUrl.length()) : ""));
+	}
+
+	/**
+	 * Select an endpoint for a new request
+	 * @return lease of the selected endpoint, which has to be completed by the caller
+	 */
+	public Lease acquire() {
+		return acquire(null);
+	}
+
+	/**
+	 * Select an endpoint for a retry
+	 * @param exclude Endpoint which should not be selected if there is another one, e.g. the one which just failed
+	 * @return lease of the selected endpoint, which has to be completed by the caller
+	 */
+	public Lease acquire(PooledEndpoint exclude) {
+		PooledEndpoint endpoint = select(exclude);
+		endpoint.acquire();
+		return new Lease(endpoint);
+	}
+
+	private PooledEndpoint select(PooledEndpoint exclude) {
+
+		long now = System.nanoTime();
+		List<PooledEndpoint> candidates = new ArrayList<>(endpoints.size());
+		for (PooledEndpoint endpoint : endpoints)
+			if (endpoint != exclude && !endpoint.isEjected(now))
+				candidates.add(endpoint);
+
+		// all endpoints are ejected, better try one of them than none
+		if (candidates.isEmpty())
+			for (PooledEndpoint endpoint : endpoints)
+				if (endpoint != exclude)
+					candidates.add(endpoint);
+		if (candidates.isEmpty())
+			return exclude;
+
+		int start = Math.floorMod(next.getAndIncrement(), candidates.size());
+		if (strategy == LoadBalancingStrategy.ROUND_ROBIN)
+			return candidates.get(start);
+
+		// scan starting at the round robin position, so ties are distributed evenly
+		PooledEndpoint best = null;
+		double bestCost     = Double.MAX_VALUE;
+		for (int i = 0; i < candidates.size(); i++) {
+			PooledEndpoint candidate = candidates.get((start + i) % candidates.size());
+			double cost = strategy == LoadBalancingStrategy.LEAST_OUTSTANDING ? candidate.getOutstanding() : candidate.getCost();
+			if (cost < bestCost) {
+				best     = candidate;
+				bestCost = cost;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @param status HTTP status code of a response
+	 * @return true if the status indicates a failing backend rather than a failed request
+	 */
+	public static boolean isServerError(int status) {
+		return status == 500 || status == 502 || status == 503;
+	}
+
+	/**
+	 * Start probing the endpoints if a health check is configured. Called by the client the pool is registered with.
+	 * @param client Client to send the probes with
+	 */
+	public void startHealthChecks(Client client) {
+
+		if (healthCheckPath == null || !started.compareAndSet(false, true))
+			return;
+
+		healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "route360-health-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		healthChecker.scheduleWithFixedDelay(() -> checkHealth(client), 0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	void checkHealth(Client client) {
+		for (PooledEndpoint endpoint : endpoints) {
+			boolean healthy;
+			try {
+				Response response = client.target(endpoint.getUrl()).path(healthCheckPath).request().get();
+				healthy = response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL;
+				response.close();
+			}
+			catch (RuntimeException e) {
+				healthy = false;
+			}
+
+			if (healthy) {
+				endpoint.reinstate();
+			}
+			else if (!endpoint.isEjected()) {
+				LOGGER.warn("Health check of endpoint {} failed, ejecting it", endpoint.getUrl());
+				endpoint.eject(ejectionNanos);
+			}
+		}
+	}
+
+	/**
+	 * Stops the health checks
+	 */
+	@Override
+	public void close() {
+		if (healthChecker != null)
+			healthChecker.shutdownNow();
+	}
+
+	@Override
+	public String toString() {
+		return serviceUrl + " " + endpoints;
+	}
+
+	/**
+	 * One request in flight at an endpoint. Exactly one of {@link #succeeded(long)} and {@link #failed()} has to be
+	 * called, further calls are ignored.
+	 */
+	public final class Lease {
+
+		private final PooledEndpoint endpoint;
+		private final AtomicBoolean completed = new AtomicBoolean(false);
+
+		private Lease(PooledEndpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		public PooledEndpoint getEndpoint() {
+			return endpoint;
+		}
+
+		/**
+		 * @param nanos Latency of the request
+		 */
+		public void succeeded(long nanos) {
+			if (completed.compareAndSet(false, true)) {
+				endpoint.release();
+				endpoint.succeeded(nanos);
+			}
+		}
+
+		/**
+		 * The endpoint could not be reached or answered with a server error
+		 */
+		public void failed() {
+			if (completed.compareAndSet(false, true)) {
+				endpoint.release();
+				if (endpoint.failed(maxConsecutiveFailures, ejectionNanos))
+					LOGGER.warn("Endpoint {} failed {} times in a row, ejecting it", endpoint.getUrl(), maxConsecutiveFailures);
+			}
+		}
+
+		/**
+		 * Release the endpoint without rating it, e.g. if the request has been cancelled
+		 */
+		public void cancelled() {
+			if (completed.compareAndSet(false, true))
+				endpoint.release();
+		}
+	}
+
+	/**
+	 * Builder for {@link EndpointPool}.
+	 */
+	public static final class Builder {
+
+		private final String serviceUrl;
+		private final List<String> urls         = new ArrayList<>();
+		private LoadBalancingStrategy strategy  = LoadBalancingStrategy.ROUND_ROBIN;
+		private int maxConsecutiveFailures      = DEFAULT_MAX_CONSECUTIVE_FAILURES;
+		private long ejectionTimeMillis         = DEFAULT_EJECTION_TIME_MILLIS;
+		private int maxRetries                  = DEFAULT_MAX_RETRIES;
+		private String healthCheckPath;
+		private long healthCheckIntervalMillis;
+
+		private Builder(String serviceUrl) {
+			if (serviceUrl == null || serviceUrl.isEmpty())
+				throw new IllegalArgumentException("serviceUrl must not be empty");
+			this.serviceUrl = withTrailingSlash(serviceUrl);
+		}
+
+		private static String withTrailingSlash(String url) {
+			return url.endsWith("/") ? url : url + "/";
+		}
+
+		/**
+		 * @param url Base URL of a backend, e.g. "http://routing-1:8080/germany/"
+		 * @return this builder
+		 */
+		public Builder endpoint(String url) {
+			if (url == null || url.isEmpty())
+				throw new IllegalArgumentException("url must not be empty");
+			this.urls.add(withTrailingSlash(url));
+			return this;
+		}
+
+		/**
+		 * @param strategy Strategy to select an endpoint. Default: {@link LoadBalancingStrategy#ROUND_ROBIN}
+		 * @return this builder
+		 */
+		public Builder strategy(LoadBalancingStrategy strategy) {
+			if (strategy == null)
+				throw new IllegalArgumentException("strategy must not be null");
+			this.strategy = strategy;
+			return this;
+		}
+
+		/**
+		 * @param maxConsecutiveFailures number of failures in a row after which an endpoint is ejected. Default: 3
+		 * @param ejectionTime time an endpoint is excluded from the selection. Default: 30 seconds
+		 * @param unit unit of the ejection time
+		 * @return this builder
+		 */
+		public Builder ejection(int maxConsecutiveFailures, long ejectionTime, TimeUnit unit) {
+			if (maxConsecutiveFailures < 1)
+				throw new IllegalArgumentException("maxConsecutiveFailures has to be positive, but was " + maxConsecutiveFailures);
+			if (ejectionTime < 0)
+				throw new IllegalArgumentException("ejectionTime must not be negative, but was " + ejectionTime);
+			this.maxConsecutiveFailures = maxConsecutiveFailures;
+			this.ejectionTimeMillis     = unit.toMillis(ejectionTime);
+			return this;
+		}
+
+		/**
+		 * @param maxRetries number of other endpoints a request is sent to after a connection error. Default: 1
+		 * @return this builder
+		 */
+		public Builder maxRetries(int maxRetries) {
+			if (maxRetries < 0)
+				throw new IllegalArgumentException("maxRetries must not be negative, but was " + maxRetries);
+			this.maxRetries = maxRetries;
+			return this;
+		}
+
+		/**
+		 * Probe all endpoints periodically with a GET request. Endpoints which do not answer with a 2xx status are
+		 * ejected, ejected endpoints which answer are reinstated. Default: no active health checks
+		 * @param path Path of the probe relative to the endpoint URL
+		 * @param interval Time between two probes of an endpoint
+		 * @param unit unit of the interval
+		 * @return this builder
+		 */
+		public Builder healthCheck(String path, long interval, TimeUnit unit) {
+			if (interval <= 0)
+				throw new IllegalArgumentException("interval has to be positive, but was " + interval);
+			this.healthCheckPath           = path;
+			this.healthCheckIntervalMillis = unit.toMillis(interval);
+			return this;
+		}
+
+		/**
+		 * @return a new pool
+		 */
+		public EndpointPool build() {
+			if (urls.isEmpty())
+				throw new IllegalArgumentException("At least one endpoint is required");
+			return new EndpointPool(this);
+		}
+	}
+}
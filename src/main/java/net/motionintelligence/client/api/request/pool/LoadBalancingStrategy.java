@@ -0,0 +1,23 @@
+package net.motionintelligence.client.api.request.pool;
+
+/**
+ * Strategy to select one of the healthy endpoints of an {@link EndpointPool}.
+ */
+public enum LoadBalancingStrategy {
+
+	/**
+	 * Use the endpoints in turn
+	 */
+	ROUND_ROBIN,
+
+	/**
+	 * Use the endpoint with the fewest requests in flight
+	 */
+	LEAST_OUTSTANDING,
+
+	/**
+	 * Use the endpoint with the lowest exponentially weighted moving average of its latency, weighted by the requests
+	 * in flight. Endpoints without measured latency are preferred, so every endpoint is probed.
+	 */
+	LATENCY_EWMA
+}
@@ -0,0 +1,113 @@
+package net.motionintelligence.client.api.request.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One backend of an {@link EndpointPool} with its load and health state.
+ */
+public final class PooledEndpoint {
+
+	/**
+	 * Weight of a new latency sample in the moving average
+	 */
+	private static final double EWMA_ALPHA = 0.3;
+
+	private final String url;
+	private final AtomicInteger outstanding = new AtomicInteger();
+
+	private double latencyEwmaNanos = -1;
+	private int consecutiveFailures = 0;
+	private boolean ejected         = false;
+	private long ejectedUntilNanos  = 0;
+
+	PooledEndpoint(String url) {
+		this.url = url;
+	}
+
+	/**
+	 * @return base URL of the endpoint, always ending with a slash
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * @return number of requests in flight
+	 */
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+
+	/**
+	 * @return moving average of the latency in milliseconds, -1 if no request has completed yet
+	 */
+	public synchronized double getLatencyEwmaMillis() {
+		return latencyEwmaNanos < 0 ? -1 : latencyEwmaNanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	public synchronized int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	/**
+	 * @return true if the endpoint is currently excluded from the selection
+	 */
+	public boolean isEjected() {
+		return isEjected(System.nanoTime());
+	}
+
+	synchronized boolean isEjected(long now) {
+		if (ejected && now - ejectedUntilNanos >= 0)
+			ejected = false;
+		return ejected;
+	}
+
+	/**
+	 * @return latency estimate used by {@link LoadBalancingStrategy#LATENCY_EWMA}
+	 */
+	synchronized double getCost() {
+		return latencyEwmaNanos < 0 ? 0 : latencyEwmaNanos * (outstanding.get() + 1);
+	}
+
+	void acquire() {
+		outstanding.incrementAndGet();
+	}
+
+	void release() {
+		outstanding.decrementAndGet();
+	}
+
+	synchronized void succeeded(long nanos) {
+		latencyEwmaNanos    = latencyEwmaNanos < 0 ? nanos : EWMA_ALPHA * nanos + (1 - EWMA_ALPHA) * latencyEwmaNanos;
+		consecutiveFailures = 0;
+	}
+
+	/**
+	 * @return true if the endpoint has been ejected by this failure
+	 */
+	synchronized boolean failed(int maxConsecutiveFailures, long ejectionNanos) {
+		consecutiveFailures++;
+		if (consecutiveFailures >= maxConsecutiveFailures && !ejected) {
+			eject(ejectionNanos);
+			return true;
+		}
+		return false;
+	}
+
+	synchronized void eject(long ejectionNanos) {
+		ejected           = true;
+		ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+	}
+
+	synchronized void reinstate() {
+		ejected             = false;
+		consecutiveFailures = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (outstanding: %s, latency: %.1fms, ejected: %s)",
+				url, getOutstanding(), getLatencyEwmaMillis(), isEjected());
+	}
+}
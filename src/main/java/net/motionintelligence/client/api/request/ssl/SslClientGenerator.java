@@ -1,6 +1,7 @@
 package net.motionintelligence.client.api.request.ssl;
 
 import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.request.Route360Client;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -25,6 +26,25 @@ public class SslClientGenerator {
 	 * @return Client
 	 */
     public static Client initClient() {
+        return ClientBuilder.newBuilder()
+                .hostnameVerifier(new TrustAllHostNameVerifier())
+                .sslContext(initSslContext())
+                .build();
+    }
+
+	/**
+	 * The shared transport with trust-all policy, created on first use.
+	 * @return shared SSL client
+	 */
+    public static Route360Client getSharedClient() {
+        return SharedClientHolder.INSTANCE;
+    }
+
+	/**
+	 * Generate the trust-all SSL context
+	 * @return SSL context
+	 */
+    public static SSLContext initSslContext() {
         SSLContext ctx;
         
 		try {
@@ -32,10 +52,7 @@ public class SslClientGenerator {
 			ctx = SSLContext.getInstance("SSL");
 			ctx.init(null, certs, new SecureRandom());
 			
-			return ClientBuilder.newBuilder()
-					.hostnameVerifier(new TrustAllHostNameVerifier())
-					.sslContext(ctx)
-					.build();
+			return ctx;
 		}
 		catch (NoSuchAlgorithmException | KeyManagementException e) {
 			
@@ -43,6 +60,13 @@ public class SslClientGenerator {
 		}
     }
 
+    private static final class SharedClientHolder {
+        private static final Route360Client INSTANCE = Route360Client.newBuilder()
+                .hostnameVerifier(new TrustAllHostNameVerifier())
+                .sslContext(initSslContext())
+                .build();
+    }
+
     private static TrustManager[] certs = new TrustManager[]{
         new X509TrustManager() {
             @Override
@@ -0,0 +1,134 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.TravelOptions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Travel times of a many-to-many request which has been executed in tiles, merged into a single matrix.
+ * In addition to the {@link TimeResponse} it reports the timings of each tile.
+ */
+public class BatchTimeResponse extends TimeResponse {
+
+	private final List<TileResult> tiles;
+
+	/**
+	 * @param travelOptions Travel options of the complete request
+	 * @param travelTimes Merged travel times of all tiles
+	 * @param code "ok" if all tiles succeeded, the code of a failed tile otherwise
+	 * @param requestTime Execution time of all tiles in milliseconds
+	 * @param requestStart Start time of execution
+	 * @param tiles Results of the tiles
+	 */
+	public BatchTimeResponse(TravelOptions travelOptions, TravelTimeMatrix travelTimes, String code, long requestTime,
+							 long requestStart, List<TileResult> tiles) {
+		super(travelOptions, travelTimes, code, requestTime, requestStart);
+		this.tiles = Collections.unmodifiableList(tiles);
+	}
+
+	/**
+	 * @return results of the tiles in tile order
+	 */
+	public List<TileResult> getTiles() {
+		return tiles;
+	}
+
+	/**
+	 * Outcome of a single tile, i.e. a sub-matrix of the sources and targets.
+	 * Source and target offsets refer to the indices of the merged {@link TravelTimeMatrix}.
+	 */
+	public static final class TileResult {
+
+		private final int index;
+		private final int sourceOffset;
+		private final int sourceCount;
+		private final int targetOffset;
+		private final int targetCount;
+		private final int attempts;
+		private final long roundTripTimeMillis;
+		private final long requestTimeMillis;
+		private final String code;
+		private final Throwable error;
+
+		public TileResult(int index, int sourceOffset, int sourceCount, int targetOffset, int targetCount, int attempts,
+						  long roundTripTimeMillis, long requestTimeMillis, String code, Throwable error) {
+			this.index               = index;
+			this.sourceOffset        = sourceOffset;
+			this.sourceCount         = sourceCount;
+			this.targetOffset        = targetOffset;
+			this.targetCount         = targetCount;
+			this.attempts            = attempts;
+			this.roundTripTimeMillis = roundTripTimeMillis;
+			this.requestTimeMillis   = requestTimeMillis;
+			this.code                = code;
+			this.error               = error;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getSourceOffset() {
+			return sourceOffset;
+		}
+
+		public int getSourceCount() {
+			return sourceCount;
+		}
+
+		public int getTargetOffset() {
+			return targetOffset;
+		}
+
+		public int getTargetCount() {
+			return targetCount;
+		}
+
+		/**
+		 * @return number of requests sent for this tile, i.e. 1 + number of retries
+		 */
+		public int getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * @return round trip time of the last attempt in milliseconds, including parsing
+		 */
+		public long getRoundTripTimeMillis() {
+			return roundTripTimeMillis;
+		}
+
+		/**
+		 * @return request time of the last attempt as reported by the service, -1 if unknown
+		 */
+		public long getRequestTimeMillis() {
+			return requestTimeMillis;
+		}
+
+		/**
+		 * @return response code of the last attempt, null if it failed with an exception
+		 */
+		public String getCode() {
+			return code;
+		}
+
+		/**
+		 * @return exception of the last attempt, null if a response has been received
+		 */
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isSuccessful() {
+			return error == null && "ok".equals(code);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Tile %s [sources %s-%s, targets %s-%s]: %s after %s attempt(s), %sms",
+					index, sourceOffset, sourceOffset + sourceCount - 1, targetOffset, targetOffset + targetCount - 1,
+					error != null ? error.getMessage() : code, attempts, roundTripTimeMillis);
+		}
+	}
+}
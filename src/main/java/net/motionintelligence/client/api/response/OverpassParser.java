@@ -0,0 +1,252 @@
+package net.motionintelligence.client.api.response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.PoiTargetCoordinate;
+import net.motionintelligence.client.api.statistic.PoiType;
+import net.motionintelligence.client.api.util.JsonUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the <code>elements</code> of an overpass response in JSON format one by one while they are streamed, so that
+ * country-scale extracts can be processed without holding the response or all coordinates in memory. The elements
+ * are converted to {@link PoiTargetCoordinate}s in the same way as by {@link OverpassResponse}.
+ *
+ * <pre>
+ * try (InputStream input = Files.newInputStream(path);
+ *      Stream&lt;Coordinate&gt; pois = OverpassParser.stream(travelOptions, input)) {
+ *     pois.forEach(travelOptions::addTarget);
+ * }
+ * </pre>
+ */
+public final class OverpassParser implements Iterator<Coordinate>, Closeable {
+
+    private final JsonParser parser;
+    private final String idSuffix;
+    private final List<String> tagKeys;
+
+    private boolean inElements = false;
+    private boolean finished   = false;
+    private Coordinate next    = null;
+
+    /**
+     * @param travelOptions travel options of the request, its first OSM type is appended to the ids and the keys of
+     *                      its OSM types determine the type of each POI
+     * @param input the response, it is closed together with the parser
+     */
+    public OverpassParser(TravelOptions travelOptions, InputStream input) {
+        this.parser   = JsonUtil.createParser(input);
+        this.idSuffix = travelOptions.getOsmTypes().iterator().next().toString();
+        this.tagKeys  = travelOptions.getOsmTypes().stream().map(PoiType::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Pass all coordinates of the response to the consumer
+     * @param travelOptions travel options of the request
+     * @param input the response, it is not closed
+     * @param consumer receives the coordinates in the order of the response
+     * @return number of coordinates
+     * @throws IOException if the response could not be read or is not valid JSON
+     */
+    public static long parse(TravelOptions travelOptions, InputStream input, Consumer<? super Coordinate> consumer)
+            throws IOException {
+        OverpassParser parser = new OverpassParser(travelOptions, input);
+        parser.parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            long count = 0;
+            Coordinate coordinate;
+            while ((coordinate = parser.read()) != null) {
+                consumer.accept(coordinate);
+                count++;
+            }
+            return count;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Lazily read the coordinates of the response, the stream has to be closed to close the response
+     * @param travelOptions travel options of the request
+     * @param input the response
+     * @return sequential stream of the coordinates in the order of the response, it throws an
+     * {@link UncheckedIOException} if the response could not be read
+     */
+    public static Stream<Coordinate> stream(TravelOptions travelOptions, InputStream input) {
+        OverpassParser parser = new OverpassParser(travelOptions, input);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(parser,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Coordinate next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Coordinate coordinate = next;
+        next = null;
+        return coordinate;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        parser.close();
+    }
+
+    /**
+     * @return the next coordinate or null at the end of the elements
+     */
+    private Coordinate read() throws IOException {
+
+        if (finished)
+            return null;
+        if (!inElements && !skipToElements()) {
+            finished = true;
+            return null;
+        }
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            finished = true;
+            return null;
+        }
+        return parseElement();
+    }
+
+    /**
+     * Move the parser to the start of the elements array, skipping all other fields of the response
+     * @return false if the response does not contain elements
+     */
+    private boolean skipToElements() throws IOException {
+
+        if (parser.nextToken() != JsonToken.START_OBJECT)
+            return false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("elements".equals(field) && token == JsonToken.START_ARRAY) {
+                inElements = true;
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * @return the coordinate of the element, the parser is positioned at its start
+     */
+    private Coordinate parseElement() throws IOException {
+
+        String type = null;
+        String id   = null;
+        double lon  = Double.NaN;
+        double lat  = Double.NaN;
+        boolean hasCenter = false;
+        Map<String, String> tags = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+
+            if ("type".equals(field))
+                type = parser.getValueAsString();
+            else if ("id".equals(field))
+                id = parser.getValueAsString();
+            else if ("lon".equals(field) && token.isNumeric())
+                lon = parser.getDoubleValue();
+            else if ("lat".equals(field) && token.isNumeric())
+                lat = parser.getDoubleValue();
+            else if ("center".equals(field) && token == JsonToken.START_OBJECT) {
+                hasCenter = true;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String coordinate = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("lon".equals(coordinate))
+                        lon = parser.getDoubleValue();
+                    else if ("lat".equals(coordinate))
+                        lat = parser.getDoubleValue();
+                    else
+                        parser.skipChildren();
+                }
+            }
+            else if ("tags".equals(field) && token == JsonToken.START_OBJECT)
+                tags = parseTags();
+            else
+                parser.skipChildren();
+        }
+
+        if (!"node".equals(type) && !("way".equals(type) && hasCenter))
+            throw new Route360ClientRuntimeException("only way and node are supported, given: " + type);
+
+        PoiTargetCoordinate coordinate = new PoiTargetCoordinate(id + idSuffix, lon, lat);
+        coordinate.setType(getType(tags));
+        return coordinate;
+    }
+
+    /**
+     * @return the values of the tags with the keys of the OSM types, all other tags are skipped
+     */
+    private Map<String, String> parseTags() throws IOException {
+
+        Map<String, String> tags = new HashMap<>(4);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            if (tagKeys.contains(key))
+                tags.put(key, parser.getValueAsString());
+            else
+                parser.skipChildren();
+        }
+        return tags;
+    }
+
+    private PoiType getType(Map<String, String> tags) {
+
+        if (tags != null) {
+            for (String key : tagKeys) {
+                String value = tags.get(key);
+                if (value != null)
+                    return new PoiType(key, value);
+            }
+        }
+        throw new Route360ClientRuntimeException("Not supported type: " + tags);
+    }
+}
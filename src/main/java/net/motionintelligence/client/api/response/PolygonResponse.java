@@ -1,17 +1,38 @@
 package net.motionintelligence.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.response.polygon.Isochrone;
+import net.motionintelligence.client.api.response.polygon.IsochroneParser;
+import net.motionintelligence.client.api.response.polygon.IsochroneSet;
+import net.motionintelligence.client.api.response.polygon.Ring;
+import net.motionintelligence.client.api.util.JsonUtil;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class PolygonResponse {
 
 	private final String code;
+	private final String message;
 	private final long requestTimeMillis;
 	private final long roundTripTimeMillis;
 	private final TravelOptions travelOptions;
-	private final JSONObject result;
 	private final long parseTime;
 
+	// at least one of both is set, the other one is created on first access
+	private JSONObject result;
+	private List<IsochroneSet> isochroneSets;
+
 	/**
 	 *
 	 * @param travelOptions Travel configuration
@@ -23,6 +44,7 @@ public class PolygonResponse {
 	public PolygonResponse(TravelOptions travelOptions, JSONObject result, String code, long requestTimeMillis, long roundTripTimeMillis) {
 		this.travelOptions 	   	= travelOptions;
 		this.code 			   	= code;
+		this.message			= null;
 		this.result				= result;
 		this.requestTimeMillis 	= requestTimeMillis;
 		this.roundTripTimeMillis = roundTripTimeMillis;
@@ -32,12 +54,83 @@ public class PolygonResponse {
 	public PolygonResponse(TravelOptions travelOptions, JSONObject result, String code, long requestTimeMillis, long roundTripTimeMillis, long parseTime) {
 		this.travelOptions 	   	= travelOptions;
 		this.code 			   	= code;
+		this.message			= null;
 		this.result				= result;
 		this.requestTimeMillis 	= requestTimeMillis;
 		this.roundTripTimeMillis = roundTripTimeMillis;
 		this.parseTime 			= parseTime;
 	}
 
+	/**
+	 * Create a response from already decoded polygons, e.g. from a binary response.
+	 * @param travelOptions Travel configuration
+	 * @param isochroneSets Decoded polygons
+	 * @param code route360 status code for the request
+	 * @param requestTimeMillis the milliseconds for server runtime
+	 * @param roundTripTimeMillis the milliseconds for total roundtrip
+	 * @param parseTime the milliseconds for decoding the polygons
+	 */
+	public PolygonResponse(TravelOptions travelOptions, List<IsochroneSet> isochroneSets, String code,
+						   long requestTimeMillis, long roundTripTimeMillis, long parseTime) {
+		this.travelOptions 	   	= travelOptions;
+		this.code 			   	= code;
+		this.message			= null;
+		this.isochroneSets		= Collections.unmodifiableList(new ArrayList<>(isochroneSets));
+		this.requestTimeMillis 	= requestTimeMillis;
+		this.roundTripTimeMillis = roundTripTimeMillis;
+		this.parseTime 			= parseTime;
+	}
+
+	/**
+	 * Create a response by streaming a JSON response of the {@link net.motionintelligence.client.api.enums.PolygonSerializerType#JSON_POLYGON_SERIALIZER}.
+	 * The polygons are decoded into packed coordinate arrays, the JSON tree is never materialized.
+	 * @param travelOptions Travel configuration
+	 * @param result Response body without callback. The stream is closed after parsing.
+	 * @param roundTripTimeMillis the milliseconds for total roundtrip
+	 * @throws Route360ClientRuntimeException In case the response could not be parsed
+	 */
+	public PolygonResponse(TravelOptions travelOptions, InputStream result, long roundTripTimeMillis) {
+
+		long startParsing = System.nanoTime();
+
+		String code      = null;
+		String message   = null;
+		long requestTime = -1;
+		List<IsochroneSet> sets = Collections.emptyList();
+		try (JsonParser parser = JsonUtil.createParser(result)) {
+
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new Route360ClientRuntimeException("Could not parse polygon response: expected json object");
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("code".equals(field))
+					code = parser.getValueAsString();
+				else if ("message".equals(field))
+					message = parser.getValueAsString();
+				else if ("requestTime".equals(field))
+					requestTime = parser.getValueAsLong(-1);
+				else if ("data".equals(field))
+					sets = IsochroneParser.parse(parser);
+				else
+					parser.skipChildren();
+			}
+		}
+		catch (IOException e) {
+			throw new Route360ClientRuntimeException("Could not parse polygon response: " + e.getMessage(), e);
+		}
+
+		this.travelOptions       = travelOptions;
+		this.code                = code;
+		this.message             = message;
+		this.requestTimeMillis   = requestTime;
+		this.roundTripTimeMillis = roundTripTimeMillis;
+		this.isochroneSets       = Collections.unmodifiableList(sets);
+		this.parseTime           = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startParsing);
+	}
+
 	/**
 	 * @return the code
 	 */
@@ -45,6 +138,13 @@ public class PolygonResponse {
 		return code;
 	}
 
+	/**
+	 * @return error message of the service, null if the response was not streamed or has no message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
 	/**
 	 * @return the requestTimeMillis
 	 */
@@ -121,12 +221,82 @@ public class PolygonResponse {
 			 }
 		 }]
 	 } </code> </p>
+	 * If the response has been streamed, the JSON object is created from the decoded polygons on first access and
+	 * contains only the fields shown above. Prefer {@link #getIsochroneSets()} in that case.
 	 * @return polygon data
 	 */
-	public JSONObject getResult() {
+	public synchronized JSONObject getResult() {
+		if (result == null)
+			result = toJson();
 		return result;
 	}
 
+	/**
+	 * Polygons of the response with packed coordinates. If the response has been created from a JSON object, the
+	 * polygons are decoded on first access. A GeoJSON response has no decoded polygons.
+	 * @return polygons of each entry of the data array
+	 */
+	public synchronized List<IsochroneSet> getIsochroneSets() {
+		if (isochroneSets == null)
+			isochroneSets = Collections.unmodifiableList(IsochroneParser.parse(result));
+		return isochroneSets;
+	}
+
+	/**
+	 * @return polygons of all entries of the data array
+	 */
+	public List<Isochrone> getIsochrones() {
+		List<Isochrone> isochrones = new ArrayList<>();
+		for (IsochroneSet set : getIsochroneSets())
+			isochrones.addAll(set.getIsochrones());
+		return isochrones;
+	}
+
+	private JSONObject toJson() {
+		try {
+			JSONArray data = new JSONArray();
+			for (IsochroneSet set : isochroneSets) {
+				JSONArray polygons = new JSONArray();
+				for (Isochrone isochrone : set.getIsochrones()) {
+					JSONObject polygon = new JSONObject();
+					polygon.put("travelTime", isochrone.getTravelTime());
+					polygon.put("area", isochrone.getArea());
+					if (isochrone.getOuterBoundary() != null)
+						polygon.put("outerBoundary", toJson(isochrone.getOuterBoundary(), isochrone.isIntegral()));
+					JSONArray inner = new JSONArray();
+					for (Ring ring : isochrone.getInnerBoundaries())
+						inner.put(toJson(ring, isochrone.isIntegral()));
+					polygon.put("innerBoundary", inner);
+					polygons.put(polygon);
+				}
+				data.put(new JSONObject().put("area", set.getArea()).put("polygons", polygons));
+			}
+
+			JSONObject json = new JSONObject();
+			if (code != null)
+				json.put("code", code);
+			json.put("requestTime", requestTimeMillis);
+			json.put("data", data);
+			return json;
+		}
+		catch (JSONException e) {
+			throw new Route360ClientRuntimeException("Could not create polygon result: " + e.getMessage(), e);
+		}
+	}
+
+	private static JSONArray toJson(Ring ring, boolean integral) throws JSONException {
+		JSONArray points = new JSONArray();
+		for (int i = 0; i < ring.size(); i++) {
+			JSONArray point = new JSONArray();
+			if (integral)
+				point.put((int) ring.getX(i)).put((int) ring.getY(i));
+			else
+				point.put(ring.getX(i)).put(ring.getY(i));
+			points.put(point);
+		}
+		return points;
+	}
+
 	public long getParseTime() {
 		return parseTime;
 	}
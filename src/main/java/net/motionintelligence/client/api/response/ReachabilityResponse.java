@@ -1,11 +1,16 @@
 package net.motionintelligence.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.Map;
 
 public class ReachabilityResponse {
@@ -15,8 +20,7 @@ public class ReachabilityResponse {
 	private final long totalTimeMillis;
 	private final TravelOptions travelOptions;
 	
-	private final Map<String,Integer> travelTimes = new HashMap<>();
-	private final Map<String,String> closestSourceId = new HashMap<>();
+	private final ReachabilityResult result;
 
 	/**
 	 * Create a response from JSON results, using given travel options
@@ -30,10 +34,55 @@ public class ReachabilityResponse {
 		this.code 		 	   	  = JsonUtil.getString(result, "code");
 		this.requestTimeMillis 	  = result.has("requestTime") ? JsonUtil.getLong(result, "requestTime") : -1;
 		this.totalTimeMillis 	  = System.currentTimeMillis() - requestStart;
+		this.result               = createResult(travelOptions);
 
 		mapResults(result);
 	}
 
+	/**
+	 * Create a response by streaming the JSON results, travel times are added as soon as they are read.
+	 * The result tree is never materialized.
+	 * @param travelOptions travel options, from the request
+	 * @param result Travel times in JSON, without callback. The stream is closed after parsing.
+	 * @param requestStart Start time of execution
+	 * @throws Route360ClientRuntimeException In case the results could not be parsed
+	 */
+	public ReachabilityResponse(TravelOptions travelOptions, InputStream result, long requestStart) {
+
+		this.travelOptions = travelOptions;
+		this.result        = createResult(travelOptions);
+
+		String code      = null;
+		long requestTime = -1;
+		try (JsonParser parser = JsonUtil.createParser(result)) {
+
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new Route360ClientRuntimeException("Could not parse reachability response: expected json object");
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("code".equals(field))
+					code = parser.getValueAsString();
+				else if ("requestTime".equals(field))
+					requestTime = parser.getValueAsLong(-1);
+				else if ("data".equals(field))
+					mapResults(parser);
+				else
+					parser.skipChildren();
+			}
+		}
+		catch (IOException e) {
+			throw new Route360ClientRuntimeException("Could not parse reachability response: " + e.getMessage(), e);
+		}
+		this.result.compact();
+
+		this.code              = code;
+		this.requestTimeMillis = requestTime;
+		this.totalTimeMillis   = System.currentTimeMillis() - requestStart;
+	}
+
 	/**
 	 * Create a response with custom response code and without results. Can be used in case of errors.
 	 * @param travelOptions Travel options used in request
@@ -47,6 +96,12 @@ public class ReachabilityResponse {
 		this.code 		 	   	  = code;
 		this.requestTimeMillis 	  = requestTime;
 		this.totalTimeMillis = System.currentTimeMillis() - requestStart;
+		this.result          = createResult(travelOptions);
+	}
+
+	private static ReachabilityResult createResult(TravelOptions travelOptions) {
+		return travelOptions != null ? ReachabilityResult.of(travelOptions)
+				: new ReachabilityResult(Collections.emptyList(), Collections.emptyList(), false);
 	}
 
 	/**
@@ -63,19 +118,67 @@ public class ReachabilityResponse {
 			this.addTravelTime(trgId, JsonUtil.getInt(target, "travelTime"));
 			if (target.has("source")) this.addClosestSource(trgId, JsonUtil.getString(target, "source"));
 		}
+		this.result.compact();
+	}
+
+	/**
+	 * Stream the "data" array of the results into the result.
+	 * @param parser parser positioned on the start of the "data" array
+	 * @throws IOException In case of parse errors
+	 */
+	private void mapResults(final JsonParser parser) throws IOException {
+
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return;
+		}
+
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+			String trgId   = null;
+			String srcId   = null;
+			int travelTime = ReachabilityResult.UNREACHABLE;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("id".equals(field))
+					trgId = parser.getValueAsString();
+				else if ("travelTime".equals(field))
+					travelTime = parser.getValueAsInt(-1);
+				else if ("source".equals(field))
+					srcId = parser.getValueAsString();
+				else
+					parser.skipChildren();
+			}
+
+			if (trgId == null)
+				throw new Route360ClientRuntimeException("Could not parse reachability response: target without id");
+			if (travelTime != ReachabilityResult.UNREACHABLE)
+				this.result.setTravelTime(trgId, travelTime);
+			if (srcId != null)
+				this.result.setClosestSource(trgId, srcId);
+		}
 	}
 
 	/**
 	 * Add travel time to a target
 	 * @param targetId Target ID
-	 * @param travelTime Travel time for the target
+	 * @param travelTime Travel time for the target, null is ignored and the target keeps its previous travel time
+	 *                   (none if it was not reachable so far)
 	 */
 	public void addTravelTime(String targetId, Integer travelTime) {
-		this.travelTimes.put(targetId, travelTime);
+		if (travelTime != null)
+			this.result.setTravelTime(targetId, travelTime);
 	}
 
+	/**
+	 * Add the closest source of a target
+	 * @param targetId Target ID
+	 * @param closestSourceId ID of the closest source
+	 */
 	public void addClosestSource(String targetId, String closestSourceId) {
-		this.closestSourceId.put(targetId, closestSourceId);
+		this.result.setClosestSource(targetId, closestSourceId);
 	}
 	
 	/**
@@ -100,18 +203,27 @@ public class ReachabilityResponse {
 	}
 	
 	/**
-	 * Map of source IDs - travel times
+	 * Travel times and closest sources keyed by target index
+	 * @return the result
+	 */
+	public ReachabilityResult getResult() {
+		return this.result;
+	}
+
+	/**
+	 * Read-only map of target IDs - travel times, see {@link ReachabilityResult#asTravelTimeMap()}
 	 * @return travel time map
 	 */
 	public Map<String, Integer> getTravelTimes() {
-		return this.travelTimes;
+		return this.result.asTravelTimeMap();
 	}
 
 	/**
-	 * Map of target IDs to the individual closest source ID
+	 * Read-only map of target IDs to the individual closest source ID, see
+	 * {@link ReachabilityResult#asClosestSourceMap()}
 	 * @return target id - source id
 	 */
-	public Map<String, String> getClosestSourceIds(){ return this.closestSourceId; }
+	public Map<String, String> getClosestSourceIds(){ return this.result.asClosestSourceMap(); }
 	
 	/**
 	 * Get total time in milliseconds
@@ -122,6 +234,6 @@ public class ReachabilityResponse {
 	}
 
 	public String getClosestSourceForTarget(String targetId) {
-		return this.closestSourceId.get(targetId);
+		return this.result.getClosestSourceId(targetId);
 	}
 }
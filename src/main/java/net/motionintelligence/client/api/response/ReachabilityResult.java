@@ -0,0 +1,607 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.geo.Coordinate;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Travel times and closest sources of the targets of a reachability request, keyed by target index.
+ *
+ * <p>
+ * Targets are indexed in the iteration order of {@link TravelOptions#getTargets()}, the closest source of a target is
+ * stored as index into the source IDs instead of a String per target. Results for (almost) all targets are stored in
+ * two <code>int[]</code> with one cell per target. Sparse results, as returned with
+ * {@link TravelOptions#getOnlyPrintReachablePoints()}, are stored as a bitset of the contained targets plus packed
+ * arrays in target index order, which are addressed by the rank of the target in the bitset. Results for target IDs
+ * which are not part of the travel options are kept by ID. The String keyed maps of {@link #asTravelTimeMap()} and
+ * {@link #asClosestSourceMap()} are read-only views, entries are created on access.
+ * </p>
+ *
+ * <p>
+ * The result is not thread-safe while it is modified. Results which are added to a sparse result are buffered and
+ * merged on the next read or on {@link #compact()}.
+ * </p>
+ */
+public class ReachabilityResult {
+
+	/**
+	 * Travel time of targets which are not contained in the result
+	 */
+	public static final int UNREACHABLE = TravelTimeMatrix.UNREACHABLE;
+
+	/**
+	 * Source index of targets without closest source
+	 */
+	public static final int NO_SOURCE = -1;
+
+	private static final int[] EMPTY = new int[0];
+
+	private final List<Coordinate> targets;
+	private final Map<String, Integer> targetIndices;
+	private final List<String> sourceIds;
+	private final Map<String, Integer> sourceIndices;
+
+	// dense storage, one cell per target, null for sparse results
+	private int[] travelTimes;
+	private int[] closestSources;
+
+	// sparse storage, packed in target index order
+	private long[] contained;
+	private int[] ranks;
+	private int[] packedTravelTimes    = EMPTY;
+	private int[] packedClosestSources = EMPTY;
+	private int packedSize;
+
+	// results added to a sparse result since the last compaction, in order of addition
+	private int[] pendingTargets       = EMPTY;
+	private int[] pendingTravelTimes   = EMPTY;
+	private int[] pendingClosestSources = EMPTY;
+	private int pendingSize;
+
+	private int travelTimeCount;
+	private int closestSourceCount;
+
+	private Map<String, Integer> otherTravelTimes;
+	private Map<String, String> otherClosestSources;
+
+	private Map<String, Integer> travelTimeView;
+	private Map<String, String> closestSourceView;
+
+	/**
+	 * Create an empty result. Sources and targets are indexed in iteration order.
+	 * @param sources Source coordinates with unique IDs
+	 * @param targets Target coordinates with unique IDs
+	 * @param dense true if results for most targets are expected, false to start with sparse storage
+	 */
+	public ReachabilityResult(Collection<Coordinate> sources, Collection<Coordinate> targets, boolean dense) {
+
+		this.targets       = Collections.unmodifiableList(new ArrayList<>(targets));
+		this.targetIndices = TravelTimeMatrix.index(this.targets);
+		this.sourceIds     = new ArrayList<>(sources.size());
+		this.sourceIndices = new HashMap<>(sources.size() * 4 / 3 + 1);
+
+		for (Coordinate source : sources)
+			addSource(source.getId());
+
+		if (dense)
+			toDense();
+		else
+			toSparse(EMPTY, EMPTY, EMPTY, 0);
+	}
+
+	/**
+	 * Create an empty result for the sources and targets of the travel options
+	 * @param travelOptions Options used in the request
+	 * @return sparse result if only reachable targets are requested, dense result otherwise
+	 */
+	public static ReachabilityResult of(TravelOptions travelOptions) {
+		return new ReachabilityResult(travelOptions.getSources().values(), travelOptions.getTargets().values(),
+				!travelOptions.getOnlyPrintReachablePoints());
+	}
+
+	private int addSource(String id) {
+		Integer index = sourceIndices.get(id);
+		if (index != null)
+			return index;
+		sourceIds.add(id);
+		sourceIndices.put(id, sourceIds.size() - 1);
+		return sourceIds.size() - 1;
+	}
+
+	/**
+	 * @param id ID of the target
+	 * @return index of the target or -1 if the target is not part of the travel options
+	 */
+	public int getTargetIndex(String id) {
+		Integer index = targetIndices.get(id);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @return the target coordinate
+	 */
+	public Coordinate getTarget(int trgIdx) {
+		return targets.get(trgIdx);
+	}
+
+	/**
+	 * @return targets in index order
+	 */
+	public List<Coordinate> getTargets() {
+		return targets;
+	}
+
+	public int getTargetCount() {
+		return targets.size();
+	}
+
+	/**
+	 * @param id ID of the source
+	 * @return index of the source or -1 if the source is unknown
+	 */
+	public int getSourceIndex(String id) {
+		Integer index = sourceIndices.get(id);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @return ID of the source
+	 */
+	public String getSourceId(int srcIdx) {
+		return sourceIds.get(srcIdx);
+	}
+
+	/**
+	 * @return IDs of the sources of the travel options in index order, followed by source IDs which were only
+	 * contained in the results
+	 */
+	public List<String> getSourceIds() {
+		return Collections.unmodifiableList(sourceIds);
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @return travel time in seconds as reported by the service or {@link #UNREACHABLE} if the target is not
+	 * contained in the result
+	 */
+	public int getTravelTime(int trgIdx) {
+		checkTarget(trgIdx);
+		compactIfPending();
+		if (travelTimes != null)
+			return travelTimes[trgIdx];
+		return isContained(trgIdx) ? packedTravelTimes[rank(trgIdx)] : UNREACHABLE;
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @return true if a travel time is contained in the result
+	 */
+	public boolean hasTravelTime(int trgIdx) {
+		return getTravelTime(trgIdx) != UNREACHABLE;
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @return index of the closest source or {@link #NO_SOURCE}
+	 */
+	public int getClosestSourceIndex(int trgIdx) {
+		checkTarget(trgIdx);
+		compactIfPending();
+		if (closestSources != null)
+			return closestSources[trgIdx];
+		return isContained(trgIdx) ? packedClosestSources[rank(trgIdx)] : NO_SOURCE;
+	}
+
+	/**
+	 * @param trgId ID of the target
+	 * @return travel time in seconds or null if the target is not contained in the result
+	 */
+	public Integer getTravelTime(String trgId) {
+		int trgIdx = getTargetIndex(trgId);
+		if (trgIdx < 0)
+			return otherTravelTimes == null ? null : otherTravelTimes.get(trgId);
+		int travelTime = getTravelTime(trgIdx);
+		return travelTime == UNREACHABLE ? null : travelTime;
+	}
+
+	/**
+	 * @param trgId ID of the target
+	 * @return ID of the closest source or null if the target has no closest source
+	 */
+	public String getClosestSourceId(String trgId) {
+		int trgIdx = getTargetIndex(trgId);
+		if (trgIdx < 0)
+			return otherClosestSources == null ? null : otherClosestSources.get(trgId);
+		int srcIdx = getClosestSourceIndex(trgIdx);
+		return srcIdx == NO_SOURCE ? null : sourceIds.get(srcIdx);
+	}
+
+	/**
+	 * @return number of targets with travel time, including targets which are not part of the travel options
+	 */
+	public int getTravelTimeCount() {
+		compactIfPending();
+		return travelTimeCount + (otherTravelTimes == null ? 0 : otherTravelTimes.size());
+	}
+
+	/**
+	 * @return number of targets with closest source, including targets which are not part of the travel options
+	 */
+	public int getClosestSourceCount() {
+		compactIfPending();
+		return closestSourceCount + (otherClosestSources == null ? 0 : otherClosestSources.size());
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @param travelTime travel time in seconds as reported by the service
+	 */
+	public void setTravelTime(int trgIdx, int travelTime) {
+		if (travelTime == UNREACHABLE)
+			throw new IllegalArgumentException("Travel time must not be UNREACHABLE");
+		set(trgIdx, travelTime, NO_SOURCE);
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @param srcIdx Index of the closest source
+	 */
+	public void setClosestSource(int trgIdx, int srcIdx) {
+		if (srcIdx < 0 || srcIdx >= sourceIds.size())
+			throw new IndexOutOfBoundsException(String.format("Source %s is out of bounds (%s)", srcIdx, sourceIds.size()));
+		set(trgIdx, UNREACHABLE, srcIdx);
+	}
+
+	/**
+	 * @param trgId ID of the target, results of targets which are not part of the travel options are kept by ID
+	 * @param travelTime travel time in seconds as reported by the service
+	 */
+	public void setTravelTime(String trgId, int travelTime) {
+		int trgIdx = getTargetIndex(trgId);
+		if (trgIdx >= 0)
+			setTravelTime(trgIdx, travelTime);
+		else {
+			if (otherTravelTimes == null)
+				otherTravelTimes = new HashMap<>();
+			otherTravelTimes.put(trgId, travelTime);
+		}
+	}
+
+	/**
+	 * @param trgId ID of the target, results of targets which are not part of the travel options are kept by ID
+	 * @param srcId ID of the closest source, sources which are not part of the travel options are added
+	 */
+	public void setClosestSource(String trgId, String srcId) {
+		int trgIdx = getTargetIndex(trgId);
+		if (trgIdx >= 0)
+			setClosestSource(trgIdx, addSource(srcId));
+		else {
+			if (otherClosestSources == null)
+				otherClosestSources = new HashMap<>();
+			otherClosestSources.put(trgId, srcId);
+		}
+	}
+
+	/**
+	 * Set the travel time and/or closest source of a target, {@link #UNREACHABLE} and {@link #NO_SOURCE} leave the
+	 * current value unchanged
+	 */
+	private void set(int trgIdx, int travelTime, int srcIdx) {
+		checkTarget(trgIdx);
+
+		if (travelTimes != null) {
+			if (travelTime != UNREACHABLE) {
+				if (travelTimes[trgIdx] == UNREACHABLE)
+					travelTimeCount++;
+				travelTimes[trgIdx] = travelTime;
+			}
+			if (srcIdx != NO_SOURCE) {
+				if (closestSources[trgIdx] == NO_SOURCE)
+					closestSourceCount++;
+				closestSources[trgIdx] = srcIdx;
+			}
+			return;
+		}
+
+		// targets which are already contained are updated in place, all others are merged later
+		if (pendingSize == 0 && isContained(trgIdx)) {
+			int rank = rank(trgIdx);
+			if (travelTime != UNREACHABLE) {
+				if (packedTravelTimes[rank] == UNREACHABLE)
+					travelTimeCount++;
+				packedTravelTimes[rank] = travelTime;
+			}
+			if (srcIdx != NO_SOURCE) {
+				if (packedClosestSources[rank] == NO_SOURCE)
+					closestSourceCount++;
+				packedClosestSources[rank] = srcIdx;
+			}
+			return;
+		}
+
+		if (pendingSize == pendingTargets.length) {
+			int capacity = Math.max(16, pendingSize + (pendingSize >> 1));
+			pendingTargets        = Arrays.copyOf(pendingTargets, capacity);
+			pendingTravelTimes    = Arrays.copyOf(pendingTravelTimes, capacity);
+			pendingClosestSources = Arrays.copyOf(pendingClosestSources, capacity);
+		}
+		pendingTargets[pendingSize]        = trgIdx;
+		pendingTravelTimes[pendingSize]    = travelTime;
+		pendingClosestSources[pendingSize] = srcIdx;
+		pendingSize++;
+	}
+
+	/**
+	 * Merge the results added to a sparse result into its packed arrays. The result is converted to dense storage if
+	 * more than half of the targets are contained. Reads do not modify the result after compaction.
+	 */
+	public void compact() {
+		compactIfPending();
+	}
+
+	private void compactIfPending() {
+
+		if (pendingSize == 0)
+			return;
+
+		// sort all results by target, then by order of addition
+		int total = packedSize + pendingSize;
+		long[] order = new long[total];
+		int position = 0;
+		for (int trgIdx = nextContained(0); trgIdx >= 0; trgIdx = nextContained(trgIdx + 1), position++)
+			order[position] = ((long) trgIdx << 32) | position;
+		for (int i = 0; i < pendingSize; i++, position++)
+			order[position] = ((long) pendingTargets[i] << 32) | position;
+		Arrays.sort(order);
+
+		int[] mergedTargets = new int[total];
+		int[] mergedTimes   = new int[total];
+		int[] mergedSources = new int[total];
+		int size = 0;
+		for (long entry : order) {
+			int trgIdx = (int) (entry >>> 32);
+			int index  = (int) entry;
+			int travelTime = index < packedSize ? packedTravelTimes[index] : pendingTravelTimes[index - packedSize];
+			int srcIdx     = index < packedSize ? packedClosestSources[index] : pendingClosestSources[index - packedSize];
+
+			if (size == 0 || mergedTargets[size - 1] != trgIdx) {
+				mergedTargets[size] = trgIdx;
+				mergedTimes[size]   = UNREACHABLE;
+				mergedSources[size] = NO_SOURCE;
+				size++;
+			}
+			// later results win, unless they only contain the travel time or the source
+			if (travelTime != UNREACHABLE)
+				mergedTimes[size - 1] = travelTime;
+			if (srcIdx != NO_SOURCE)
+				mergedSources[size - 1] = srcIdx;
+		}
+
+		pendingTargets        = EMPTY;
+		pendingTravelTimes    = EMPTY;
+		pendingClosestSources = EMPTY;
+		pendingSize           = 0;
+
+		if (size > targets.size() / 2) {
+			toDense();
+			for (int i = 0; i < size; i++) {
+				travelTimes[mergedTargets[i]]    = mergedTimes[i];
+				closestSources[mergedTargets[i]] = mergedSources[i];
+			}
+			contained = null;
+			ranks     = null;
+			packedTravelTimes    = EMPTY;
+			packedClosestSources = EMPTY;
+			packedSize           = 0;
+		}
+		else
+			toSparse(mergedTargets, Arrays.copyOf(mergedTimes, size), Arrays.copyOf(mergedSources, size), size);
+
+		travelTimeCount    = 0;
+		closestSourceCount = 0;
+		for (int i = 0; i < size; i++) {
+			if (mergedTimes[i] != UNREACHABLE)
+				travelTimeCount++;
+			if (mergedSources[i] != NO_SOURCE)
+				closestSourceCount++;
+		}
+	}
+
+	private void toDense() {
+		travelTimes    = new int[targets.size()];
+		closestSources = new int[targets.size()];
+		Arrays.fill(travelTimes, UNREACHABLE);
+		Arrays.fill(closestSources, NO_SOURCE);
+	}
+
+	/**
+	 * @param sortedTargets distinct target indices in ascending order
+	 */
+	private void toSparse(int[] sortedTargets, int[] travelTimes, int[] closestSources, int size) {
+
+		this.contained = new long[(targets.size() + 63) >>> 6];
+		this.ranks     = new int[contained.length];
+		for (int i = 0; i < size; i++)
+			contained[sortedTargets[i] >>> 6] |= 1L << sortedTargets[i];
+		for (int word = 1; word < contained.length; word++)
+			ranks[word] = ranks[word - 1] + Long.bitCount(contained[word - 1]);
+
+		this.packedTravelTimes    = travelTimes;
+		this.packedClosestSources = closestSources;
+		this.packedSize           = size;
+	}
+
+	private boolean isContained(int trgIdx) {
+		return (contained[trgIdx >>> 6] & (1L << trgIdx)) != 0;
+	}
+
+	/**
+	 * @return position of a contained target in the packed arrays
+	 */
+	private int rank(int trgIdx) {
+		return ranks[trgIdx >>> 6] + Long.bitCount(contained[trgIdx >>> 6] & ((1L << trgIdx) - 1));
+	}
+
+	/**
+	 * @return index of the next target with travel time or closest source, starting at the given index, or -1
+	 */
+	private int nextContained(int fromIdx) {
+
+		if (travelTimes != null) {
+			for (int trgIdx = fromIdx; trgIdx < targets.size(); trgIdx++)
+				if (travelTimes[trgIdx] != UNREACHABLE || closestSources[trgIdx] != NO_SOURCE)
+					return trgIdx;
+			return -1;
+		}
+
+		int word = fromIdx >>> 6;
+		if (word >= contained.length)
+			return -1;
+		long bits = contained[word] & (-1L << fromIdx);
+		while (bits == 0) {
+			if (++word == contained.length)
+				return -1;
+			bits = contained[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	private void checkTarget(int trgIdx) {
+		if (trgIdx < 0 || trgIdx >= targets.size())
+			throw new IndexOutOfBoundsException(String.format("Target %s is out of bounds (%s)", trgIdx, targets.size()));
+	}
+
+	/**
+	 * Read-only map view of the travel times, entries are created on access
+	 * @return map from target ID to travel time
+	 */
+	public Map<String, Integer> asTravelTimeMap() {
+		if (travelTimeView == null)
+			travelTimeView = new ResultView<Integer>() {
+				@Override
+				Integer value(int trgIdx) {
+					int travelTime = getTravelTime(trgIdx);
+					return travelTime == UNREACHABLE ? null : travelTime;
+				}
+
+				@Override
+				Map<String, Integer> others() {
+					return otherTravelTimes;
+				}
+
+				@Override
+				public int size() {
+					return getTravelTimeCount();
+				}
+			};
+		return travelTimeView;
+	}
+
+	/**
+	 * Read-only map view of the closest sources, entries are created on access
+	 * @return map from target ID to the ID of its closest source
+	 */
+	public Map<String, String> asClosestSourceMap() {
+		if (closestSourceView == null)
+			closestSourceView = new ResultView<String>() {
+				@Override
+				String value(int trgIdx) {
+					int srcIdx = getClosestSourceIndex(trgIdx);
+					return srcIdx == NO_SOURCE ? null : sourceIds.get(srcIdx);
+				}
+
+				@Override
+				Map<String, String> others() {
+					return otherClosestSources;
+				}
+
+				@Override
+				public int size() {
+					return getClosestSourceCount();
+				}
+			};
+		return closestSourceView;
+	}
+
+	/**
+	 * Map from target ID to a value of the result, which is null for targets without value
+	 */
+	private abstract class ResultView<V> extends AbstractMap<String, V> {
+
+		abstract V value(int trgIdx);
+
+		abstract Map<String, V> others();
+
+		@Override
+		public V get(Object key) {
+			if (!(key instanceof String))
+				return null;
+			int trgIdx = getTargetIndex((String) key);
+			if (trgIdx >= 0)
+				return value(trgIdx);
+			return others() == null ? null : others().get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return new AbstractSet<Entry<String, V>>() {
+
+				@Override
+				public Iterator<Entry<String, V>> iterator() {
+					compactIfPending();
+					return new Iterator<Entry<String, V>>() {
+
+						private final Iterator<Entry<String, V>> others = others() == null
+								? Collections.<Entry<String, V>>emptyIterator()
+								: Collections.unmodifiableMap(others()).entrySet().iterator();
+						private int trgIdx = advance(0);
+
+						private int advance(int fromIdx) {
+							int next = nextContained(fromIdx);
+							while (next >= 0 && value(next) == null)
+								next = nextContained(next + 1);
+							return next;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return trgIdx >= 0 || others.hasNext();
+						}
+
+						@Override
+						public Entry<String, V> next() {
+							if (trgIdx < 0)
+								return others.next();
+							Entry<String, V> entry = new SimpleImmutableEntry<>(targets.get(trgIdx).getId(), value(trgIdx));
+							trgIdx = advance(trgIdx + 1);
+							return entry;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return ResultView.this.size();
+				}
+			};
+		}
+	}
+}
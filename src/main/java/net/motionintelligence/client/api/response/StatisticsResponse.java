@@ -1,12 +1,18 @@
 package net.motionintelligence.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import net.motionintelligence.client.api.response.statistics.StatisticResult;
 import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public class StatisticsResponse {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsResponse.class);
@@ -30,6 +36,43 @@ public class StatisticsResponse {
 		
 		this.statisticResult 	  = new StatisticResult(travelOptions, result);
 	}
+
+	/**
+	 * Create a response by streaming the JSON results in a single pass, the result tree is never materialized.
+	 * @param travelOptions Travel configuration
+	 * @param result Response body, without callback. The stream is closed after parsing.
+	 * @param requestStart Start time of request in milliseconds
+	 * @throws Route360ClientRuntimeException In case the results could not be parsed
+	 */
+	public StatisticsResponse(TravelOptions travelOptions, InputStream result, long requestStart) {
+
+		this.travelOptions = travelOptions;
+
+		StatisticResult.Reader reader = new StatisticResult.Reader(travelOptions);
+		long requestTime = -1;
+		try (JsonParser parser = JsonUtil.createParser(result)) {
+
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new Route360ClientRuntimeException("Could not parse statistics response: expected json object");
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("requestTime".equals(field))
+					requestTime = parser.getValueAsLong(-1);
+				else if (!reader.read(field, parser))
+					parser.skipChildren();
+			}
+		}
+		catch (IOException | NumberFormatException e) {
+			throw new Route360ClientRuntimeException("Could not parse statistics response: " + e.getMessage());
+		}
+
+		this.requestTimeMillis = requestTime;
+		this.totalTimeMillis   = System.currentTimeMillis() - requestStart;
+		this.statisticResult   = reader.build();
+	}
 	
 	/**
 	 * 
@@ -1,5 +1,7 @@
 package net.motionintelligence.client.api.response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import net.motionintelligence.client.api.geo.Coordinate;
@@ -7,7 +9,12 @@ import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class TimeResponse {
@@ -17,7 +24,9 @@ public class TimeResponse {
 	private final long totalTimeMillis;
 	private final TravelOptions travelOptions;
 	
-	private final Map<Coordinate, Map<Coordinate,Integer>> travelTimes = new HashMap<>();
+	private TravelTimeMatrix travelTimes;
+	// travel times of sources and targets which are not yet part of the matrix, added with a single extension
+	private PendingTravelTimes pending;
 
 	/**
 	 * Create a response from JSON results.
@@ -31,10 +40,54 @@ public class TimeResponse {
 		this.code 		 	   	  = JsonUtil.getString(result, "code");
 		this.requestTimeMillis 	  = result.has("requestTime") ? JsonUtil.getLong(result, "requestTime") : -1;
 		this.totalTimeMillis = System.currentTimeMillis() - requestStart;
+		this.travelTimes          = createMatrix(travelOptions);
 
 		mapResults(result);
 	}
 
+	/**
+	 * Create a response by streaming the JSON results, travel times are added as soon as they are read.
+	 * The result tree is never materialized.
+	 * @param travelOptions Travel options used in request
+	 * @param result Travel times in JSON, without callback. The stream is closed after parsing.
+	 * @param requestStart Start time of execution
+	 * @throws Route360ClientRuntimeException In case the results could not be parsed
+	 */
+	public TimeResponse(TravelOptions travelOptions, InputStream result, long requestStart) {
+
+		this.travelOptions = travelOptions;
+		this.travelTimes   = createMatrix(travelOptions);
+
+		String code      = null;
+		long requestTime = -1;
+		try (JsonParser parser = JsonUtil.createParser(result)) {
+
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new Route360ClientRuntimeException("Could not parse time response: expected json object");
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("code".equals(field))
+					code = parser.getValueAsString();
+				else if ("requestTime".equals(field))
+					requestTime = parser.getValueAsLong(-1);
+				else if ("data".equals(field))
+					mapResults(travelOptions, parser);
+				else
+					parser.skipChildren();
+			}
+		}
+		catch (IOException e) {
+			throw new Route360ClientRuntimeException("Could not parse time response: " + e.getMessage(), e);
+		}
+
+		this.code              = code;
+		this.requestTimeMillis = requestTime;
+		this.totalTimeMillis   = System.currentTimeMillis() - requestStart;
+	}
+
 	/**
 	 * Create a response with custom response code and without results. Can be used in case of errors.
 	 * @param travelOptions Travel options used in request
@@ -48,6 +101,30 @@ public class TimeResponse {
 		this.code 		 	   	  = code;
 		this.requestTimeMillis 	  = requestTime;
 		this.totalTimeMillis = System.currentTimeMillis() - requestStart;
+		this.travelTimes          = createMatrix(travelOptions);
+	}
+
+	/**
+	 * Create a response from an already populated matrix, e.g. merged from the results of multiple requests.
+	 * @param travelOptions Travel options used in request
+	 * @param travelTimes Travel times from each source to each target
+	 * @param code Response code
+	 * @param requestTime Execution time in milliseconds
+	 * @param requestStart Start time of execution
+	 */
+	public TimeResponse(TravelOptions travelOptions, TravelTimeMatrix travelTimes, String code, long requestTime,
+						long requestStart) {
+
+		this.travelOptions 	   	  = travelOptions;
+		this.code 		 	   	  = code;
+		this.requestTimeMillis 	  = requestTime;
+		this.totalTimeMillis = System.currentTimeMillis() - requestStart;
+		this.travelTimes          = travelTimes;
+	}
+
+	private static TravelTimeMatrix createMatrix(TravelOptions travelOptions) {
+		return travelOptions != null ? TravelTimeMatrix.of(travelOptions)
+				: new TravelTimeMatrix(Collections.emptyList(), Collections.emptyList());
 	}
 
 	/**
@@ -73,8 +150,6 @@ public class TimeResponse {
 			String srcId = JsonUtil.getString(source, "id");
 			JSONArray targets = JsonUtil.getJsonArray(source, "targets");
 
-			this.travelTimes.putIfAbsent(travelOptions.getSource(srcId), new HashMap<>());
-
 			for (int j = 0; j < targets.length(); j++) {
 				JSONObject target = JsonUtil.getJSONObject(targets, j);
 				String trgId = JsonUtil.getString(target, "id");
@@ -85,23 +160,139 @@ public class TimeResponse {
 	}
 
 	/**
+	 * Stream the "data" array of the results into the travel times map.
+	 * @param travelOptions options used in the request
+	 * @param parser parser positioned on the start of the "data" array
+	 * @throws IOException In case of parse errors
+	 */
+	private void mapResults(final TravelOptions travelOptions, final JsonParser parser) throws IOException {
+
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return;
+		}
+
+		List<String> pendingTargets = new ArrayList<>();
+		List<Integer> pendingTimes  = new ArrayList<>();
+
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+			String srcId = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("id".equals(field))
+					srcId = parser.getValueAsString();
+				else if ("targets".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+						String trgId   = null;
+						int travelTime = -1;
+						while (parser.nextToken() == JsonToken.FIELD_NAME) {
+							String targetField = parser.getCurrentName();
+							parser.nextToken();
+
+							if ("id".equals(targetField))
+								trgId = parser.getValueAsString();
+							else if ("travelTime".equals(targetField))
+								travelTime = parser.getValueAsInt(-1);
+							else
+								parser.skipChildren();
+						}
+
+						// the source id is usually written first, otherwise the targets are kept until it is known
+						if (srcId != null)
+							setTravelTime(travelOptions, srcId, trgId, travelTime);
+						else {
+							pendingTargets.add(trgId);
+							pendingTimes.add(travelTime);
+						}
+					}
+				}
+				else
+					parser.skipChildren();
+			}
+
+			if (!pendingTargets.isEmpty()) {
+				if (srcId == null)
+					throw new Route360ClientRuntimeException("Could not parse time response: source without id");
+				for (int i = 0; i < pendingTargets.size(); i++)
+					setTravelTime(travelOptions, srcId, pendingTargets.get(i), pendingTimes.get(i));
+				pendingTargets.clear();
+				pendingTimes.clear();
+			}
+		}
+	}
+
+	private void setTravelTime(TravelOptions travelOptions, String srcId, String trgId, int travelTime) {
+
+		int srcIdx = this.travelTimes.getSourceIndex(srcId);
+		int trgIdx = this.travelTimes.getTargetIndex(trgId);
+		if (srcIdx >= 0 && trgIdx >= 0)
+			this.travelTimes.set(srcIdx, trgIdx, travelTime);
+		else
+			addTravelTime(travelOptions.getSource(srcId), travelOptions.getTarget(trgId), travelTime);
+	}
+
+	/**
+	 * Add a travel time, sources and targets which are not part of the travel options are added to the matrix.
+	 * New sources and targets are buffered and added at once when the travel times are read, so adding many of them
+	 * does not copy the matrix for each one.
 	 * @param source Source coordinate
 	 * @param target Target coordinate
-	 * @param travelTime Travel time to be added
+	 * @param travelTime Travel time to be added, null or negative if the target is not reachable
 	 */
 	public void addTravelTime(Coordinate source, Coordinate target, Integer travelTime) {
-		
-		this.travelTimes.putIfAbsent(source, new HashMap<>());
-		this.travelTimes.get(source).put(target, travelTime);
+
+		// ids which are not part of the travel options can not be mapped to a coordinate
+		if (source == null || target == null)
+			return;
+
+		int value  = travelTime == null ? -1 : travelTime;
+		int srcIdx = this.travelTimes.getSourceIndex(source.getId());
+		int trgIdx = this.travelTimes.getTargetIndex(target.getId());
+		if (srcIdx >= 0 && trgIdx >= 0) {
+			this.travelTimes.set(srcIdx, trgIdx, value);
+		}
+		else {
+			if (pending == null)
+				pending = new PendingTravelTimes();
+			pending.add(source, target, value);
+		}
+	}
+
+	/**
+	 * @return the matrix including all added travel times
+	 */
+	private TravelTimeMatrix matrix() {
+		if (pending != null) {
+			TravelTimeMatrix extended = this.travelTimes.extend(pending.sources.values(), pending.targets.values());
+			for (int i = 0; i < pending.travelTimes.size(); i++)
+				extended.set(extended.getSourceIndex(pending.sourceIds.get(i)),
+						extended.getTargetIndex(pending.targetIds.get(i)), pending.travelTimes.get(i));
+			this.travelTimes = extended;
+			this.pending     = null;
+		}
+		return this.travelTimes;
 	}
 	
 	/**
 	 * @param source Source coordinate
 	 * @param target Target coordinate
-	 * @return null if the source or the target is not available, the travel time otherwise
+	 * @return null if the source or the target is not available, -1 if the target is not reachable,
+	 * the travel time otherwise
 	 */
 	public Integer getTravelTime(Coordinate source, Coordinate target) {
-		return this.travelTimes.getOrDefault(source, null).getOrDefault(target, -1);
+
+		TravelTimeMatrix matrix = matrix();
+		int srcIdx = matrix.getSourceIndex(source.getId());
+		int trgIdx = matrix.getTargetIndex(target.getId());
+		if (srcIdx < 0 || trgIdx < 0)
+			return null;
+
+		int travelTime = matrix.get(srcIdx, trgIdx);
+		return travelTime == TravelTimeMatrix.UNREACHABLE ? -1 : travelTime;
 	}
 
 	/**
@@ -126,11 +317,19 @@ public class TimeResponse {
 	}
 	
 	/**
-	 * Get travel times from each source point to each target point.
+	 * Get travel times from each source point to each target point. The map is a read-only view of
+	 * {@link #getTravelTimeMatrix()}, unreachable targets have a travel time of -1.
 	 * @return map from each source to (targets, travel times)
 	 */
 	public Map<Coordinate, Map<Coordinate, Integer>> getTravelTimes() {
-		return this.travelTimes;
+		return matrix().asMap();
+	}
+
+	/**
+	 * @return dense matrix of the travel times from each source to each target
+	 */
+	public TravelTimeMatrix getTravelTimeMatrix() {
+		return matrix();
 	}
 	
 	/**
@@ -139,4 +338,24 @@ public class TimeResponse {
 	public long getTotalTime() {
 		return this.totalTimeMillis;
 	}
+
+	/**
+	 * Travel times in insertion order, with the sources and targets to be added to the matrix
+	 */
+	private static final class PendingTravelTimes {
+
+		private final Map<String, Coordinate> sources = new LinkedHashMap<>();
+		private final Map<String, Coordinate> targets = new LinkedHashMap<>();
+		private final List<String> sourceIds          = new ArrayList<>();
+		private final List<String> targetIds          = new ArrayList<>();
+		private final List<Integer> travelTimes       = new ArrayList<>();
+
+		void add(Coordinate source, Coordinate target, int travelTime) {
+			sources.putIfAbsent(source.getId(), source);
+			targets.putIfAbsent(target.getId(), target);
+			sourceIds.add(source.getId());
+			targetIds.add(target.getId());
+			travelTimes.add(travelTime);
+		}
+	}
 }
@@ -0,0 +1,349 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.geo.Coordinate;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Dense travel time matrix from each source to each target.
+ *
+ * <p>
+ * Travel times are stored row-major in a single <code>int[]</code> (source index x target index). The indices of the
+ * sources and targets are assigned once on creation, lookups by index are O(1) without boxing or coordinate hashing.
+ * Cells without a travel time contain {@link #UNREACHABLE}.
+ * </p>
+ */
+public class TravelTimeMatrix {
+
+	/**
+	 * Value of cells for which the target is not reachable from the source
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final List<Coordinate> sources;
+	private final List<Coordinate> targets;
+	private final Map<String, Integer> sourceIndices;
+	private final Map<String, Integer> targetIndices;
+	private final int[] travelTimes;
+
+	private Map<Coordinate, Map<Coordinate, Integer>> mapView;
+
+	/**
+	 * Create a matrix in which all targets are unreachable. Sources and targets are indexed in iteration order.
+	 * @param sources Source coordinates with unique IDs
+	 * @param targets Target coordinates with unique IDs
+	 */
+	public TravelTimeMatrix(Collection<Coordinate> sources, Collection<Coordinate> targets) {
+
+		this.sources       = Collections.unmodifiableList(new ArrayList<>(sources));
+		this.targets       = Collections.unmodifiableList(new ArrayList<>(targets));
+		this.sourceIndices = index(this.sources);
+		this.targetIndices = index(this.targets);
+		this.travelTimes   = new int[Math.multiplyExact(this.sources.size(), this.targets.size())];
+
+		Arrays.fill(this.travelTimes, UNREACHABLE);
+	}
+
+	/**
+	 * Create a matrix for the sources and targets of the travel options
+	 * @param travelOptions Options used in the request
+	 * @return Matrix in which all targets are unreachable
+	 */
+	public static TravelTimeMatrix of(TravelOptions travelOptions) {
+		return new TravelTimeMatrix(travelOptions.getSources().values(), travelOptions.getTargets().values());
+	}
+
+	static Map<String, Integer> index(List<Coordinate> coordinates) {
+
+		Map<String, Integer> indices = new HashMap<>(coordinates.size() * 4 / 3 + 1);
+		// the first coordinate wins in case of duplicate ids, as the service answers by id only
+		for (int i = 0; i < coordinates.size(); i++)
+			indices.putIfAbsent(coordinates.get(i).getId(), i);
+		return indices;
+	}
+
+	/**
+	 * Copy this matrix and add sources and targets which are not yet contained
+	 * @param additionalSources Sources to be added
+	 * @param additionalTargets Targets to be added
+	 * @return New matrix containing the travel times of this matrix
+	 */
+	public TravelTimeMatrix extend(Collection<Coordinate> additionalSources, Collection<Coordinate> additionalTargets) {
+
+		List<Coordinate> allSources = new ArrayList<>(sources);
+		for (Coordinate source : additionalSources)
+			if (!sourceIndices.containsKey(source.getId()))
+				allSources.add(source);
+
+		List<Coordinate> allTargets = new ArrayList<>(targets);
+		for (Coordinate target : additionalTargets)
+			if (!targetIndices.containsKey(target.getId()))
+				allTargets.add(target);
+
+		TravelTimeMatrix extended = new TravelTimeMatrix(allSources, allTargets);
+		for (int src = 0; src < sources.size(); src++)
+			System.arraycopy(travelTimes, src * targets.size(), extended.travelTimes, src * allTargets.size(), targets.size());
+
+		return extended;
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @param trgIdx Index of the target
+	 * @return travel time in seconds or {@link #UNREACHABLE}
+	 */
+	public int get(int srcIdx, int trgIdx) {
+		return travelTimes[offset(srcIdx, trgIdx)];
+	}
+
+	/**
+	 * @param srcId ID of the source
+	 * @param trgId ID of the target
+	 * @return travel time in seconds or {@link #UNREACHABLE}, also if the source or target is unknown
+	 */
+	public int get(String srcId, String trgId) {
+		int srcIdx = getSourceIndex(srcId);
+		int trgIdx = getTargetIndex(trgId);
+		return srcIdx < 0 || trgIdx < 0 ? UNREACHABLE : get(srcIdx, trgIdx);
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @param trgIdx Index of the target
+	 * @param travelTime travel time in seconds, negative values are stored as {@link #UNREACHABLE}
+	 */
+	public void set(int srcIdx, int trgIdx, int travelTime) {
+		travelTimes[offset(srcIdx, trgIdx)] = travelTime < 0 ? UNREACHABLE : travelTime;
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @param trgIdx Index of the target
+	 * @return true if a travel time is available
+	 */
+	public boolean isReachable(int srcIdx, int trgIdx) {
+		return get(srcIdx, trgIdx) != UNREACHABLE;
+	}
+
+	private int offset(int srcIdx, int trgIdx) {
+		if (srcIdx < 0 || srcIdx >= sources.size() || trgIdx < 0 || trgIdx >= targets.size())
+			throw new IndexOutOfBoundsException(String.format("Cell (%s, %s) is out of bounds (%s x %s)",
+					srcIdx, trgIdx, sources.size(), targets.size()));
+		return srcIdx * targets.size() + trgIdx;
+	}
+
+	/**
+	 * @param id ID of the source
+	 * @return index of the source or -1 if the source is unknown
+	 */
+	public int getSourceIndex(String id) {
+		Integer index = sourceIndices.get(id);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param id ID of the target
+	 * @return index of the target or -1 if the target is unknown
+	 */
+	public int getTargetIndex(String id) {
+		Integer index = targetIndices.get(id);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @return the source coordinate
+	 */
+	public Coordinate getSource(int srcIdx) {
+		return sources.get(srcIdx);
+	}
+
+	/**
+	 * @param trgIdx Index of the target
+	 * @return the target coordinate
+	 */
+	public Coordinate getTarget(int trgIdx) {
+		return targets.get(trgIdx);
+	}
+
+	/**
+	 * @return sources in index order
+	 */
+	public List<Coordinate> getSources() {
+		return sources;
+	}
+
+	/**
+	 * @return targets in index order
+	 */
+	public List<Coordinate> getTargets() {
+		return targets;
+	}
+
+	public int getSourceCount() {
+		return sources.size();
+	}
+
+	public int getTargetCount() {
+		return targets.size();
+	}
+
+	/**
+	 * @param srcIdx Index of the source
+	 * @return copy of the travel times from the source to all targets in target index order
+	 */
+	public int[] getRow(int srcIdx) {
+		if (srcIdx < 0 || srcIdx >= sources.size())
+			throw new IndexOutOfBoundsException(String.format("Source %s is out of bounds (%s)", srcIdx, sources.size()));
+		int from = srcIdx * targets.size();
+		return Arrays.copyOfRange(travelTimes, from, from + targets.size());
+	}
+
+	/**
+	 * Read-only map view of the matrix, entries are created on access. Unreachable targets are reported with a
+	 * travel time of -1.
+	 * @return map from each source to (targets, travel times)
+	 */
+	public Map<Coordinate, Map<Coordinate, Integer>> asMap() {
+		if (mapView == null)
+			mapView = new MatrixView();
+		return mapView;
+	}
+
+	private Integer mapValue(int srcIdx, int trgIdx) {
+		int travelTime = get(srcIdx, trgIdx);
+		return travelTime == UNREACHABLE ? -1 : travelTime;
+	}
+
+	/**
+	 * Map from each source to its row
+	 */
+	private final class MatrixView extends AbstractMap<Coordinate, Map<Coordinate, Integer>> {
+
+		@Override
+		public Map<Coordinate, Integer> get(Object key) {
+			if (!(key instanceof Coordinate))
+				return null;
+			Integer srcIdx = sourceIndices.get(((Coordinate) key).getId());
+			return srcIdx == null ? null : new RowView(srcIdx);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Coordinate && sourceIndices.containsKey(((Coordinate) key).getId());
+		}
+
+		@Override
+		public int size() {
+			return sources.size();
+		}
+
+		@Override
+		public Set<Entry<Coordinate, Map<Coordinate, Integer>>> entrySet() {
+			return new AbstractSet<Entry<Coordinate, Map<Coordinate, Integer>>>() {
+
+				@Override
+				public Iterator<Entry<Coordinate, Map<Coordinate, Integer>>> iterator() {
+					return new IndexIterator<Entry<Coordinate, Map<Coordinate, Integer>>>(sources.size()) {
+						@Override
+						Entry<Coordinate, Map<Coordinate, Integer>> get(int srcIdx) {
+							return new SimpleImmutableEntry<>(sources.get(srcIdx), new RowView(srcIdx));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return sources.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Map from each target to the travel time from a source
+	 */
+	private final class RowView extends AbstractMap<Coordinate, Integer> {
+
+		private final int srcIdx;
+
+		RowView(int srcIdx) {
+			this.srcIdx = srcIdx;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof Coordinate))
+				return null;
+			Integer trgIdx = targetIndices.get(((Coordinate) key).getId());
+			return trgIdx == null ? null : mapValue(srcIdx, trgIdx);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Coordinate && targetIndices.containsKey(((Coordinate) key).getId());
+		}
+
+		@Override
+		public int size() {
+			return targets.size();
+		}
+
+		@Override
+		public Set<Entry<Coordinate, Integer>> entrySet() {
+			return new AbstractSet<Entry<Coordinate, Integer>>() {
+
+				@Override
+				public Iterator<Entry<Coordinate, Integer>> iterator() {
+					return new IndexIterator<Entry<Coordinate, Integer>>(targets.size()) {
+						@Override
+						Entry<Coordinate, Integer> get(int trgIdx) {
+							return new SimpleImmutableEntry<>(targets.get(trgIdx), mapValue(srcIdx, trgIdx));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return targets.size();
+				}
+			};
+		}
+	}
+
+	private abstract static class IndexIterator<T> implements Iterator<T> {
+
+		private final int size;
+		private int next = 0;
+
+		IndexIterator(int size) {
+			this.size = size;
+		}
+
+		abstract T get(int index);
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public T next() {
+			if (next >= size)
+				throw new NoSuchElementException();
+			return get(next++);
+		}
+	}
+}
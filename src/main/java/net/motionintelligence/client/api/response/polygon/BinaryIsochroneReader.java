@@ -0,0 +1,238 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoder of the binary polygon format, requested with
+ * {@link net.motionintelligence.client.api.enums.PolygonSerializerType#BINARY_POLYGON_SERIALIZER}.
+ * Compared to the JSON format, a polygon needs about a quarter of the bytes and is decoded without any text parsing.
+ *
+ * <p> Layout, integers are unsigned varints (7 bits per byte, least significant group first), signed values are
+ * zigzag encoded first, doubles are 8 bytes big endian and strings are a varint length followed by UTF-8 bytes: </p>
+ * <pre>
+ * response  = "R360" version:byte code:string message:string requestTime:signed precision:varint
+ *             setCount:varint set*
+ * set       = area:double polygonCount:varint polygon*
+ * polygon   = travelTime:signed area:double ringCount:varint pointCount:varint ringSize:varint* (dx:signed dy:signed)*
+ * </pre>
+ * The first ring of a polygon is its outer boundary. Coordinates are multiplied with 10^precision, rounded and
+ * stored as the difference to the previous point of the polygon (the first point to 0,0). An empty message is
+ * decoded as null.
+ */
+public final class BinaryIsochroneReader {
+
+	static final byte[] MAGIC = { 'R', '3', '6', '0' };
+	static final int VERSION  = 1;
+	static final int MAX_PRECISION = 9;
+
+	/**
+	 * Arrays are allocated with at most this size and grown while decoding, so that the counts of a corrupt payload
+	 * cannot allocate more memory than the payload size justifies before it fails
+	 */
+	private static final int INITIAL_CAPACITY = 4096;
+
+	private final DataInputStream input;
+	private final String code;
+	private final String message;
+	private final long requestTime;
+	private final int precision;
+
+	/**
+	 * Read the header of a binary polygon response
+	 * @param input Response body, it is not closed by the reader
+	 * @throws IOException In case the header could not be read or is not a supported binary polygon response
+	 */
+	public BinaryIsochroneReader(InputStream input) throws IOException {
+
+		this.input = new DataInputStream(input instanceof BufferedInputStream ? input : new BufferedInputStream(input));
+
+		byte[] magic = new byte[MAGIC.length];
+		this.input.readFully(magic);
+		if (!Arrays.equals(MAGIC, magic))
+			throw new IOException("Not a binary polygon response");
+
+		int version = this.input.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported binary polygon version: " + version);
+
+		this.code        = readString();
+		String message   = readString();
+		this.message     = message.isEmpty() ? null : message;
+		this.requestTime = readSignedVarLong();
+		this.precision   = readVarInt();
+		if (precision > MAX_PRECISION)
+			throw new IOException("Unsupported coordinate precision: " + precision);
+	}
+
+	/**
+	 * Check the beginning of a stream without consuming it
+	 * @param input Stream supporting mark and reset
+	 * @return true if the stream starts like a binary polygon response
+	 * @throws IOException In case the stream could not be read
+	 */
+	public static boolean isBinary(InputStream input) throws IOException {
+
+		if (!input.markSupported())
+			throw new IllegalArgumentException("Stream does not support mark");
+
+		input.mark(MAGIC.length);
+		try {
+			for (byte expected : MAGIC)
+				if (input.read() != expected)
+					return false;
+			return true;
+		}
+		finally {
+			input.reset();
+		}
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * @return error message of the service, null if there is none
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return the milliseconds for server runtime
+	 */
+	public long getRequestTime() {
+		return requestTime;
+	}
+
+	/**
+	 * @return number of decimal digits of the coordinates, polygons are decoded with int coordinates if it is 0
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Decode the polygons, can only be called once
+	 * @return polygons of all entries
+	 * @throws IOException In case the polygons could not be read or are malformed
+	 */
+	public List<IsochroneSet> readIsochroneSets() throws IOException {
+
+		int count = readVarInt();
+		List<IsochroneSet> sets = new ArrayList<>(Math.min(count, 64));
+		for (int i = 0; i < count; i++) {
+			double area  = input.readDouble();
+			int polygons = readVarInt();
+			List<Isochrone> isochrones = new ArrayList<>(Math.min(polygons, 64));
+			for (int p = 0; p < polygons; p++)
+				isochrones.add(readIsochrone());
+			sets.add(new IsochroneSet(area, isochrones));
+		}
+		return sets;
+	}
+
+	private Isochrone readIsochrone() throws IOException {
+
+		int travelTime = (int) readSignedVarLong();
+		double area    = input.readDouble();
+		int rings      = readVarInt();
+		int points     = readVarInt();
+		// rings + 1 offsets and 2 * points coordinates must fit into an array
+		if (rings == Integer.MAX_VALUE || points > Integer.MAX_VALUE / 2)
+			throw new IOException("Polygon too large: " + rings + " rings, " + points + " points");
+
+		int[] offsets = new int[Math.min(rings, INITIAL_CAPACITY) + 1];
+		for (int ring = 0; ring < rings; ring++) {
+			if (ring + 1 == offsets.length)
+				offsets = grow(offsets, rings + 1);
+			offsets[ring + 1] = offsets[ring] + readVarInt();
+			if (offsets[ring + 1] < 0 || offsets[ring + 1] > points)
+				throw new IOException("Ring sizes exceed the point count of the polygon");
+		}
+		if (offsets[rings] != points)
+			throw new IOException("Ring sizes do not match the point count of the polygon");
+
+		long x = 0;
+		long y = 0;
+		if (precision == 0) {
+			int[] coordinates = new int[Math.min(2 * points, INITIAL_CAPACITY)];
+			for (int i = 0; i < 2 * points; i += 2) {
+				if (i == coordinates.length)
+					coordinates = grow(coordinates, 2 * points);
+				x += readSignedVarLong();
+				y += readSignedVarLong();
+				if (x != (int) x || y != (int) y)
+					throw new IOException("Coordinate out of range");
+				coordinates[i]     = (int) x;
+				coordinates[i + 1] = (int) y;
+			}
+			return new Isochrone(travelTime, area, coordinates, null, offsets);
+		}
+
+		double scale = Math.pow(10, precision);
+		double[] coordinates = new double[Math.min(2 * points, INITIAL_CAPACITY)];
+		for (int i = 0; i < 2 * points; i += 2) {
+			if (i == coordinates.length)
+				coordinates = Arrays.copyOf(coordinates, capacity(coordinates.length, 2 * points));
+			x += readSignedVarLong();
+			y += readSignedVarLong();
+			coordinates[i]     = x / scale;
+			coordinates[i + 1] = y / scale;
+		}
+		return new Isochrone(travelTime, area, null, coordinates, offsets);
+	}
+
+	private String readString() throws IOException {
+		int length   = readVarInt();
+		byte[] bytes = new byte[Math.min(length, INITIAL_CAPACITY)];
+		for (int read = 0; read < length; read = bytes.length) {
+			if (read == bytes.length)
+				bytes = Arrays.copyOf(bytes, capacity(bytes.length, length));
+			input.readFully(bytes, read, bytes.length - read);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int[] grow(int[] array, int size) {
+		return Arrays.copyOf(array, capacity(array.length, size));
+	}
+
+	/**
+	 * @return twice the current capacity, but not more than the final size
+	 */
+	private static int capacity(int current, int size) {
+		return (int) Math.min(size, 2L * current);
+	}
+
+	private int readVarInt() throws IOException {
+		long value = readVarLong();
+		// values above Long.MAX_VALUE are negative
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw new IOException("Varint out of range: " + value);
+		return (int) value;
+	}
+
+	private long readSignedVarLong() throws IOException {
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = input.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed varint");
+	}
+}
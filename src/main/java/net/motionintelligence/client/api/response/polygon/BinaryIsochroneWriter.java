@@ -0,0 +1,98 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encoder of the binary polygon format described in {@link BinaryIsochroneReader}, e.g. to record responses for
+ * tests and benchmarks or to serve them from a local stub server.
+ */
+public final class BinaryIsochroneWriter {
+
+	private final DataOutputStream output;
+	private final int precision;
+	private final double scale;
+
+	/**
+	 * @param output Stream to write to, it is flushed but not closed by {@link #write(String, String, long, List)}
+	 * @param precision Number of decimal digits of the coordinates, 0 for integral coordinates like web mercator
+	 */
+	public BinaryIsochroneWriter(OutputStream output, int precision) {
+		if (precision < 0 || precision > BinaryIsochroneReader.MAX_PRECISION)
+			throw new IllegalArgumentException("Precision must be between 0 and " + BinaryIsochroneReader.MAX_PRECISION);
+
+		this.output    = new DataOutputStream(new BufferedOutputStream(output));
+		this.precision = precision;
+		this.scale     = Math.pow(10, precision);
+	}
+
+	/**
+	 * Write a complete response
+	 * @param code route360 status code
+	 * @param message error message, may be null
+	 * @param requestTime the milliseconds for server runtime
+	 * @param sets polygons of all entries
+	 * @throws IOException In case the response could not be written
+	 */
+	public void write(String code, String message, long requestTime, List<IsochroneSet> sets) throws IOException {
+
+		output.write(BinaryIsochroneReader.MAGIC);
+		output.writeByte(BinaryIsochroneReader.VERSION);
+		writeString(code == null ? "" : code);
+		writeString(message == null ? "" : message);
+		writeSignedVarLong(requestTime);
+		writeVarLong(precision);
+
+		writeVarLong(sets.size());
+		for (IsochroneSet set : sets) {
+			output.writeDouble(set.getArea());
+			writeVarLong(set.getIsochrones().size());
+			for (Isochrone isochrone : set.getIsochrones())
+				writeIsochrone(isochrone);
+		}
+		output.flush();
+	}
+
+	private void writeIsochrone(Isochrone isochrone) throws IOException {
+
+		writeSignedVarLong(isochrone.getTravelTime());
+		output.writeDouble(isochrone.getArea());
+		writeVarLong(isochrone.getRingCount());
+		writeVarLong(isochrone.getPointCount());
+		for (int ring = 0; ring < isochrone.getRingCount(); ring++)
+			writeVarLong(isochrone.getRing(ring).size());
+
+		long previousX = 0;
+		long previousY = 0;
+		for (int point = 0; point < isochrone.getPointCount(); point++) {
+			long x = Math.round(isochrone.getX(point) * scale);
+			long y = Math.round(isochrone.getY(point) * scale);
+			writeSignedVarLong(x - previousX);
+			writeSignedVarLong(y - previousY);
+			previousX = x;
+			previousY = y;
+		}
+	}
+
+	private void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length);
+		output.write(bytes);
+	}
+
+	private void writeSignedVarLong(long value) throws IOException {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		output.writeByte((int) value);
+	}
+}
@@ -0,0 +1,149 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Polygon;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Polygon of the area reachable within one travel time. The coordinates of all rings are stored in one packed array
+ * (x0, y0, x1, y1, ...), as int if all coordinates are integral (e.g. web mercator coordinates rounded by the service)
+ * and as double otherwise. {@link Ring} objects and JTS geometries are only created when they are accessed.
+ */
+public final class Isochrone {
+
+	private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+	private final int travelTime;
+	private final double area;
+	private final int[] intCoordinates;
+	private final double[] doubleCoordinates;
+	private final int[] ringOffsets;
+
+	/**
+	 * @param travelTime Travel time in seconds
+	 * @param area Area, -1 if unknown
+	 * @param intCoordinates Packed integral coordinates, or null
+	 * @param doubleCoordinates Packed coordinates if intCoordinates is null
+	 * @param ringOffsets Index of the first point of each ring, followed by the total number of points
+	 */
+	Isochrone(int travelTime, double area, int[] intCoordinates, double[] doubleCoordinates, int[] ringOffsets) {
+		this.travelTime        = travelTime;
+		this.area              = area;
+		this.intCoordinates    = intCoordinates;
+		this.doubleCoordinates = doubleCoordinates;
+		this.ringOffsets       = ringOffsets;
+	}
+
+	/**
+	 * @return travel time in seconds
+	 */
+	public int getTravelTime() {
+		return travelTime;
+	}
+
+	/**
+	 * @return area as reported by the service, -1 if unknown
+	 */
+	public double getArea() {
+		return area;
+	}
+
+	/**
+	 * @return number of rings, i.e. the outer boundary and all holes
+	 */
+	public int getRingCount() {
+		return ringOffsets.length - 1;
+	}
+
+	/**
+	 * @return number of points of all rings
+	 */
+	public int getPointCount() {
+		return ringOffsets[ringOffsets.length - 1];
+	}
+
+	/**
+	 * @return true if the coordinates are stored as int
+	 */
+	public boolean isIntegral() {
+		return intCoordinates != null;
+	}
+
+	/**
+	 * @return outer boundary, null if the polygon has no rings
+	 */
+	public Ring getOuterBoundary() {
+		return getRingCount() > 0 ? getRing(0) : null;
+	}
+
+	/**
+	 * @return holes of the polygon
+	 */
+	public List<Ring> getInnerBoundaries() {
+		if (getRingCount() < 2)
+			return Collections.emptyList();
+
+		return new AbstractList<Ring>() {
+			@Override
+			public Ring get(int index) {
+				if (index < 0 || index >= size())
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+				return getRing(index + 1);
+			}
+
+			@Override
+			public int size() {
+				return getRingCount() - 1;
+			}
+		};
+	}
+
+	/**
+	 * @param index index of the ring, 0 is the outer boundary
+	 * @return the ring
+	 */
+	public Ring getRing(int index) {
+		return new Ring(this, ringOffsets[index], ringOffsets[index + 1] - ringOffsets[index]);
+	}
+
+	double getX(int point) {
+		return intCoordinates != null ? intCoordinates[2 * point] : doubleCoordinates[2 * point];
+	}
+
+	double getY(int point) {
+		return intCoordinates != null ? intCoordinates[2 * point + 1] : doubleCoordinates[2 * point + 1];
+	}
+
+	/**
+	 * @return JTS polygon in the coordinate system of the response
+	 */
+	public Polygon toPolygon() {
+		return toPolygon(GEOMETRY_FACTORY);
+	}
+
+	/**
+	 * @param factory Factory to create the geometry with, e.g. with the SRID of the response
+	 * @return JTS polygon in the coordinate system of the response, empty if the polygon has no rings
+	 */
+	public Polygon toPolygon(GeometryFactory factory) {
+
+		if (getRingCount() == 0)
+			return factory.createPolygon((LinearRing) null, null);
+
+		LinearRing shell   = getRing(0).toLinearRing(factory);
+		LinearRing[] holes = new LinearRing[getRingCount() - 1];
+		for (int i = 0; i < holes.length; i++)
+			holes[i] = getRing(i + 1).toLinearRing(factory);
+		return factory.createPolygon(shell, holes);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Isochrone [travelTime=%s, area=%s, rings=%s, points=%s]",
+				travelTime, area, getRingCount(), getPointCount());
+	}
+}
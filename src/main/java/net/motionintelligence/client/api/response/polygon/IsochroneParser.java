@@ -0,0 +1,214 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decodes the <code>data</code> array of a polygon response in JSON format (see
+ * {@link net.motionintelligence.client.api.response.PolygonResponse#getResult()}) into {@link IsochroneSet}s.
+ * The outer boundary is an array of points, the inner boundary either an array of rings or a single ring.
+ */
+public final class IsochroneParser {
+
+	private IsochroneParser() {
+	}
+
+	/**
+	 * Decode the data array while it is streamed
+	 * @param parser Parser positioned at the start of the data array
+	 * @return polygons of all entries
+	 * @throws IOException In case the data could not be read or is not an array
+	 */
+	public static List<IsochroneSet> parse(JsonParser parser) throws IOException {
+
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			parser.skipChildren();
+			return Collections.emptyList();
+		}
+
+		RingBuffer buffer = new RingBuffer();
+		List<IsochroneSet> sets = new ArrayList<>();
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+
+			double area = -1;
+			List<Isochrone> isochrones = new ArrayList<>();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if ("area".equals(field) && parser.currentToken().isNumeric())
+					area = parser.getDoubleValue();
+				else if ("polygons".equals(field) && parser.currentToken() == JsonToken.START_ARRAY)
+					while (parser.nextToken() == JsonToken.START_OBJECT)
+						isochrones.add(parsePolygon(parser, buffer));
+				else
+					parser.skipChildren();
+			}
+			sets.add(new IsochroneSet(area, isochrones));
+		}
+		return sets;
+	}
+
+	private static Isochrone parsePolygon(JsonParser parser, RingBuffer buffer) throws IOException {
+
+		int travelTime = -1;
+		double area    = -1;
+		boolean outer  = false;
+		// the inner boundary may be listed first, it is parsed into its own buffer in that case
+		RingBuffer inner = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+
+			if ("travelTime".equals(field) && token.isNumeric())
+				travelTime = parser.getIntValue();
+			else if ("area".equals(field) && token.isNumeric())
+				area = parser.getDoubleValue();
+			else if ("outerBoundary".equals(field) && token == JsonToken.START_ARRAY) {
+				buffer.startRing();
+				parsePoints(parser, buffer);
+				outer = true;
+			}
+			else if ("innerBoundary".equals(field) && token == JsonToken.START_ARRAY) {
+				inner = new RingBuffer();
+				parseRings(parser, inner);
+			}
+			else
+				parser.skipChildren();
+		}
+
+		if (!outer)
+			buffer.startRing();
+		if (inner != null)
+			inner.appendTo(buffer);
+		return buffer.toIsochrone(travelTime, area);
+	}
+
+	/**
+	 * @param parser Parser positioned at the start of the inner boundary
+	 */
+	private static void parseRings(JsonParser parser, RingBuffer buffer) throws IOException {
+
+		if (parser.nextToken() != JsonToken.START_ARRAY)
+			return;
+
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.START_ARRAY || token == JsonToken.END_ARRAY) {
+			// array of rings, the parser is at the first point of the first ring or at the end of an empty ring
+			buffer.startRing();
+			if (token == JsonToken.START_ARRAY) {
+				parsePoint(parser, buffer);
+				parsePoints(parser, buffer);
+			}
+			while (parser.nextToken() == JsonToken.START_ARRAY) {
+				buffer.startRing();
+				parsePoints(parser, buffer);
+			}
+		}
+		else {
+			// single ring, the parser is at the first coordinate of its first point
+			buffer.startRing();
+			parseCoordinates(parser, buffer);
+			parsePoints(parser, buffer);
+		}
+	}
+
+	/**
+	 * Parse the remaining points of a ring until its end
+	 */
+	private static void parsePoints(JsonParser parser, RingBuffer buffer) throws IOException {
+		while (parser.nextToken() == JsonToken.START_ARRAY)
+			parsePoint(parser, buffer);
+	}
+
+	/**
+	 * @param parser Parser positioned at the start of a point
+	 */
+	private static void parsePoint(JsonParser parser, RingBuffer buffer) throws IOException {
+		parser.nextToken();
+		parseCoordinates(parser, buffer);
+	}
+
+	/**
+	 * @param parser Parser positioned at the first coordinate of a point, further coordinates are ignored
+	 */
+	private static void parseCoordinates(JsonParser parser, RingBuffer buffer) throws IOException {
+		double x = parser.getDoubleValue();
+		parser.nextToken();
+		double y = parser.getDoubleValue();
+		while (parser.nextToken() != JsonToken.END_ARRAY)
+			parser.skipChildren();
+		buffer.addPoint(x, y);
+	}
+
+	/**
+	 * Decode the data array of an already parsed response
+	 * @param result Polygon response in JSON format
+	 * @return polygons of all entries, empty if the response has no data array (e.g. GeoJSON)
+	 * @throws Route360ClientRuntimeException In case the data is malformed
+	 */
+	public static List<IsochroneSet> parse(JSONObject result) {
+
+		JSONArray data = result.optJSONArray("data");
+		if (data == null)
+			return Collections.emptyList();
+
+		try {
+			RingBuffer buffer = new RingBuffer();
+			List<IsochroneSet> sets = new ArrayList<>();
+			for (int i = 0; i < data.length(); i++) {
+
+				JSONObject entry = data.getJSONObject(i);
+				JSONArray polygons = entry.optJSONArray("polygons");
+				List<Isochrone> isochrones = new ArrayList<>();
+				for (int p = 0; polygons != null && p < polygons.length(); p++) {
+
+					JSONObject polygon = polygons.getJSONObject(p);
+					buffer.startRing();
+					JSONArray outer = polygon.optJSONArray("outerBoundary");
+					if (outer != null)
+						addPoints(outer, buffer);
+
+					JSONArray inner = polygon.optJSONArray("innerBoundary");
+					if (inner != null && inner.length() > 0) {
+						// same as the streaming parser: an empty first element is an empty ring, not an empty point
+						JSONArray first = inner.getJSONArray(0);
+						if (first.length() == 0 || first.get(0) instanceof JSONArray) {
+							for (int r = 0; r < inner.length(); r++) {
+								buffer.startRing();
+								addPoints(inner.getJSONArray(r), buffer);
+							}
+						}
+						else {
+							buffer.startRing();
+							addPoints(inner, buffer);
+						}
+					}
+					isochrones.add(buffer.toIsochrone(polygon.optInt("travelTime", -1), polygon.optDouble("area", -1)));
+				}
+				sets.add(new IsochroneSet(entry.optDouble("area", -1), isochrones));
+			}
+			return sets;
+		}
+		catch (JSONException e) {
+			throw new Route360ClientRuntimeException("Could not parse polygons: " + e.getMessage());
+		}
+	}
+
+	private static void addPoints(JSONArray points, RingBuffer buffer) throws JSONException {
+		for (int i = 0; i < points.length(); i++) {
+			JSONArray point = points.getJSONArray(i);
+			buffer.addPoint(point.getDouble(0), point.getDouble(1));
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.MultiPolygon;
+import com.vividsolutions.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Polygons of one entry of the polygon response, i.e. of one source or of all sources if the polygons are
+ * intersected or united.
+ */
+public final class IsochroneSet {
+
+	private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+	private final double area;
+	private final List<Isochrone> isochrones;
+
+	/**
+	 * @param area Total area as reported by the service, -1 if unknown
+	 * @param isochrones Polygons of all travel times
+	 */
+	public IsochroneSet(double area, List<Isochrone> isochrones) {
+		this.area       = area;
+		this.isochrones = Collections.unmodifiableList(new ArrayList<>(isochrones));
+	}
+
+	public double getArea() {
+		return area;
+	}
+
+	public List<Isochrone> getIsochrones() {
+		return isochrones;
+	}
+
+	/**
+	 * @return travel times of the polygons in ascending order
+	 */
+	public SortedSet<Integer> getTravelTimes() {
+		SortedSet<Integer> travelTimes = new TreeSet<>();
+		for (Isochrone isochrone : isochrones)
+			travelTimes.add(isochrone.getTravelTime());
+		return travelTimes;
+	}
+
+	/**
+	 * @param travelTime Travel time in seconds
+	 * @return polygons of the travel time
+	 */
+	public List<Isochrone> getIsochrones(int travelTime) {
+		List<Isochrone> result = new ArrayList<>();
+		for (Isochrone isochrone : isochrones)
+			if (isochrone.getTravelTime() == travelTime)
+				result.add(isochrone);
+		return result;
+	}
+
+	/**
+	 * @param travelTime Travel time in seconds
+	 * @return all polygons of the travel time as one JTS geometry
+	 */
+	public MultiPolygon toMultiPolygon(int travelTime) {
+		return toMultiPolygon(travelTime, GEOMETRY_FACTORY);
+	}
+
+	/**
+	 * @param travelTime Travel time in seconds
+	 * @param factory Factory to create the geometry with, e.g. with the SRID of the response
+	 * @return all polygons of the travel time as one JTS geometry
+	 */
+	public MultiPolygon toMultiPolygon(int travelTime, GeometryFactory factory) {
+		List<Isochrone> selected = getIsochrones(travelTime);
+		Polygon[] polygons = new Polygon[selected.size()];
+		for (int i = 0; i < polygons.length; i++)
+			polygons[i] = selected.get(i).toPolygon(factory);
+		return factory.createMultiPolygon(polygons);
+	}
+
+	@Override
+	public String toString() {
+		return "IsochroneSet [area=" + area + ", isochrones=" + isochrones + "]";
+	}
+}
@@ -0,0 +1,88 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LinearRing;
+
+/**
+ * View on one ring of an {@link Isochrone}, the coordinates are not copied.
+ */
+public final class Ring {
+
+	private final Isochrone isochrone;
+	private final int offset;
+	private final int size;
+
+	Ring(Isochrone isochrone, int offset, int size) {
+		this.isochrone = isochrone;
+		this.offset    = offset;
+		this.size      = size;
+	}
+
+	/**
+	 * @return number of points of the ring, as delivered by the service
+	 */
+	public int size() {
+		return size;
+	}
+
+	public double getX(int index) {
+		return isochrone.getX(offset + checkIndex(index));
+	}
+
+	public double getY(int index) {
+		return isochrone.getY(offset + checkIndex(index));
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return index;
+	}
+
+	/**
+	 * @return true if the first and the last point are equal
+	 */
+	public boolean isClosed() {
+		return size > 0 && getX(0) == getX(size - 1) && getY(0) == getY(size - 1);
+	}
+
+	/**
+	 * @return coordinates packed as x0, y0, x1, y1, ...
+	 */
+	public double[] toArray() {
+		double[] coordinates = new double[2 * size];
+		for (int i = 0; i < size; i++) {
+			coordinates[2 * i]     = isochrone.getX(offset + i);
+			coordinates[2 * i + 1] = isochrone.getY(offset + i);
+		}
+		return coordinates;
+	}
+
+	/**
+	 * @return JTS coordinates of the ring, closed by repeating the first point if necessary
+	 */
+	public Coordinate[] toCoordinates() {
+		boolean close = size > 0 && !isClosed();
+		Coordinate[] coordinates = new Coordinate[close ? size + 1 : size];
+		for (int i = 0; i < size; i++)
+			coordinates[i] = new Coordinate(isochrone.getX(offset + i), isochrone.getY(offset + i));
+		if (close)
+			coordinates[size] = new Coordinate(coordinates[0]);
+		return coordinates;
+	}
+
+	/**
+	 * @param factory Factory to create the geometry with
+	 * @return JTS ring
+	 * @throws IllegalArgumentException if the ring has less than three distinct points
+	 */
+	public LinearRing toLinearRing(GeometryFactory factory) {
+		return factory.createLinearRing(toCoordinates());
+	}
+
+	@Override
+	public String toString() {
+		return "Ring [points=" + size + "]";
+	}
+}
@@ -0,0 +1,78 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer for the rings of one polygon while it is decoded. A buffer can be reused for all polygons of a
+ * response, {@link #toIsochrone(int, double)} copies the coordinates into arrays of the exact size and resets it.
+ */
+final class RingBuffer {
+
+	private double[] coordinates = new double[256];
+	private int[] ringOffsets    = new int[8];
+	private int points           = 0;
+	private int rings            = 0;
+	private boolean integral     = true;
+
+	/**
+	 * Start a new ring, the first ring of a polygon is its outer boundary
+	 */
+	void startRing() {
+		if (rings + 1 >= ringOffsets.length)
+			ringOffsets = Arrays.copyOf(ringOffsets, ringOffsets.length * 2);
+		ringOffsets[rings++] = points;
+	}
+
+	void addPoint(double x, double y) {
+		if (2 * points + 2 > coordinates.length)
+			coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+		coordinates[2 * points]     = x;
+		coordinates[2 * points + 1] = y;
+		points++;
+		integral &= isInt(x) && isInt(y);
+	}
+
+	/**
+	 * Append all rings of this buffer to another buffer
+	 * @param target Buffer to append the rings to
+	 */
+	void appendTo(RingBuffer target) {
+		for (int ring = 0; ring < rings; ring++) {
+			target.startRing();
+			int end = ring + 1 < rings ? ringOffsets[ring + 1] : points;
+			for (int point = ringOffsets[ring]; point < end; point++)
+				target.addPoint(coordinates[2 * point], coordinates[2 * point + 1]);
+		}
+	}
+
+	private static boolean isInt(double value) {
+		return value == (int) value;
+	}
+
+	/**
+	 * @param travelTime Travel time of the polygon in seconds
+	 * @param area Area of the polygon, -1 if unknown
+	 * @return polygon with the buffered rings, integral coordinates are stored as int
+	 */
+	Isochrone toIsochrone(int travelTime, double area) {
+
+		int[] offsets = Arrays.copyOf(ringOffsets, rings + 1);
+		offsets[rings] = points;
+
+		Isochrone isochrone;
+		if (integral) {
+			int[] packed = new int[2 * points];
+			for (int i = 0; i < packed.length; i++)
+				packed[i] = (int) coordinates[i];
+			isochrone = new Isochrone(travelTime, area, packed, null, offsets);
+		}
+		else {
+			isochrone = new Isochrone(travelTime, area, null, Arrays.copyOf(coordinates, 2 * points), offsets);
+		}
+
+		points   = 0;
+		rings    = 0;
+		integral = true;
+		return isochrone;
+	}
+}
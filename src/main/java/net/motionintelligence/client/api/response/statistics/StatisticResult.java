@@ -1,112 +1,278 @@
 package net.motionintelligence.client.api.response.statistics;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.util.JsonUtil;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+/**
+ * Per-minute statistic values, reachable targets and target travel times of a statistics request.
+ *
+ * <p>
+ * The values are stored in a <code>double[][]</code> (statistic index x minute), the reachable targets in an
+ * <code>int[]</code> indexed by minute and the target travel times in two <code>int[]</code> sorted by target id.
+ * Minutes without value contain <code>NaN</code> respectively -1. Values after the max routing time of the travel
+ * options are dropped, as are negative minutes. The maps of {@link #getStatistics()}, {@link #getReachableTargets()}
+ * and {@link #getTargetTravelTimes()} are created on first access.
+ * </p>
+ */
 public class StatisticResult {
-	
+
 	private static final Logger LOGGER = LoggerFactory.getLogger(StatisticResult.class);
 
-	private final Map<Integer, Map<Integer, Double>> statistics;
-	private final Map<Integer, Integer> reachableTargets;
-	private final Map<Integer, Integer> targetTravelTimes;
 	private final TravelOptions options;
+	private final int[] statisticIds;
+	private final double[][] statisticValues;
+	private final int[] reachableTargets;
+	private final int[] targetIds;
+	private final int[] targetTravelTimes;
+
+	private Map<Integer, Map<Integer, Double>> statisticsMap;
+	private Map<Integer, Integer> reachableTargetsMap;
+	private Map<Integer, Integer> targetTravelTimesMap;
 
 	/**
 	 * @param options Travel configuration
 	 * @param jsonResult Result as json object
 	 */
 	public StatisticResult(TravelOptions options, JSONObject jsonResult) {
-		
-		this.options		   = options;
-		this.statistics 	   = jsonResult.has("statistics") ? parseReachableStatisticsResult(jsonResult) : Collections.emptyMap();
-		this.reachableTargets  = jsonResult.has("reachableTargets") ? parseReachableTargetsResult(jsonResult) : Collections.emptyMap();
-		this.targetTravelTimes = jsonResult.has("targetTravelTimes") ? parseTargetTravelTimes(jsonResult) : Collections.emptyMap();
+		this(new Reader(options).read(jsonResult));
 	}
-	
+
+	private StatisticResult(Reader reader) {
+
+		this.options = reader.options;
+
+		List<Row> rows = reader.statistics;
+		rows.sort(Comparator.comparingInt(row -> row.id));
+		int minuteCount = 0;
+		for ( Row row : rows )
+			minuteCount = Math.max(minuteCount, row.maxMinute() + 1);
+
+		this.statisticIds    = new int[rows.size()];
+		this.statisticValues = new double[rows.size()][];
+		for ( int i = 0; i < rows.size(); i++ ) {
+			this.statisticIds[i]    = rows.get(i).id;
+			this.statisticValues[i] = rows.get(i).toArray(minuteCount);
+		}
+
+		this.reachableTargets = new int[reader.reachableTargets.maxMinute() + 1];
+		Arrays.fill(this.reachableTargets, -1);
+		for ( int i = 0; i < reader.reachableTargets.size; i++ )
+			this.reachableTargets[reader.reachableTargets.minutes[i]] = (int) reader.reachableTargets.values[i];
+
+		// target id in the upper and travel time in the lower bits, so that sorting orders by target id
+		long[] targets = Arrays.copyOf(reader.targets, reader.targetCount);
+		Arrays.sort(targets);
+		this.targetIds         = new int[targets.length];
+		this.targetTravelTimes = new int[targets.length];
+		for ( int i = 0; i < targets.length; i++ ) {
+			this.targetIds[i]         = (int) (targets[i] >> 32);
+			this.targetTravelTimes[i] = (int) targets[i];
+		}
+	}
+
 	/**
-	 * 
-	 * @param jsonResult result as json object
-	 * @return Map of reachable targets
+	 * Parse only the statistics of a result
+	 * @param result result as json object
+	 * @return Map of targets with reachability and statistics
 	 */
-	private Map<Integer, Integer> parseReachableTargetsResult(JSONObject jsonResult) {
-		
-		Map<Integer, Integer> reachableTargets = new TreeMap<>();
-		
-		JSONObject minuteToReachableTargets = JsonUtil.getJSONObject(jsonResult, "reachableTargets");
-		
-		for ( Integer minute : JsonUtil.getSortedIntKeySet(minuteToReachableTargets) )
-			if ( minute <= this.options.getMaxRoutingTime() )
-				reachableTargets.put(minute, JsonUtil.getInt(minuteToReachableTargets, minute + ""));
-			
-		return reachableTargets;
+	public Map<Integer, Map<Integer, Double>> parseReachableStatisticsResult(JSONObject result)  {
+
+		Reader reader = new Reader(this.options);
+		reader.readStatistics(JsonUtil.getJSONObject(result, "statistics"));
+		return reader.build().getStatistics();
 	}
 
 	/**
-	 * 
-	 * @param jsonResult result as json object
-	 * @return Map of target travel times
+	 * @return ids of the statistics in ascending order
 	 */
-	private Map<Integer, Integer> parseTargetTravelTimes(JSONObject jsonResult) {
+	public int[] getStatisticIds() {
+		return statisticIds.clone();
+	}
 
-		Map<Integer, Integer> targetTravelTimes = new TreeMap<>();
-		
-		JSONObject targetToMinute = JsonUtil.getJSONObject(jsonResult, "targetTravelTimes");
-		
-		for ( Integer targetId : JsonUtil.getSortedIntKeySet(targetToMinute) ) 
-			if ( JsonUtil.getInt(targetToMinute, targetId + "") <= this.options.getMaxRoutingTime() )
-				targetTravelTimes.put(targetId, JsonUtil.getInt(targetToMinute, targetId + ""));
-			
-		return targetTravelTimes;
+	/**
+	 * @return length of the rows of {@link #getValues(int)}, i.e. the last minute with a value plus one
+	 */
+	public int getMinuteCount() {
+		return statisticValues.length == 0 ? 0 : statisticValues[0].length;
 	}
 
 	/**
-	 * 
-	 * @param result result as json object
-	 * @return Map of targets with reachability and statistics
+	 * @param statisticId id of the statistic
+	 * @param minute minute
+	 * @return value of the statistic at the minute or <code>NaN</code> if there is none
+	 * @throws IllegalArgumentException if the result does not contain the statistic
 	 */
-	public Map<Integer, Map<Integer, Double>> parseReachableStatisticsResult(JSONObject result)  {
-		
-		long start = System.currentTimeMillis();
-		Map<Integer, Map<Integer, Double>> reachablePersonsByStatistic = new HashMap<>();
-		
-		JSONObject statistics = JsonUtil.getJSONObject(result, "statistics");
-		
-		for ( Integer statistic : JsonUtil.getSortedIntKeySet(statistics) ) {
-		
-			JSONObject minuteToValues 			  = JsonUtil.getJSONObject(statistics, statistic + "");
-			Map<Integer, Double> reachablePersons = new TreeMap<>();
-			
-			for ( Integer minute : JsonUtil.getSortedIntKeySet(minuteToValues)) 
-				if ( minute <= this.options.getMaxRoutingTime() )
-					reachablePersons.put(minute, JsonUtil.getDouble(minuteToValues, minute + ""));
-			
-			reachablePersonsByStatistic.put(statistic, reachablePersons);
-		}
-		
-		LOGGER.info(String.format("It took %sms to parse the population results!", System.currentTimeMillis() - start));
-		
-		return reachablePersonsByStatistic;
+	public double getValue(int statisticId, int minute) {
+		double[] values = row(statisticId);
+		return minute >= 0 && minute < values.length ? values[minute] : Double.NaN;
 	}
 
+	/**
+	 * @param statisticId id of the statistic
+	 * @return copy of the values of the statistic indexed by minute, <code>NaN</code> for minutes without value
+	 * @throws IllegalArgumentException if the result does not contain the statistic
+	 */
+	public double[] getValues(int statisticId) {
+		return row(statisticId).clone();
+	}
+
+	/**
+	 * @param statisticId id of the statistic
+	 * @return sum of the values of the statistic up to each minute
+	 * @throws IllegalArgumentException if the result does not contain the statistic
+	 */
+	public double[] getCumulativeValues(int statisticId) {
+		return cumulativeSum(getValues(statisticId));
+	}
+
+	/**
+	 * @param statisticId id of the statistic
+	 * @param percentile share of the total of the statistic, between 0 and 1
+	 * @return first minute up to which the sum of the values reaches the percentile of the total, -1 if the
+	 * statistic has no positive total
+	 * @throws IllegalArgumentException if the result does not contain the statistic
+	 */
+	public int getPercentileMinute(int statisticId, double percentile) {
+		return percentileIndex(row(statisticId), percentile);
+	}
+
+	private double[] row(int statisticId) {
+		int index = Arrays.binarySearch(statisticIds, statisticId);
+		if ( index < 0 )
+			throw new IllegalArgumentException("Result does not contain statistic: " + statisticId);
+		return statisticValues[index];
+	}
+
+	/**
+	 * @param minute minute
+	 * @return number of targets reachable at the minute or -1 if there is no value
+	 */
+	public int getReachableTargets(int minute) {
+		return minute >= 0 && minute < reachableTargets.length ? reachableTargets[minute] : -1;
+	}
+
+	/**
+	 * @return copy of the reachable targets indexed by minute, -1 for minutes without value
+	 */
+	public int[] getReachableTargetCounts() {
+		return reachableTargets.clone();
+	}
+
+	/**
+	 * @param targetId id of the target
+	 * @return travel time of the target or -1 if the result does not contain the target
+	 */
+	public int getTargetTravelTime(int targetId) {
+		int index = Arrays.binarySearch(targetIds, targetId);
+		return index < 0 ? -1 : targetTravelTimes[index];
+	}
+
+	/**
+	 * Replace each value by the sum of all values up to its index, <code>NaN</code> is counted as 0
+	 * @param values values to be summed up in place
+	 * @return the given array
+	 */
+	public static double[] cumulativeSum(double[] values) {
+		double sum = 0;
+		for ( int i = 0; i < values.length; i++ ) {
+			if ( !Double.isNaN(values[i]) )
+				sum += values[i];
+			values[i] = sum;
+		}
+		return values;
+	}
+
+	/**
+	 * @param values values, <code>NaN</code> is counted as 0
+	 * @param percentile share of the total of the values, between 0 and 1
+	 * @return first index up to which the sum of the values reaches the percentile of the total, -1 if the values
+	 * have no positive total
+	 */
+	public static int percentileIndex(double[] values, double percentile) {
+
+		if ( percentile < 0 || percentile > 1 )
+			throw new IllegalArgumentException("Percentile has to be between 0 and 1: " + percentile);
+
+		double total = 0;
+		for ( double value : values )
+			if ( !Double.isNaN(value) )
+				total += value;
+		if ( total <= 0 )
+			return -1;
+
+		double threshold = total * percentile;
+		double sum = 0;
+		for ( int i = 0; i < values.length; i++ ) {
+			if ( !Double.isNaN(values[i]) )
+				sum += values[i];
+			if ( sum >= threshold )
+				return i;
+		}
+		return values.length - 1;
+	}
+
+	/**
+	 * @return statistic id -&gt; (minute -&gt; value), created on first access
+	 */
 	public Map<Integer, Map<Integer, Double>> getStatistics() {
-		return statistics;
+
+		if ( statisticsMap == null ) {
+			Map<Integer, Map<Integer, Double>> statistics = new HashMap<>();
+			for ( int i = 0; i < statisticIds.length; i++ ) {
+				Map<Integer, Double> values = new TreeMap<>();
+				for ( int minute = 0; minute < statisticValues[i].length; minute++ )
+					if ( !Double.isNaN(statisticValues[i][minute]) )
+						values.put(minute, statisticValues[i][minute]);
+				statistics.put(statisticIds[i], Collections.unmodifiableMap(values));
+			}
+			statisticsMap = Collections.unmodifiableMap(statistics);
+		}
+		return statisticsMap;
 	}
 
+	/**
+	 * @return minute -&gt; reachable targets, created on first access
+	 */
 	public Map<Integer, Integer> getReachableTargets() {
-		return reachableTargets;
+
+		if ( reachableTargetsMap == null ) {
+			Map<Integer, Integer> targets = new TreeMap<>();
+			for ( int minute = 0; minute < reachableTargets.length; minute++ )
+				if ( reachableTargets[minute] != -1 )
+					targets.put(minute, reachableTargets[minute]);
+			reachableTargetsMap = Collections.unmodifiableMap(targets);
+		}
+		return reachableTargetsMap;
 	}
 
+	/**
+	 * @return target id -&gt; travel time, created on first access
+	 */
 	public Map<Integer, Integer> getTargetTravelTimes() {
-		return targetTravelTimes;
+
+		if ( targetTravelTimesMap == null ) {
+			Map<Integer, Integer> travelTimes = new TreeMap<>();
+			for ( int i = 0; i < targetIds.length; i++ )
+				travelTimes.put(targetIds[i], targetTravelTimes[i]);
+			targetTravelTimesMap = Collections.unmodifiableMap(travelTimes);
+		}
+		return targetTravelTimesMap;
 	}
 
 	/* (non-Javadoc)
@@ -117,27 +283,197 @@ public class StatisticResult {
 		StringBuilder builder = new StringBuilder();
 		builder.append(getClass().getName());
 		builder.append("\n  statistics: \n");
-		
-		for ( Integer statisticId : this.statistics.keySet() ) {
 
-			builder.append("    " + statisticId + "\n");
+		for ( int i = 0; i < statisticIds.length; i++ ) {
+
+			builder.append("    " + statisticIds[i] + "\n");
 			builder.append("    ---------------\n");
-			for ( Map.Entry<Integer, Double> entry : this.statistics.get(statisticId).entrySet() )
-				builder.append("      " + String.format("%6d", entry.getKey()) + ":" + String.format("%14.2f", entry.getValue()) + "\n");
+			for ( int minute = 0; minute < statisticValues[i].length; minute++ )
+				if ( !Double.isNaN(statisticValues[i][minute]) )
+					builder.append("      " + String.format("%6d", minute) + ":" + String.format("%14.2f", statisticValues[i][minute]) + "\n");
 		}
-		
+
 		builder.append("\n  reachableTargets: \n");
 		builder.append("  ---------------\n");
-		for ( Map.Entry<Integer, Integer> entry : this.reachableTargets.entrySet() )
-			builder.append("    " + String.format("%6d", entry.getKey()) + ":" + String.format("%6d", entry.getValue()) + "\n");
-		
+		for ( int minute = 0; minute < reachableTargets.length; minute++ )
+			if ( reachableTargets[minute] != -1 )
+				builder.append("    " + String.format("%6d", minute) + ":" + String.format("%6d", reachableTargets[minute]) + "\n");
+
 		builder.append("\n  targetTravelTimes: \n");
 		builder.append("  ---------------\n");
-		for ( Map.Entry<Integer, Integer> entry : this.targetTravelTimes.entrySet() )
-			builder.append("    " + String.format("%6d", entry.getKey()) + ":" + String.format("%6d", entry.getValue()) + "\n");
-		
+		for ( int i = 0; i < targetIds.length; i++ )
+			builder.append("    " + String.format("%6d", targetIds[i]) + ":" + String.format("%6d", targetTravelTimes[i]) + "\n");
+
 		builder.append("}\n");
 		return builder.toString();
 	}
 
+	/**
+	 * Collects the fields of a statistics response in a single pass, either from a streaming parser or from a
+	 * json object. Keys are parsed once and values are read once.
+	 */
+	public static final class Reader {
+
+		private final TravelOptions options;
+		private final int maxRoutingTime;
+		private final List<Row> statistics = new ArrayList<>();
+		private final Row reachableTargets = new Row(-1);
+		private long[] targets = new long[16];
+		private int targetCount;
+
+		/**
+		 * @param options Travel configuration
+		 */
+		public Reader(TravelOptions options) {
+			this.options        = options;
+			this.maxRoutingTime = options.getMaxRoutingTime();
+		}
+
+		/**
+		 * Read a field of the response if it belongs to the statistic result
+		 * @param field name of the field
+		 * @param parser parser positioned on the value of the field
+		 * @return true if the field was read, false if it has to be skipped by the caller
+		 * @throws IOException In case of parse errors
+		 */
+		public boolean read(String field, JsonParser parser) throws IOException {
+
+			if ( parser.currentToken() != JsonToken.START_OBJECT )
+				return false;
+
+			if ( "statistics".equals(field) ) {
+				while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+					Row row = new Row(Integer.parseInt(parser.getCurrentName()));
+					if ( parser.nextToken() == JsonToken.START_OBJECT )
+						while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+							int minute = Integer.parseInt(parser.getCurrentName());
+							parser.nextToken();
+							if ( minute >= 0 && minute <= maxRoutingTime )
+								row.add(minute, parser.getValueAsDouble(Double.NaN));
+						}
+					else
+						parser.skipChildren();
+					statistics.add(row);
+				}
+				return true;
+			}
+			if ( "reachableTargets".equals(field) ) {
+				while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+					int minute = Integer.parseInt(parser.getCurrentName());
+					parser.nextToken();
+					if ( minute >= 0 && minute <= maxRoutingTime )
+						reachableTargets.add(minute, parser.getValueAsInt(-1));
+				}
+				return true;
+			}
+			if ( "targetTravelTimes".equals(field) ) {
+				while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+					int targetId = Integer.parseInt(parser.getCurrentName());
+					parser.nextToken();
+					addTarget(targetId, parser.getValueAsInt(Integer.MAX_VALUE));
+				}
+				return true;
+			}
+			return false;
+		}
+
+		Reader read(JSONObject jsonResult) {
+
+			if ( jsonResult.has("statistics") )
+				readStatistics(JsonUtil.getJSONObject(jsonResult, "statistics"));
+
+			if ( jsonResult.has("reachableTargets") ) {
+				JSONObject minuteToReachableTargets = JsonUtil.getJSONObject(jsonResult, "reachableTargets");
+				for ( Iterator<String> keys = JsonUtil.keys(minuteToReachableTargets); keys.hasNext(); ) {
+					String key = keys.next();
+					int minute = Integer.parseInt(key);
+					if ( minute >= 0 && minute <= maxRoutingTime )
+						reachableTargets.add(minute, JsonUtil.getInt(minuteToReachableTargets, key));
+				}
+			}
+
+			if ( jsonResult.has("targetTravelTimes") ) {
+				JSONObject targetToMinute = JsonUtil.getJSONObject(jsonResult, "targetTravelTimes");
+				for ( Iterator<String> keys = JsonUtil.keys(targetToMinute); keys.hasNext(); ) {
+					String key = keys.next();
+					addTarget(Integer.parseInt(key), JsonUtil.getInt(targetToMinute, key));
+				}
+			}
+			return this;
+		}
+
+		void readStatistics(JSONObject statistics) {
+
+			long start = System.currentTimeMillis();
+			for ( Iterator<String> keys = JsonUtil.keys(statistics); keys.hasNext(); ) {
+				String key = keys.next();
+				JSONObject minuteToValues = JsonUtil.getJSONObject(statistics, key);
+				Row row = new Row(Integer.parseInt(key));
+
+				for ( Iterator<String> minutes = JsonUtil.keys(minuteToValues); minutes.hasNext(); ) {
+					String minuteKey = minutes.next();
+					int minute = Integer.parseInt(minuteKey);
+					if ( minute >= 0 && minute <= maxRoutingTime )
+						row.add(minute, JsonUtil.getDouble(minuteToValues, minuteKey));
+				}
+				this.statistics.add(row);
+			}
+			LOGGER.debug(String.format("It took %sms to parse the population results!", System.currentTimeMillis() - start));
+		}
+
+		private void addTarget(int targetId, int travelTime) {
+			if ( travelTime > maxRoutingTime )
+				return;
+			if ( targetCount == targets.length )
+				targets = Arrays.copyOf(targets, targetCount * 2);
+			targets[targetCount++] = ((long) targetId << 32) | (travelTime & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * @return the result of all fields read so far
+		 */
+		public StatisticResult build() {
+			return new StatisticResult(this);
+		}
+	}
+
+	/**
+	 * Values of a statistic in order of the response
+	 */
+	private static final class Row {
+
+		private final int id;
+		private int[] minutes    = new int[16];
+		private double[] values  = new double[16];
+		private int size;
+
+		Row(int id) {
+			this.id = id;
+		}
+
+		void add(int minute, double value) {
+			if ( size == minutes.length ) {
+				minutes = Arrays.copyOf(minutes, size * 2);
+				values  = Arrays.copyOf(values, size * 2);
+			}
+			minutes[size] = minute;
+			values[size]  = value;
+			size++;
+		}
+
+		int maxMinute() {
+			int max = -1;
+			for ( int i = 0; i < size; i++ )
+				max = Math.max(max, minutes[i]);
+			return max;
+		}
+
+		double[] toArray(int length) {
+			double[] array = new double[length];
+			Arrays.fill(array, Double.NaN);
+			for ( int i = 0; i < size; i++ )
+				array[minutes[i]] = values[i];
+			return array;
+		}
+	}
 }
@@ -3,7 +3,10 @@ package net.motionintelligence.client.api.util;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.vividsolutions.jts.geom.Geometry;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.geo.transform.MathTransformRegistry;
 import org.geotools.geometry.jts.JTS;
+import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.slf4j.Logger;
@@ -24,9 +27,13 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Stream;
 
 /**
@@ -40,11 +47,13 @@ public class GeojsonUtil {
 
     private static final Logger LOGGER      = LoggerFactory.getLogger(GeojsonUtil.class);
     private static final String FILE_ENDING = ".geojson";
+    private static final int MIN_BATCH_SIZE = 64;
 
     private GeojsonUtil() {}
 
     /**
-     * Transforms geojson geometry between different formats. Usage example:
+     * Transforms geojson geometry between different formats. The features are transformed sequentially, see
+     * {@link #transformGeometry(MathTransform, List, ForkJoinPool)} for large numbers of features. Usage example:
      * <pre>
      * FeatureCollection featureCollectionIn3857 = ... //e.g. from the route service
      * //Preparing transformer
@@ -63,19 +72,189 @@ public class GeojsonUtil {
      */
     public static List<Feature> transformGeometry(MathTransform transformer, Feature... featuresToTransform) throws TransformException {
 
+        FeatureTransformer featureTransformer = new FeatureTransformer(transformer);
         List<Feature> featureList = new ArrayList<>(featuresToTransform.length);
-        for (Feature feature : featuresToTransform) {
-            GeoJSONReader reader = new GeoJSONReader();
-            Geometry geometry = reader.read(feature.getGeometry());
-            geometry = JTS.transform(geometry, transformer);
-            GeoJSONWriter writer = new GeoJSONWriter();
-            org.wololo.geojson.Geometry json = writer.write(geometry);
-
-            featureList.add(new Feature(json, feature.getProperties()));
-        }
+        for (Feature feature : featuresToTransform)
+            featureList.add(featureTransformer.transform(feature));
         return featureList;
     }
 
+    /**
+     * Transforms geojson geometry between two coordinate reference systems with the cached transform of the
+     * {@link MathTransformRegistry#getDefault() default registry}, e.g. from the SRID requested with
+     * {@link net.motionintelligence.client.api.TravelOptions#setSrid(Integer)} to WGS84:
+     * <pre>
+     * List&lt;Feature&gt; featuresIn4326 = GeojsonUtil.transformGeometry(3857, 4326, featureCollection.getFeatures());
+     * </pre>
+     *
+     * @param sourceSrid SRID of the features
+     * @param targetSrid SRID to transform to
+     * @param featuresToTransform features that need to be transformed into the target format
+     * @return Zero or more transformed geometry features
+     * @throws FactoryException if there is no transform between the SRIDs
+     * @throws TransformException if the geographic projection transformation fails
+     */
+    public static List<Feature> transformGeometry(int sourceSrid, int targetSrid, Feature... featuresToTransform)
+            throws FactoryException, TransformException {
+        return transformGeometry(MathTransformRegistry.getDefault().get(sourceSrid, targetSrid), featuresToTransform);
+    }
+
+    /**
+     * Transforms the features in parallel on the given pool. The features are split into batches, each batch is
+     * transformed by one worker with its own reader and writer. The order of the features is preserved.
+     * <pre>
+     * List&lt;Feature&gt; transformed = GeojsonUtil.transformGeometry(transformer, features, ForkJoinPool.commonPool());
+     * </pre>
+     *
+     * @param transformer transformer initialized with the correct formats, it has to be thread-safe (as the
+     *                    transforms created by GeoTools are)
+     * @param featuresToTransform features that need to be transformed into the target format
+     * @param pool pool executing the transformation
+     * @return the transformed features in the order of the input
+     * @throws TransformException if the geographic projection transformation of any feature fails
+     */
+    public static List<Feature> transformGeometry(MathTransform transformer, List<Feature> featuresToTransform,
+                                                  ForkJoinPool pool) throws TransformException {
+
+        Feature[] result = new Feature[featuresToTransform.size()];
+        if (result.length == 0)
+            return new ArrayList<>(0);
+
+        // a few batches per worker so that idle workers can steal from busy ones
+        int batchSize = Math.max(MIN_BATCH_SIZE, result.length / (pool.getParallelism() * 4));
+        try {
+            pool.invoke(new TransformTask(transformer, featuresToTransform, result, 0, result.length, batchSize));
+        } catch (UncheckedTransformException e) {
+            throw e.getCause();
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Transforms the features lazily while the stream is consumed, without holding all features in memory. Parallel
+     * streams are supported, each thread uses its own reader and writer.
+     *
+     * @param transformer transformer initialized with the correct formats
+     * @param featuresToTransform features that need to be transformed into the target format
+     * @return stream of the transformed features, it throws a {@link Route360ClientRuntimeException} with the
+     * {@link TransformException} as cause if the transformation of a feature fails
+     */
+    public static Stream<Feature> transformGeometry(MathTransform transformer, Stream<Feature> featuresToTransform) {
+
+        ThreadLocal<FeatureTransformer> featureTransformer = ThreadLocal.withInitial(() -> new FeatureTransformer(transformer));
+        return featuresToTransform.map(feature -> {
+            try {
+                return featureTransformer.get().transform(feature);
+            } catch (TransformException e) {
+                throw new Route360ClientRuntimeException("Could not transform feature " + feature.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * Transforms the features lazily while they are iterated, without holding all features in memory.
+     *
+     * @param transformer transformer initialized with the correct formats
+     * @param featuresToTransform features that need to be transformed into the target format
+     * @return iterator over the transformed features, it throws a {@link Route360ClientRuntimeException} with the
+     * {@link TransformException} as cause if the transformation of a feature fails
+     */
+    public static Iterator<Feature> transformGeometry(MathTransform transformer, Iterator<Feature> featuresToTransform) {
+
+        FeatureTransformer featureTransformer = new FeatureTransformer(transformer);
+        return new Iterator<Feature>() {
+            @Override
+            public boolean hasNext() {
+                return featuresToTransform.hasNext();
+            }
+
+            @Override
+            public Feature next() {
+                Feature feature = featuresToTransform.next();
+                try {
+                    return featureTransformer.transform(feature);
+                } catch (TransformException e) {
+                    throw new Route360ClientRuntimeException("Could not transform feature " + feature.getId(), e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Transforms single features, reusing its reader and writer. Not thread-safe.
+     */
+    private static final class FeatureTransformer {
+
+        private final MathTransform transformer;
+        private final GeoJSONReader reader = new GeoJSONReader();
+        private final GeoJSONWriter writer = new GeoJSONWriter();
+
+        FeatureTransformer(MathTransform transformer) {
+            this.transformer = transformer;
+        }
+
+        Feature transform(Feature feature) throws TransformException {
+            Geometry geometry = JTS.transform(reader.read(feature.getGeometry()), transformer);
+            return new Feature(feature.getId(), writer.write(geometry), feature.getProperties());
+        }
+    }
+
+    /**
+     * Transforms a range of features, split in halves until the range is small enough to be transformed sequentially
+     */
+    private static final class TransformTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MathTransform transformer;
+        private final List<Feature> features;
+        private final Feature[] result;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+
+        TransformTask(MathTransform transformer, List<Feature> features, Feature[] result, int from, int to, int batchSize) {
+            this.transformer = transformer;
+            this.features    = features;
+            this.result      = result;
+            this.from        = from;
+            this.to          = to;
+            this.batchSize   = batchSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                FeatureTransformer featureTransformer = new FeatureTransformer(transformer);
+                try {
+                    for (int i = from; i < to; i++)
+                        result[i] = featureTransformer.transform(features.get(i));
+                } catch (TransformException e) {
+                    throw new UncheckedTransformException(e);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new TransformTask(transformer, features, result, from, middle, batchSize),
+                    new TransformTask(transformer, features, result, middle, to, batchSize));
+        }
+    }
+
+    private static final class UncheckedTransformException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UncheckedTransformException(TransformException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized TransformException getCause() {
+            return (TransformException) super.getCause();
+        }
+    }
+
     /**
      * All filename-{@link org.wololo.geojson.Feature} pairs will be displayed in your default browser via the
      * geojson.io website. Requires connection to the internet. (Only EPSG:4326 (WGS84) mode tested)
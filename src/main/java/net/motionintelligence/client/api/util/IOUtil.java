@@ -7,6 +7,8 @@ import net.motionintelligence.client.api.exception.Route360ClientRuntimeExceptio
 
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -18,7 +20,8 @@ public final class IOUtil {
 	}
 
     /**
-     * Deep cloning of an POJO object.
+     * Deep cloning of an POJO object. {@link TravelOptions} are copied with {@link TravelOptions#copy()} if it
+     * returns the requested class, all other objects by a JSON round trip.
      *
      * @param object input object
      * @param clazz specified object class
@@ -26,6 +29,11 @@ public final class IOUtil {
      * @return clone of the object
      */
 	public static <T> T cloneObjects(T object, Class<T> clazz){
+		if (object instanceof TravelOptions) {
+			TravelOptions copy = ((TravelOptions) object).copy();
+			if (copy.getClass() == clazz)
+				return clazz.cast(copy);
+		}
 		try {
 			ObjectMapper om = new ObjectMapper();
 			return om.readValue(om.writeValueAsString(object), clazz);
@@ -70,4 +78,51 @@ public final class IOUtil {
 	public static String getResultString(final Response response) {
 		return response.readEntity(String.class).replace(Constants.CALLBACK + "(", "").replaceAll("\\)$", "");
 	}
+
+	/**
+	 * Get body from HTTP response as stream and skip the callback prefix if present. The closing bracket of the
+	 * callback remains in the stream, a parser reading only the first JSON value never reaches it.
+	 * @param response HTTP response
+	 * @return Response body starting with the JSON value
+	 * @throws IOException In case the beginning of the body could not be read
+	 */
+	public static InputStream getResultStream(final Response response) throws IOException {
+		return skipCallback(response.readEntity(InputStream.class));
+	}
+
+	/**
+	 * Skip leading whitespace and the callback prefix if present
+	 * @param inputStream Body possibly wrapped in a callback
+	 * @return Stream starting with the JSON value
+	 * @throws IOException In case the beginning of the stream could not be read
+	 */
+	public static InputStream skipCallback(final InputStream inputStream) throws IOException {
+
+		byte[] prefix = (Constants.CALLBACK + "(").getBytes(StandardCharsets.US_ASCII);
+		PushbackInputStream stream = new PushbackInputStream(inputStream, prefix.length);
+
+		int b;
+		do {
+			b = stream.read();
+		}
+		while (b != -1 && Character.isWhitespace(b));
+		if (b == -1)
+			return stream;
+
+		byte[] read = new byte[prefix.length];
+		read[0]   = (byte) b;
+		int count = 1;
+		while (count < prefix.length && read[count - 1] == prefix[count - 1]) {
+			b = stream.read();
+			if (b == -1)
+				break;
+			read[count++] = (byte) b;
+		}
+
+		// no callback, put back everything read so far
+		if (count < prefix.length || read[count - 1] != prefix[count - 1])
+			stream.unread(read, 0, count);
+
+		return stream;
+	}
 }
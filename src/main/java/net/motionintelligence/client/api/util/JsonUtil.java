@@ -1,5 +1,9 @@
 package net.motionintelligence.client.api.util;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -7,6 +11,9 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -17,6 +24,7 @@ import java.util.Set;
 public class JsonUtil {
 	
 	private static final Logger LOGGER = LoggerFactory.getLogger(JsonUtil.class);
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
 	public static void put(JSONArray array, JSONObject object) {
 		
@@ -133,6 +141,36 @@ public class JsonUtil {
 		}
 	}
 	
+	/**
+	 * Create a streaming parser, the stream is closed when the parser is closed
+	 * @param inputStream JSON input
+	 * @return Streaming parser
+	 * @throws Route360ClientRuntimeException In case the parser could not be created
+	 */
+	public static JsonParser createParser(InputStream inputStream) throws Route360ClientRuntimeException {
+
+		try {
+
+			return JSON_FACTORY.createParser(inputStream);
+		}
+		catch (IOException e) {
+
+			throw new Route360ClientRuntimeException("Could not create json parser: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Create a streaming UTF-8 generator, the stream is flushed but not closed when the generator is closed
+	 * @param outputStream JSON output
+	 * @return Streaming generator
+	 * @throws IOException In case the generator could not be created
+	 */
+	public static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+
+		return JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
 public static JSONArray parseArray(String config) throws Route360ClientRuntimeException {
 		
 		try {
@@ -265,11 +303,21 @@ public static JSONArray parseArray(String config) throws Route360ClientRuntimeEx
 		}
 	}
 	
+	/**
+	 * Typed view of {@link JSONObject#keys()}, which returns a raw iterator over the keys of the object.
+	 * @param object JSON object
+	 * @return iterator over the keys, without copying them
+	 */
+	@SuppressWarnings("unchecked")
+	public static Iterator<String> keys(JSONObject object) {
+		return object.keys();
+	}
+
 	public static Set<String> getKeys(JSONObject results) {
 		
 		Set<String> keys = new HashSet<>();
 		
-		Iterator<String> iterator = results.keys();
+		Iterator<String> iterator = keys(results);
 		while ( iterator.hasNext() ) 
 			keys.add(iterator.next());
 		
@@ -0,0 +1,80 @@
+package net.motionintelligence.client.api;
+
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.statistic.PoiType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TravelOptionsTest {
+
+	@Test
+	public void copyIsEqualAndIndependent() {
+		StatisticTravelOptions original = getTravelOptions();
+		StatisticTravelOptions copy = original.copy();
+
+		assertThat(copy).isEqualToComparingFieldByFieldRecursively(original);
+		assertEquals(original, copy);
+		assertSame(original.getTarget("t1"), copy.getTarget("t1"));
+		assertEquals(new ArrayList<>(original.getTargets().keySet()), new ArrayList<>(copy.getTargets().keySet()));
+
+		copy.addTarget(new DefaultTargetCoordinate("t3", 13.3, 52.3));
+		copy.getTravelTimes().set(0, 300);
+		copy.getOsmTypes().add(new PoiType("amenity", "cafe"));
+		copy.getCellIds().add(3);
+		copy.getInactiveSources().clear();
+
+		assertEquals(2, original.getTargets().size());
+		assertEquals(Integer.valueOf(600), original.getTravelTimes().get(0));
+		assertEquals(1, original.getOsmTypes().size());
+		assertEquals(2, original.getCellIds().size());
+		assertEquals(1, original.getInactiveSources().size());
+	}
+
+	@Test
+	public void copyWithoutCoordinatesLeavesTheOriginalUntouched() {
+		StatisticTravelOptions original = getTravelOptions();
+		Map<String, Coordinate> targets = original.getTargets();
+		StatisticTravelOptions copy = original.copyWithoutCoordinates();
+
+		assertTrue(copy.getSources().isEmpty());
+		assertTrue(copy.getTargets().isEmpty());
+		assertTrue(copy.getInactiveSources().isEmpty());
+		assertEquals(original.getMaxEdgeWeight(), copy.getMaxEdgeWeight());
+		assertEquals(original.getOsmTypes(), copy.getOsmTypes());
+
+		// maps retrieved before the copy still belong to the original
+		assertSame(targets, original.getTargets());
+		targets.remove("t1");
+		assertEquals(Arrays.asList("t2"), new ArrayList<>(original.getTargets().keySet()));
+
+		copy.addTarget(new DefaultTargetCoordinate("t3", 13.3, 52.3));
+		assertEquals(1, original.getTargets().size());
+		assertEquals(1, original.getSources().size());
+	}
+
+	private static StatisticTravelOptions getTravelOptions() {
+		StatisticTravelOptions options = new StatisticTravelOptions();
+		options.setTravelType(TravelType.CAR);
+		options.setMaxEdgeWeight(7200);
+		options.setServiceUrl("TestURL");
+		options.setOsmTypes(new HashSet<>(Arrays.asList(new PoiType("tourism", "hotel"))));
+		options.addSource(new DefaultSourceCoordinate("s1", 13.0, 52.0));
+		options.addTarget(new DefaultTargetCoordinate("t1", 13.1, 52.1));
+		options.addTarget(new DefaultTargetCoordinate("t2", 13.2, 52.2));
+		options.getInactiveSources().put("s2", new DefaultSourceCoordinate("s2", 13.4, 52.4));
+		options.setCellIds(new ArrayList<>(Arrays.asList(1, 2)));
+		return options;
+	}
+}
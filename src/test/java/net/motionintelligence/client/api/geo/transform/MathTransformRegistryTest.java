@@ -0,0 +1,51 @@
+package net.motionintelligence.client.api.geo.transform;
+
+import org.junit.Test;
+import org.opengis.referencing.operation.MathTransform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MathTransformRegistryTest {
+
+	@Test
+	public void transforms_are_cached() throws Exception {
+		MathTransformRegistry registry = new MathTransformRegistry();
+		MathTransform transform = registry.get(4326, 25833);
+
+		assertSame(transform, registry.get(4326, 25833));
+		assertSame(registry.getCoordinateReferenceSystem(4326), registry.getCoordinateReferenceSystem(4326));
+	}
+
+	@Test
+	public void warm_up_creates_all_pairs() throws Exception {
+		MathTransformRegistry registry = new MathTransformRegistry();
+		registry.warmUp(MathTransformRegistry.DEFAULT_SRIDS);
+		assertEquals(12, registry.size());
+	}
+
+	@Test
+	public void fast_path_agrees_with_geotools() throws Exception {
+		MathTransformRegistry registry = new MathTransformRegistry();
+
+		double[] coordinates = { 13.4, 52.5, -73.976636, 40.608155, 179.9, -60 };
+		double[] expected    = coordinates.clone();
+		registry.get(4326, 3857).transform(expected, 0, expected, 0, 3);
+
+		registry.transform(4326, 3857, coordinates);
+		assertArrayEquals(expected, coordinates, 1e-6);
+
+		registry.get(3857, 4326).transform(expected, 0, expected, 0, 3);
+		registry.transform(3857, 4326, coordinates);
+		assertArrayEquals(expected, coordinates, 1e-9);
+	}
+
+	@Test
+	public void utm_coordinates_are_transformed() throws Exception {
+		// Brandenburg Gate in ETRS89 / UTM zone 33N
+		double[] coordinates = { 389917.83, 5819701.92 };
+		new MathTransformRegistry().transform(25833, 4326, coordinates);
+		assertArrayEquals(new double[] { 13.3777, 52.5163 }, coordinates, 1e-6);
+	}
+}
@@ -0,0 +1,52 @@
+package net.motionintelligence.client.api.geo.transform;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WebMercatorTest {
+
+	@Test
+	public void from_wgs84() {
+		double[] coordinates = { 0, 0, 13.4, 52.5, -180, -85.0511287798066 };
+		WebMercator.transform(4326, 3857, coordinates);
+
+		assertArrayEquals(new double[] { 0, 0, 1491681.1766, 6891041.7239, -20037508.3428, -20037508.3428 },
+				coordinates, 1e-3);
+	}
+
+	@Test
+	public void round_trip() {
+		double[] original = { 13.4, 52.5, -73.976636, 40.608155, 179.9, -60 };
+		double[] projected = new double[original.length + 2];
+		WebMercator.fromWgs84(original, 0, projected, 2, 3);
+
+		double[] unprojected = new double[original.length];
+		WebMercator.toWgs84(projected, 2, unprojected, 0, 3);
+		assertArrayEquals(original, unprojected, 1e-9);
+	}
+
+	@Test
+	public void poles_are_clamped() {
+		double[] coordinates = { 0, 90, 0, -90 };
+		WebMercator.transform(4326, 3857, coordinates);
+		assertEquals(20037508.3428, coordinates[1], 1e-3);
+		assertEquals(-20037508.3428, coordinates[3], 1e-3);
+	}
+
+	@Test
+	public void supported_transformations() {
+		assertTrue(WebMercator.supports(4326, 3857));
+		assertTrue(WebMercator.supports(3857, 4326));
+		assertFalse(WebMercator.supports(4326, 25833));
+		assertFalse(WebMercator.supports(3857, 3857));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupported_transformation() {
+		WebMercator.transform(4326, 25833, new double[2]);
+	}
+}
@@ -0,0 +1,64 @@
+package net.motionintelligence.client.api.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.motionintelligence.client.api.StatisticTravelOptions;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.geo.PoiTargetCoordinate;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class CoordinateMapJsonTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	public void coordinatesSurviveRoundTrip() throws Exception {
+		StatisticTravelOptions options = new StatisticTravelOptions();
+		options.addSource(new DefaultSourceCoordinate("s1", 13.1, 52.1, TravelType.BIKE));
+		options.addSource(new DefaultSourceCoordinate("s2", 13.2, 52.2));
+		options.addTarget(new DefaultTargetCoordinate("t1", 13.3, 52.3));
+		options.addTarget(new PoiTargetCoordinate("t2", 13.4, 52.4));
+		options.getInactiveSources().put("s3", new DefaultSourceCoordinate("s3", 13.5, 52.5, TravelType.WALK));
+
+		JsonNode json = MAPPER.valueToTree(options);
+		assertEquals("bike", findById(json.get("sources"), "s1").get("tm").asText());
+		assertFalse(findById(json.get("sources"), "s2").has("tm"));
+		assertFalse(findById(json.get("targets"), "t2").has("type"));
+
+		StatisticTravelOptions copy = MAPPER.treeToValue(json, StatisticTravelOptions.class);
+		assertEquals(options.getSources(), copy.getSources());
+		assertEquals(options.getInactiveSources(), copy.getInactiveSources());
+		assertEquals(2, copy.getTargets().size());
+		assertEquals(new DefaultTargetCoordinate("t2", 13.4, 52.4), copy.getTarget("t2"));
+	}
+
+	@Test
+	public void unknownFieldsAreSkipped() throws Exception {
+		TravelOptions options = MAPPER.readValue("{\"sources\":[" +
+				"{\"id\":\"s1\",\"extra\":{\"a\":[1,2]},\"travelType\":\"car\",\"x\":13,\"y\":\"52.5\"}," +
+				"{\"id\":\"s2\",\"tm\":null,\"x\":14.0,\"y\":53.0}]," +
+				"\"targets\":[{\"y\":52.0,\"x\":13.0,\"id\":\"t1\"}]}", TravelOptions.class);
+
+		Map<String, Coordinate> sources = options.getSources();
+		assertEquals(new DefaultSourceCoordinate("s1", 13, 52.5, TravelType.CAR), sources.get("s1"));
+		assertNull(sources.get("s2").getTravelType());
+		assertEquals(new DefaultTargetCoordinate("t1", 13, 52), options.getTarget("t1"));
+	}
+
+	private static JsonNode findById(JsonNode coordinates, String id) {
+		for (JsonNode coordinate : coordinates)
+			if (coordinate.get("id").asText().equals(id))
+				return coordinate;
+		throw new AssertionError("No coordinate " + id);
+	}
+}
@@ -0,0 +1,72 @@
+package net.motionintelligence.client.api.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramTest {
+
+	@Test
+	public void empty() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMean(), 0);
+		assertEquals(0, histogram.getPercentile(0.99));
+	}
+
+	@Test
+	public void percentiles_are_bounded_by_their_bucket() {
+
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 100; i++)
+			histogram.record(i);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050, histogram.getTotal());
+		assertEquals(100, histogram.getMax());
+		assertEquals(50.5, histogram.getMean(), 1e-9);
+
+		// 50 is in the bucket [32, 64)
+		assertEquals(63, histogram.getPercentile(0.5));
+		// 99 is in the bucket [64, 128), which is capped by the maximum
+		assertEquals(100, histogram.getPercentile(0.99));
+		assertEquals(1, histogram.getPercentile(0));
+	}
+
+	@Test
+	public void negative_values_are_recorded_as_zero() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getTotal());
+		assertEquals(0, histogram.getPercentile(1));
+	}
+
+	@Test
+	public void concurrent_records_are_counted() throws InterruptedException {
+
+		Histogram histogram = new Histogram();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10000; i++)
+					histogram.record(i);
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(40000, histogram.getCount());
+		assertEquals(9999, histogram.getMax());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_percentile() {
+		new Histogram().getPercentile(1.5);
+	}
+}
@@ -0,0 +1,172 @@
+package net.motionintelligence.client.api.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.response.BatchTimeResponse;
+import net.motionintelligence.client.api.response.TravelTimeMatrix;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs batched time requests against a local stub server which calculates a travel time from the source and target ids.
+ */
+public class BatchTimeRequestTest {
+
+	private StubServer server;
+	private Route360Client client;
+	private final AtomicInteger requests         = new AtomicInteger();
+	private final AtomicInteger inFlight         = new AtomicInteger();
+	private final AtomicInteger maxInFlight      = new AtomicInteger();
+	private final AtomicInteger gatewayTimeouts  = new AtomicInteger();
+	private volatile boolean failAll             = false;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new StubServer().handle("/v1/time", this::handle);
+		client = Route360Client.newBuilder().build();
+	}
+
+	@After
+	public void tearDown() {
+		client.close();
+		server.close();
+	}
+
+	@Test
+	public void tiles_are_merged() throws Exception {
+
+		BatchTimeRequest request = new BatchTimeRequest(client, getTravelOptions(5, 7));
+		request.setTileSize(2, 3);
+		request.setParallelism(2);
+		BatchTimeResponse response = request.get();
+
+		assertEquals("ok", response.getCode());
+		assertEquals(9, response.getTiles().size());
+		assertEquals(9, requests.get());
+		assertTrue("max in flight was " + maxInFlight.get(), maxInFlight.get() <= 2);
+
+		TravelTimeMatrix matrix = response.getTravelTimeMatrix();
+		for (int src = 0; src < 5; src++)
+			for (int trg = 0; trg < 7; trg++)
+				assertEquals(travelTime("s" + src, "t" + trg), matrix.get("s" + src, "t" + trg));
+
+		// "s0" -> "t0" is reported as unreachable by the stub
+		assertEquals(Integer.valueOf(-1), response.getTravelTimes().get(matrix.getSource(matrix.getSourceIndex("s0")))
+				.get(matrix.getTarget(matrix.getTargetIndex("t0"))));
+	}
+
+	@Test
+	public void only_failed_tiles_are_retried() throws Exception {
+
+		gatewayTimeouts.set(2);
+
+		BatchTimeRequest request = new BatchTimeRequest(client, getTravelOptions(4, 4));
+		request.setTileSize(2, 2);
+		request.setParallelism(1);
+		BatchTimeResponse response = request.get();
+
+		assertEquals("ok", response.getCode());
+		assertEquals(4 + 2, requests.get());
+		assertEquals(6, response.getTiles().stream().mapToInt(BatchTimeResponse.TileResult::getAttempts).sum());
+		assertEquals(travelTime("s3", "t3"), response.getTravelTimeMatrix().get("s3", "t3"));
+	}
+
+	@Test
+	public void exhausted_retries_report_the_code() throws Exception {
+
+		gatewayTimeouts.set(Integer.MAX_VALUE);
+
+		BatchTimeRequest request = new BatchTimeRequest(client, getTravelOptions(2, 2));
+		request.setTileSize(1, 2);
+		request.setMaxRetries(1);
+		BatchTimeResponse response = request.get();
+
+		assertEquals("gateway-time-out", response.getCode());
+		assertEquals(4, requests.get());
+		assertEquals(2, response.getTiles().get(0).getAttempts());
+	}
+
+	@Test(expected = Route360ClientException.class)
+	public void failing_tiles_throw() throws Exception {
+
+		failAll = true;
+
+		BatchTimeRequest request = new BatchTimeRequest(client, getTravelOptions(2, 2));
+		request.setTileSize(1, 1);
+		request.get();
+	}
+
+	private static int travelTime(String srcId, String trgId) {
+		return "s0".equals(srcId) && "t0".equals(trgId) ? TravelTimeMatrix.UNREACHABLE
+				: 100 * Integer.parseInt(srcId.substring(1)) + Integer.parseInt(trgId.substring(1));
+	}
+
+	private void handle(HttpExchange exchange, byte[] requestBody) throws Exception {
+
+		requests.incrementAndGet();
+		int current = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(current, Math::max);
+		try {
+			JSONObject config = new JSONObject(new String(requestBody, StandardCharsets.UTF_8));
+			Thread.sleep(10);
+
+			if (failAll) {
+				StubServer.respond(exchange, 500, null, new byte[0]);
+				return;
+			}
+			if (gatewayTimeouts.getAndDecrement() > 0) {
+				StubServer.respond(exchange, 504, null, new byte[0]);
+				return;
+			}
+
+			JSONArray sources = config.getJSONArray("sources");
+			JSONArray targets = config.getJSONArray("targets");
+			JSONArray data    = new JSONArray();
+			for (int i = 0; i < sources.length(); i++) {
+				String srcId = sources.getJSONObject(i).getString("id");
+				JSONArray times = new JSONArray();
+				for (int j = 0; j < targets.length(); j++) {
+					String trgId = targets.getJSONObject(j).getString("id");
+					int travelTime = travelTime(srcId, trgId);
+					times.put(new JSONObject().put("id", trgId).put("travelTime", travelTime == TravelTimeMatrix.UNREACHABLE ? -1 : travelTime));
+				}
+				data.put(new JSONObject().put("id", srcId).put("targets", times));
+			}
+
+			byte[] body = ("callback(" + new JSONObject().put("code", "ok").put("requestTime", 1).put("data", data) + ")")
+					.getBytes(StandardCharsets.UTF_8);
+			StubServer.respond(exchange, 200, null, body);
+		}
+		finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private TravelOptions getTravelOptions(int sources, int targets) {
+		TravelOptions options = new TravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
+		options.setTravelType(TravelType.CAR);
+		for (int i = 0; i < sources; i++)
+			options.addSource(new DefaultSourceCoordinate("s" + i, 13.0 + i * 0.01, 52.0, TravelType.CAR));
+		for (int i = 0; i < targets; i++)
+			options.addTarget(new DefaultTargetCoordinate("t" + i, 13.0, 52.0 + i * 0.01));
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl(server.getServiceUrl());
+		return options;
+	}
+}
@@ -0,0 +1,125 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.PolygonSerializerType;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.response.PolygonResponse;
+import net.motionintelligence.client.api.response.polygon.Isochrone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.HttpMethod;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs polygon requests against a stub server serving a recorded binary response.
+ */
+public class BinaryPolygonRequestTest {
+
+	private byte[] binaryResponse;
+	private byte[] jsonResponse;
+	private StubServer server;
+	private volatile byte[] response;
+	private volatile String contentType;
+	private volatile String requestBody;
+
+	@Before
+	public void setUp() throws IOException {
+
+		binaryResponse = StubServer.readResource("data/PolygonResponse.bin");
+		jsonResponse   = StubServer.readResource("data/PolygonResponse.json");
+
+		server = new StubServer().handle("/v1/polygon", (exchange, body) -> {
+			requestBody = new String(body, StandardCharsets.UTF_8);
+			StubServer.respond(exchange, 200, contentType, response);
+		});
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void binary_response_is_decoded() throws Exception {
+
+		serve(binaryResponse, "application/octet-stream");
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			PolygonResponse polygonResponse = newRequest(client).get();
+
+			assertTrue(requestBody.contains("\"binary\""));
+			assertEquals("ok", polygonResponse.getCode());
+			assertEquals(2314, polygonResponse.getRequestTimeMillis());
+			assertEquals(2, polygonResponse.getIsochrones().size());
+
+			Isochrone isochrone = polygonResponse.getIsochrones().get(0);
+			assertTrue(isochrone.isIntegral());
+			assertEquals(600, isochrone.getTravelTime());
+			assertEquals(1, isochrone.getInnerBoundaries().size());
+		}
+	}
+
+	@Test
+	public void binary_and_json_responses_are_equal() throws Exception {
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+
+			serve(binaryResponse, "application/octet-stream");
+			PolygonResponse binary = newRequest(client).get();
+
+			// the service may ignore the requested serializer, JSON is still accepted
+			serve(("callback(" + new String(jsonResponse, StandardCharsets.UTF_8) + ")").getBytes(StandardCharsets.UTF_8),
+					"application/json");
+			PolygonResponse json = newRequest(client).get();
+
+			assertEquals(json.getIsochrones().size(), binary.getIsochrones().size());
+			for (int i = 0; i < json.getIsochrones().size(); i++) {
+				Isochrone expected = json.getIsochrones().get(i);
+				Isochrone actual   = binary.getIsochrones().get(i);
+				assertEquals(expected.getTravelTime(), actual.getTravelTime());
+				assertEquals(expected.getArea(), actual.getArea(), 0);
+				assertEquals(expected.getRingCount(), actual.getRingCount());
+				for (int r = 0; r < expected.getRingCount(); r++)
+					assertArrayEquals(expected.getRing(r).toArray(), actual.getRing(r).toArray(), 0);
+			}
+		}
+	}
+
+	@Test(expected = Route360ClientException.class)
+	public void json_error_is_thrown() throws Exception {
+
+		serve("callback({\"code\":\"no-route-found\",\"message\":\"No route found\"})".getBytes(StandardCharsets.UTF_8),
+				"application/json");
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			newRequest(client).get();
+		}
+	}
+
+	private PolygonRequest newRequest(Route360Client client) {
+		PolygonRequest request = new PolygonRequest(client, getTravelOptions());
+		request.setMethod(HttpMethod.POST);
+		return request;
+	}
+
+	private void serve(byte[] response, String contentType) {
+		this.response    = response;
+		this.contentType = contentType;
+	}
+
+	private TravelOptions getTravelOptions() {
+		TravelOptions options = server.getTravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200));
+		options.getTargets().clear();
+		options.setPolygonSerializerType(PolygonSerializerType.BINARY_POLYGON_SERIALIZER);
+		return options;
+	}
+}
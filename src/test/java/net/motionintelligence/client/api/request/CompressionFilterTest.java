@@ -0,0 +1,156 @@
+package net.motionintelligence.client.api.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import net.motionintelligence.client.api.metrics.SimpleRoute360Metrics;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.Entity;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs requests against a stub server which compresses its responses and accepts compressed request bodies.
+ */
+public class CompressionFilterTest {
+
+	private static final String RESPONSE = repeat("{\"id\":\"trg\",\"travelTime\":600}", 500);
+
+	private StubServer server;
+	private volatile String acceptEncoding;
+	private volatile String contentEncoding;
+	private volatile String requestBody;
+	private volatile String responseEncoding = "gzip";
+	private volatile boolean emptyResponse    = false;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new StubServer().handle("/v1/time", this::respond);
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void compressed_response_is_decoded() throws Exception {
+
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+		try (Route360Client client = Route360Client.newBuilder().metrics(metrics).build()) {
+
+			assertEquals(RESPONSE, post(client, "{}"));
+			assertEquals("gzip, deflate", acceptEncoding);
+
+			SimpleRoute360Metrics.EndpointMetrics time = metrics.getEndpoint("time");
+			assertEquals(RESPONSE.length(), time.getResponseUncompressedBytes());
+			assertTrue(time.getResponseCompressedBytes() < RESPONSE.length() / 10);
+			// the bytes on the wire
+			assertEquals(time.getResponseCompressedBytes(), time.getResponseBytes().getMax());
+		}
+	}
+
+	@Test
+	public void large_request_is_compressed() throws Exception {
+
+		String body = repeat("{\"id\":\"src\",\"lat\":52.5,\"lng\":13.4}", 1000);
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+		try (Route360Client client = Route360Client.newBuilder().metrics(metrics)
+				.compression(CompressionPolicy.newBuilder().compressRequests(1024).build()).build()) {
+
+			post(client, body);
+			assertEquals("gzip", contentEncoding);
+			assertEquals(body, requestBody);
+
+			SimpleRoute360Metrics.EndpointMetrics time = metrics.getEndpoint("time");
+			assertEquals(body.length(), time.getRequestUncompressedBytes());
+			assertTrue(time.getRequestCompressedBytes() < body.length() / 10);
+
+			// below the threshold
+			post(client, "{}");
+			assertNull(contentEncoding);
+			assertEquals("{}", requestBody);
+			assertEquals(body.length(), time.getRequestUncompressedBytes());
+		}
+	}
+
+	@Test
+	public void disabled_compression() throws Exception {
+		try (Route360Client client = Route360Client.newBuilder().compression(CompressionPolicy.DISABLED).build()) {
+			assertEquals(RESPONSE, post(client, "{}"));
+			assertNull(acceptEncoding);
+		}
+	}
+
+	@Test
+	public void empty_compressed_response() throws Exception {
+		emptyResponse = true;
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			assertEquals("", post(client, "{}"));
+		}
+	}
+
+	@Test
+	public void deflate_responses_with_and_without_zlib_wrapper() throws Exception {
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			responseEncoding = "deflate";
+			assertEquals(RESPONSE, post(client, "{}"));
+
+			responseEncoding = "raw-deflate";
+			assertEquals(RESPONSE, post(client, "{}"));
+		}
+	}
+
+	private String post(Route360Client client, String body) throws Exception {
+		return client.execute("time", client.target(server.getUrl()).path("v1/time"),
+				builder -> builder.post(Entity.json(body)), response -> response.readEntity(String.class));
+	}
+
+	private void respond(HttpExchange exchange, byte[] body) throws IOException {
+
+		acceptEncoding  = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+
+		InputStream in = new ByteArrayInputStream(body);
+		if ("gzip".equals(contentEncoding))
+			in = new GZIPInputStream(in);
+		requestBody = new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+
+		byte[] response = emptyResponse ? new byte[0] : RESPONSE.getBytes(StandardCharsets.UTF_8);
+		if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+			String encoding = responseEncoding;
+			if (response.length > 0) {
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+				try (OutputStream out = "gzip".equals(encoding) ? new GZIPOutputStream(compressed)
+						: new DeflaterOutputStream(compressed, new Deflater(Deflater.DEFAULT_COMPRESSION, "raw-deflate".equals(encoding)))) {
+					out.write(response);
+				}
+				response = compressed.toByteArray();
+			}
+			exchange.getResponseHeaders().add("Content-Encoding", encoding.startsWith("raw-") ? encoding.substring(4) : encoding);
+		}
+
+		StubServer.respond(exchange, 200, "application/json", response);
+	}
+
+	private static String repeat(String element, int count) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < count; i++)
+			json.append(i > 0 ? "," : "").append(element);
+		return json.append(']').toString();
+	}
+}
@@ -0,0 +1,154 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.request.pool.EndpointPool;
+import net.motionintelligence.client.api.request.pool.LoadBalancingStrategy;
+import net.motionintelligence.client.api.request.pool.PooledEndpoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs requests against several local stub servers behind an {@link EndpointPool}.
+ */
+public class EndpointPoolRequestTest {
+
+	private static final String SERVICE_URL = "https://service.route360.net/germany/";
+
+	private byte[] timeResponse;
+	private final List<StubServer> servers       = new ArrayList<>();
+	private final List<AtomicInteger> requests   = new ArrayList<>();
+	private final AtomicInteger healthChecks     = new AtomicInteger();
+	private volatile int healthStatus            = 200;
+
+	@Before
+	public void setUp() throws IOException {
+
+		timeResponse = StubServer.readResource("data/TimeResponse.json");
+
+		for (int i = 0; i < 3; i++) {
+			AtomicInteger count = new AtomicInteger();
+			StubServer server = new StubServer()
+					.handle("/germany/v1/time", (exchange, body) -> {
+						count.incrementAndGet();
+						StubServer.respond(exchange, 200, "application/json", timeResponse);
+					})
+					.handle("/germany/v1/route", (exchange, body) -> StubServer.respond(exchange, 503, "application/json", new byte[0]))
+					.handle("/germany/health", (exchange, body) -> {
+						healthChecks.incrementAndGet();
+						StubServer.respond(exchange, healthStatus, "application/json", new byte[0]);
+					});
+			servers.add(server);
+			requests.add(count);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		servers.forEach(StubServer::close);
+	}
+
+	@Test
+	public void requests_are_distributed() throws Exception {
+
+		try (Route360Client client = newClient(newPool(LoadBalancingStrategy.ROUND_ROBIN).build())) {
+			for (int i = 0; i < 6; i++)
+				assertEquals("ok", new TimeRequest(client, getTravelOptions()).get().getCode());
+			for (int i = 0; i < 3; i++)
+				assertEquals("ok", new TimeRequest(client, getTravelOptions()).getAsync().get(10, TimeUnit.SECONDS).getCode());
+		}
+
+		for (AtomicInteger count : requests)
+			assertEquals(3, count.get());
+	}
+
+	@Test
+	public void unreachable_endpoints_are_retried_and_ejected() throws Exception {
+
+		servers.get(0).close();
+		EndpointPool pool = newPool(LoadBalancingStrategy.LEAST_OUTSTANDING).ejection(1, 1, TimeUnit.MINUTES).build();
+
+		try (Route360Client client = newClient(pool)) {
+			for (int i = 0; i < 6; i++)
+				assertEquals("ok", new TimeRequest(client, getTravelOptions()).get().getCode());
+			assertEquals("ok", new TimeRequest(client, getTravelOptions()).getAsync().get(10, TimeUnit.SECONDS).getCode());
+		}
+
+		assertTrue(pool.getEndpoints().get(0).isEjected());
+		assertEquals(7, requests.get(1).get() + requests.get(2).get());
+	}
+
+	@Test
+	public void server_errors_eject_endpoints() throws Exception {
+
+		EndpointPool pool = newPool(LoadBalancingStrategy.ROUND_ROBIN).ejection(1, 1, TimeUnit.MINUTES).build();
+
+		try (Route360Client client = newClient(pool)) {
+			for (int i = 0; i < 3; i++) {
+				try {
+					new RouteRequest(client, getTravelOptions()).get();
+				}
+				catch (Exception e) {
+					// expected, the service is unavailable
+				}
+			}
+		}
+
+		for (PooledEndpoint endpoint : pool.getEndpoints())
+			assertTrue(endpoint.isEjected());
+	}
+
+	@Test
+	public void health_checks_eject_and_reinstate() throws Exception {
+
+		healthStatus = 503;
+		EndpointPool pool = newPool(LoadBalancingStrategy.ROUND_ROBIN)
+				.healthCheck("health", 20, TimeUnit.MILLISECONDS)
+				.build();
+
+		try (Route360Client client = newClient(pool)) {
+
+			waitFor(() -> pool.getEndpoints().stream().allMatch(PooledEndpoint::isEjected));
+
+			healthStatus = 200;
+			waitFor(() -> pool.getEndpoints().stream().noneMatch(PooledEndpoint::isEjected));
+
+			// reinstated endpoints serve requests again
+			assertEquals("ok", new TimeRequest(client, getTravelOptions()).get().getCode());
+		}
+
+		assertTrue(healthChecks.get() >= 6);
+	}
+
+	private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private EndpointPool.Builder newPool(LoadBalancingStrategy strategy) {
+		EndpointPool.Builder builder = EndpointPool.newBuilder(SERVICE_URL).strategy(strategy);
+		for (StubServer server : servers)
+			builder.endpoint(server.getUrl() + "/germany/");
+		return builder;
+	}
+
+	private static Route360Client newClient(EndpointPool pool) {
+		return Route360Client.newBuilder().endpointPool(pool).build();
+	}
+
+	private TravelOptions getTravelOptions() {
+		return StubServer.getTravelOptions(SERVICE_URL);
+	}
+}
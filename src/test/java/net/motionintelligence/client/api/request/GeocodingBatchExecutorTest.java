@@ -0,0 +1,159 @@
+package net.motionintelligence.client.api.request;
+
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.response.GeocodingResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.client.Client;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the scheduling of the {@link GeocodingBatchExecutor} with single requests that do not call the service.
+ */
+public class GeocodingBatchExecutorTest {
+
+    private final AtomicInteger active    = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final ConcurrentMap<String, AtomicInteger> tries = new ConcurrentHashMap<>();
+
+    private GeocodingRequest request;
+
+    @Before
+    public void setUp() {
+        request = new GeocodingRequest(mock(Client.class));
+    }
+
+    @After
+    public void tearDown() {
+        tries.clear();
+    }
+
+    @Test
+    public void testStreamKeepsOrderAndBoundsInFlight() {
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(request)
+                .threads(4).maxInFlight(3).build()) {
+
+            List<String> addresses = IntStream.range(0, 50).mapToObj(String::valueOf).collect(Collectors.toList());
+            List<String> results = executor.stream(this::slowRequest, addresses.stream())
+                    .peek(result -> assertTrue(result.isSuccess()))
+                    .map(GeocodingBatchExecutor.Result::getAddress)
+                    .collect(Collectors.toList());
+
+            assertEquals(addresses, results);
+            assertTrue("at most 3 requests in flight, but were " + maxActive.get(), maxActive.get() <= 3);
+        }
+    }
+
+    @Test
+    public void testCallbackReceivesAllResults() throws Route360ClientException {
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(request)
+                .threads(4).maxInFlight(8).build()) {
+
+            boolean[] received = new boolean[100];
+            AtomicInteger count = new AtomicInteger();
+            executor.forEach(this::slowRequest, IntStream.range(0, 100).mapToObj(String::valueOf).iterator(), result -> {
+                assertEquals(String.valueOf(result.getIndex()), result.getAddress());
+                received[(int) result.getIndex()] = true;
+                count.incrementAndGet();
+            });
+
+            assertEquals(100, count.get());
+            for (boolean value : received)
+                assertTrue(value);
+            assertTrue("at most 4 requests in parallel, but were " + maxActive.get(), maxActive.get() <= 4);
+        }
+    }
+
+    @Test
+    public void testUnavailableServiceIsRetried() {
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(request)
+                .maxTries(3).backoff(1, 5, TimeUnit.MILLISECONDS).build()) {
+
+            // "2" becomes available after two tries, "5" not within three tries
+            List<GeocodingBatchExecutor.Result<String>> results =
+                    executor.stream(this::unavailableRequest, Stream.of("0", "2", "5")).collect(Collectors.toList());
+
+            assertTrue(results.get(0).isSuccess());
+            assertTrue(results.get(1).isSuccess());
+            assertEquals(3, tries.get("2").get());
+            assertFalse(results.get(2).isSuccess());
+            assertTrue(results.get(2).getException() instanceof Route360ClientException);
+            assertTrue(results.get(2).getException().getCause() instanceof ServiceUnavailableException);
+            assertEquals(3, tries.get("5").get());
+        }
+    }
+
+    @Test
+    public void testRateLimit() {
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(request)
+                .threads(4).rateLimit(20).build()) {
+
+            long start = System.nanoTime();
+            assertEquals(11, executor.stream(this::slowRequest,
+                    IntStream.range(0, 11).mapToObj(String::valueOf)).count());
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // the first request is sent immediately, the other ten every 50ms
+            assertTrue("took only " + millis + "ms", millis >= 450);
+        }
+    }
+
+    @Test
+    public void testBackoffIsBounded() {
+        try (GeocodingBatchExecutor executor = GeocodingBatchExecutor.newBuilder(request)
+                .backoff(100, 1000, TimeUnit.MILLISECONDS).build()) {
+
+            for (int tries = 1; tries < 100; tries++) {
+                long ceiling = TimeUnit.MILLISECONDS.toNanos(Math.min(1000, 100L << Math.min(tries - 1, 30)));
+                long backoff = executor.backoffNanos(tries);
+                assertTrue(backoff >= 0 && backoff <= ceiling);
+            }
+        }
+    }
+
+    @Test(expected = Route360ClientException.class)
+    public void testBatchParallelFailsAfterTries() throws Route360ClientException {
+        GeocodingRequest unavailable = new GeocodingRequest(mock(Client.class)) {
+            @Override
+            public GeocodingResponse get(String singleLineAddress) {
+                throw new ServiceUnavailableException();
+            }
+        };
+        unavailable.getBatchParallel(2, 2, Arrays.asList("a", "b", "c").toArray(new String[0]));
+    }
+
+    private GeocodingResponse slowRequest(String address) {
+        int current = active.incrementAndGet();
+        maxActive.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+        }
+        return null;
+    }
+
+    private GeocodingResponse unavailableRequest(String address) {
+        int count = tries.computeIfAbsent(address, key -> new AtomicInteger()).incrementAndGet();
+        if (count <= Integer.parseInt(address))
+            throw new ServiceUnavailableException();
+        return null;
+    }
+}
@@ -0,0 +1,193 @@
+package net.motionintelligence.client.api.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.metrics.SimpleRoute360Metrics;
+import net.motionintelligence.client.api.response.ReachabilityResponse;
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs reachability requests against a primary and a fallback stub server to verify hedging.
+ */
+public class HedgedRequestTest {
+
+	private byte[] reachabilityResponse;
+	private StubServer primary;
+	private StubServer fallback;
+	private volatile long primaryDelayMillis      = 0;
+	private final AtomicInteger primaryRequests  = new AtomicInteger();
+	private final AtomicInteger fallbackRequests = new AtomicInteger();
+
+	@Before
+	public void setUp() throws IOException {
+
+		reachabilityResponse = StubServer.readResource("data/ReachabilityResponse.json");
+
+		primary = new StubServer().handle("/v1/reachability", (exchange, body) -> {
+			primaryRequests.incrementAndGet();
+			respond(exchange, primaryDelayMillis);
+		});
+		fallback = new StubServer().handle("/v1/reachability", (exchange, body) -> {
+			fallbackRequests.incrementAndGet();
+			respond(exchange, 0);
+		});
+	}
+
+	@After
+	public void tearDown() {
+		primary.close();
+		fallback.close();
+	}
+
+	@Test
+	public void slow_primary_is_hedged() throws Exception {
+
+		primaryDelayMillis = 2000;
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+
+		try (Route360Client client = newClient(metrics, 100)) {
+
+			long start = System.nanoTime();
+			ReachabilityResponse response = new ReachabilityRequest(client, getTravelOptions()).get();
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			assertEquals("ok", response.getCode());
+			assertTrue("took " + millis + "ms", millis < primaryDelayMillis);
+		}
+
+		assertEquals(1, fallbackRequests.get());
+		assertEquals(1, metrics.getEndpoint("reachability").getHedges());
+		assertEquals(1, metrics.getEndpoint("reachability").getHedgeWins());
+	}
+
+	@Test
+	public void cancelled_primary_is_recorded() throws Exception {
+
+		primaryDelayMillis = 2000;
+		HedgingPolicy policy = HedgingPolicy.newBuilder()
+				.minSamples(1)
+				.initialDelay(100, TimeUnit.MILLISECONDS)
+				.minDelay(1, TimeUnit.MILLISECONDS)
+				.build();
+
+		try (Route360Client client = Route360Client.newBuilder().hedging(policy).build()) {
+			assertEquals("ok", new ReachabilityRequest(client, getTravelOptions()).get().getCode());
+		}
+
+		// the primary is cancelled after the winning hedge has completed the result
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (policy.getDelayNanos("reachability") == TimeUnit.MILLISECONDS.toNanos(100) && System.nanoTime() < deadline)
+			Thread.sleep(10);
+		assertTrue(policy.getDelayNanos("reachability") >= TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(policy.getDelayNanos("reachability") != TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void fast_primary_is_not_hedged() throws Exception {
+
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+
+		// the first request of a new client takes longer than a warm one, the delay must cover it
+		try (Route360Client client = newClient(metrics, 2000)) {
+			for (int i = 0; i < 3; i++)
+				assertEquals("ok", new ReachabilityRequest(client, getTravelOptions()).getAsync().get(10, TimeUnit.SECONDS).getCode());
+		}
+
+		assertEquals(3, primaryRequests.get());
+		assertEquals(0, fallbackRequests.get());
+		assertEquals(0, metrics.getEndpoint("reachability").getHedges());
+	}
+
+	@Test
+	public void unavailable_primary_uses_fallback() throws Exception {
+
+		TravelOptions options = getTravelOptions();
+		primary.close();
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+
+		try (Route360Client client = Route360Client.newBuilder().metrics(metrics).build()) {
+			assertEquals("ok", new ReachabilityRequest(client, options).getAsync().get(10, TimeUnit.SECONDS).getCode());
+		}
+
+		assertEquals(1, fallbackRequests.get());
+		assertEquals(1, metrics.getEndpoint("reachability").getFallbacks());
+		assertEquals(0, metrics.getEndpoint("reachability").getHedges());
+	}
+
+	@Test
+	public void invalid_options_do_not_use_fallback() throws Exception {
+
+		TravelOptions options = getTravelOptions();
+		options.getSource("id0").setX(Double.NaN);
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			try {
+				new ReachabilityRequest(client, options).get();
+				fail("Expected an invalid configuration");
+			}
+			catch (Route360ClientException e) {
+				assertTrue(e.getCause() instanceof JSONException);
+			}
+			try {
+				new ReachabilityRequest(client, options).getAsync().get(10, TimeUnit.SECONDS);
+				fail("Expected an invalid configuration");
+			}
+			catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof Route360ClientException);
+			}
+		}
+
+		assertEquals(0, fallbackRequests.get());
+	}
+
+	@Test
+	public void delay_follows_the_observed_latency() {
+
+		HedgingPolicy policy = HedgingPolicy.newBuilder()
+				.minSamples(10)
+				.initialDelay(1, TimeUnit.SECONDS)
+				.minDelay(1, TimeUnit.MILLISECONDS)
+				.build();
+
+		assertEquals(TimeUnit.SECONDS.toNanos(1), policy.getDelayNanos("reachability"));
+		for (int i = 0; i < 10; i++)
+			policy.recordLatency("reachability", TimeUnit.MILLISECONDS.toNanos(20));
+
+		long delay = policy.getDelayNanos("reachability");
+		assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(20) && delay < TimeUnit.MILLISECONDS.toNanos(40));
+		assertEquals(TimeUnit.SECONDS.toNanos(1), policy.getDelayNanos("statistics"));
+	}
+
+	private Route360Client newClient(SimpleRoute360Metrics metrics, long initialDelayMillis) {
+		return Route360Client.newBuilder()
+				.metrics(metrics)
+				.hedging(HedgingPolicy.newBuilder().initialDelay(initialDelayMillis, TimeUnit.MILLISECONDS).build())
+				.build();
+	}
+
+	private void respond(HttpExchange exchange, long delayMillis) throws Exception {
+		if (delayMillis > 0)
+			Thread.sleep(delayMillis);
+		// fails if the hedged exchange has been cancelled by the client
+		StubServer.respond(exchange, 200, "application/json", reachabilityResponse);
+	}
+
+	private TravelOptions getTravelOptions() {
+		TravelOptions options = primary.getTravelOptions();
+		options.setFallbackServiceUrl(fallback.getServiceUrl());
+		return options;
+	}
+}
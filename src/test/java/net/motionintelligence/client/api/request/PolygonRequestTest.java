@@ -10,8 +10,10 @@ import org.junit.Test;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
@@ -28,7 +30,8 @@ public class PolygonRequestTest extends RequestTest {
 		// Get sample json when success response is queried
 		InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/PolygonResponse.json");
 		String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
-		when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+		when(sampleResponse.readEntity(InputStream.class)).thenReturn(
+				new ByteArrayInputStream(("callback(" + sampleJson + ")").getBytes(StandardCharsets.UTF_8)));
 
 		// Make the call
 		PolygonRequest polygonRequest = new PolygonRequest(mockClient, getTravelOptions());
@@ -40,6 +43,8 @@ public class PolygonRequestTest extends RequestTest {
 		assertEquals(2314, polygonResponse.getRequestTimeMillis());
 
 		assertNotNull(polygonResponse.getResult());
+		assertEquals(2, polygonResponse.getIsochrones().size());
+		assertEquals(600, polygonResponse.getIsochrones().get(0).getTravelTime());
 	}
 
 	@Test
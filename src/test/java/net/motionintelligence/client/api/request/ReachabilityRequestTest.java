@@ -11,8 +11,10 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
@@ -28,7 +30,8 @@ public class ReachabilityRequestTest extends RequestTest {
 		// Get sample json when success response is queried
 		InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/ReachabilityResponse.json");
 		String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
-		when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+		when(sampleResponse.readEntity(InputStream.class))
+				.thenReturn(new ByteArrayInputStream(("callback(" + sampleJson + ")").getBytes(StandardCharsets.UTF_8)));
 
 		ReachabilityRequest reachabilityRequest = new ReachabilityRequest(mockClient, getTravelOptions());
 		ReachabilityResponse reachabilityResponse = reachabilityRequest.get();
@@ -36,6 +39,7 @@ public class ReachabilityRequestTest extends RequestTest {
 		assertEquals("ok", reachabilityResponse.getCode());
 		assertEquals(517, reachabilityResponse.getRequestTimeMillis());
 		assertNotNull(reachabilityResponse.getTravelTimes());
+		assertEquals(Integer.valueOf(833), reachabilityResponse.getTravelTimes().get("id1"));
 	}
 
 	@Test
@@ -0,0 +1,253 @@
+package net.motionintelligence.client.api.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.metrics.SimpleRoute360Metrics;
+import net.motionintelligence.client.api.response.RouteResponse;
+import net.motionintelligence.client.api.response.TimeResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the request classes against a local stub server to verify the connection handling of {@link Route360Client}.
+ */
+public class Route360ClientTest {
+
+	private StubServer server;
+	private byte[] timeResponse;
+	private final Set<Integer> remotePorts      = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger inFlight         = new AtomicInteger();
+	private final AtomicInteger maxInFlight      = new AtomicInteger();
+	private volatile long responseDelayMillis    = 0;
+
+	@Before
+	public void setUp() throws IOException {
+
+		timeResponse = StubServer.readResource("data/TimeResponse.json");
+
+		server = new StubServer()
+				.handle("/v1/time", this::handle)
+				.handle("/v1/route", (exchange, body) -> StubServer.respond(exchange, 500, null, new byte[0]));
+	}
+
+	@After
+	public void tearDown() {
+		server.close();
+	}
+
+	@Test
+	public void connections_are_reused() throws Exception {
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+			for (int i = 0; i < 5; i++) {
+				TimeResponse response = new TimeRequest(client, getTravelOptions()).get();
+				assertEquals("ok", response.getCode());
+			}
+			assertEquals(0, client.getActiveRequests(route()));
+		}
+		assertEquals(1, remotePorts.size());
+	}
+
+	@Test
+	public void concurrent_requests_per_route_are_limited() throws Exception {
+
+		responseDelayMillis = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try (Route360Client client = Route360Client.newBuilder().maxConcurrentRequestsPerRoute(2).build()) {
+
+			List<Future<TimeResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+				futures.add(executor.submit(() -> new TimeRequest(client, getTravelOptions()).get()));
+			for (Future<TimeResponse> future : futures)
+				assertEquals("ok", future.get().getCode());
+
+			assertEquals(1, client.getRouteCount());
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertTrue("max in flight was " + maxInFlight.get(), maxInFlight.get() <= 2);
+		assertTrue(remotePorts.size() <= 2);
+	}
+
+	@Test
+	public void waiting_for_a_free_slot_times_out() throws Exception {
+
+		responseDelayMillis = 1000;
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try (Route360Client client = Route360Client.newBuilder()
+				.maxConcurrentRequestsPerRoute(1)
+				.acquireTimeout(100, TimeUnit.MILLISECONDS)
+				.build()) {
+
+			Future<TimeResponse> first = executor.submit(() -> new TimeRequest(client, getTravelOptions()).get());
+			while (client.getActiveRequests(route()) == 0)
+				Thread.sleep(5);
+
+			try {
+				new TimeRequest(client, getTravelOptions()).get();
+				fail("Expected the request to time out");
+			}
+			catch (Route360ClientException e) {
+				assertTrue(e.getMessage(), e.getMessage().startsWith("Timed out waiting for a free slot"));
+			}
+			assertEquals("ok", first.get().getCode());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void async_requests_are_queued_per_route() throws Exception {
+
+		responseDelayMillis = 50;
+
+		try (Route360Client client = Route360Client.newBuilder().maxConcurrentRequestsPerRoute(2).build()) {
+
+			List<CompletableFuture<TimeResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++)
+				futures.add(new TimeRequest(client, getTravelOptions()).getAsync());
+
+			// the calling thread is not blocked, the remaining requests wait for a connection
+			assertTrue(client.getPendingRequests(route()) > 0);
+
+			for (CompletableFuture<TimeResponse> future : futures)
+				assertEquals("ok", future.get(10, TimeUnit.SECONDS).getCode());
+
+			assertEquals(0, client.getActiveRequests(route()));
+			assertEquals(0, client.getPendingRequests(route()));
+		}
+
+		assertTrue("max in flight was " + maxInFlight.get(), maxInFlight.get() <= 2);
+	}
+
+	@Test
+	public void async_errors_complete_the_future() throws Exception {
+
+		try (Route360Client client = Route360Client.newBuilder().build()) {
+
+			CompletableFuture<RouteResponse> future = new RouteRequest(client, getTravelOptions()).getAsync();
+			try {
+				future.get(10, TimeUnit.SECONDS);
+				fail("Expected the request to fail");
+			}
+			catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof Route360ClientException);
+			}
+			assertEquals(0, client.getActiveRequests(route()));
+		}
+	}
+
+	@Test
+	public void metrics_are_recorded() throws Exception {
+
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+		try (Route360Client client = Route360Client.newBuilder().metrics(metrics).build()) {
+
+			new TimeRequest(client, getTravelOptions()).get();
+			new TimeRequest(client, getTravelOptions()).getAsync().get(10, TimeUnit.SECONDS);
+			try {
+				new RouteRequest(client, getTravelOptions()).get();
+				fail("Expected the request to fail");
+			}
+			catch (Route360ClientException e) {
+				// expected
+			}
+		}
+
+		SimpleRoute360Metrics.EndpointMetrics time = metrics.getEndpoint("time");
+		assertEquals(2, time.getLatency().getCount());
+		assertTrue(time.getLatency().getMax() > 0);
+		assertEquals(Collections.singletonMap(200, 2L), time.getStatusCodes());
+		assertEquals(2, time.getRequestBytes().getCount());
+		assertTrue(time.getRequestBytes().getTotal() > 0);
+		assertEquals(2, time.getResponseBytes().getCount());
+		assertEquals(2L * timeResponse.length, time.getResponseBytes().getTotal());
+		assertEquals(2, time.getParse().getCount());
+		assertEquals(0, time.getRejected());
+
+		SimpleRoute360Metrics.EndpointMetrics route = metrics.getEndpoint("route");
+		assertEquals(Collections.singletonMap(500, 1L), route.getStatusCodes());
+		assertEquals(1, route.getRejected());
+	}
+
+	@Test
+	public void failed_requests_are_recorded() {
+
+		SimpleRoute360Metrics metrics = new SimpleRoute360Metrics();
+		TravelOptions options = getTravelOptions();
+		server.close();
+
+		try (Route360Client client = Route360Client.newBuilder().metrics(metrics).build()) {
+			new TimeRequest(client, options).get();
+			fail("Expected the request to fail");
+		}
+		catch (Exception e) {
+			// expected, no server is listening
+		}
+
+		assertEquals(1, metrics.getEndpoint("time").getFailures());
+		assertEquals(1, metrics.getEndpoint("time").getLatency().getCount());
+		assertTrue(metrics.getEndpoint("time").getStatusCodes().isEmpty());
+	}
+
+	@Test
+	public void route_key_uses_default_ports() {
+		assertEquals("https://service.route360.net:443", Route360Client.routeKey(URI.create("https://service.route360.net/na_northeast/v1/time")));
+		assertEquals("http://localhost:80", Route360Client.routeKey(URI.create("http://localhost/v1/time")));
+		assertEquals("http://localhost:8080", Route360Client.routeKey(URI.create("http://localhost:8080/v1/time")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalid_concurrency_limit() {
+		Route360Client.newBuilder().maxConcurrentRequestsPerRoute(0);
+	}
+
+	private void handle(HttpExchange exchange, byte[] requestBody) throws Exception {
+
+		int current = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(current, Math::max);
+		remotePorts.add(exchange.getRemoteAddress().getPort());
+		try {
+			if (responseDelayMillis > 0)
+				Thread.sleep(responseDelayMillis);
+			StubServer.respond(exchange, 200, "application/json", timeResponse);
+		}
+		finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private String route() {
+		return server.getUrl();
+	}
+
+	private TravelOptions getTravelOptions() {
+		return server.getTravelOptions();
+	}
+}
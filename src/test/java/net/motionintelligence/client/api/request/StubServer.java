@@ -0,0 +1,146 @@
+package net.motionintelligence.client.api.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server on a random port of 127.0.0.1 for running requests against stubbed service responses.
+ */
+final class StubServer implements AutoCloseable {
+
+	private final HttpServer server;
+
+	/**
+	 * Start a server without contexts, requests are handled concurrently
+	 * @throws IOException if the server could not be started
+	 */
+	StubServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+	}
+
+	/**
+	 * Register a handler for a path. The request body is read completely before the handler is called and the
+	 * exchange is closed afterwards. If the handler fails before sending the response headers, status 500 is sent,
+	 * failures after that (e.g. the client has cancelled the request) are ignored.
+	 * @param path path of the context, e.g. "/v1/time"
+	 * @param handler handler of the requests
+	 * @return this server
+	 */
+	StubServer handle(String path, Handler handler) {
+		server.createContext(path, exchange -> {
+			try {
+				handler.handle(exchange, IOUtils.toByteArray(exchange.getRequestBody()));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch (Exception e) {
+				if (exchange.getResponseCode() == -1)
+					exchange.sendResponseHeaders(500, -1);
+			}
+			finally {
+				exchange.close();
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * @return URL of the server without trailing slash, e.g. "http://127.0.0.1:12345"
+	 */
+	String getUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * @return URL of the server as service URL of the travel options
+	 */
+	String getServiceUrl() {
+		return getUrl() + "/";
+	}
+
+	/**
+	 * @return travel options with one source and one target, sent to this server
+	 */
+	TravelOptions getTravelOptions() {
+		return getTravelOptions(getServiceUrl());
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	/**
+	 * Send the response headers and body
+	 * @param exchange exchange to respond to
+	 * @param status HTTP status
+	 * @param contentType content type of the body, null for none
+	 * @param body response body, may be empty
+	 * @throws IOException if the response could not be sent
+	 */
+	static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		if (contentType != null)
+			exchange.getResponseHeaders().add("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		if (body.length > 0) {
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	/**
+	 * @param name name of the test resource, e.g. "data/TimeResponse.json"
+	 * @return content of the resource
+	 * @throws IOException if the resource could not be read
+	 */
+	static byte[] readResource(String name) throws IOException {
+		try (InputStream in = StubServer.class.getClassLoader().getResourceAsStream(name)) {
+			return IOUtils.toByteArray(in);
+		}
+	}
+
+	/**
+	 * @param serviceUrl service URL of the travel options
+	 * @return travel options by car with the source and the target "id0"
+	 */
+	static TravelOptions getTravelOptions(String serviceUrl) {
+		TravelOptions options = new TravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
+		options.setTravelType(TravelType.CAR);
+		options.addSource(new DefaultSourceCoordinate("id0", 13.4, 52.5, TravelType.CAR));
+		options.addTarget(new DefaultTargetCoordinate("id0", 13.5, 52.6));
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl(serviceUrl);
+		return options;
+	}
+
+	/**
+	 * Handler of a stubbed request
+	 */
+	@FunctionalInterface
+	interface Handler {
+
+		/**
+		 * @param exchange exchange to respond to, it is closed by the server
+		 * @param requestBody request body as it was sent, i.e. still compressed
+		 * @throws Exception if the request could not be handled
+		 */
+		void handle(HttpExchange exchange, byte[] requestBody) throws Exception;
+	}
+}
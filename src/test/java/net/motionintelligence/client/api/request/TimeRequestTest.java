@@ -11,8 +11,10 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
@@ -28,7 +30,8 @@ public class TimeRequestTest extends RequestTest {
 		// Get sample json when success response is queried
 		InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json");
 		String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
-		when(sampleResponse.readEntity(String.class)).thenReturn(sampleJson);
+		when(sampleResponse.readEntity(InputStream.class))
+				.thenReturn(new ByteArrayInputStream(("callback(" + sampleJson + ")").getBytes(StandardCharsets.UTF_8)));
 
 		TimeRequest timeRequest = new TimeRequest(mockClient, getTravelOptions());
 		TimeResponse timeResponse = timeRequest.get();
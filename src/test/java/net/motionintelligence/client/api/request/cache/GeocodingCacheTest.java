@@ -0,0 +1,226 @@
+package net.motionintelligence.client.api.request.cache;
+
+import net.motionintelligence.client.api.Address;
+import net.motionintelligence.client.api.request.GeocodingRequest.Option;
+import net.motionintelligence.client.api.response.GeocodingResponse;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GeocodingCacheTest {
+
+	private static final String RESPONSE = "{\"spatialReference\":{\"wkid\":4326,\"latestWkid\":4326},\"candidates\":[" +
+			"{\"address\":\"Chausseestraße 101, 10115, Mitte, Berlin\",\"location\":{\"x\":13.380707532171671," +
+			"\"y\":52.532420302239096},\"score\":98.29,\"attributes\":{}}]}";
+	private static final String ERROR_RESPONSE = "{\"error\":{\"code\":400,\"message\":\"Unable to complete operation.\"," +
+			"\"details\":[]}}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Test
+	public void responses_are_cached_by_normalized_address() throws Exception {
+
+		try (GeocodingCache cache = GeocodingCache.newBuilder().build()) {
+
+			GeocodingResponse first  = cache.get("Chausseestr. 101, 10115 Berlin", options(), this::request);
+			GeocodingResponse second = cache.get("  chausseestr.  101,\t10115 BERLIN ", options(), this::request);
+
+			assertSame(first, second);
+			assertEquals(1, requests.get());
+			assertEquals(13.3807, first.getRepresentativeGeocodeOfRequest().getX(), 0.0001);
+
+			// different options are different requests
+			Map<Option, String> country = options();
+			country.put(Option.SOURCE_COUNTRY, "DEU");
+			cache.get("Chausseestr. 101, 10115 Berlin", country, this::request);
+			assertEquals(2, requests.get());
+
+			Address address = new Address("Chausseestr. 101", "", "Berlin", "10115", null);
+			cache.get(address, options(), this::request);
+			cache.get(new Address("Chausseestr. 101", null, "berlin", "10115", ""), options(), this::request);
+			assertEquals(3, requests.get());
+		}
+	}
+
+	@Test
+	public void keys_ignore_empty_options_and_order() {
+		Map<Option, String> options = options();
+		options.put(Option.MAX_LOCATIONS, "2");
+		options.put(Option.SEARCH_EXTENT, "");
+		Map<Option, String> other = new HashMap<>();
+		other.put(Option.MAX_LOCATIONS, "2");
+
+		assertEquals(GeocodingCache.key("a", options), GeocodingCache.key("A ", other));
+		assertNotEquals(GeocodingCache.key("a", options), GeocodingCache.key("a", options()));
+		assertNotEquals(GeocodingCache.key("a", options()), GeocodingCache.key(new Address("a", null, null, null, null), options()));
+	}
+
+	@Test
+	public void error_responses_are_not_cached() throws Exception {
+
+		try (GeocodingCache cache = GeocodingCache.newBuilder().build()) {
+			assertTrue(cache.get("x", options(), this::requestError).wasErrorResponse());
+			assertTrue(cache.get("x", options(), this::requestError).wasErrorResponse());
+			assertEquals(2, requests.get());
+			assertEquals(0, cache.size());
+		}
+	}
+
+	@Test
+	public void responses_survive_restart() throws Exception {
+
+		Path file = folder.getRoot().toPath().resolve("geocoding.cache");
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			cache.get("Chausseestr. 101, 10115 Berlin", options(), this::request);
+			cache.get("Alexanderplatz 1, Berlin", options(), this::request);
+			assertEquals(2, cache.diskSize());
+		}
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			GeocodingResponse response = cache.get("chausseestr. 101, 10115 berlin", options(), this::request);
+			assertEquals(2, requests.get());
+			assertEquals(RESPONSE, response.getCompleteJsonResponseAsString());
+			assertEquals(1, cache.getDiskHitCount());
+			assertEquals(2, cache.diskSize());
+		}
+	}
+
+	@Test
+	public void expired_responses_are_requested_again() throws Exception {
+
+		Path file = folder.getRoot().toPath().resolve("geocoding.cache");
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).expireAfterWrite(50, TimeUnit.MILLISECONDS).build()) {
+			cache.get("a", options(), this::request);
+			Thread.sleep(100);
+			assertNull(cache.getIfPresent("a", options()));
+			cache.get("a", options(), this::request);
+			assertEquals(2, requests.get());
+
+			// only the latest record is kept
+			long size = Files.size(file);
+			Thread.sleep(100);
+			cache.compact();
+			assertTrue(Files.size(file) < size);
+			assertEquals(0, cache.diskSize());
+		}
+	}
+
+	@Test
+	public void failed_compaction_leaves_the_store_usable() throws Exception {
+
+		Path file = folder.getRoot().toPath().resolve("geocoding.cache");
+		try (DiskStore store = DiskStore.open(file, TimeUnit.DAYS.toMillis(1))) {
+			store.put("a", RESPONSE);
+
+			// replace the file by a non-empty directory, so that the compacted file cannot be moved in place
+			Files.delete(file);
+			Files.createDirectory(file);
+			Files.createFile(file.resolve("blocker"));
+			try {
+				store.compact();
+				fail("Expected the compaction to fail");
+			}
+			catch (IOException e) {
+				// expected
+			}
+
+			assertFalse(Files.exists(file.resolveSibling("geocoding.cache.compact")));
+			store.put("b", RESPONSE);
+			assertEquals(RESPONSE, store.get("a").value);
+			assertEquals(RESPONSE, store.get("b").value);
+		}
+	}
+
+	@Test
+	public void incomplete_record_is_cut_off() throws Exception {
+
+		Path file = folder.getRoot().toPath().resolve("geocoding.cache");
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			cache.get("a", options(), this::request);
+			cache.get("b", options(), this::request);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.setLength(raf.length() - 10);
+		}
+
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			assertEquals(1, cache.diskSize());
+			cache.get("a", options(), this::request);
+			cache.get("b", options(), this::request);
+			assertEquals(3, requests.get());
+		}
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			assertEquals(2, cache.diskSize());
+		}
+	}
+
+	@Test
+	public void concurrent_requests_for_the_same_address_are_executed_once() throws Exception {
+
+		Path file = folder.getRoot().toPath().resolve("geocoding.cache");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (GeocodingCache cache = GeocodingCache.newBuilder().file(file).build()) {
+			List<Future<GeocodingResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String address = "address " + (i % 20);
+				futures.add(executor.submit(() -> cache.get(address, options(), this::slowRequest)));
+			}
+			for (Future<GeocodingResponse> future : futures)
+				assertEquals(RESPONSE, future.get().getCompleteJsonResponseAsString());
+			assertEquals(20, requests.get());
+			assertEquals(20, cache.diskSize());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private static Map<Option, String> options() {
+		return new EnumMap<>(Option.class);
+	}
+
+	private GeocodingResponse request(Object address) {
+		requests.incrementAndGet();
+		return GeocodingResponse.createFromJson(RESPONSE);
+	}
+
+	private GeocodingResponse slowRequest(Object address) {
+		try {
+			Thread.sleep(5);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return request(address);
+	}
+
+	private GeocodingResponse requestError(Object address) {
+		requests.incrementAndGet();
+		return GeocodingResponse.createFromJson(ERROR_RESPONSE);
+	}
+}
@@ -0,0 +1,174 @@
+package net.motionintelligence.client.api.request.cache;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.response.TimeResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResponseCacheTest {
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Test
+	public void responses_are_cached() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().build();
+
+		TimeResponse first  = cache.get(getTravelOptions(600), this::execute);
+		TimeResponse second = cache.get(getTravelOptions(600), this::execute);
+		TimeResponse other  = cache.get(getTravelOptions(1200), this::execute);
+
+		assertSame(first, second);
+		assertEquals(2, requests.get());
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getStats().hitCount());
+		assertEquals(2, cache.getStats().missCount());
+		assertSame(other, cache.getIfPresent(getTravelOptions(1200)));
+
+		cache.invalidate(getTravelOptions(1200));
+		assertNull(cache.getIfPresent(getTravelOptions(1200)));
+	}
+
+	@Test
+	public void rejected_responses_are_not_cached() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().cacheIf(ResponseCache::isOk).build();
+
+		TravelOptions options = getTravelOptions(600);
+		TimeResponse timeout = cache.get(options, o -> new TimeResponse(o, "gateway-time-out", 10, 0));
+
+		assertEquals("gateway-time-out", timeout.getCode());
+		assertEquals(0, cache.size());
+
+		cache.get(options, this::execute);
+		cache.get(options, this::execute);
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	public void error_codes_are_not_cached_by_default() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().build();
+
+		TravelOptions options = getTravelOptions(600);
+		cache.get(options, o -> new TimeResponse(o, "gateway-time-out", 10, 0));
+		assertEquals(0, cache.size());
+
+		cache.get(options, this::execute);
+		assertEquals(1, cache.size());
+	}
+
+	@Test(expected = Route360ClientException.class)
+	public void errors_are_rethrown() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().build();
+		cache.get(getTravelOptions(600), o -> {
+			throw new Route360ClientException("failed", null);
+		});
+	}
+
+	@Test
+	public void maximum_size_evicts() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().maximumSize(2).build();
+		for (int i = 1; i <= 5; i++)
+			cache.get(getTravelOptions(i * 600), this::execute);
+
+		assertEquals(2, cache.size());
+		assertEquals(3, cache.getStats().evictionCount());
+	}
+
+	@Test
+	public void expired_responses_are_requested_again() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder()
+				.expireAfterWrite(50, TimeUnit.MILLISECONDS).build();
+
+		cache.get(getTravelOptions(600), this::execute);
+		Thread.sleep(100);
+		cache.get(getTravelOptions(600), this::execute);
+
+		assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void concurrent_misses_execute_once() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().build();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<TimeResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++)
+				futures.add(executor.submit(() -> {
+					start.await();
+					return cache.get(getTravelOptions(600), o -> {
+						sleep(50);
+						return execute(o);
+					});
+				}));
+			start.countDown();
+
+			TimeResponse response = futures.get(0).get();
+			for (Future<TimeResponse> future : futures)
+				assertSame(response, future.get());
+			assertEquals(1, requests.get());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void async_responses_are_cached() throws Exception {
+
+		ResponseCache<TimeResponse> cache = ResponseCache.<TimeResponse>newBuilder().build();
+
+		TimeResponse first  = cache.getAsync(getTravelOptions(600), o -> CompletableFuture.supplyAsync(() -> execute(o))).get();
+		TimeResponse second = cache.getAsync(getTravelOptions(600), o -> CompletableFuture.supplyAsync(() -> execute(o))).get();
+
+		assertSame(first, second);
+		assertEquals(1, requests.get());
+	}
+
+	private TimeResponse execute(TravelOptions travelOptions) {
+		requests.incrementAndGet();
+		return new TimeResponse(travelOptions, "ok", 10, System.currentTimeMillis());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static TravelOptions getTravelOptions(int travelTime) {
+		TravelOptions options = new TravelOptions();
+		options.setTravelTimes(Arrays.asList(travelTime));
+		options.setTravelType(TravelType.CAR);
+		options.addSource(new DefaultSourceCoordinate("id1", 13.4, 52.5));
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl("https://service.route360.net/germany/");
+		return options;
+	}
+}
@@ -0,0 +1,131 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.hash.HashCode;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class TravelOptionsKeyTest {
+
+	@Test
+	public void equal_options_have_equal_keys() {
+		assertEquals(TravelOptionsKey.of(getTravelOptions()), TravelOptionsKey.of(getTravelOptions()));
+		assertEquals(TravelOptionsKey.of(getTravelOptions()).hashCode(), TravelOptionsKey.of(getTravelOptions()).hashCode());
+		assertEquals(TravelOptionsKey.of(getTravelOptions()).toString(), TravelOptionsKey.of(getTravelOptions()).toString());
+	}
+
+	@Test
+	public void coordinate_order_is_ignored() {
+
+		TravelOptions options = getTravelOptions();
+		TravelOptions reversed = getTravelOptions();
+		reversed.getSources().clear();
+		reversed.getTargets().clear();
+		for (int i = 9; i >= 0; i--) {
+			reversed.addSource(new DefaultSourceCoordinate("src" + i, 13.0 + i * 0.01, 52.5));
+			reversed.addTarget(new DefaultTargetCoordinate("trg" + i, 13.5, 52.0 + i * 0.01));
+		}
+
+		assertEquals(TravelOptionsKey.of(options), TravelOptionsKey.of(reversed));
+	}
+
+	@Test
+	public void unused_travel_mode_parameters_are_ignored() {
+
+		TravelOptions options = getTravelOptions();
+		options.setWalkSpeed(3.0);
+		options.setDate(20180101);
+		options.setFallbackServiceUrl("https://fallback.route360.net/");
+
+		assertEquals(TravelOptionsKey.of(getTravelOptions()), TravelOptionsKey.of(options));
+
+		options.setRushHour(true);
+		assertNotEquals(TravelOptionsKey.of(getTravelOptions()), TravelOptionsKey.of(options));
+	}
+
+	@Test
+	public void relevant_fields_change_the_key() {
+
+		TravelOptionsKey key = TravelOptionsKey.of(getTravelOptions());
+
+		TravelOptions options = getTravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200));
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.getSources().get("src3").setX(13.5);
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.getSources().get("src3").setTravelType(TravelType.WALK);
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setServiceUrl("https://service.route360.net/westcentraleurope/");
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setSrid(25833);
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setBuffer(0.002);
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setStatisticServiceUrl("https://service.route360.net/statistics2/");
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setOverpassQuery("node[amenity=school]");
+		assertNotEquals(key, TravelOptionsKey.of(options));
+
+		options = getTravelOptions();
+		options.setOverpassServiceUrl("https://overpass.route360.net/");
+		assertNotEquals(key, TravelOptionsKey.of(options));
+	}
+
+	@Test
+	public void colliding_hashes_compare_the_fields() {
+
+		TravelOptions options = getTravelOptions();
+		options.getSources().get("src3").setX(13.5);
+		HashCode hash = HashCode.fromLong(42);
+
+		assertEquals(new TravelOptionsKey(hash, TravelOptionsSnapshot.fields(getTravelOptions())),
+				new TravelOptionsKey(hash, TravelOptionsSnapshot.fields(getTravelOptions())));
+		assertNotEquals(new TravelOptionsKey(hash, TravelOptionsSnapshot.fields(getTravelOptions())),
+				new TravelOptionsKey(hash, TravelOptionsSnapshot.fields(options)));
+	}
+
+	@Test
+	public void transit_time_changes_the_key() {
+
+		TravelOptions options = getTravelOptions();
+		options.setTravelType(TravelType.TRANSIT);
+		TravelOptionsKey key = TravelOptionsKey.of(options);
+
+		options.setTime(10 * 3600);
+		assertNotEquals(key, TravelOptionsKey.of(options));
+	}
+
+	private TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
+		options.setTravelType(TravelType.CAR);
+		for (int i = 0; i < 10; i++) {
+			options.addSource(new DefaultSourceCoordinate("src" + i, 13.0 + i * 0.01, 52.5));
+			options.addTarget(new DefaultTargetCoordinate("trg" + i, 13.5, 52.0 + i * 0.01));
+		}
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl("https://service.route360.net/germany/");
+		return options;
+	}
+}
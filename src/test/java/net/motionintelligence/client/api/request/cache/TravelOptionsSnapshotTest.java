@@ -0,0 +1,103 @@
+package net.motionintelligence.client.api.request.cache;
+
+import com.google.common.hash.HashCode;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class TravelOptionsSnapshotTest {
+
+	@Test
+	public void snapshot_is_not_changed_by_the_options() {
+
+		TravelOptions options = getTravelOptions();
+		TravelOptionsSnapshot snapshot = TravelOptionsSnapshot.of(options);
+
+		options.addTarget(new DefaultTargetCoordinate("trg10", 13.5, 52.2));
+		options.setMaxEdgeWeight(3600);
+
+		assertNotEquals(snapshot, TravelOptionsSnapshot.of(options));
+		assertEquals(snapshot, TravelOptionsSnapshot.of(getTravelOptions()));
+		assertEquals(getTravelOptions(), snapshot.toTravelOptions());
+		assertEquals(snapshot.getKey(), TravelOptionsKey.of(getTravelOptions()));
+	}
+
+	@Test
+	public void returned_options_are_copies() {
+
+		TravelOptionsSnapshot snapshot = TravelOptionsSnapshot.of(getTravelOptions());
+		TravelOptions options = snapshot.toTravelOptions();
+		assertNotSame(options, snapshot.toTravelOptions());
+
+		options.getSources().clear();
+		assertEquals(10, snapshot.toTravelOptions().getSources().size());
+	}
+
+	@Test
+	public void coordinates_are_hashed_as_multiset() {
+
+		TravelOptions options = getTravelOptions();
+		TravelOptions swapped = getTravelOptions();
+		// same coordinates, but the ids of two targets are swapped
+		swapped.getTargets().clear();
+		for (int i = 0; i < 10; i++) {
+			int id = i == 1 ? 2 : i == 2 ? 1 : i;
+			swapped.addTarget(new DefaultTargetCoordinate("trg" + id, 13.5, 52.0 + i * 0.01));
+		}
+		assertNotEquals(TravelOptionsSnapshot.of(options), TravelOptionsSnapshot.of(swapped));
+
+		// a coordinate stored under a second key is not ignored
+		TravelOptions duplicate = getTravelOptions();
+		duplicate.getTargets().put("copy", duplicate.getTarget("trg0"));
+		assertNotEquals(TravelOptionsSnapshot.of(options), TravelOptionsSnapshot.of(duplicate));
+	}
+
+	@Test
+	public void snapshots_can_be_used_as_keys() {
+
+		Set<TravelOptionsSnapshot> snapshots = new HashSet<>();
+		for (TravelType travelType : new TravelType[] { TravelType.CAR, TravelType.BIKE, TravelType.CAR }) {
+			TravelOptions options = getTravelOptions();
+			options.setTravelType(travelType);
+			snapshots.add(TravelOptionsSnapshot.of(options));
+		}
+
+		assertEquals(2, snapshots.size());
+		assertTrue(snapshots.contains(TravelOptionsSnapshot.of(getTravelOptions())));
+	}
+
+	@Test
+	public void colliding_fingerprints_compare_the_fields() {
+
+		TravelOptions options = getTravelOptions();
+		options.setTravelType(TravelType.BIKE);
+		HashCode fingerprint = HashCode.fromLong(42);
+
+		TravelOptionsSnapshot snapshot = new TravelOptionsSnapshot(getTravelOptions(), fingerprint);
+		assertEquals(snapshot, new TravelOptionsSnapshot(getTravelOptions(), fingerprint));
+		assertNotEquals(snapshot, new TravelOptionsSnapshot(options, fingerprint));
+		assertNotEquals(snapshot.getKey(), new TravelOptionsSnapshot(options, fingerprint).getKey());
+	}
+
+	private TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setTravelType(TravelType.CAR);
+		for (int i = 0; i < 10; i++) {
+			options.addSource(new DefaultSourceCoordinate("src" + i, 13.0 + i * 0.01, 52.5));
+			options.addTarget(new DefaultTargetCoordinate("trg" + i, 13.5, 52.0 + i * 0.01));
+		}
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl("https://service.route360.net/germany/");
+		return options;
+	}
+}
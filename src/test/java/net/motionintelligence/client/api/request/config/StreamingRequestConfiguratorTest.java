@@ -0,0 +1,171 @@
+package net.motionintelligence.client.api.request.config;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.enums.EdgeWeightType;
+import net.motionintelligence.client.api.enums.Format;
+import net.motionintelligence.client.api.enums.PathSerializerType;
+import net.motionintelligence.client.api.enums.PolygonIntersectionMode;
+import net.motionintelligence.client.api.enums.PolygonSerializerType;
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.statistic.PoiType;
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The streamed configuration has to be byte-identical to the output of {@link RequestConfigurator}.
+ */
+public class StreamingRequestConfiguratorTest {
+
+	@Test
+	public void transit_polygon() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.TRANSIT);
+		options.setTravelTimes(Arrays.asList(600, 1200, 1800, 2400, 3000, 3600));
+		options.setDate(20161020);
+		options.setTime(55852);
+		options.setSrid(25833);
+		options.setEdgeWeightType(EdgeWeightType.DISTANCE);
+		options.setMaxTransfers(2);
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void walk_and_bike() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.WALK);
+		options.setWalkSpeed(4.5);
+		options.setBikeSpeed(17.0);
+		options.addSource(new DefaultSourceCoordinate("bike", 13.4, 52.5, TravelType.BIKE));
+		options.addSource(new DefaultSourceCoordinate("car", 13.41, 52.51, TravelType.CAR));
+		options.addSource(new DefaultSourceCoordinate("transit", 13.42, 52.52, TravelType.TRANSIT));
+		addTargets(options, 10);
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void all_polygon_options() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.CAR);
+		options.setTravelTimes(Arrays.asList(300, 600));
+		options.setIntersectionMode(PolygonIntersectionMode.UNION);
+		options.setPointReduction(false);
+		options.setSrid(4326);
+		options.setBuffer(0.002);
+		options.setSimplify(100.0);
+		options.setPolygonSerializerType(PolygonSerializerType.GEO_JSON_POLYGON_SERIALIZER);
+		options.setRushHour(true);
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void top_level_options() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.BIKE);
+		options.setPathSerializer(PathSerializerType.COMPACT_PATH_SERIALIZER);
+		options.setElevationEnabled(true);
+		options.setReverse(true);
+		options.setStatisticGroupId(7);
+		options.setStatisticIds(Arrays.asList((short) 0, (short) 5));
+		options.setFormat(Format.GEOJSON);
+		options.setBoundingBox("13.0,52.0,14.0,53.0");
+		options.setOsmTypes(new TreeSet<>(Arrays.asList(new PoiType("amenity=school"), new PoiType("shop", "bakery"))));
+		options.setOnlyPrintReachablePoints(false);
+		options.setMaxEdgeWeight(1800);
+		addTargets(options, 3);
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void escaped_and_unicode_ids() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.WALK);
+		options.addSource(new DefaultSourceCoordinate("quo\"te/</slash", 13.4, 52.5));
+		options.addSource(new DefaultSourceCoordinate("umlaut-äöü-€", 13.5, 52.6));
+		options.addTarget(new DefaultTargetCoordinate("zielß", 13.6, 52.7));
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void many_targets() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.CAR);
+		options.setTravelTimes(Arrays.asList(600, 1200));
+		addTargets(options, 50000);
+
+		assertIdentical(options);
+	}
+
+	@Test
+	public void without_sources_and_targets() throws Exception {
+
+		TravelOptions options = new TravelOptions();
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+
+		assertIdentical(options);
+	}
+
+	private static void assertIdentical(TravelOptions options) throws Exception {
+		assertEquals(RequestConfigurator.getConfig(options), write(options));
+	}
+
+	@Test
+	public void invalid_options_fail_while_writing() throws Exception {
+
+		TravelOptions options = getTravelOptions(TravelType.WALK);
+		options.setTravelTimes(Arrays.asList(600, 1200));
+		options.setWalkSpeed(Double.NaN);
+
+		try {
+			write(options);
+			fail("Expected an invalid configuration");
+		}
+		catch (IOException e) {
+			Route360ClientException configError = StreamingRequestConfigurator.getConfigError(new RuntimeException(e));
+			assertNotNull(configError);
+			assertTrue(configError.getCause() instanceof JSONException);
+		}
+		assertNull(StreamingRequestConfigurator.getConfigError(new IOException("Connection reset")));
+	}
+
+	private static String write(TravelOptions options) throws IOException, Route360ClientException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StreamingRequestConfigurator.getConfig(options).write(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static TravelOptions getTravelOptions(TravelType travelType) {
+		TravelOptions options = new TravelOptions();
+		options.setTravelType(travelType);
+		options.addSource(new DefaultSourceCoordinate("id1", -73.976636, 40.608155));
+		options.setServiceKey("INSERT_YOUR_KEY_HERE");
+		options.setServiceUrl("https://service.route360.net/na_northeast/");
+		return options;
+	}
+
+	private static void addTargets(TravelOptions options, int count) {
+		Random random = new Random(42);
+		for (int i = 0; i < count; i++)
+			options.addTarget(new DefaultTargetCoordinate("trg" + i, random.nextDouble() * 360 - 180, random.nextDouble() * 180 - 90));
+	}
+}
@@ -0,0 +1,143 @@
+package net.motionintelligence.client.api.request.esri;
+
+import net.motionintelligence.client.api.exception.Route360ClientException;
+import net.motionintelligence.client.api.response.esri.AuthenticationResponse;
+import org.boon.json.JsonFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the renewal of tokens with an authenticator that does not call the service.
+ */
+public class ESRITokenManagerTest {
+
+    private static final ESRIAuthenticationDetails ACCOUNT = new ESRIAuthenticationDetails("id", "secret", 1);
+
+    private final AtomicInteger authentications = new AtomicInteger();
+    private volatile long authenticationMillis  = 0;
+    private volatile int expiresInSeconds       = 60;
+
+    @Test
+    public void testConcurrentFirstRequestsAuthenticateOnce() throws Exception {
+        authenticationMillis = 100;
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, this::authenticate);
+        assertNull(manager.getCurrentToken());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 32; i++)
+                tokens.add(executor.submit(manager::getToken));
+            for (Future<String> token : tokens)
+                assertEquals("token-1", token.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, authentications.get());
+    }
+
+    @Test
+    public void testTokenIsRenewedBeforeExpiryWithoutBlocking() throws Exception {
+        expiresInSeconds = 1;
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, this::authenticate);
+        assertEquals("token-1", manager.getToken());
+
+        // renewed in the background after 80% of the lifetime, since the token has been used
+        authenticationMillis = 300;
+        Thread.sleep(900);
+        long start = System.nanoTime();
+        assertEquals("token-1", manager.getToken());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+
+        manager.refreshAsync().get();
+        assertEquals(2, authentications.get());
+        assertEquals("token-2", manager.getToken());
+    }
+
+    @Test
+    public void testUnusedTokenIsNotRenewed() throws Exception {
+        expiresInSeconds = 1;
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, this::authenticate);
+        manager.getToken();
+        manager.refreshAsync().get();
+        assertEquals(2, authentications.get());
+
+        Thread.sleep(1100);
+        assertEquals(2, authentications.get());
+        assertEquals("token-3", manager.getToken());
+    }
+
+    @Test
+    public void testRejectedTokenIsReplaced() throws Exception {
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, this::authenticate);
+        String rejected = manager.getToken();
+        manager.invalidate(rejected);
+        assertNull(manager.getCurrentToken());
+        assertEquals("token-2", manager.getToken());
+
+        // a token rejected by a request which was sent before the renewal does not invalidate the new token
+        manager.invalidate(rejected);
+        assertEquals("token-2", manager.getCurrentToken());
+        assertEquals(2, authentications.get());
+    }
+
+    @Test
+    public void testFailedAuthenticationIsRepeated() throws Exception {
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, () -> {
+            if (authentications.incrementAndGet() == 1)
+                throw new Route360ClientException("Error occurred during authentication with ESRI Service");
+            return response("token-" + authentications.get());
+        });
+
+        try {
+            manager.getToken();
+            fail("Expected Route360ClientException");
+        } catch (Route360ClientException e) {
+            assertTrue(e.getMessage().startsWith("Error occurred during authentication"));
+        }
+        assertEquals("token-2", manager.getToken());
+    }
+
+    @Test(timeout = 10000)
+    public void testAuthenticatorErrorDoesNotBlockLaterRequests() throws Exception {
+        ESRITokenManager manager = new ESRITokenManager(ACCOUNT, () -> {
+            if (authentications.incrementAndGet() == 1)
+                throw new AssertionError("authenticator failed");
+            return response("token-" + authentications.get());
+        });
+
+        try {
+            manager.getToken();
+            fail("Expected Route360ClientException");
+        } catch (Route360ClientException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+        assertEquals("token-2", manager.getToken());
+    }
+
+    private AuthenticationResponse authenticate() {
+        try {
+            Thread.sleep(authenticationMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return response("token-" + authentications.incrementAndGet());
+    }
+
+    private AuthenticationResponse response(String token) {
+        return JsonFactory.create().fromJson("{\"access_token\":\"" + token + "\",\"expires_in\":" + expiresInSeconds + "}",
+                AuthenticationResponse.class);
+    }
+}
@@ -0,0 +1,118 @@
+package net.motionintelligence.client.api.request.pool;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EndpointPoolTest {
+
+	private static EndpointPool.Builder newPool() {
+		return EndpointPool.newBuilder("https://service.route360.net/germany")
+				.endpoint("http://routing-1:8080/germany")
+				.endpoint("http://routing-2:8080/germany/");
+	}
+
+	@Test
+	public void uris_are_rewritten() {
+
+		EndpointPool pool = newPool().build();
+		PooledEndpoint endpoint = pool.getEndpoints().get(1);
+
+		URI uri = URI.create("https://service.route360.net/germany/v1/time?cb=callback&key=abc");
+		assertTrue(pool.matches(uri));
+		assertFalse(pool.matches(URI.create("https://service.route360.net/france/v1/time")));
+		assertEquals(URI.create("http://routing-2:8080/germany/v1/time?cb=callback&key=abc"), pool.rewrite(uri, endpoint));
+	}
+
+	@Test
+	public void round_robin() {
+
+		EndpointPool pool = newPool().build();
+		EndpointPool.Lease first  = pool.acquire();
+		EndpointPool.Lease second = pool.acquire();
+		EndpointPool.Lease third  = pool.acquire();
+
+		assertNotSame(first.getEndpoint(), second.getEndpoint());
+		assertSame(first.getEndpoint(), third.getEndpoint());
+		assertEquals(2, first.getEndpoint().getOutstanding());
+
+		first.succeeded(1000);
+		first.failed();
+		assertEquals(1, first.getEndpoint().getOutstanding());
+		assertEquals(0, first.getEndpoint().getConsecutiveFailures());
+	}
+
+	@Test
+	public void least_outstanding() {
+
+		EndpointPool pool = newPool().strategy(LoadBalancingStrategy.LEAST_OUTSTANDING).build();
+		EndpointPool.Lease busy = pool.acquire();
+		for (int i = 0; i < 5; i++) {
+			EndpointPool.Lease lease = pool.acquire();
+			assertNotSame(busy.getEndpoint(), lease.getEndpoint());
+			lease.succeeded(1000);
+		}
+	}
+
+	@Test
+	public void latency_ewma() {
+
+		EndpointPool pool = newPool().strategy(LoadBalancingStrategy.LATENCY_EWMA).build();
+		PooledEndpoint slow = pool.getEndpoints().get(0);
+		PooledEndpoint fast = pool.getEndpoints().get(1);
+
+		slow.succeeded(TimeUnit.MILLISECONDS.toNanos(200));
+		fast.succeeded(TimeUnit.MILLISECONDS.toNanos(20));
+
+		for (int i = 0; i < 5; i++) {
+			EndpointPool.Lease lease = pool.acquire();
+			assertSame(fast, lease.getEndpoint());
+			lease.succeeded(TimeUnit.MILLISECONDS.toNanos(20));
+		}
+		assertEquals(20, fast.getLatencyEwmaMillis(), 1e-6);
+	}
+
+	@Test
+	public void failing_endpoints_are_ejected() throws InterruptedException {
+
+		EndpointPool pool = newPool().ejection(2, 50, TimeUnit.MILLISECONDS).build();
+		PooledEndpoint failing = pool.getEndpoints().get(0);
+
+		failing.failed(2, TimeUnit.MILLISECONDS.toNanos(50));
+		assertFalse(failing.isEjected());
+		failing.failed(2, TimeUnit.MILLISECONDS.toNanos(50));
+		assertTrue(failing.isEjected());
+
+		for (int i = 0; i < 4; i++) {
+			EndpointPool.Lease lease = pool.acquire();
+			assertNotSame(failing, lease.getEndpoint());
+			lease.cancelled();
+		}
+
+		Thread.sleep(60);
+		assertFalse(failing.isEjected());
+	}
+
+	@Test
+	public void all_ejected_endpoints_are_still_used() {
+
+		EndpointPool pool = newPool().ejection(1, 1, TimeUnit.MINUTES).build();
+		for (PooledEndpoint endpoint : pool.getEndpoints())
+			endpoint.eject(TimeUnit.MINUTES.toNanos(1));
+
+		PooledEndpoint excluded = pool.getEndpoints().get(0);
+		assertSame(pool.getEndpoints().get(1), pool.acquire(excluded).getEndpoint());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void endpoints_are_required() {
+		EndpointPool.newBuilder("https://service.route360.net/germany/").build();
+	}
+}
@@ -0,0 +1,102 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.PoiTargetCoordinate;
+import net.motionintelligence.client.api.statistic.PoiType;
+import net.motionintelligence.client.api.util.JsonUtil;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OverpassParserTest {
+
+	@Test
+	public void parse_matches_overpass_response() throws Exception {
+
+		TravelOptions options = getTravelOptions();
+		List<Coordinate> streamed = new ArrayList<>();
+		try (InputStream input = getClass().getClassLoader().getResourceAsStream("data/OverpassResponse.json")) {
+			assertEquals(3, OverpassParser.parse(options, input, streamed::add));
+		}
+
+		String json = IOUtils.toString(getClass().getClassLoader().getResourceAsStream("data/OverpassResponse.json"), StandardCharsets.UTF_8);
+		Map<String, Coordinate> expected = new OverpassResponse(options, JsonUtil.parseString(json), 0).getTargets();
+
+		assertEquals(expected.size(), streamed.size());
+		for (Coordinate coordinate : streamed) {
+			PoiTargetCoordinate poi         = (PoiTargetCoordinate) coordinate;
+			PoiTargetCoordinate expectedPoi = (PoiTargetCoordinate) expected.get(coordinate.getId());
+			assertEquals(expectedPoi.getX(), poi.getX(), 0);
+			assertEquals(expectedPoi.getY(), poi.getY(), 0);
+			assertEquals(expectedPoi.getType(), poi.getType());
+		}
+
+		assertEquals("26735759tourism=hotel", streamed.get(0).getId());
+		assertEquals(13.3805296, streamed.get(1).getX(), 0);
+		assertEquals(52.5163421, streamed.get(1).getY(), 0);
+		assertEquals(new PoiType("tourism", "hotel"), ((PoiTargetCoordinate) streamed.get(1)).getType());
+		assertEquals(new PoiType("amenity", "cafe"), ((PoiTargetCoordinate) streamed.get(2)).getType());
+	}
+
+	@Test
+	public void stream_is_lazy_and_closes_input() throws Exception {
+
+		ClosingInputStream input = new ClosingInputStream(getClass().getClassLoader().getResourceAsStream("data/OverpassResponse.json"));
+		try (Stream<Coordinate> pois = OverpassParser.stream(getTravelOptions(), input)) {
+			assertEquals(Arrays.asList("26735759tourism=hotel", "24946386tourism=hotel"),
+					pois.limit(2).map(Coordinate::getId).collect(Collectors.toList()));
+		}
+		assertTrue(input.closed);
+	}
+
+	@Test
+	public void empty_response() throws Exception {
+		InputStream input = new ByteArrayInputStream("{\"version\":0.6,\"elements\":[]}".getBytes(StandardCharsets.UTF_8));
+		assertEquals(0, OverpassParser.parse(getTravelOptions(), input, coordinate -> { throw new AssertionError(); }));
+	}
+
+	@Test(expected = Route360ClientRuntimeException.class)
+	public void relations_are_not_supported() throws Exception {
+		InputStream input = new ByteArrayInputStream(("{\"elements\":[{\"type\":\"relation\",\"id\":1," +
+				"\"tags\":{\"tourism\":\"hotel\"}}]}").getBytes(StandardCharsets.UTF_8));
+		OverpassParser.parse(getTravelOptions(), input, coordinate -> { });
+	}
+
+	private static TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setOsmTypes(new LinkedHashSet<>(Arrays.asList(new PoiType("tourism", "hotel"), new PoiType("amenity", "cafe"))));
+		return options;
+	}
+
+	private static final class ClosingInputStream extends FilterInputStream {
+
+		private boolean closed = false;
+
+		ClosingInputStream(InputStream input) {
+			super(input);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
@@ -3,6 +3,7 @@ package net.motionintelligence.client.api.response;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.enums.PathSerializerType;
 import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
 import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
 import net.motionintelligence.client.api.util.JsonUtil;
@@ -11,14 +12,19 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ReachabilityResponseTest {
 	@Test
@@ -43,6 +49,55 @@ public class ReachabilityResponseTest {
 		}
 	}
 
+	@Test
+	public void streamedResultsMatchJson() throws Exception {
+		String sampleJson = IOUtils.toString(getClass().getClassLoader().getResourceAsStream("data/ReachabilityResponse.json"),
+				Charset.forName("UTF-8"));
+		TravelOptions options = getTravelOptions();
+
+		ReachabilityResponse expected = new ReachabilityResponse(options, JsonUtil.parseString(sampleJson), 123);
+		ReachabilityResponse streamed = new ReachabilityResponse(options,
+				new ByteArrayInputStream(sampleJson.getBytes(StandardCharsets.UTF_8)), 123);
+
+		assertEquals("ok", streamed.getCode());
+		assertEquals(517, streamed.getRequestTimeMillis());
+		assertEquals(expected.getTravelTimes(), streamed.getTravelTimes());
+		assertEquals(expected.getClosestSourceIds(), streamed.getClosestSourceIds());
+		assertEquals(Integer.valueOf(833), streamed.getTravelTimes().get("id1"));
+		assertEquals("1", streamed.getClosestSourceForTarget("id1"));
+
+		// id1 and id2 are targets of the request, the others are only kept by id
+		ReachabilityResult result = streamed.getResult();
+		assertEquals(833, result.getTravelTime(result.getTargetIndex("id1")));
+		assertEquals(ReachabilityResult.UNREACHABLE, result.getTravelTime(result.getTargetIndex("id0")));
+		assertEquals("1", result.getSourceId(result.getClosestSourceIndex(result.getTargetIndex("id2"))));
+		assertEquals(5, result.getTravelTimeCount());
+	}
+
+	@Test
+	public void nullTravelTimesAreIgnored() throws Exception {
+		ReachabilityResponse response = new ReachabilityResponse(getTravelOptions(), "ok", 0, 0);
+
+		response.addTravelTime("id1", 120);
+		response.addTravelTime("id1", null);
+		response.addTravelTime("id2", null);
+
+		assertEquals(Integer.valueOf(120), response.getTravelTimes().get("id1"));
+		assertNull(response.getTravelTimes().get("id2"));
+	}
+
+	@Test
+	public void parseErrorsKeepTheCause() throws Exception {
+		try {
+			new ReachabilityResponse(getTravelOptions(),
+					new ByteArrayInputStream("{\"code\":".getBytes(StandardCharsets.UTF_8)), 0);
+			fail("Expected a parse error");
+		}
+		catch (Route360ClientRuntimeException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
 	private TravelOptions getTravelOptions() {
 		TravelOptions options = new TravelOptions();
 		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
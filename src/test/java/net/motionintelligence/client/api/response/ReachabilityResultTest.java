@@ -0,0 +1,123 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReachabilityResultTest {
+
+	@Test
+	public void sparseResultsInAnyOrder() {
+		ReachabilityResult result = new ReachabilityResult(sources(3), targets(1000), false);
+		Map<String, Integer> expectedTimes  = new HashMap<>();
+		Map<String, String> expectedSources = new HashMap<>();
+
+		List<Integer> reached = new ArrayList<>();
+		for (int trgIdx = 0; trgIdx < 1000; trgIdx += 7)
+			reached.add(trgIdx);
+		Collections.shuffle(reached, new Random(42));
+		for (int trgIdx : reached) {
+			result.setTravelTime("t" + trgIdx, trgIdx * 2);
+			result.setClosestSource("t" + trgIdx, "s" + (trgIdx % 3));
+			expectedTimes.put("t" + trgIdx, trgIdx * 2);
+			expectedSources.put("t" + trgIdx, "s" + (trgIdx % 3));
+		}
+
+		assertEquals(expectedTimes, result.asTravelTimeMap());
+		assertEquals(expectedSources, result.asClosestSourceMap());
+		assertEquals(reached.size(), result.getTravelTimeCount());
+		assertEquals(14, result.getTravelTime(7));
+		assertEquals(1, result.getClosestSourceIndex(7));
+		assertFalse(result.hasTravelTime(8));
+		assertEquals(ReachabilityResult.NO_SOURCE, result.getClosestSourceIndex(999));
+
+		// updates of contained targets are written in place, new targets are merged on the next read
+		result.setTravelTime(7, 100);
+		result.setTravelTime(8, 101);
+		result.setTravelTime(7, 102);
+		assertEquals(102, result.getTravelTime(7));
+		assertEquals(101, result.getTravelTime(8));
+		assertEquals(1, result.getClosestSourceIndex(7));
+		assertEquals(ReachabilityResult.NO_SOURCE, result.getClosestSourceIndex(8));
+		assertEquals(reached.size() + 1, result.getTravelTimeCount());
+		assertEquals(reached.size(), result.getClosestSourceCount());
+	}
+
+	@Test
+	public void denseResults() {
+		ReachabilityResult result = new ReachabilityResult(sources(2), targets(100), true);
+		for (int trgIdx = 99; trgIdx >= 0; trgIdx--) {
+			result.setTravelTime(trgIdx, trgIdx % 10 == 0 ? -1 : trgIdx);
+			result.setClosestSource(trgIdx, trgIdx % 2);
+		}
+
+		assertEquals(100, result.getTravelTimeCount());
+		assertEquals(Integer.valueOf(-1), result.asTravelTimeMap().get("t10"));
+		assertEquals("s1", result.asClosestSourceMap().get("t11"));
+		assertEquals(100, result.asTravelTimeMap().entrySet().stream().count());
+	}
+
+	@Test
+	public void sparseResultBecomesDenseWhenFilled() {
+		ReachabilityResult result = new ReachabilityResult(sources(1), targets(10), false);
+		for (int trgIdx = 0; trgIdx < 8; trgIdx++)
+			result.setTravelTime(trgIdx, trgIdx);
+		result.compact();
+
+		assertEquals(7, result.getTravelTime(7));
+		assertEquals(ReachabilityResult.UNREACHABLE, result.getTravelTime(8));
+		result.setTravelTime(9, 9);
+		assertEquals(9, result.getTravelTimeCount());
+		assertEquals(9, result.asTravelTimeMap().size());
+	}
+
+	@Test
+	public void unknownTargetsAndSourcesAreKeptById() {
+		ReachabilityResult result = new ReachabilityResult(sources(1), targets(2), false);
+		result.setTravelTime("other", 5);
+		result.setClosestSource("other", "s0");
+		result.setTravelTime("t1", 6);
+		result.setClosestSource("t1", "unknown");
+
+		assertEquals(Integer.valueOf(5), result.getTravelTime("other"));
+		assertEquals("s0", result.getClosestSourceId("other"));
+		assertEquals("unknown", result.getClosestSourceId("t1"));
+		assertEquals(1, result.getSourceIndex("unknown"));
+		assertEquals(2, result.asTravelTimeMap().size());
+		assertTrue(result.asTravelTimeMap().containsKey("other"));
+		assertFalse(result.asTravelTimeMap().containsKey("t0"));
+		assertNull(result.getTravelTime("t0"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void viewsAreReadOnly() {
+		new ReachabilityResult(sources(1), targets(1), false).asTravelTimeMap().put("t0", 1);
+	}
+
+	private static List<Coordinate> sources(int count) {
+		List<Coordinate> sources = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			sources.add(new DefaultSourceCoordinate("s" + i, i, i));
+		return sources;
+	}
+
+	private static List<Coordinate> targets(int count) {
+		List<Coordinate> targets = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			targets.add(new DefaultTargetCoordinate("t" + i, i, i));
+		return targets;
+	}
+}
@@ -3,23 +3,30 @@ package net.motionintelligence.client.api.response;
 import net.motionintelligence.client.api.TravelOptions;
 import net.motionintelligence.client.api.enums.PathSerializerType;
 import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
 import net.motionintelligence.client.api.geo.AbstractCoordinate;
 import net.motionintelligence.client.api.geo.Coordinate;
 import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
 import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import net.motionintelligence.client.api.util.IOUtil;
 import net.motionintelligence.client.api.util.JsonUtil;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TimeResponseTest {
 	@Test
@@ -47,6 +54,72 @@ public class TimeResponseTest {
 		}
 	}
 
+	@Test
+	public void mapResultsStreaming() throws Exception {
+		InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/TimeResponse.json");
+
+		String sampleJson = IOUtils.toString(resourceAsStream, Charset.forName("UTF-8"));
+		TravelOptions options = getTravelOptions();
+		TimeResponse expected = new TimeResponse(options, JsonUtil.parseString(sampleJson), 123);
+
+		InputStream wrapped = IOUtil.skipCallback(
+				new ByteArrayInputStream(("callback(" + sampleJson + ")").getBytes(StandardCharsets.UTF_8)));
+		TimeResponse timeResponse = new TimeResponse(options, wrapped, 123);
+
+		assertEquals("ok", timeResponse.getCode());
+		assertEquals(expected.getRequestTimeMillis(), timeResponse.getRequestTimeMillis());
+		assertEquals(expected.getTravelTimes(), timeResponse.getTravelTimes());
+	}
+
+	@Test
+	public void mapResultsStreamingSourceIdLast() throws Exception {
+		String json = "{\"code\":\"ok\",\"data\":[{\"targets\":[{\"travelTime\":42,\"id\":\"id1\"}],\"id\":\"id2\"}],\"requestTime\":7}";
+		TravelOptions options = getTravelOptions();
+
+		TimeResponse timeResponse = new TimeResponse(options,
+				IOUtil.skipCallback(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))), 123);
+
+		assertEquals("ok", timeResponse.getCode());
+		assertEquals(7, timeResponse.getRequestTimeMillis());
+		assertEquals(Integer.valueOf(42), timeResponse.getTravelTime(options.getSource("id2"), options.getTarget("id1")));
+	}
+
+	@Test
+	public void parseErrorsKeepTheCause() throws Exception {
+		try {
+			new TimeResponse(getTravelOptions(), new ByteArrayInputStream("{\"code\":".getBytes(StandardCharsets.UTF_8)), 0);
+			fail("Expected a parse error");
+		}
+		catch (Route360ClientRuntimeException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void addTravelTimeWithUnknownCoordinates() throws Exception {
+		TravelOptions options = getTravelOptions();
+		TimeResponse timeResponse = new TimeResponse(options, "ok", 0, 0);
+
+		Coordinate source = options.getSource("id0");
+		for (int i = 0; i < 1000; i++)
+			timeResponse.addTravelTime(source, new DefaultTargetCoordinate("new" + i, 13, 52), i);
+		timeResponse.addTravelTime(new DefaultSourceCoordinate("newSrc", 13, 52), options.getTarget("id1"), 5);
+		timeResponse.addTravelTime(source, new DefaultTargetCoordinate("new0", 13, 52), 7);
+		timeResponse.addTravelTime(source, options.getTarget("id2"), null);
+
+		TravelTimeMatrix matrix = timeResponse.getTravelTimeMatrix();
+		assertEquals(4, matrix.getSourceCount());
+		assertEquals(1003, matrix.getTargetCount());
+		assertEquals(Integer.valueOf(7), timeResponse.getTravelTime(source, new DefaultTargetCoordinate("new0", 13, 52)));
+		assertEquals(Integer.valueOf(999), timeResponse.getTravelTime(source, matrix.getTarget(1002)));
+		assertEquals(Integer.valueOf(5), timeResponse.getTravelTime(matrix.getSource(3), options.getTarget("id1")));
+		assertEquals(Integer.valueOf(-1), timeResponse.getTravelTime(source, options.getTarget("id2")));
+
+		// added after the matrix has been read
+		timeResponse.addTravelTime(source, new DefaultTargetCoordinate("late", 13, 52), 3);
+		assertEquals(Integer.valueOf(3), timeResponse.getTravelTimes().get(source).get(new DefaultTargetCoordinate("late", 13, 52)));
+	}
+
 	private TravelOptions getTravelOptions() {
 		TravelOptions options = new TravelOptions();
 		options.setTravelTimes(Arrays.asList(600, 1200, 1800));
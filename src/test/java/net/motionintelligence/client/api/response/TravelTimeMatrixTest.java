@@ -0,0 +1,75 @@
+package net.motionintelligence.client.api.response;
+
+import net.motionintelligence.client.api.enums.TravelType;
+import net.motionintelligence.client.api.geo.Coordinate;
+import net.motionintelligence.client.api.geo.DefaultSourceCoordinate;
+import net.motionintelligence.client.api.geo.DefaultTargetCoordinate;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class TravelTimeMatrixTest {
+
+	private final List<Coordinate> sources = Arrays.asList(
+			new DefaultSourceCoordinate("s0", 13.1, 52.1, TravelType.CAR),
+			new DefaultSourceCoordinate("s1", 13.2, 52.2, TravelType.CAR));
+	private final List<Coordinate> targets = Arrays.asList(
+			new DefaultTargetCoordinate("t0", 13.3, 52.3),
+			new DefaultTargetCoordinate("t1", 13.4, 52.4),
+			new DefaultTargetCoordinate("t2", 13.5, 52.5));
+
+	@Test
+	public void getAndSet() {
+		TravelTimeMatrix matrix = new TravelTimeMatrix(sources, targets);
+		assertEquals(2, matrix.getSourceCount());
+		assertEquals(3, matrix.getTargetCount());
+		assertFalse(matrix.isReachable(1, 2));
+
+		matrix.set(1, 2, 600);
+		matrix.set(0, 1, -1);
+		assertEquals(600, matrix.get(1, 2));
+		assertEquals(600, matrix.get("s1", "t2"));
+		assertEquals(TravelTimeMatrix.UNREACHABLE, matrix.get(0, 1));
+		assertEquals(TravelTimeMatrix.UNREACHABLE, matrix.get("unknown", "t2"));
+		assertArrayEquals(new int[]{TravelTimeMatrix.UNREACHABLE, TravelTimeMatrix.UNREACHABLE, 600}, matrix.getRow(1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfBounds() {
+		new TravelTimeMatrix(sources, targets).get(0, 3);
+	}
+
+	@Test
+	public void mapView() {
+		TravelTimeMatrix matrix = new TravelTimeMatrix(sources, targets);
+		matrix.set(0, 0, 120);
+
+		Map<Coordinate, Map<Coordinate, Integer>> map = matrix.asMap();
+		assertEquals(2, map.size());
+		assertEquals(Integer.valueOf(120), map.get(sources.get(0)).get(targets.get(0)));
+		assertEquals(Integer.valueOf(-1), map.get(sources.get(1)).get(targets.get(0)));
+		assertNull(map.get(targets.get(0)));
+		assertEquals(3, map.get(sources.get(0)).entrySet().size());
+	}
+
+	@Test
+	public void extend() {
+		TravelTimeMatrix matrix = new TravelTimeMatrix(sources, targets);
+		matrix.set(1, 2, 300);
+
+		Coordinate target = new DefaultTargetCoordinate("t3", 13.6, 52.6);
+		TravelTimeMatrix extended = matrix.extend(Collections.emptyList(), Collections.singletonList(target));
+
+		assertEquals(4, extended.getTargetCount());
+		assertEquals(300, extended.get("s1", "t2"));
+		assertFalse(extended.isReachable(1, extended.getTargetIndex("t3")));
+	}
+}
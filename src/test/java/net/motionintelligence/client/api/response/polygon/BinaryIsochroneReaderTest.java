@@ -0,0 +1,198 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryIsochroneReaderTest {
+
+	@Test
+	public void integral_coordinates_round_trip() throws Exception {
+
+		RingBuffer buffer = new RingBuffer();
+		buffer.startRing();
+		buffer.addPoint(-8234810, 4970810);
+		buffer.addPoint(-8234010, 4970810);
+		buffer.addPoint(-8234010, 4971610);
+		buffer.addPoint(-8234810, 4970810);
+		buffer.startRing();
+		buffer.startRing();
+		buffer.addPoint(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		buffer.addPoint(Integer.MAX_VALUE, Integer.MIN_VALUE);
+		Isochrone isochrone = buffer.toIsochrone(600, 4.25);
+
+		BinaryIsochroneReader reader = roundTrip(isochrone, 0);
+		assertEquals("ok", reader.getCode());
+		assertNull(reader.getMessage());
+		assertEquals(2314, reader.getRequestTime());
+
+		List<IsochroneSet> sets = reader.readIsochroneSets();
+		assertEquals(1, sets.size());
+		assertEquals(12.5, sets.get(0).getArea(), 0);
+
+		Isochrone decoded = sets.get(0).getIsochrones().get(0);
+		assertTrue(decoded.isIntegral());
+		assertEquals(600, decoded.getTravelTime());
+		assertEquals(4.25, decoded.getArea(), 0);
+		assertEquals(3, decoded.getRingCount());
+		for (int ring = 0; ring < 3; ring++)
+			assertArrayEquals(isochrone.getRing(ring).toArray(), decoded.getRing(ring).toArray(), 0);
+	}
+
+	@Test
+	public void fractional_coordinates_are_rounded_to_precision() throws Exception {
+
+		RingBuffer buffer = new RingBuffer();
+		buffer.startRing();
+		buffer.addPoint(13.4000001, 52.5);
+		buffer.addPoint(13.5, 52.6123456);
+		buffer.addPoint(-13.25, -52.5);
+		Isochrone isochrone = buffer.toIsochrone(60, -1);
+
+		Isochrone decoded = roundTrip(isochrone, 6).readIsochroneSets().get(0).getIsochrones().get(0);
+
+		assertFalse(decoded.isIntegral());
+		assertEquals(-1, decoded.getArea(), 0);
+		assertArrayEquals(new double[] { 13.4, 52.5, 13.5, 52.612346, -13.25, -52.5 },
+				decoded.getOuterBoundary().toArray(), 1e-9);
+	}
+
+	@Test
+	public void is_binary_does_not_consume() throws Exception {
+
+		byte[] bytes = encode(new RingBuffer().toIsochrone(60, -1), 0);
+		InputStream input = new BufferedInputStream(new ByteArrayInputStream(bytes));
+
+		assertTrue(BinaryIsochroneReader.isBinary(input));
+		assertEquals(0, new BinaryIsochroneReader(input).readIsochroneSets().get(0).getIsochrones().get(0).getRingCount());
+
+		assertFalse(BinaryIsochroneReader.isBinary(new BufferedInputStream(new ByteArrayInputStream("{}".getBytes()))));
+		assertFalse(BinaryIsochroneReader.isBinary(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+	}
+
+	@Test(expected = IOException.class)
+	public void json_is_rejected() throws Exception {
+		new BinaryIsochroneReader(new ByteArrayInputStream("{\"code\":\"ok\"}".getBytes()));
+	}
+
+	@Test(expected = IOException.class)
+	public void truncated_response_is_rejected() throws Exception {
+
+		RingBuffer buffer = new RingBuffer();
+		buffer.startRing();
+		buffer.addPoint(1, 2);
+		buffer.addPoint(3, 4);
+		byte[] bytes = encode(buffer.toIsochrone(60, -1), 0);
+
+		new BinaryIsochroneReader(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))).readIsochroneSets();
+	}
+
+	@Test(expected = IOException.class)
+	public void count_above_long_range_is_rejected() throws Exception {
+		// 2^64 - 1 rings, negative when read as long
+		readWithCounts(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+				(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01, 0 });
+	}
+
+	@Test(expected = IOException.class)
+	public void point_count_overflowing_the_coordinates_is_rejected() throws Exception {
+		// one ring with 2^30 points, 2 * points does not fit into an int
+		byte[] points = { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04 };
+		byte[] counts = new byte[1 + 2 * points.length];
+		counts[0] = 1;
+		System.arraycopy(points, 0, counts, 1, points.length);
+		System.arraycopy(points, 0, counts, 1 + points.length, points.length);
+		readWithCounts(counts);
+	}
+
+	@Test(expected = IOException.class)
+	public void large_counts_of_truncated_polygon_are_rejected() throws Exception {
+		// 2^31 - 2 rings and 2^30 - 1 points, but no ring sizes
+		readWithCounts(new byte[] { (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07,
+				(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x03 });
+	}
+
+	@Test(expected = IOException.class)
+	public void large_point_count_of_truncated_polygon_is_rejected() throws Exception {
+		// one ring with 2^30 - 1 points, but no coordinates
+		byte[] points = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x03 };
+		byte[] counts = new byte[1 + 2 * points.length];
+		counts[0] = 1;
+		System.arraycopy(points, 0, counts, 1, points.length);
+		System.arraycopy(points, 0, counts, 1 + points.length, points.length);
+		readWithCounts(counts);
+	}
+
+	@Test(expected = IOException.class)
+	public void large_string_length_of_truncated_response_is_rejected() throws Exception {
+		// code "ok" and a message of 2^31 - 1 bytes, but no message
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		output.write(BinaryIsochroneReader.MAGIC);
+		output.write(BinaryIsochroneReader.VERSION);
+		output.write(new byte[] { 2, 'o', 'k', (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 });
+		new BinaryIsochroneReader(new ByteArrayInputStream(output.toByteArray()));
+	}
+
+	@Test
+	public void large_polygons_round_trip() throws Exception {
+
+		RingBuffer buffer = new RingBuffer();
+		for (int ring = 0; ring < 5000; ring++) {
+			buffer.startRing();
+			buffer.addPoint(ring, -ring);
+			buffer.addPoint(ring + 1, -ring);
+		}
+		Isochrone isochrone = buffer.toIsochrone(600, -1);
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			message.append((char) ('a' + i % 26));
+
+		for (int precision : new int[] { 0, 6 }) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			new BinaryIsochroneWriter(output, precision).write("ok", message.toString(), 2314,
+					Collections.singletonList(new IsochroneSet(12.5, Collections.singletonList(isochrone))));
+			BinaryIsochroneReader reader = new BinaryIsochroneReader(new ByteArrayInputStream(output.toByteArray()));
+
+			assertEquals(message.toString(), reader.getMessage());
+			Isochrone decoded = reader.readIsochroneSets().get(0).getIsochrones().get(0);
+			assertEquals(5000, decoded.getRingCount());
+			assertEquals(10000, decoded.getPointCount());
+			for (int ring = 0; ring < 5000; ring += 999)
+				assertArrayEquals(isochrone.getRing(ring).toArray(), decoded.getRing(ring).toArray(), 0);
+		}
+	}
+
+	/**
+	 * Replace the ring and point count (and ring sizes) of an empty polygon
+	 */
+	private static void readWithCounts(byte[] counts) throws IOException {
+		byte[] empty = encode(new RingBuffer().toIsochrone(60, -1), 0);
+		byte[] bytes = Arrays.copyOf(empty, empty.length - 2 + counts.length);
+		System.arraycopy(counts, 0, bytes, empty.length - 2, counts.length);
+		new BinaryIsochroneReader(new ByteArrayInputStream(bytes)).readIsochroneSets();
+	}
+
+	private static BinaryIsochroneReader roundTrip(Isochrone isochrone, int precision) throws IOException {
+		return new BinaryIsochroneReader(new ByteArrayInputStream(encode(isochrone, precision)));
+	}
+
+	private static byte[] encode(Isochrone isochrone, int precision) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new BinaryIsochroneWriter(output, precision).write("ok", null, 2314,
+				Collections.singletonList(new IsochroneSet(12.5, Collections.singletonList(isochrone))));
+		return output.toByteArray();
+	}
+}
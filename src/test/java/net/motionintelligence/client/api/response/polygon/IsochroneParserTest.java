@@ -0,0 +1,169 @@
+package net.motionintelligence.client.api.response.polygon;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.vividsolutions.jts.geom.Polygon;
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.exception.Route360ClientRuntimeException;
+import net.motionintelligence.client.api.response.PolygonResponse;
+import net.motionintelligence.client.api.util.JsonUtil;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IsochroneParserTest {
+
+	@Test
+	public void streaming_and_json_object_are_equal() throws Exception {
+		String sampleJson = readSample();
+
+		List<IsochroneSet> streamed = parse(sampleJson);
+		List<IsochroneSet> decoded  = IsochroneParser.parse(JsonUtil.parseString(sampleJson));
+
+		assertEquals(1, streamed.size());
+		assertEquals(12.5, streamed.get(0).getArea(), 0);
+		assertEquals(decoded.size(), streamed.size());
+		for (int i = 0; i < streamed.size(); i++) {
+			List<Isochrone> expected = decoded.get(i).getIsochrones();
+			List<Isochrone> actual   = streamed.get(i).getIsochrones();
+			assertEquals(expected.size(), actual.size());
+			for (int j = 0; j < expected.size(); j++) {
+				assertEquals(expected.get(j).getTravelTime(), actual.get(j).getTravelTime());
+				assertEquals(expected.get(j).getArea(), actual.get(j).getArea(), 0);
+				assertEquals(expected.get(j).getRingCount(), actual.get(j).getRingCount());
+				for (int r = 0; r < expected.get(j).getRingCount(); r++)
+					assertArrayEquals(expected.get(j).getRing(r).toArray(), actual.get(j).getRing(r).toArray(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void integral_coordinates_are_packed() throws Exception {
+		Isochrone isochrone = parse(readSample()).get(0).getIsochrones().get(0);
+
+		assertTrue(isochrone.isIntegral());
+		assertEquals(600, isochrone.getTravelTime());
+		assertEquals(2, isochrone.getRingCount());
+		assertEquals(9, isochrone.getPointCount());
+		assertEquals(-8234810, isochrone.getOuterBoundary().getX(0), 0);
+		assertEquals(4970810, isochrone.getOuterBoundary().getY(0), 0);
+		assertEquals(1, isochrone.getInnerBoundaries().size());
+		assertEquals(4, isochrone.getInnerBoundaries().get(0).size());
+	}
+
+	@Test
+	public void inner_boundary_formats() throws Exception {
+		String json = "[{\"area\":1,\"polygons\":["
+				+ "{\"travelTime\":60,\"innerBoundary\":[[0.5,0.5],[1.5,0.5],[1,1.5]],\"outerBoundary\":[[0,0],[2,0],[2,2],[0,2]]},"
+				+ "{\"travelTime\":120,\"outerBoundary\":[[0,0],[4,0],[4,4]],\"innerBoundary\":[[],[[1,1],[2,1],[2,2]]]},"
+				+ "{\"travelTime\":180,\"outerBoundary\":[[0,0],[4,0],[4,4]],\"innerBoundary\":[[]]}"
+				+ "]}]";
+
+		List<Isochrone> isochrones = parse(json).get(0).getIsochrones();
+
+		// single ring listed before the outer boundary
+		Isochrone first = isochrones.get(0);
+		assertFalse(first.isIntegral());
+		assertEquals(4, first.getOuterBoundary().size());
+		assertEquals(1, first.getInnerBoundaries().size());
+		assertArrayEquals(new double[] { 0.5, 0.5, 1.5, 0.5, 1, 1.5 }, first.getInnerBoundaries().get(0).toArray(), 0);
+
+		// array of rings, starting with an empty one
+		Isochrone second = isochrones.get(1);
+		assertTrue(second.isIntegral());
+		assertEquals(2, second.getInnerBoundaries().size());
+		assertEquals(0, second.getInnerBoundaries().get(0).size());
+		assertEquals(3, second.getInnerBoundaries().get(1).size());
+
+		Isochrone third = isochrones.get(2);
+		assertEquals(1, third.getInnerBoundaries().size());
+		assertEquals(0, third.getInnerBoundaries().get(0).size());
+
+		List<Isochrone> decoded = IsochroneParser.parse(new JSONObject().put("data", JsonUtil.parseArray(json)))
+				.get(0).getIsochrones();
+		for (int i = 0; i < isochrones.size(); i++)
+			assertEquals(isochrones.get(i).getRingCount(), decoded.get(i).getRingCount());
+	}
+
+	@Test
+	public void missing_outer_boundary() throws Exception {
+		Isochrone isochrone = parse("[{\"polygons\":[{\"travelTime\":60}]}]").get(0).getIsochrones().get(0);
+		assertEquals(1, isochrone.getRingCount());
+		assertEquals(0, isochrone.getOuterBoundary().size());
+		assertEquals(0, isochrone.getInnerBoundaries().size());
+	}
+
+	@Test
+	public void to_polygon() throws Exception {
+		Isochrone isochrone = parse(readSample()).get(0).getIsochrones().get(0);
+
+		Polygon polygon = isochrone.toPolygon();
+		assertEquals(1, polygon.getNumInteriorRing());
+		assertEquals(5, polygon.getExteriorRing().getNumPoints());
+		assertTrue(polygon.getExteriorRing().isClosed());
+		assertEquals(800d * 800d - 200d * 200d / 2, polygon.getArea(), 1e-6);
+	}
+
+	@Test
+	public void response_result_is_rebuilt() throws Exception {
+		String sampleJson = readSample();
+		PolygonResponse response = new PolygonResponse(new TravelOptions(),
+				new ByteArrayInputStream(sampleJson.getBytes(StandardCharsets.UTF_8)), 10);
+
+		assertEquals("ok", response.getCode());
+		assertEquals(2314, response.getRequestTimeMillis());
+		assertEquals(2, response.getIsochrones().size());
+
+		// the rebuilt result decodes into the same polygons
+		PolygonResponse rebuilt = new PolygonResponse(new TravelOptions(), response.getResult(), "ok", 2314, 10, 0);
+		assertNull(rebuilt.getMessage());
+		assertEquals(2, rebuilt.getIsochrones().size());
+		assertArrayEquals(response.getIsochrones().get(0).getInnerBoundaries().get(0).toArray(),
+				rebuilt.getIsochrones().get(0).getInnerBoundaries().get(0).toArray(), 0);
+	}
+
+	@Test
+	public void response_parse_errors_keep_the_cause() throws Exception {
+		try {
+			new PolygonResponse(new TravelOptions(), new ByteArrayInputStream("{\"code\":".getBytes(StandardCharsets.UTF_8)), 10);
+			fail("Expected a parse error");
+		}
+		catch (Route360ClientRuntimeException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	private static List<IsochroneSet> parse(String data) throws Exception {
+		try (JsonParser parser = JsonUtil.createParser(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)))) {
+			// either a complete response or only its data array
+			if (parser.nextToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					parser.nextToken();
+					if ("data".equals(field))
+						break;
+					parser.skipChildren();
+				}
+			}
+			return IsochroneParser.parse(parser);
+		}
+	}
+
+	private String readSample() throws Exception {
+		InputStream resourceAsStream = getClass().getClassLoader().getResourceAsStream("data/PolygonResponse.json");
+		return IOUtils.toString(resourceAsStream, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,82 @@
+package net.motionintelligence.client.api.response.statistics;
+
+import net.motionintelligence.client.api.TravelOptions;
+import net.motionintelligence.client.api.response.StatisticsResponse;
+import net.motionintelligence.client.api.util.JsonUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatisticResultTest {
+
+	private static final String RESPONSE = "{\"requestTime\":12," +
+			"\"statistics\":{\"1\":{\"2\":20.5,\"0\":10,\"3\":5},\"0\":{\"1\":100,\"0\":50,\"9999\":1}}," +
+			"\"reachableTargets\":{\"1\":3,\"0\":1,\"4\":7}," +
+			"\"targetTravelTimes\":{\"17\":2,\"5\":4,\"8\":9999}}";
+
+	@Test
+	public void streamingAndJsonResultsAreEqual() {
+		StatisticResult json     = new StatisticResult(getTravelOptions(), JsonUtil.parseString(RESPONSE));
+		StatisticsResponse response = new StatisticsResponse(getTravelOptions(),
+				new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8)), 0);
+		StatisticResult streamed = response.getStatisticResult();
+
+		assertEquals(12, response.getRequestTimeMillis());
+		assertEquals(json.getStatistics(), streamed.getStatistics());
+		assertEquals(json.getReachableTargets(), streamed.getReachableTargets());
+		assertEquals(json.getTargetTravelTimes(), streamed.getTargetTravelTimes());
+		assertEquals(json.toString(), streamed.toString());
+	}
+
+	@Test
+	public void valuesAreIndexedByMinute() {
+		StatisticResult result = new StatisticResult(getTravelOptions(), JsonUtil.parseString(RESPONSE));
+
+		assertArrayEquals(new int[] { 0, 1 }, result.getStatisticIds());
+		assertEquals(4, result.getMinuteCount());
+		assertEquals(20.5, result.getValue(1, 2), 0);
+		assertTrue(Double.isNaN(result.getValue(0, 2)));
+		assertTrue(Double.isNaN(result.getValue(0, 9999)));
+		assertEquals(3, result.getReachableTargets(1));
+		assertEquals(-1, result.getReachableTargets(2));
+		assertEquals(4, result.getTargetTravelTime(5));
+		assertEquals(-1, result.getTargetTravelTime(8));
+
+		Map<Integer, Double> statistic = result.getStatistics().get(0);
+		assertEquals(2, statistic.size());
+		assertEquals(Double.valueOf(100), statistic.get(1));
+	}
+
+	@Test
+	public void cumulativeValuesAndPercentiles() {
+		StatisticResult result = new StatisticResult(getTravelOptions(), JsonUtil.parseString(RESPONSE));
+
+		assertArrayEquals(new double[] { 50, 150, 150, 150 }, result.getCumulativeValues(0), 0);
+		assertArrayEquals(new double[] { 10, 10, 30.5, 35.5 }, result.getCumulativeValues(1), 0);
+		assertEquals(0, result.getPercentileMinute(0, 0.3));
+		assertEquals(1, result.getPercentileMinute(0, 0.5));
+		assertEquals(2, result.getPercentileMinute(1, 0.5));
+		assertEquals(3, result.getPercentileMinute(1, 1));
+		assertEquals(-1, StatisticResult.percentileIndex(new double[] { Double.NaN, 0 }, 0.5));
+
+		// the values of the result are not changed
+		assertEquals(100, result.getValue(0, 1), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownStatistic() {
+		new StatisticResult(getTravelOptions(), JsonUtil.parseString(RESPONSE)).getValues(2);
+	}
+
+	private static TravelOptions getTravelOptions() {
+		TravelOptions options = new TravelOptions();
+		options.setMaxRoutingTime(1800);
+		return options;
+	}
+}
@@ -1,13 +1,22 @@
 package net.motionintelligence.client.api.util;
 
 import com.google.common.collect.ImmutableMap;
+import org.geotools.referencing.CRS;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.opengis.referencing.operation.MathTransform;
 import org.wololo.geojson.*;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class GeojsonUtilTest {
 
@@ -25,6 +34,31 @@ public class GeojsonUtilTest {
         GeojsonUtil.openGeoJsonInBrowserWithGitHubGist(ImmutableMap.of("testGeojson", featureCollection) );
     }
 
+    @Test
+    public void testParallelTransformation() throws Exception {
+        MathTransform transformer = CRS.findMathTransform(CRS.decode("EPSG:4326", true), CRS.decode("EPSG:3857"));
+
+        List<Feature> features = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            features.add(new Feature("P" + i, new Point(new double[]{ 13 + i / 10_000d, 52.5 }), Collections.emptyMap()));
+
+        List<Feature> expected = GeojsonUtil.transformGeometry(transformer, features.toArray(new Feature[0]));
+        List<Feature> parallel = GeojsonUtil.transformGeometry(transformer, features, new ForkJoinPool(4));
+        List<Feature> streamed = GeojsonUtil.transformGeometry(transformer, features.parallelStream()).collect(Collectors.toList());
+        Iterator<Feature> iterated = GeojsonUtil.transformGeometry(transformer, features.iterator());
+
+        assertEquals(features.size(), parallel.size());
+        assertEquals(features.size(), streamed.size());
+        for (int i = 0; i < features.size(); i++) {
+            double[] coordinates = ((Point) expected.get(i).getGeometry()).getCoordinates();
+            assertEquals("P" + i, parallel.get(i).getId());
+            assertArrayEquals(coordinates, ((Point) parallel.get(i).getGeometry()).getCoordinates(), 0);
+            assertArrayEquals(coordinates, ((Point) streamed.get(i).getGeometry()).getCoordinates(), 0);
+            assertArrayEquals(coordinates, ((Point) iterated.next().getGeometry()).getCoordinates(), 0);
+        }
+        assertFalse(iterated.hasNext());
+    }
+
     private static FeatureCollection buildR360Berlin(){
         List<Feature> allFeatures = new ArrayList<>();
         //Build the R